@@ -0,0 +1,99 @@
+package com.vinhnh.grocery.benchmarks;
+
+import com.vinhnh.grocery.product.GroceryApplication;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.CategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Các đường tìm category theo tên (exists, get by name, search) qua service thật, trên H2 in-memory.
+ * Bảng được seed bằng CatalogImportService trước mỗi trial, nên số liệu phản ánh cả chi phí JPA/Hibernate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryLookupBenchmark {
+
+    @Param({"1000", "10000"})
+    private int categories;
+
+    private ConfigurableApplicationContext context;
+    private CategoryService categoryService;
+    private String hitName;
+    private String keyword;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Tham số dòng lệnh có độ ưu tiên cao hơn application.yml (cấu hình PostgreSQL) của product-service
+        context = new SpringApplicationBuilder(GroceryApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:lookup-" + categories + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.sql.init.mode=never",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--springdoc.api-docs.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.vinhnh.grocery.product=OFF",
+                        "--logging.level.org.hibernate.SQL=OFF");
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < categories; i++) {
+            ndjson.append("{\"type\":\"category\",\"name\":\"Danh mục ").append(i).append("\"}\n");
+        }
+        context.getBean(CatalogImportService.class)
+                .importNdjson(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+
+        categoryService = context.getBean(CategoryService.class);
+        hitName = "DANH MỤC " + (categories / 2);
+        keyword = "mục " + (categories / 3);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean existsByName() {
+        return categoryService.existsByName(hitName);
+    }
+
+    @Benchmark
+    public boolean existsByNameMiss() {
+        return categoryService.existsByName("Không tồn tại");
+    }
+
+    @Benchmark
+    public CategoryResponse getCategoryByName() {
+        return categoryService.getCategoryByName(hitName);
+    }
+
+    @Benchmark
+    public List<CategoryResponse> searchCategoriesByName() {
+        return categoryService.searchCategoriesByName(keyword);
+    }
+}
@@ -0,0 +1,59 @@
+package com.vinhnh.grocery.benchmarks;
+
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.entity.Category;
+import com.vinhnh.grocery.product.mapper.CategoryMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí map Category entity sang CategoryResponse (đường ghi: create/update/activate trả về DTO)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CategoryMapperBenchmark {
+
+    private Category root;
+    private Category child;
+
+    @Setup
+    public void setUp() {
+        root = category("Thực phẩm tươi sống", null);
+        child = category("Rau củ quả", root);
+    }
+
+    @Benchmark
+    public CategoryResponse toResponseRoot() {
+        return CategoryMapper.toResponse(root);
+    }
+
+    @Benchmark
+    public CategoryResponse toResponseWithParent() {
+        return CategoryMapper.toResponse(child);
+    }
+
+    static Category category(String name, Category parent) {
+        Category category = new Category();
+        category.setId(UUID.randomUUID());
+        category.setName(name);
+        category.setDescription("Mô tả cho " + name);
+        category.setParent(parent);
+        category.setDisplayOrder(1);
+        category.setIsActive(true);
+        category.setCreatedAt(LocalDateTime.now());
+        category.setUpdatedAt(LocalDateTime.now());
+        category.setCreatedBy("SYSTEM");
+        category.setUpdatedBy("SYSTEM");
+        return category;
+    }
+}
@@ -0,0 +1,64 @@
+package com.vinhnh.grocery.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.entity.Category;
+import com.vinhnh.grocery.product.mapper.CategoryMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí serialize DataResponse<Page<CategoryResponse>> (GET /api/v1/categories) sang JSON.
+ * ObjectMapper được cấu hình giống spring.jackson trong application.yml của product-service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private DataResponse<Page<CategoryResponse>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .timeZone(TimeZone.getTimeZone("Asia/Ho_Chi_Minh"))
+                .build();
+
+        Category parent = CategoryMapperBenchmark.category("Thực phẩm", null);
+        List<CategoryResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(CategoryMapper.toResponse(CategoryMapperBenchmark.category("Danh mục " + i, parent)));
+        }
+        Page<CategoryResponse> page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("name")), 10_000);
+        response = DataResponse.success("Lấy danh sách categories thành công", page);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
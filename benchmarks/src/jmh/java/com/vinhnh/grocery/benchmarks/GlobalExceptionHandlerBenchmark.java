@@ -0,0 +1,69 @@
+package com.vinhnh.grocery.benchmarks;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.common.exception.GlobalExceptionHandler;
+import com.vinhnh.grocery.product.controller.CategoryController;
+import com.vinhnh.grocery.product.dto.CategoryCreateRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí dựng response lỗi trong GlobalExceptionHandler (400 business, 400 validation, 500).
+ * Logger của handler được tắt trong logback.xml của module để chỉ đo phần dựng DataResponse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private MethodArgumentNotValidException validationException;
+    private IllegalArgumentException businessException;
+    private RuntimeException runtimeException;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("POST", "/api/v1/categories");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(
+                new CategoryCreateRequest(), "categoryCreateRequest");
+        bindingResult.addError(new FieldError("categoryCreateRequest", "name", "Tên category không được để trống"));
+        bindingResult.addError(new FieldError("categoryCreateRequest", "displayOrder", "Thứ tự hiển thị phải >= 0"));
+        MethodParameter parameter = new MethodParameter(
+                CategoryController.class.getMethod("createCategory", CategoryCreateRequest.class), 0);
+        validationException = new MethodArgumentNotValidException(parameter, bindingResult);
+
+        businessException = new IllegalArgumentException("Category không tồn tại với ID: 123e4567-e89b-12d3-a456-426614174000");
+        runtimeException = new RuntimeException("Lỗi kết nối database");
+    }
+
+    @Benchmark
+    public ResponseEntity<DataResponse<Object>> illegalArgument() {
+        return handler.handleIllegalArgumentException(businessException, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<DataResponse<Object>> validation() {
+        return handler.handleValidationExceptions(validationException, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<DataResponse<Object>> runtime() {
+        return handler.handleRuntimeException(runtimeException, request);
+    }
+}
@@ -0,0 +1,141 @@
+package com.vinhnh.grocery.benchmarks;
+
+import com.vinhnh.grocery.product.GroceryApplication;
+import com.vinhnh.grocery.product.search.ProductChangedEvent;
+import com.vinhnh.grocery.product.search.ProductSearchIndex;
+import com.vinhnh.grocery.product.search.SearchHits;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Truy vấn index tìm kiếm product trên catalog 1.000.000 product, trang đầu 20 kết quả.
+ * Tên product ghép ngẫu nhiên từ một bộ từ tiếng Việt có dấu nên các từ phổ biến khớp hàng chục nghìn document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int BATCH_SIZE = 5_000;
+    private static final String[] WORDS = {
+            "Sữa", "tươi", "tiệt", "trùng", "Bánh", "quy", "bơ", "Gạo", "thơm", "Nước", "mắm", "Cá", "hồi",
+            "Thịt", "bò", "heo", "gà", "Rau", "cải", "xanh", "Trà", "đen", "Cà", "phê", "rang", "xay", "Mì",
+            "gói", "chua", "cay", "Đậu", "phụ", "non", "Dầu", "ăn", "hướng", "dương", "Kẹo", "dừa", "Bến", "Tre",
+            "Đà", "Lạt", "hữu", "cơ", "nhập", "khẩu", "đặc", "biệt", "gia", "đình", "cao", "cấp", "ít", "đường"
+    };
+
+    private ConfigurableApplicationContext context;
+    private ProductSearchIndex productSearchIndex;
+    private Path indexDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        indexDirectory = Files.createTempDirectory("search-benchmark");
+        context = new SpringApplicationBuilder(GroceryApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:search;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.sql.init.mode=never",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--springdoc.api-docs.enabled=false",
+                        "--grocery.search.index-directory=" + indexDirectory,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.vinhnh.grocery.product=OFF",
+                        "--logging.level.org.hibernate.SQL=OFF");
+
+        context.getBean(CatalogImportService.class).importCsv(new ByteArrayInputStream("""
+                type,name,category,brand,product,sku,price
+                BRAND,Vinamilk,,,,,
+                CATEGORY,Thực phẩm,,,,,
+                """.getBytes(StandardCharsets.UTF_8)));
+
+        // Import từng dòng tra trùng tên trên cả bảng products, quá chậm với 1.000.000 dòng trên H2:
+        // chèn thẳng bằng batch rồi phát ProductChangedEvent như import
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        UUID categoryId = jdbcTemplate.queryForObject("SELECT id FROM category", UUID.class);
+        UUID brandId = jdbcTemplate.queryForObject("SELECT id FROM branch", UUID.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Random random = new Random(42);
+        List<UUID> productIds = new ArrayList<>(PRODUCTS);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < PRODUCTS; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 3 + random.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                name.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            UUID id = UUID.randomUUID();
+            productIds.add(id);
+            batch.add(new Object[]{id, name.append(i).toString(), categoryId, brandId, now, now});
+            if (batch.size() == BATCH_SIZE || i == PRODUCTS - 1) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO products (id, name, category_id, brand_id, created_at, updated_at, is_active)
+                        VALUES (?, ?, ?, ?, ?, ?, true)
+                        """, batch);
+                batch.clear();
+            }
+        }
+        context.publishEvent(new ProductChangedEvent(productIds));
+
+        productSearchIndex = context.getBean(ProductSearchIndex.class);
+        while (productSearchIndex.getStats().getDocuments() < PRODUCTS
+                || productSearchIndex.getStats().getPendingUpdates() > 0) {
+            Thread.sleep(100);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(indexDirectory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public SearchHits twoCommonTerms() {
+        return productSearchIndex.search("sua tuoi", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchHits threeTermsWithPrefix() {
+        return productSearchIndex.search("ca phe ra", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SearchHits singlePrefix() {
+        return productSearchIndex.search("th", 0, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,109 @@
+package com.vinhnh.grocery.benchmarks;
+
+import com.vinhnh.grocery.product.GroceryApplication;
+import com.vinhnh.grocery.product.entity.Inventory;
+import com.vinhnh.grocery.product.inventory.ReservationEngine;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserve + release trên cùng một SKU "hot" từ nhiều thread (tình huống flash sale).
+ * Đo trên ReservationEngine thật, kể cả ghi journal; flush xuống H2 chạy nền như khi chạy thật.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReservationEngineBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ReservationEngine reservationEngine;
+    private UUID hotVariantId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String journalDirectory = Files.createTempDirectory("reservation-journal").toString();
+        context = new SpringApplicationBuilder(GroceryApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:reservation;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.sql.init.mode=never",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--springdoc.api-docs.enabled=false",
+                        "--grocery.inventory.reservation.journal-directory=" + journalDirectory,
+                        "--grocery.inventory.reservation.enabled=true",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.vinhnh.grocery.product=OFF",
+                        "--logging.level.org.hibernate.SQL=OFF");
+
+        String ndjson = """
+                {"type":"brand","name":"Flash sale"}
+                {"type":"category","name":"Flash sale"}
+                {"type":"product","name":"Flash sale","category":"Flash sale","brand":"Flash sale"}
+                {"type":"variant","product":"Flash sale","sku":"HOT-SKU","price":10000}
+                """;
+        context.getBean(CatalogImportService.class)
+                .importNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        ProductVariantRepository variants = context.getBean(ProductVariantRepository.class);
+        hotVariantId = variants.findIdsBySkuIn(List.of("HOT-SKU")).get(0).getId();
+
+        Inventory inventory = new Inventory();
+        inventory.setProductVariant(variants.getReferenceById(hotVariantId));
+        inventory.setQuantity(1_000_000_000);
+        inventory.setReservedQuantity(0);
+        context.getBean(InventoryRepository.class).save(inventory);
+
+        reservationEngine = context.getBean(ReservationEngine.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean reserveAndReleaseSingleThread() {
+        return reserveAndRelease();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean reserveAndReleaseContended() {
+        return reserveAndRelease();
+    }
+
+    private boolean reserveAndRelease() {
+        boolean reserved = reservationEngine.tryReserve(hotVariantId, 1);
+        if (reserved) {
+            reservationEngine.release(hotVariantId, 1);
+        }
+        return reserved;
+    }
+}
@@ -0,0 +1,108 @@
+package com.vinhnh.grocery.common.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Trạng thái định tuyến datasource gắn với thread hiện tại.
+ *
+ * - onPrimary: transaction bắt đầu trong action luôn dùng primary. Dùng cho các lần đọc nạp cache bị xóa
+ *   bởi event sau commit: đọc từ replica còn trễ sẽ đưa dữ liệu cũ trở lại cache.
+ * - Read-your-writes: ReadYourWritesFilter mở phạm vi cho mỗi request với thời điểm ghi cuối của client;
+ *   transaction ghi commit trong request cập nhật thời điểm đó.
+ * - isReadingFromReplica: transaction hiện tại đã lấy connection replica, dùng để không nạp cache
+ *   bằng dữ liệu có thể trễ.
+ *
+ * Khi không bật replica, onPrimary chỉ chạy action.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<WriteScope> WRITE_SCOPE = new ThreadLocal<>();
+    private static final Object REPLICA_TRANSACTION = new Object();
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Chạy action, mọi transaction bắt đầu trong action đọc từ primary.
+     * Transaction đang chạy đã lấy connection thì không đổi được: gọi trước câu SQL đầu tiên của transaction.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        int[] depth = PRIMARY_DEPTH.get();
+        depth[0]++;
+        try {
+            return action.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    /**
+     * Transaction đang chạy trên thread hiện tại đọc từ replica. Chỉ đúng sau câu SQL đầu tiên của transaction,
+     * khi connection thật đã được chọn.
+     */
+    public static boolean isReadingFromReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_TRANSACTION);
+    }
+
+    static void markReplicaTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_TRANSACTION)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_TRANSACTION, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_TRANSACTION);
+            }
+        });
+    }
+
+    static boolean isPinnedToPrimary() {
+        return PRIMARY_DEPTH.get()[0] > 0;
+    }
+
+    static void openWriteScope(long lastWriteMillis, LongConsumer onWrite) {
+        WRITE_SCOPE.set(new WriteScope(lastWriteMillis, onWrite));
+    }
+
+    static void closeWriteScope() {
+        WRITE_SCOPE.remove();
+    }
+
+    static boolean hasWriteScope() {
+        return WRITE_SCOPE.get() != null;
+    }
+
+    /**
+     * Thời điểm (epoch millis) transaction ghi cuối cùng của client hiện tại, 0 nếu không biết
+     */
+    static long lastWriteMillis() {
+        WriteScope scope = WRITE_SCOPE.get();
+        return scope == null ? 0 : scope.lastWriteMillis;
+    }
+
+    static void recordWrite(long millis) {
+        WriteScope scope = WRITE_SCOPE.get();
+        if (scope != null) {
+            scope.lastWriteMillis = millis;
+            scope.onWrite.accept(millis);
+        }
+    }
+
+    private static final class WriteScope {
+
+        private long lastWriteMillis;
+        private final LongConsumer onWrite;
+
+        private WriteScope(long lastWriteMillis, LongConsumer onWrite) {
+            this.lastWriteMillis = lastWriteMillis;
+            this.onWrite = onWrite;
+        }
+    }
+}
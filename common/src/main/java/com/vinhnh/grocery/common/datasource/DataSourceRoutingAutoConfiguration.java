@@ -0,0 +1,46 @@
+package com.vinhnh.grocery.common.datasource;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Auto-configuration định tuyến transaction read-only sang replica (grocery.datasource.replica.enabled=true).
+ * Tắt thì datasource giữ nguyên như Spring Boot cấu hình.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "grocery.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingAutoConfiguration {
+
+    @Bean
+    public static ReadWriteRoutingPostProcessor readWriteRoutingPostProcessor() {
+        return new ReadWriteRoutingPostProcessor();
+    }
+
+    @Bean
+    public DataSourceRoutingMetrics dataSourceRoutingMetrics(DataSource dataSource) {
+        return new DataSourceRoutingMetrics(dataSource);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ReadYourWritesConfiguration {
+
+        @Bean
+        public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaDataSourceProperties properties) {
+            FilterRegistrationBean<ReadYourWritesFilter> registration =
+                    new FilterRegistrationBean<>(new ReadYourWritesFilter(properties));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+            return registration;
+        }
+    }
+}
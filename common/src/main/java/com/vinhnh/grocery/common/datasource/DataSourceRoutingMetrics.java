@@ -0,0 +1,59 @@
+package com.vinhnh.grocery.common.datasource;
+
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Metrics định tuyến datasource:
+ * - grocery.datasource.routing{route}: số connection theo lý do chọn (REPLICA, WRITE, STICKY, ...)
+ * - grocery.datasource.replica.lag: độ trễ replica đo gần nhất (giây)
+ * - grocery.datasource.replica.usable: 1 nếu transaction read-only đang đọc từ replica
+ * - hikaricp.* với tag pool=replica cho pool replica
+ */
+@Slf4j
+public class DataSourceRoutingMetrics implements MeterBinder {
+
+    private final DataSource dataSource;
+
+    public DataSourceRoutingMetrics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ReadWriteRoutingDataSource router;
+        try {
+            if (!dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+                return;
+            }
+            router = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        } catch (SQLException e) {
+            log.warn("Cannot bind datasource routing metrics", e);
+            return;
+        }
+        for (ReadWriteRoutingDataSource.Route route : ReadWriteRoutingDataSource.Route.values()) {
+            FunctionCounter.builder("grocery.datasource.routing", router, r -> r.getRouted(route))
+                    .description("Số connection theo datasource được chọn và lý do")
+                    .tag("route", route.name())
+                    .tag("target", route.isReplica() ? "replica" : "primary")
+                    .register(registry);
+        }
+        Gauge.builder("grocery.datasource.replica.lag", router, r -> r.getReplicaLagMillis() / 1000.0)
+                .description("Độ trễ replica đo gần nhất")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("grocery.datasource.replica.usable", router, r -> r.isReplicaUsable() ? 1 : 0)
+                .description("1 nếu transaction read-only đang đọc từ replica")
+                .register(registry);
+        if (router.getReplicaPool().getMetricsTrackerFactory() == null) {
+            router.getReplicaPool().setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+    }
+}
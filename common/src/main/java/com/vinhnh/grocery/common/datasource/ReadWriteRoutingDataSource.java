@@ -0,0 +1,195 @@
+package com.vinhnh.grocery.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chọn primary hoặc replica cho mỗi connection.
+ *
+ * Transaction read-only đọc từ replica, trừ khi:
+ * - thread đang trong DataSourceRouting.onPrimary (PINNED)
+ * - client vừa có transaction ghi trong khoảng stickiness (STICKY, read-your-writes)
+ * - replica chưa sẵn sàng, lỗi hoặc trễ quá maxStaleness (UNAVAILABLE)
+ * Mọi connection khác (transaction ghi, không có transaction) dùng primary (WRITE).
+ * Không lấy được connection replica thì dùng primary (FALLBACK) và đánh dấu replica lỗi.
+ *
+ * Thời điểm ghi cho read-your-writes chỉ được ghi nhận khi transaction thật sự thay đổi dữ liệu
+ * (WriteTrackingConnection): transaction không read-only nhưng chỉ đọc không làm client bị ghim vào primary.
+ * Transaction nhận connection replica được đánh dấu cho DataSourceRouting.isReadingFromReplica.
+ *
+ * Phải được bọc trong LazyConnectionDataSourceProxy: transaction manager lấy connection trước khi cờ
+ * read-only của transaction được đặt, proxy chỉ lấy connection thật ở câu SQL đầu tiên.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Lý do chọn datasource, dùng làm tag metrics
+     */
+    public enum Route {
+        WRITE(false),
+        PINNED(false),
+        STICKY(false),
+        UNAVAILABLE(false),
+        FALLBACK(false),
+        REPLICA(true);
+
+        private final boolean replica;
+
+        Route(boolean replica) {
+            this.replica = replica;
+        }
+
+        public boolean isReplica() {
+            return replica;
+        }
+    }
+
+    private final DataSource primary;
+    private final HikariDataSource replica;
+    private final ReplicaLagMonitor monitor;
+    private final long stickinessMillis;
+    private final Map<Route, LongAdder> routed = new EnumMap<>(Route.class);
+
+    ReadWriteRoutingDataSource(DataSource primary, HikariDataSource replica, ReplicaDataSourceProperties properties) {
+        this.primary = primary;
+        this.replica = replica;
+        this.monitor = new ReplicaLagMonitor(replica, properties);
+        this.stickinessMillis = properties.getStickiness().toMillis();
+        for (Route route : Route.values()) {
+            routed.put(route, new LongAdder());
+        }
+        setTargetDataSources(Map.of(Route.WRITE, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route().isReplica() ? Route.REPLICA : Route.WRITE;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Route route = route();
+        if (route.isReplica()) {
+            try {
+                Connection connection = replica.getConnection();
+                routed.get(Route.REPLICA).increment();
+                DataSourceRouting.markReplicaTransaction();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markFailed(e);
+                route = Route.FALLBACK;
+            }
+        }
+        routed.get(route).increment();
+        Connection connection = primary.getConnection();
+        return tracksWrites() ? WriteTrackingConnection.wrap(connection, this::trackWrite) : connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Pool Hikari không hỗ trợ đổi user, giữ hành vi của datasource gốc
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Đo lại độ trễ replica ngay, không chờ chu kỳ kế tiếp
+     */
+    public void checkReplica() {
+        monitor.check();
+    }
+
+    public boolean isReplicaUsable() {
+        return monitor.isUsable();
+    }
+
+    public boolean isReplicaHealthy() {
+        return monitor.isHealthy();
+    }
+
+    public long getReplicaLagMillis() {
+        return monitor.lagMillis();
+    }
+
+    public long getRouted(Route route) {
+        return routed.get(route).sum();
+    }
+
+    HikariDataSource getReplicaPool() {
+        return replica;
+    }
+
+    void start() {
+        monitor.start();
+        log.info("Read/write routing started: read-only transactions use replica {}", replica.getJdbcUrl());
+    }
+
+    void close() {
+        monitor.stop();
+        replica.close();
+        if (primary instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close primary datasource", e);
+            }
+        }
+    }
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.WRITE;
+        }
+        if (DataSourceRouting.isPinnedToPrimary()) {
+            return Route.PINNED;
+        }
+        long lastWrite = DataSourceRouting.lastWriteMillis();
+        if (lastWrite > 0 && System.currentTimeMillis() - lastWrite < stickinessMillis) {
+            return Route.STICKY;
+        }
+        return monitor.isUsable() ? Route.REPLICA : Route.UNAVAILABLE;
+    }
+
+    /**
+     * Connection của transaction ghi trong request: cần theo dõi câu lệnh ghi
+     */
+    private static boolean tracksWrites() {
+        return DataSourceRouting.hasWriteScope()
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    /**
+     * Câu lệnh đầu tiên thay đổi dữ liệu trong transaction: sau commit ghi nhận thời điểm ghi cho read-your-writes
+     */
+    private void trackWrite() {
+        if (!tracksWrites() || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                DataSourceRouting.recordWrite(System.currentTimeMillis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadWriteRoutingDataSource.this);
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.vinhnh.grocery.common.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bọc bean dataSource do Spring Boot tạo (primary, giữ nguyên cấu hình spring.datasource.*) thành
+ * LazyConnectionDataSourceProxy -> ReadWriteRoutingDataSource(primary, pool replica).
+ *
+ * Replica chỉ được dùng sau ApplicationReadyEvent: dữ liệu nạp lúc khởi động (cache, index) đọc từ primary.
+ * Khi bean dataSource bị hủy, đóng cả pool replica và pool primary.
+ */
+public class ReadWriteRoutingPostProcessor
+        implements DestructionAwareBeanPostProcessor, EnvironmentAware, ApplicationListener<ApplicationReadyEvent> {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private Environment environment;
+    private final List<ReadWriteRoutingDataSource> routers = new ArrayList<>();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource primary)
+                || bean instanceof LazyConnectionDataSourceProxy) {
+            return bean;
+        }
+        ReplicaDataSourceProperties properties = Binder.get(environment)
+                .bindOrCreate("grocery.datasource.replica", ReplicaDataSourceProperties.class);
+        ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource(primary, createReplicaPool(properties),
+                properties);
+        synchronized (routers) {
+            routers.add(router);
+        }
+        return new LazyConnectionDataSourceProxy(router);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        synchronized (routers) {
+            routers.forEach(ReadWriteRoutingDataSource::start);
+        }
+    }
+
+    @Override
+    public boolean requiresDestruction(Object bean) {
+        return bean instanceof LazyConnectionDataSourceProxy proxy
+                && proxy.getTargetDataSource() instanceof ReadWriteRoutingDataSource;
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) {
+        if (requiresDestruction(bean)) {
+            ReadWriteRoutingDataSource router =
+                    (ReadWriteRoutingDataSource) ((LazyConnectionDataSourceProxy) bean).getTargetDataSource();
+            synchronized (routers) {
+                routers.remove(router);
+            }
+            router.close();
+        }
+    }
+
+    private static HikariDataSource createReplicaPool(ReplicaDataSourceProperties properties) {
+        if (properties.getUrl() == null || properties.getUrl().isBlank()) {
+            throw new IllegalStateException("grocery.datasource.replica.url chưa được cấu hình");
+        }
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica");
+        config.setJdbcUrl(properties.getUrl());
+        config.setUsername(properties.getUsername());
+        config.setPassword(properties.getPassword());
+        if (properties.getDriverClassName() != null) {
+            config.setDriverClassName(properties.getDriverClassName());
+        }
+        config.setMaximumPoolSize(properties.getMaximumPoolSize());
+        config.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        config.setReadOnly(true);
+        // Replica chưa lên không chặn ứng dụng khởi động, các transaction read-only dùng primary
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,67 @@
+package com.vinhnh.grocery.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes qua nhiều request: transaction thay đổi dữ liệu và commit trong request đặt cookie chứa thời điểm ghi,
+ * có hạn bằng stickiness. Request sau của client gửi lại cookie nên transaction read-only của nó đọc từ primary
+ * cho đến khi hết hạn, kể cả khi request rơi vào instance khác.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "grocery_last_write";
+
+    private final Duration stickiness;
+
+    public ReadYourWritesFilter(ReplicaDataSourceProperties properties) {
+        this.stickiness = properties.getStickiness();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        DataSourceRouting.openWriteScope(lastWrite(request), millis -> {
+            if (!response.isCommitted()) {
+                ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(millis))
+                        .path("/")
+                        .httpOnly(true)
+                        .maxAge(Duration.ofSeconds(Math.max(1, (stickiness.toMillis() + 999) / 1000)))
+                        .sameSite("Lax")
+                        .build();
+                response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourceRouting.closeWriteScope();
+        }
+    }
+
+    private static long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
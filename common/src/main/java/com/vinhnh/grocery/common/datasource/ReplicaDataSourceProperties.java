@@ -0,0 +1,47 @@
+package com.vinhnh.grocery.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cấu hình replica cho transaction read-only (prefix grocery.datasource.replica)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /** Bật định tuyến transaction read-only sang replica */
+    private boolean enabled = false;
+
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    /** Số connection tối đa của pool replica */
+    private int maximumPoolSize = 10;
+
+    /** Thời gian chờ connection replica trước khi chuyển sang primary */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    /** Độ trễ tối đa của replica còn chấp nhận được; trễ hơn thì đọc từ primary */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /** Sau một transaction ghi, các request của cùng client đọc từ primary trong khoảng này (nên >= maxStaleness) */
+    private Duration stickiness = Duration.ofSeconds(5);
+
+    /** Chu kỳ đo độ trễ replica */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * Câu query trả về độ trễ của replica tính bằng giây (null = 0).
+     * Mặc định cho PostgreSQL streaming replication: 0 khi đã replay hết WAL đã nhận, nếu không thì
+     * khoảng thời gian từ transaction cuối cùng được replay.
+     */
+    private String lagQuery = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END
+            """;
+}
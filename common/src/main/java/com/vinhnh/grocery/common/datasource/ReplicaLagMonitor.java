@@ -0,0 +1,89 @@
+package com.vinhnh.grocery.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đo độ trễ replica định kỳ bằng lagQuery.
+ * Replica chỉ được dùng khi đã start, lần đo gần nhất thành công và độ trễ không vượt maxStaleness.
+ * Lỗi khi đo hoặc khi lấy connection replica đánh dấu replica không dùng được cho đến lần đo thành công kế tiếp.
+ */
+@Slf4j
+final class ReplicaLagMonitor {
+
+    private final JdbcTemplate replica;
+    private final ReplicaDataSourceProperties properties;
+    private final long maxStalenessMillis;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean started;
+    private volatile boolean healthy;
+    private volatile long lagMillis;
+
+    ReplicaLagMonitor(DataSource replica, ReplicaDataSourceProperties properties) {
+        this.replica = new JdbcTemplate(replica);
+        this.properties = properties;
+        this.maxStalenessMillis = properties.getMaxStaleness().toMillis();
+    }
+
+    synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getLagCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        started = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Đo độ trễ ngay
+     */
+    void check() {
+        try {
+            Double seconds = replica.queryForObject(properties.getLagQuery(), Double.class);
+            lagMillis = seconds == null ? 0 : Math.max(0, Math.round(seconds * 1000));
+            if (!healthy) {
+                log.info("Read replica available, lag {} ms", lagMillis);
+            }
+            healthy = true;
+        } catch (RuntimeException e) {
+            markFailed(e);
+        }
+    }
+
+    void markFailed(Exception cause) {
+        if (healthy) {
+            log.warn("Read replica unavailable, reading from primary: {}", cause.getMessage());
+        }
+        healthy = false;
+    }
+
+    boolean isUsable() {
+        return started && healthy && lagMillis <= maxStalenessMillis;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    long lagMillis() {
+        return lagMillis;
+    }
+}
@@ -0,0 +1,115 @@
+package com.vinhnh.grocery.common.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Bọc connection primary để biết transaction có thật sự thay đổi dữ liệu hay không.
+ *
+ * Câu lệnh được coi là ghi khi database báo có dòng bị thay đổi: executeUpdate / executeLargeUpdate trả về số dòng
+ * lớn hơn 0, executeBatch có phần tử lớn hơn 0 hoặc SUCCESS_NO_INFO, execute trả về update count lớn hơn 0.
+ * SELECT (kể cả FOR UPDATE), DDL và UPDATE không khớp dòng nào không gọi onWrite.
+ */
+final class WriteTrackingConnection implements InvocationHandler {
+
+    private final Connection delegate;
+    private final Runnable onWrite;
+    private Connection proxy;
+
+    private WriteTrackingConnection(Connection delegate, Runnable onWrite) {
+        this.delegate = delegate;
+        this.onWrite = onWrite;
+    }
+
+    /**
+     * @param onWrite gọi ở mỗi câu lệnh ghi, trên thread chạy câu lệnh
+     */
+    static Connection wrap(Connection connection, Runnable onWrite) {
+        WriteTrackingConnection handler = new WriteTrackingConnection(connection, onWrite);
+        handler.proxy = (Connection) Proxy.newProxyInstance(WriteTrackingConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+        return handler.proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        Object result = call(delegate, method, args);
+        if (result instanceof Statement statement) {
+            return wrapStatement(statement, method.getReturnType());
+        }
+        return result;
+    }
+
+    private Object wrapStatement(Statement statement, Class<?> type) {
+        Class<?> statementType = CallableStatement.class.isAssignableFrom(type) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(type) ? PreparedStatement.class : Statement.class;
+        return Proxy.newProxyInstance(WriteTrackingConnection.class.getClassLoader(), new Class<?>[]{statementType},
+                (statementProxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return statementProxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(statementProxy);
+                        case "getConnection":
+                            return this.proxy;
+                        default:
+                            break;
+                    }
+                    Object result = call(statement, method, args);
+                    if (changedRows(statement, method.getName(), result)) {
+                        onWrite.run();
+                    }
+                    return result;
+                });
+    }
+
+    private static boolean changedRows(Statement statement, String method, Object result) throws Exception {
+        return switch (method) {
+            case "executeUpdate", "executeLargeUpdate" -> ((Number) result).longValue() > 0;
+            case "executeBatch" -> anyChanged((int[]) result);
+            case "executeLargeBatch" -> anyChanged((long[]) result);
+            case "execute" -> !(Boolean) result && statement.getUpdateCount() > 0;
+            default -> false;
+        };
+    }
+
+    private static boolean anyChanged(int[] counts) {
+        for (int count : counts) {
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyChanged(long[] counts) {
+        for (long count : counts) {
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.vinhnh.grocery.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Kết quả phân trang theo cursor (keyset pagination)
+ * 
+ * Khác với Page, không có totalElements/totalPages: client dùng nextCursor để lấy trang kế tiếp.
+ * Chi phí mỗi trang không phụ thuộc vào vị trí trang, và dữ liệu mới chèn vào không làm lệch trang.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Tạo CursorPage từ danh sách đã lấy dư một phần tử (size + 1) để biết còn trang sau hay không
+     * @param rows danh sách kết quả, tối đa size + 1 phần tử
+     * @param size số phần tử mỗi trang
+     * @param cursorOf hàm tạo cursor từ phần tử cuối cùng của trang
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null;
+        return new CursorPage<>(List.copyOf(content), size, nextCursor, hasNext);
+    }
+}
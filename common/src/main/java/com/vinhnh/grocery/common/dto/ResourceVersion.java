@@ -0,0 +1,55 @@
+package com.vinhnh.grocery.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Phiên bản của một resource (hoặc một tập resource) dùng cho conditional GET
+ *
+ * ETag được tính từ thời điểm cập nhật cuối cùng (độ chính xác micro giây) và số dòng,
+ * nên có thể lấy bằng một câu max()/count() thay vì phải đọc và serialize cả response.
+ * Dùng cùng WebRequest.checkNotModified(etag, lastModified) trong controller.
+ */
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+
+    /** ETag dạng strong validator, đã có dấu nháy kép */
+    private final String etag;
+
+    /** Thời điểm cập nhật cuối (epoch millis), -1 nếu không có dữ liệu */
+    private final long lastModified;
+
+    /**
+     * Phiên bản của một tập resource
+     * @param scope tên tập dữ liệu, để ETag của các tập khác nhau không trùng nhau
+     * @param count số dòng trong tập (thay đổi khi có dòng bị xóa)
+     * @param lastModified max(updated_at) của tập, null nếu tập rỗng
+     */
+    public static ResourceVersion of(String scope, long count, LocalDateTime lastModified) {
+        return build(scope + "-" + count, lastModified);
+    }
+
+    /**
+     * Phiên bản của một resource đơn lẻ
+     * @param key khóa của resource (thường là id)
+     * @param lastModified updated_at của resource
+     */
+    public static ResourceVersion of(String key, LocalDateTime lastModified) {
+        return build(key, lastModified);
+    }
+
+    private static ResourceVersion build(String prefix, LocalDateTime lastModified) {
+        if (lastModified == null) {
+            return new ResourceVersion("\"" + prefix + "-0\"", -1);
+        }
+        Instant instant = lastModified.atZone(ZoneId.systemDefault()).toInstant();
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+        return new ResourceVersion("\"" + prefix + "-" + Long.toHexString(micros) + "\"", instant.toEpochMilli());
+    }
+}
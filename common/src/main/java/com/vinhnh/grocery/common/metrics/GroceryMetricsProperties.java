@@ -0,0 +1,32 @@
+package com.vinhnh.grocery.common.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cấu hình metrics dùng chung cho các service (prefix grocery.metrics)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.metrics")
+public class GroceryMetricsProperties {
+
+    /** Các mốc SLO (bucket histogram) cho latency của HTTP endpoint (http.server.requests) */
+    private List<Duration> httpServerSlo = List.of(
+            Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500),
+            Duration.ofSeconds(5));
+
+    /** Các mốc SLO cho thời gian chờ lấy connection từ Hikari pool (hikaricp.connections.acquire) */
+    private List<Duration> connectionAcquireSlo = List.of(
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1));
+
+    /** Các mốc cho số câu SQL mỗi request (hibernate.query.count) */
+    private List<Double> queryCountSlo = List.of(1.0, 2.0, 5.0, 10.0, 20.0, 50.0, 100.0);
+
+    /** Bật đếm số câu SQL Hibernate mỗi request */
+    private boolean queryCountEnabled = true;
+}
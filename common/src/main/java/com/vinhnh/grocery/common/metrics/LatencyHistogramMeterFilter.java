@@ -0,0 +1,48 @@
+package com.vinhnh.grocery.common.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Thêm bucket histogram theo các mốc SLO cho latency HTTP và thời gian chờ connection pool.
+ * Prometheus tính được tỉ lệ request dưới mỗi mốc (và histogram_quantile) từ các bucket này.
+ * Chỉ dùng các mốc cố định, không bật percentiles-histogram, để số time series không tăng quá nhiều theo số endpoint.
+ */
+public class LatencyHistogramMeterFilter implements MeterFilter {
+
+    static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+    static final String CONNECTION_ACQUIRE = "hikaricp.connections.acquire";
+
+    private final double[] httpServerSlo;
+    private final double[] connectionAcquireSlo;
+
+    public LatencyHistogramMeterFilter(GroceryMetricsProperties properties) {
+        this.httpServerSlo = nanos(properties.getHttpServerSlo());
+        this.connectionAcquireSlo = nanos(properties.getConnectionAcquireSlo());
+    }
+
+    @Override
+    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (HTTP_SERVER_REQUESTS.equals(id.getName())) {
+            return slo(httpServerSlo).merge(config);
+        }
+        if (CONNECTION_ACQUIRE.equals(id.getName())) {
+            return slo(connectionAcquireSlo).merge(config);
+        }
+        return config;
+    }
+
+    private static DistributionStatisticConfig slo(double[] buckets) {
+        return DistributionStatisticConfig.builder()
+                .serviceLevelObjectives(buckets)
+                .build();
+    }
+
+    private static double[] nanos(List<Duration> durations) {
+        return durations.stream().mapToDouble(Duration::toNanos).toArray();
+    }
+}
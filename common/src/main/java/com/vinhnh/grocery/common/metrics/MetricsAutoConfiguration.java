@@ -0,0 +1,59 @@
+package com.vinhnh.grocery.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Auto-configuration metrics cho mọi service dùng module common:
+ * - Bucket SLO cho latency từng endpoint (http.server.requests) và thời gian chờ Hikari pool
+ * - Số câu SQL Hibernate mỗi request (hibernate.query.count)
+ *
+ * JVM (GC pause, allocation, memory, threads) và Hikari pool metrics do Spring Boot Actuator tự đăng ký;
+ * MetricsEnvironmentPostProcessor mở endpoint /actuator/prometheus và gắn tag application.
+ */
+@AutoConfiguration(after = CompositeMeterRegistryAutoConfiguration.class)
+@ConditionalOnClass(MeterRegistry.class)
+@EnableConfigurationProperties(GroceryMetricsProperties.class)
+public class MetricsAutoConfiguration {
+
+    @Bean
+    public MeterFilter latencyHistogramMeterFilter(GroceryMetricsProperties properties) {
+        return new LatencyHistogramMeterFilter(properties);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.hibernate.resource.jdbc.spi.StatementInspector")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "grocery.metrics", name = "query-count-enabled", matchIfMissing = true)
+    static class QueryCountConfiguration {
+
+        @Bean
+        public HibernatePropertiesCustomizer queryCountHibernatePropertiesCustomizer() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountStatementInspector());
+        }
+
+        @Bean
+        public FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry meterRegistry,
+                                                                        GroceryMetricsProperties properties) {
+            FilterRegistrationBean<QueryCountFilter> registration =
+                    new FilterRegistrationBean<>(new QueryCountFilter(meterRegistry, properties));
+            // Bao ngoài các filter khác để đếm cả câu SQL chạy trong filter (open-in-view, ...)
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+            return registration;
+        }
+    }
+}
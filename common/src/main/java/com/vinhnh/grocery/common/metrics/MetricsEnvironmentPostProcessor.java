@@ -0,0 +1,25 @@
+package com.vinhnh.grocery.common.metrics;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Giá trị mặc định cho actuator / metrics của mọi service dùng module common.
+ * Được thêm với độ ưu tiên thấp nhất nên application.yml của từng service vẫn ghi đè được.
+ */
+public class MetricsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String PROPERTY_SOURCE_NAME = "groceryMetricsDefaults";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of(
+                // Prometheus scrape /actuator/prometheus trên port của service (xem monitoring/prometheus.yml)
+                "management.endpoints.web.exposure.include", "health,info,metrics,prometheus",
+                "management.metrics.tags.application", "${spring.application.name:unknown}")));
+    }
+}
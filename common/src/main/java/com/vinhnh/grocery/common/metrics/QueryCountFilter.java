@@ -0,0 +1,59 @@
+package com.vinhnh.grocery.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Ghi số câu SQL Hibernate của mỗi request vào distribution summary hibernate.query.count,
+ * tag theo method và uri pattern (giống http.server.requests) để thấy endpoint nào bị N+1
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    static final String METRIC_NAME = "hibernate.query.count";
+
+    private final MeterRegistry meterRegistry;
+    private final double[] buckets;
+
+    public QueryCountFilter(MeterRegistry meterRegistry, GroceryMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.buckets = properties.getQueryCountSlo().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long count = QueryCounter.stop();
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("Số câu SQL Hibernate mỗi HTTP request")
+                    .baseUnit("queries")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri(request, response))
+                    .serviceLevelObjectives(buckets)
+                    .register(meterRegistry)
+                    .record(count);
+        }
+    }
+
+    /**
+     * Dùng pattern của handler (/api/v1/categories/{id}) thay vì path thật để giữ số time series cố định
+     */
+    private static String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return response.getStatus() == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+    }
+}
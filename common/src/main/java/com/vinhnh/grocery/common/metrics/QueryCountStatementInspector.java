@@ -0,0 +1,16 @@
+package com.vinhnh.grocery.common.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate gọi inspect() mỗi lần chuẩn bị một câu SQL (kể cả native query và câu được batch),
+ * nên đây là điểm đếm rẻ nhất, không cần bật hibernate.generate_statistics
+ */
+public class QueryCountStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,38 @@
+package com.vinhnh.grocery.common.metrics;
+
+/**
+ * Bộ đếm số câu SQL của request hiện tại, gắn với thread xử lý request
+ * Ngoài phạm vi một request (scheduler, startup) thì không đếm.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    static long stop() {
+        long[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    static void increment() {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    /**
+     * Số câu SQL đã chạy trong request hiện tại (0 nếu không nằm trong request)
+     */
+    public static long current() {
+        long[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+}
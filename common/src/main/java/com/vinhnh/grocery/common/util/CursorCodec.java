@@ -0,0 +1,61 @@
+package com.vinhnh.grocery.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Mã hóa / giải mã cursor cho keyset pagination
+ * 
+ * Cursor là chuỗi Base64 URL-safe của các giá trị khóa sắp xếp, có prefix để phân biệt loại cursor.
+ * Client chỉ nên coi cursor là chuỗi mờ (opaque) và gửi lại nguyên vẹn.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final String VERSION = "v1";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Tạo cursor từ loại cursor và các giá trị khóa
+     * @param type loại cursor, ví dụ "category:display_order"
+     * @param values các giá trị khóa theo đúng thứ tự sắp xếp
+     */
+    public static String encode(String type, String... values) {
+        StringBuilder raw = new StringBuilder(VERSION).append(SEPARATOR).append(type);
+        for (String value : values) {
+            if (value != null && value.contains(SEPARATOR)) {
+                throw new IllegalArgumentException("Giá trị cursor không được chứa ký tự '" + SEPARATOR + "'");
+            }
+            raw.append(SEPARATOR).append(value == null ? "" : value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã cursor và kiểm tra loại cursor
+     * @param cursor cursor client gửi lên
+     * @param type loại cursor mong đợi
+     * @param valueCount số giá trị khóa mong đợi
+     * @return các giá trị khóa
+     * @throws IllegalArgumentException nếu cursor không hợp lệ hoặc khác loại
+     */
+    public static String[] decode(String cursor, String type, int valueCount) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != valueCount + 2 || !VERSION.equals(parts[0]) || !type.equals(parts[1])) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+
+        String[] values = new String[valueCount];
+        System.arraycopy(parts, 2, values, 0, valueCount);
+        return values;
+    }
+}
@@ -0,0 +1,186 @@
+package com.vinhnh.grocery.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gom các key bị đánh dấu thay đổi (dirty) và xử lý chúng theo lô trên một thread nền duy nhất.
+ *
+ * - mark() có thể gọi từ nhiều thread; mỗi lần đánh dấu chỉ lên lịch tối đa một lần drain đang chờ.
+ * - Lần drain lấy key ra khỏi tập dirty theo lô batchSize và gọi handler cho từng lô.
+ * - Handler lỗi: lô đó được đánh dấu lại, các key chưa lấy vẫn nằm trong tập dirty, và lần drain kế tiếp được
+ *   lên lịch sau retryDelay, không phụ thuộc vào lần thay đổi kế tiếp.
+ *
+ * Nhiều drainer có thể dùng chung một thread (constructor nhận drainer khác): handler của chúng không chạy song song,
+ * nên có thể cùng sửa trạng thái chỉ thuộc về thread ghi đó.
+ */
+@Slf4j
+public final class DirtyKeyDrainer<K> {
+
+    /**
+     * Xử lý một lô key đã lấy ra khỏi tập dirty. Không giữ tham chiếu tới batch sau khi trả về: list được dùng lại.
+     */
+    @FunctionalInterface
+    public interface BatchHandler<K> {
+        void handle(List<K> batch) throws Exception;
+    }
+
+    public static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final String name;
+    private final int batchSize;
+    private final BatchHandler<K> handler;
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Duration retryDelay;
+
+    private final Set<K> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * @param name tên thread nền, cũng dùng trong log
+     * @param batchSize số key tối đa của một lô
+     */
+    public DirtyKeyDrainer(String name, int batchSize, BatchHandler<K> handler) {
+        this(name, batchSize, handler, Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        }), true, DEFAULT_RETRY_DELAY);
+    }
+
+    /**
+     * Drainer chạy trên cùng thread với sharedWith; dừng sharedWith là dừng cả drainer này
+     */
+    public DirtyKeyDrainer(DirtyKeyDrainer<?> sharedWith, String name, int batchSize, BatchHandler<K> handler) {
+        this(name, batchSize, handler, sharedWith.executor, false, sharedWith.retryDelay);
+    }
+
+    private DirtyKeyDrainer(String name, int batchSize, BatchHandler<K> handler, ScheduledExecutorService executor,
+                            boolean ownsExecutor, Duration retryDelay) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize phải lớn hơn 0");
+        }
+        this.name = name;
+        this.batchSize = batchSize;
+        this.handler = handler;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.retryDelay = retryDelay;
+    }
+
+    public void mark(K key) {
+        dirty.add(key);
+        schedule(Duration.ZERO);
+    }
+
+    public void markAll(Collection<? extends K> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        dirty.addAll(keys);
+        schedule(Duration.ZERO);
+    }
+
+    /**
+     * Chạy task trên thread nền của drainer, xen kẽ (không song song) với các lần drain
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Số key đang chờ xử lý
+     */
+    public int pending() {
+        return dirty.size();
+    }
+
+    /**
+     * Số lô xử lý lỗi (đã được đánh dấu lại để thử lại)
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * Dừng thread nền ngay, bỏ các lần drain đang chờ
+     */
+    public void stop() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Dừng thread nền, chờ task đang chạy / đang chờ xong tối đa gracePeriod
+     */
+    public void stop(Duration gracePeriod) {
+        if (!ownsExecutor) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(gracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void schedule(Duration delay) {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.schedule(this::drain, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Đã dừng: key vẫn nằm trong tập dirty, không còn thread nào xử lý
+            scheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        // Cho phép lên lịch lần drain kế tiếp trước khi đọc dirty: key được đánh dấu sau điểm này
+        // hoặc được lấy ở lần này, hoặc lần drain kế tiếp
+        scheduled.set(false);
+        List<K> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        Iterator<K> iterator = dirty.iterator();
+        try {
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                iterator.remove();
+                if (batch.size() == batchSize || !iterator.hasNext()) {
+                    handler.handle(batch);
+                    batch.clear();
+                }
+            }
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            // Đánh dấu lại trước khi lên lịch để lần drain kế tiếp chắc chắn thấy các key này
+            dirty.addAll(batch);
+            log.error("{}: failed to process {} keys, retrying in {}", name, batch.size(), retryDelay, e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            schedule(retryDelay);
+        }
+    }
+}
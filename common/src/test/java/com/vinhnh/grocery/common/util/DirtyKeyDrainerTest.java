@@ -0,0 +1,90 @@
+package com.vinhnh.grocery.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kiểm tra DirtyKeyDrainer: xử lý theo lô, lô lỗi được thử lại mà không cần lần đánh dấu mới
+ */
+class DirtyKeyDrainerTest {
+
+    private final List<DirtyKeyDrainer<?>> drainers = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        drainers.forEach(DirtyKeyDrainer::stop);
+    }
+
+    @Test
+    void processesMarkedKeysInBatches() throws Exception {
+        List<Integer> seen = new ArrayList<>();
+        AtomicInteger largestBatch = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(10);
+        DirtyKeyDrainer<Integer> drainer = register(new DirtyKeyDrainer<>("test-batches", 3, batch -> {
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+            for (Integer key : batch) {
+                seen.add(key);
+                done.countDown();
+            }
+        }));
+
+        drainer.markAll(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(seen).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(largestBatch.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void failedBatchIsRetriedWithoutNewMark() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch succeeded = new CountDownLatch(1);
+        DirtyKeyDrainer<String> drainer = register(new DirtyKeyDrainer<>("test-retry", 10, batch -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+            assertThat(batch).containsExactly("a");
+            succeeded.countDown();
+        }));
+
+        drainer.mark("a");
+
+        assertThat(succeeded.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(drainer.getFailureCount()).isEqualTo(1);
+        assertThat(drainer.pending()).isZero();
+    }
+
+    @Test
+    void sharedDrainersRunOnOneThread() throws Exception {
+        List<String> threads = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        DirtyKeyDrainer<String> first = register(new DirtyKeyDrainer<>("test-shared", 10, batch -> {
+            threads.add(Thread.currentThread().getName());
+            done.countDown();
+        }));
+        DirtyKeyDrainer<String> second = new DirtyKeyDrainer<>(first, "test-shared-second", 10, batch -> {
+            threads.add(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        first.mark("a");
+        second.mark("b");
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).containsOnly("test-shared");
+    }
+
+    private <K> DirtyKeyDrainer<K> register(DirtyKeyDrainer<K> drainer) {
+        drainers.add(drainer);
+        return drainer;
+    }
+}
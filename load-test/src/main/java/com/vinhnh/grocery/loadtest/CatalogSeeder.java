@@ -0,0 +1,158 @@
+package com.vinhnh.grocery.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seed một catalog có cấu trúc giống thật: cây category nhiều tầng, brands, products gắn vào category lá,
+ * variants và inventory cho từng variant.
+ *
+ * Brands, categories, products và variants đi qua chính endpoint POST /api/v1/catalog/import (NDJSON),
+ * inventory chưa có đường import nên được ghi thẳng bằng JDBC batch.
+ */
+@Slf4j
+public class CatalogSeeder {
+
+    private static final String INSERT_INVENTORY = """
+            INSERT INTO inventory (id, product_variant_id, quantity, reserved_quantity, available_quantity,
+                                   min_stock_level, max_stock_level, last_restock_date,
+                                   created_at, updated_at, created_by, updated_by, is_active)
+            VALUES (?, ?, ?, 0, ?, ?, ?, ?, ?, ?, 'SYSTEM', 'SYSTEM', true)
+            """;
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestConfig config;
+    private final Random random;
+
+    public CatalogSeeder(HttpClient httpClient, String baseUrl, JdbcTemplate jdbcTemplate,
+                         LoadTestConfig config, Random random) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.random = random;
+    }
+
+    /**
+     * Seed catalog và trả về các id / từ khóa mà workload dùng để sinh request
+     */
+    public SeededCatalog seed() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        StringBuilder ndjson = new StringBuilder();
+
+        List<String> brands = new ArrayList<>(config.getBrands());
+        for (int i = 0; i < config.getBrands(); i++) {
+            String brand = "Thương hiệu " + i;
+            brands.add(brand);
+            ndjson.append(line("brand", "name", brand));
+        }
+
+        // Category cha luôn được ghi trước category con (yêu cầu của import)
+        List<String> level = new ArrayList<>();
+        for (int i = 0; i < config.getRootCategories(); i++) {
+            String name = "Danh mục " + i;
+            level.add(name);
+            ndjson.append(line("category", "name", name, "displayOrder", i));
+        }
+        for (int depth = 1; depth < config.getCategoryDepth(); depth++) {
+            List<String> next = new ArrayList<>(level.size() * config.getCategoryFanOut());
+            for (String parent : level) {
+                for (int i = 0; i < config.getCategoryFanOut(); i++) {
+                    String name = parent + "." + i;
+                    next.add(name);
+                    ndjson.append(line("category", "name", name, "parent", parent, "displayOrder", i));
+                }
+            }
+            level = next;
+        }
+        List<String> leaves = level;
+
+        for (int i = 0; i < config.getProducts(); i++) {
+            String product = "Sản phẩm " + i;
+            ndjson.append(line("product", "name", product, "unit", "cái",
+                    "category", leaves.get(random.nextInt(leaves.size())),
+                    "brand", brands.get(random.nextInt(brands.size()))));
+            for (int v = 0; v < config.getVariantsPerProduct(); v++) {
+                ndjson.append(line("variant", "product", product, "sku", "SKU-" + i + "-" + v,
+                        "size", String.valueOf(v + 1),
+                        "price", 10_000 + random.nextInt(490) * 1_000));
+            }
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/catalog/import"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seed catalog thất bại: HTTP " + response.statusCode() + " " + response.body());
+        }
+
+        int inventories = seedInventory();
+        List<UUID> categoryIds = jdbcTemplate.queryForList("SELECT CAST(id AS varchar) FROM category", String.class)
+                .stream().map(UUID::fromString).toList();
+
+        log.info("Seeded {} categories, {} brands, {} products, {} inventory rows in {} ms",
+                categoryIds.size(), brands.size(), config.getProducts(), inventories,
+                (System.nanoTime() - start) / 1_000_000);
+        return new SeededCatalog(categoryIds, leaves);
+    }
+
+    private int seedInventory() {
+        List<String> variantIds = jdbcTemplate.queryForList("SELECT CAST(id AS varchar) FROM product_variant", String.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(variantIds.size());
+        for (String variantId : variantIds) {
+            int quantity = random.nextInt(500);
+            rows.add(new Object[]{UUID.randomUUID(), UUID.fromString(variantId), quantity, quantity,
+                    10, 1_000, now, now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_INVENTORY, rows);
+        return rows.size();
+    }
+
+    /**
+     * Một dòng NDJSON từ các cặp key / value (giá trị chuỗi được escape dấu nháy)
+     */
+    private static String line(String type, Object... pairs) {
+        StringBuilder json = new StringBuilder("{\"type\":\"").append(type).append('"');
+        for (int i = 0; i < pairs.length; i += 2) {
+            json.append(",\"").append(pairs[i]).append("\":");
+            Object value = pairs[i + 1];
+            if (value instanceof Number) {
+                json.append(value);
+            } else {
+                json.append('"').append(value.toString().replace("\"", "\\\"")).append('"');
+            }
+        }
+        return json.append("}\n").toString();
+    }
+
+    /**
+     * Dữ liệu đã seed mà workload cần
+     * @param categoryIds id của tất cả category
+     * @param leafCategoryNames tên các category lá, dùng làm từ khóa tìm kiếm
+     */
+    public record SeededCatalog(List<UUID> categoryIds, List<String> leafCategoryNames) {
+
+        public String randomKeyword(Random random) {
+            String name = leafCategoryNames.get(random.nextInt(leafCategoryNames.size()));
+            return name.substring(name.indexOf(' ') + 1).toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.vinhnh.grocery.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Tập request đọc / ghi lên /api/v1/categories, chọn ngẫu nhiên theo trọng số.
+ *
+ * Phần đọc mô phỏng client thật: duyệt trang, cuộn theo cursor, tải cây và danh sách active
+ * (một phần có If-None-Match như app mobile refresh), xem chi tiết và tìm kiếm.
+ * Phần ghi tạo category mới và cập nhật mô tả category có sẵn, làm thay đổi ETag và snapshot.
+ */
+public class CategoryWorkload {
+
+    private static final String CATEGORIES = "/api/v1/categories";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final CatalogSeeder.SeededCatalog catalog;
+    private final double writeRatio;
+    private final List<Operation> reads;
+    private final List<Operation> writes;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReference<String> activeEtag = new AtomicReference<>();
+
+    public CategoryWorkload(String baseUrl, CatalogSeeder.SeededCatalog catalog, double writeRatio) {
+        this.baseUrl = baseUrl;
+        this.catalog = catalog;
+        this.writeRatio = writeRatio;
+        this.reads = List.of(
+                new Operation("list-page", 25, random -> get(CATEGORIES + "?page=" + random.nextInt(10)
+                        + "&size=20&includeTotal=" + random.nextBoolean())),
+                new Operation("scroll", 10, random -> get(CATEGORIES + "/scroll?size=20")),
+                new Operation("active", 15, random -> get(CATEGORIES + "/active")),
+                new Operation("active-conditional", 10, random -> conditionalActive()),
+                new Operation("tree", 10, random -> get(CATEGORIES + "/tree")),
+                new Operation("by-id", 20, random -> get(CATEGORIES + "/" + randomCategory(random))),
+                new Operation("search", 10, random -> get(CATEGORIES + "/search?name="
+                        + URLEncoder.encode(catalog.randomKeyword(random), StandardCharsets.UTF_8))));
+        this.writes = List.of(
+                new Operation("create", 40, random -> send("POST", CATEGORIES,
+                        "{\"name\":\"Tải " + sequence.incrementAndGet() + "\",\"displayOrder\":" + random.nextInt(100) + "}")),
+                new Operation("update", 60, random -> send("PUT", CATEGORIES + "/" + randomCategory(random),
+                        "{\"description\":\"Cập nhật " + sequence.incrementAndGet() + "\"}")));
+    }
+
+    /**
+     * Tên của tất cả operation, theo thứ tự hiển thị trong báo cáo
+     */
+    public List<String> operationNames() {
+        return Stream.concat(reads.stream(), writes.stream()).map(Operation::name).toList();
+    }
+
+    /**
+     * Chọn request kế tiếp. Chỉ được gọi từ thread sinh tải (Random không dùng chung giữa các thread)
+     */
+    public Request next(Random random) {
+        List<Operation> group = random.nextDouble() < writeRatio ? writes : reads;
+        double total = group.stream().mapToDouble(Operation::weight).sum();
+        double pick = random.nextDouble() * total;
+        for (Operation operation : group) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return new Request(operation.name(), operation.request().apply(random));
+            }
+        }
+        Operation last = group.get(group.size() - 1);
+        return new Request(last.name(), last.request().apply(random));
+    }
+
+    /**
+     * Ghi nhận ETag mới nhất của /active để các request conditional dùng lại
+     */
+    public void onResponse(Request request, HttpResponse<?> response) {
+        if (request.operation().startsWith("active")) {
+            response.headers().firstValue("ETag").ifPresent(activeEtag::set);
+        }
+    }
+
+    /**
+     * 304 là kết quả thành công của request conditional
+     */
+    public static boolean isSuccess(HttpResponse<?> response) {
+        int status = response.statusCode();
+        return (status >= 200 && status < 300) || status == 304;
+    }
+
+    private HttpRequest conditionalActive() {
+        HttpRequest.Builder builder = builder(CATEGORIES + "/active").GET();
+        String etag = activeEtag.get();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        return builder.build();
+    }
+
+    private UUID randomCategory(Random random) {
+        return catalog.categoryIds().get(random.nextInt(catalog.categoryIds().size()));
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        return builder(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private record Operation(String name, double weight, Function<Random, HttpRequest> request) {
+    }
+
+    /**
+     * Một request đã chọn cùng tên operation để gom số liệu
+     */
+    public record Request(String operation, HttpRequest httpRequest) {
+    }
+}
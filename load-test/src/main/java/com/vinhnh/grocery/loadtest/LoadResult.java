@@ -0,0 +1,125 @@
+package com.vinhnh.grocery.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Số liệu của một lần chạy tải: histogram latency (micro giây) và số lỗi theo từng operation.
+ * Ghi nhận được gọi đồng thời từ các thread của HttpClient.
+ */
+public class LoadResult {
+
+    /** Latency tối đa ghi nhận được (60 giây), giá trị lớn hơn bị kẹp lại */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<String, OperationStats> operations = new LinkedHashMap<>();
+    private final OperationStats total = new OperationStats();
+
+    public LoadResult(List<String> operationNames) {
+        operationNames.forEach(name -> operations.put(name, new OperationStats()));
+    }
+
+    /**
+     * @param latencyNanos tính từ thời điểm request LẼ RA được gửi theo lịch, không phải lúc thực sự gửi
+     */
+    public void record(String operation, long latencyNanos, boolean success) {
+        long micros = Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)), MAX_LATENCY_MICROS);
+        OperationStats stats = operations.get(operation);
+        stats.record(micros, success);
+        total.record(micros, success);
+    }
+
+    public void dropped(String operation) {
+        operations.get(operation).dropped.increment();
+        total.dropped.increment();
+    }
+
+    public Summary summarize(double targetRate, double elapsedSeconds) {
+        List<OperationSummary> summaries = new ArrayList<>();
+        operations.forEach((name, stats) -> summaries.add(stats.summarize(name, elapsedSeconds)));
+        return new Summary(targetRate, elapsedSeconds, total.summarize("total", elapsedSeconds), summaries);
+    }
+
+    private static final class OperationStats {
+
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        void record(long micros, boolean success) {
+            latency.recordValue(micros);
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        OperationSummary summarize(String name, double elapsedSeconds) {
+            long count = latency.getTotalCount();
+            return new OperationSummary(name, count, errors.sum(), dropped.sum(),
+                    count / elapsedSeconds,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    /**
+     * Kết quả tổng hợp, được in ra console và ghi ra file JSON
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Summary {
+
+        private double targetRate;
+        private double elapsedSeconds;
+        private OperationSummary total;
+        private List<OperationSummary> operations;
+
+        public void print(PrintStream out) {
+            out.printf("%nTarget rate %.0f req/s, measured %.1f s, throughput %.1f req/s%n",
+                    targetRate, elapsedSeconds, total.getThroughput());
+            out.printf("%-20s %9s %7s %8s %10s %9s %9s %9s %9s%n",
+                    "operation", "count", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+            operations.forEach(operation -> operation.print(out));
+            total.print(out);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OperationSummary {
+
+        private String operation;
+        private long count;
+        private long errors;
+        private long dropped;
+        private double throughput;
+        private double p50Millis;
+        private double p99Millis;
+        private double p999Millis;
+        private double maxMillis;
+
+        void print(PrintStream out) {
+            out.printf("%-20s %9d %7d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation, count, errors, dropped, throughput, p50Millis, p99Millis, p999Millis, maxMillis);
+        }
+    }
+}
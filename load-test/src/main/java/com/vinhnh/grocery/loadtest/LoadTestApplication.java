@@ -0,0 +1,85 @@
+package com.vinhnh.grocery.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vinhnh.grocery.product.GroceryApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load test end-to-end cho product-service, không cần hạ tầng ngoài:
+ * 1. Khởi động product-service (port ngẫu nhiên) trên H2 in-memory ở chế độ PostgreSQL
+ * 2. Seed catalog (xem CatalogSeeder)
+ * 3. Warm-up rồi chạy tải open-model lên /api/v1/categories
+ * 4. In p50/p99/p999 và throughput, ghi báo cáo JSON
+ *
+ * Server và bộ sinh tải chạy chung một JVM nên số liệu dùng để so sánh giữa các commit
+ * trên cùng một máy, không phải để đo capacity tuyệt đối của môi trường production.
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        log.info("Load test configuration: {}", config);
+
+        // Tham số dòng lệnh có độ ưu tiên cao hơn application.yml (cấu hình PostgreSQL) của product-service
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GroceryApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-test;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.maximum-pool-size=20",
+                        "--spring.sql.init.mode=never",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.vinhnh.grocery.product=WARN",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.com.vinhnh.grocery.loadtest=INFO");
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(httpExecutor)
+                    .build();
+            Random random = new Random(config.getSeed());
+
+            CatalogSeeder.SeededCatalog catalog = new CatalogSeeder(httpClient, baseUrl,
+                    context.getBean(JdbcTemplate.class), config, random).seed();
+            CategoryWorkload workload = new CategoryWorkload(baseUrl, catalog, config.getWriteRatio());
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(httpClient, workload, config, random);
+
+            log.info("Warming up for {} s", config.getWarmup().toSeconds());
+            generator.run(config.getWarmup());
+
+            log.info("Measuring for {} s", config.getDuration().toSeconds());
+            LoadResult.Summary summary = generator.run(config.getDuration());
+            summary.print(System.out);
+
+            Files.createDirectories(config.getReport().toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(config.getReport().toFile(), summary);
+            log.info("Report written to {}", config.getReport().toAbsolutePath());
+        } finally {
+            httpExecutor.shutdownNow();
+            context.close();
+        }
+    }
+}
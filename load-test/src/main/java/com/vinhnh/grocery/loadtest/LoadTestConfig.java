@@ -0,0 +1,74 @@
+package com.vinhnh.grocery.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Cấu hình một lần chạy load test, đọc từ system property loadtest.* (có giá trị mặc định)
+ */
+@Getter
+public class LoadTestConfig {
+
+    /** Số request mỗi giây mà bộ sinh tải phát ra (không phụ thuộc tốc độ phản hồi của server) */
+    private final double rate;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    /** Tỉ lệ request ghi (tạo / cập nhật category) trong tổng số request */
+    private final double writeRatio;
+
+    /** Số request đang chờ tối đa; vượt quá thì request bị tính là dropped */
+    private final int maxInFlight;
+
+    /** Quy mô catalog được seed */
+    private final int rootCategories;
+    private final int categoryFanOut;
+    private final int categoryDepth;
+    private final int brands;
+    private final int products;
+    private final int variantsPerProduct;
+
+    private final long seed;
+
+    private final Path report;
+
+    private LoadTestConfig() {
+        this.rate = Double.parseDouble(property("rate", "200"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(property("warmup", "30")));
+        this.duration = Duration.ofSeconds(Long.parseLong(property("duration", "60")));
+        this.writeRatio = Double.parseDouble(property("writeRatio", "0.05"));
+        this.maxInFlight = Integer.parseInt(property("maxInFlight", "2000"));
+        this.rootCategories = Integer.parseInt(property("rootCategories", "12"));
+        this.categoryFanOut = Integer.parseInt(property("categoryFanOut", "5"));
+        this.categoryDepth = Integer.parseInt(property("categoryDepth", "3"));
+        this.brands = Integer.parseInt(property("brands", "50"));
+        this.products = Integer.parseInt(property("products", "2000"));
+        this.variantsPerProduct = Integer.parseInt(property("variantsPerProduct", "3"));
+        this.seed = Long.parseLong(property("seed", "42"));
+        this.report = Path.of(property("report", "build/load-test/report.json"));
+
+        if (rate <= 0 || writeRatio < 0 || writeRatio > 1 || maxInFlight <= 0 || categoryDepth < 1) {
+            throw new IllegalArgumentException("Cấu hình load test không hợp lệ");
+        }
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rate=%.0f/s, warmup=%ss, duration=%ss, writeRatio=%.2f, maxInFlight=%d, "
+                        + "categories=%dx%d^%d, brands=%d, products=%d x %d variants",
+                rate, warmup.toSeconds(), duration.toSeconds(), writeRatio, maxInFlight,
+                rootCategories, categoryFanOut, categoryDepth - 1, brands, products, variantsPerProduct);
+    }
+}
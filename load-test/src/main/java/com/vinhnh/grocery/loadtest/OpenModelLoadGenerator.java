@@ -0,0 +1,81 @@
+package com.vinhnh.grocery.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bộ sinh tải open-model: request đến theo tiến trình Poisson với tốc độ cố định,
+ * không chờ request trước hoàn thành (khác closed-model N thread gửi tuần tự).
+ *
+ * Latency được đo từ thời điểm request lẽ ra được gửi theo lịch, nên khi server (hoặc chính bộ sinh tải)
+ * bị chậm, thời gian xếp hàng vẫn được tính vào p99/p999 thay vì bị che đi (coordinated omission).
+ * Khi số request đang chờ vượt maxInFlight, request mới bị tính là dropped thay vì làm chậm lịch gửi.
+ */
+@Slf4j
+public class OpenModelLoadGenerator {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final HttpClient httpClient;
+    private final CategoryWorkload workload;
+    private final LoadTestConfig config;
+    private final Random random;
+
+    public OpenModelLoadGenerator(HttpClient httpClient, CategoryWorkload workload, LoadTestConfig config, Random random) {
+        this.httpClient = httpClient;
+        this.workload = workload;
+        this.config = config;
+        this.random = random;
+    }
+
+    public LoadResult.Summary run(Duration duration) throws InterruptedException {
+        LoadResult result = new LoadResult(workload.operationNames());
+        Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long next = start;
+        while (next < end) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            long intended = next;
+            // Khoảng cách giữa hai lần đến theo phân phối mũ
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+
+            CategoryWorkload.Request request = workload.next(random);
+            if (!inFlight.tryAcquire()) {
+                result.dropped(request.operation());
+                continue;
+            }
+            httpClient.sendAsync(request.httpRequest(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        try {
+                            boolean success = error == null && CategoryWorkload.isSuccess(response);
+                            result.record(request.operation(), System.nanoTime() - intended, success);
+                            if (response != null) {
+                                workload.onResponse(request, response);
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+        }
+
+        if (!inFlight.tryAcquire(config.getMaxInFlight(), DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Some requests were still in flight after {} s", DRAIN_TIMEOUT_SECONDS);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return result.summarize(config.getRate(), elapsedSeconds);
+    }
+}
@@ -3,9 +3,11 @@ package com.vinhnh.grocery.product;
 import com.vinhnh.grocery.common.config.AuditingConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @Import(AuditingConfig.class)
 public class GroceryApplication {
 
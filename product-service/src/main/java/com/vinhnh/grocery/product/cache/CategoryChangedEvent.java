@@ -0,0 +1,17 @@
+package com.vinhnh.grocery.product.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Event phát ra khi một category được tạo, cập nhật, kích hoạt, vô hiệu hóa hoặc xóa.
+ * CategorySnapshotHolder lắng nghe event này sau khi transaction commit để làm mới snapshot.
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryChangedEvent {
+
+    private final UUID categoryId;
+}
@@ -0,0 +1,101 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.vinhnh.grocery.common.dto.ResourceVersion;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Snapshot bất biến (immutable) của cây category đang hoạt động.
+ * 
+ * Được xây dựng một lần rồi chia sẻ cho mọi request đọc, vì vậy các collection
+ * đều là unmodifiable và các CategoryResponse bên trong KHÔNG được sửa đổi.
+ * Category có parent không hoạt động (hoặc không có parent) được coi là gốc của forest.
+ */
+@Getter
+public final class CategorySnapshot {
+
+    private static final Comparator<CategoryResponse> DISPLAY_ORDER =
+            Comparator.comparing(CategoryResponse::getDisplayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(CategoryResponse::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /** Số thứ tự của snapshot, tăng dần sau mỗi lần build */
+    private final long version;
+
+    /** Phiên bản thay đổi (invalidation) mà snapshot này đã phản ánh */
+    private final long sourceVersion;
+
+    private final LocalDateTime builtAt;
+
+    private final long buildDurationNanos;
+
+    /** Tất cả category đang hoạt động, sắp xếp theo displayOrder rồi name */
+    private final List<CategoryResponse> activeCategories;
+
+    /** Các category gốc của forest */
+    private final List<CategoryResponse> roots;
+
+    private final Map<UUID, CategoryResponse> byId;
+
+    private final Map<UUID, List<CategoryResponse>> childrenByParentId;
+
+    /** ETag / Last-Modified của danh sách active, tính từ dữ liệu của snapshot nên giống nhau giữa các instance */
+    private final ResourceVersion resourceVersion;
+
+    CategorySnapshot(long version, long sourceVersion, List<CategoryResponse> categories, long buildStartNanos) {
+        List<CategoryResponse> sorted = new ArrayList<>(categories);
+        sorted.sort(DISPLAY_ORDER);
+
+        Map<UUID, CategoryResponse> index = new HashMap<>(Math.max(16, sorted.size() * 4 / 3 + 1));
+        LocalDateTime lastModified = null;
+        for (CategoryResponse category : sorted) {
+            index.put(category.getId(), category);
+            LocalDateTime updatedAt = category.getUpdatedAt();
+            if (updatedAt != null && (lastModified == null || updatedAt.isAfter(lastModified))) {
+                lastModified = updatedAt;
+            }
+        }
+
+        List<CategoryResponse> rootList = new ArrayList<>();
+        Map<UUID, List<CategoryResponse>> children = new LinkedHashMap<>();
+        for (CategoryResponse category : sorted) {
+            UUID parentId = category.getParentId();
+            if (parentId == null || !index.containsKey(parentId)) {
+                rootList.add(category);
+            } else {
+                children.computeIfAbsent(parentId, key -> new ArrayList<>()).add(category);
+            }
+        }
+        children.replaceAll((key, value) -> List.copyOf(value));
+
+        this.version = version;
+        this.sourceVersion = sourceVersion;
+        this.activeCategories = List.copyOf(sorted);
+        this.roots = List.copyOf(rootList);
+        this.byId = Collections.unmodifiableMap(index);
+        this.childrenByParentId = Collections.unmodifiableMap(children);
+        this.resourceVersion = ResourceVersion.of("categories-active", sorted.size(), lastModified);
+        this.builtAt = LocalDateTime.now();
+        this.buildDurationNanos = System.nanoTime() - buildStartNanos;
+    }
+
+    /**
+     * Lấy các category con đang hoạt động của một category
+     */
+    public List<CategoryResponse> getChildren(UUID parentId) {
+        return childrenByParentId.getOrDefault(parentId, List.of());
+    }
+
+    public int size() {
+        return activeCategories.size();
+    }
+}
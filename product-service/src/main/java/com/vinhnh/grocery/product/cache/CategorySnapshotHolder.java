@@ -0,0 +1,111 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.vinhnh.grocery.common.datasource.DataSourceRouting;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategorySnapshotStats;
+import com.vinhnh.grocery.product.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Giữ snapshot copy-on-write của các category đang hoạt động.
+ * 
+ * - Đọc: chỉ là một volatile read, không lock, không truy vấn database.
+ * - Ghi: mỗi thay đổi category (sau khi commit) tăng requestedVersion. Request đọc kế tiếp
+ *   thấy snapshot đã cũ sẽ build lại và thay thế snapshot một cách atomic.
+ * - Trong lúc một thread đang build, các thread khác tiếp tục đọc snapshot cũ thay vì chờ.
+ * 
+ * Phương thức current() phải được gọi bên trong transaction (các service method đều có @Transactional),
+ * trước câu SQL đầu tiên của transaction: snapshot luôn được build từ primary, không từ replica.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategorySnapshotHolder {
+
+    private final CategoryRepository categoryRepository;
+
+    private final AtomicLong requestedVersion = new AtomicLong(1);
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile CategorySnapshot snapshot;
+
+    /**
+     * Lấy snapshot hiện tại, build lại nếu đã bị invalidate
+     */
+    public CategorySnapshot current() {
+        CategorySnapshot current = snapshot;
+        if (current != null && current.getSourceVersion() >= requestedVersion.get()) {
+            return current;
+        }
+        if (current != null && !rebuildLock.tryLock()) {
+            // Một thread khác đang build, tạm thời dùng snapshot cũ
+            return current;
+        }
+        if (current == null) {
+            rebuildLock.lock();
+        }
+        try {
+            return rebuildIfStale();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Đánh dấu snapshot đã cũ, lần đọc kế tiếp sẽ build lại
+     */
+    public void invalidate() {
+        requestedVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        log.debug("Category {} changed, invalidating active category snapshot", event.getCategoryId());
+        invalidate();
+    }
+
+    public CategorySnapshotStats getStats() {
+        CategorySnapshot current = snapshot;
+        long requested = requestedVersion.get();
+        if (current == null) {
+            return new CategorySnapshotStats(0, requested, true, 0, null, 0, rebuildCount.get());
+        }
+        return new CategorySnapshotStats(
+                current.getVersion(),
+                requested,
+                current.getSourceVersion() < requested,
+                current.size(),
+                current.getBuiltAt(),
+                current.getBuildDurationNanos() / 1_000_000,
+                rebuildCount.get());
+    }
+
+    private CategorySnapshot rebuildIfStale() {
+        CategorySnapshot current = snapshot;
+        // Đọc requestedVersion TRƯỚC khi truy vấn: thay đổi commit sau thời điểm này
+        // sẽ làm snapshot mới bị coi là cũ và được build lại ở lần đọc sau
+        long target = requestedVersion.get();
+        if (current != null && current.getSourceVersion() >= target) {
+            return current;
+        }
+
+        long start = System.nanoTime();
+        List<CategoryResponse> categories = DataSourceRouting.onPrimary(categoryRepository::findActiveResponses);
+        long version = current == null ? 1 : current.getVersion() + 1;
+        CategorySnapshot rebuilt = new CategorySnapshot(version, target, categories, start);
+
+        snapshot = rebuilt;
+        rebuildCount.incrementAndGet();
+        log.info("Rebuilt active category snapshot v{} with {} categories in {} ms",
+                rebuilt.getVersion(), rebuilt.size(), rebuilt.getBuildDurationNanos() / 1_000_000);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,47 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.vinhnh.grocery.product.dto.CategorySnapshotStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đưa thông tin snapshot category (GET /api/v1/categories/active/snapshot) lên Prometheus.
+ * Các gauge chỉ đọc trạng thái hiện tại, không kích hoạt rebuild snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategorySnapshotMetrics implements MeterBinder {
+
+    private final CategorySnapshotHolder categorySnapshotHolder;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("category.snapshot.size", this, metrics -> metrics.stats().getSize())
+                .description("Số category đang hoạt động trong snapshot")
+                .register(registry);
+        Gauge.builder("category.snapshot.version", this, metrics -> metrics.stats().getVersion())
+                .description("Số thứ tự của snapshot hiện tại")
+                .register(registry);
+        Gauge.builder("category.snapshot.stale", this, metrics -> metrics.stats().isStale() ? 1 : 0)
+                .description("1 nếu snapshot đã bị invalidate và chưa được build lại")
+                .register(registry);
+        TimeGauge.builder("category.snapshot.build.duration", this, TimeUnit.MILLISECONDS,
+                        metrics -> metrics.stats().getLastBuildMillis())
+                .description("Thời gian build snapshot gần nhất")
+                .register(registry);
+        FunctionCounter.builder("category.snapshot.rebuilds", this, metrics -> metrics.stats().getRebuildCount())
+                .description("Tổng số lần build lại snapshot")
+                .register(registry);
+    }
+
+    private CategorySnapshotStats stats() {
+        return categorySnapshotHolder.getStats();
+    }
+}
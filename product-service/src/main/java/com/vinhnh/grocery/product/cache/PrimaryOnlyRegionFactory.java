@@ -0,0 +1,78 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.vinhnh.grocery.common.datasource.DataSourceRouting;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Region factory JCache chỉ nạp entity và kết quả query cache từ dữ liệu đọc ở primary.
+ *
+ * Transaction read-only đọc từ replica (DataSourceRouting.isReadingFromReplica) vẫn đọc cache nhưng không ghi vào
+ * cache: replica có thể trễ, entry đọc từ đó sẽ được trả cho cả transaction đọc primary cho đến khi hết thời gian
+ * sống của region. Chặn ở tầng lưu trữ thay vì CacheMode.GET của session: với GET, Hibernate vẫn lưu kết quả
+ * query cache khi tra cứu trượt. Xóa / invalidate entry và region timestamps không bị ảnh hưởng.
+ */
+public class PrimaryOnlyRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new PrimaryOnlyStorageAccess(super.createDomainDataStorageAccess(regionConfig, buildingContext));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new PrimaryOnlyStorageAccess(super.createQueryResultsRegionStorageAccess(regionName, sessionFactory));
+    }
+
+    private record PrimaryOnlyStorageAccess(StorageAccess delegate) implements DomainDataStorageAccess {
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return delegate.getFromCache(key, session);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            if (!DataSourceRouting.isReadingFromReplica()) {
+                delegate.putIntoCache(key, value, session);
+            }
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            delegate.removeFromCache(key, session);
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            delegate.clearCache(session);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return delegate.contains(key);
+        }
+
+        @Override
+        public void evictData() {
+            delegate.evictData();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            delegate.evictData(key);
+        }
+
+        @Override
+        public void release() {
+            delegate.release();
+        }
+    }
+}
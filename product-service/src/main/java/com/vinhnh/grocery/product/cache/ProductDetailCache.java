@@ -0,0 +1,146 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.vinhnh.grocery.product.dto.ProductDetailCacheStats;
+import com.vinhnh.grocery.product.dto.ProductDetailResponse;
+import com.vinhnh.grocery.product.dto.ProductVariantDetail;
+import com.vinhnh.grocery.product.inventory.InventoryChangedEvent;
+import com.vinhnh.grocery.product.inventory.InventoryDelta;
+import com.vinhnh.grocery.product.search.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU cho chi tiết sản phẩm (product, category, brand, variant, hình ảnh, tồn kho).
+ *
+ * Entry bị xóa sau khi transaction ghi vào bất kỳ phần nào của aggregate commit:
+ * - ProductChangedEvent: product / variant / hình ảnh của product.
+ * - CategoryChangedEvent: các product thuộc category đó (null: xóa toàn bộ).
+ * - InventoryChangedEvent có thay đổi quantity (nhập kho, xuất hàng). Thay đổi chỉ ở reserved_quantity
+ *   (giữ hàng / trả hàng) không xóa entry: số lượng có thể bán được đọc lại từ AvailabilitySnapshot mỗi request.
+ *
+ * Người đọc lấy generation() trước khi đọc database và truyền vào put: kết quả đọc trước một lần invalidate
+ * (có thể đã cũ) không được đưa vào cache.
+ */
+@Component
+@Slf4j
+public class ProductDetailCache {
+
+    private final int capacity;
+    // Guarded by this
+    private final LinkedHashMap<UUID, ProductDetailResponse> entries;
+    private final Map<UUID, UUID> productOfVariant = new HashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ProductDetailCache(ProductDetailProperties properties) {
+        this.capacity = properties.getCacheSize();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Chi tiết product đã cache, null nếu chưa có
+     */
+    public synchronized ProductDetailResponse get(UUID productId) {
+        ProductDetailResponse detail = entries.get(productId);
+        if (detail == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return detail;
+    }
+
+    /**
+     * Thế hệ hiện tại, lấy trước khi đọc database
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Đưa chi tiết product vào cache nếu không có invalidate nào kể từ readGeneration.
+     * Không được sửa detail sau khi đã đưa vào cache.
+     */
+    public synchronized void put(ProductDetailResponse detail, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        remove(detail.getId());
+        entries.put(detail.getId(), detail);
+        for (ProductVariantDetail variant : detail.getVariants()) {
+            productOfVariant.put(variant.getId(), detail.getId());
+        }
+        if (entries.size() > capacity) {
+            Iterator<Map.Entry<UUID, ProductDetailResponse>> eldest = entries.entrySet().iterator();
+            ProductDetailResponse evicted = eldest.next().getValue();
+            eldest.remove();
+            evicted.getVariants().forEach(variant -> productOfVariant.remove(variant.getId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        event.getProductIds().forEach(this::invalidate);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCategoryChanged(CategoryChangedEvent event) {
+        generation.incrementAndGet();
+        UUID categoryId = event.getCategoryId();
+        entries.values().stream()
+                .filter(detail -> categoryId == null || categoryId.equals(detail.getCategoryId()))
+                .map(ProductDetailResponse::getId)
+                .toList()
+                .forEach(this::invalidate);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onInventoryChanged(InventoryChangedEvent event) {
+        boolean quantityChanged = false;
+        for (InventoryDelta delta : event.getDeltas()) {
+            if (delta.getQuantityDelta() != 0) {
+                quantityChanged = true;
+                UUID productId = productOfVariant.get(delta.getProductVariantId());
+                if (productId != null) {
+                    invalidate(productId);
+                }
+            }
+        }
+        if (quantityChanged) {
+            generation.incrementAndGet();
+        }
+    }
+
+    public synchronized ProductDetailCacheStats getStats() {
+        return new ProductDetailCacheStats(entries.size(), capacity, hits.sum(), misses.sum(), invalidations.sum());
+    }
+
+    private void invalidate(UUID productId) {
+        if (remove(productId)) {
+            invalidations.increment();
+            log.debug("Invalidated product detail {}", productId);
+        }
+    }
+
+    private boolean remove(UUID productId) {
+        ProductDetailResponse removed = entries.remove(productId);
+        if (removed == null) {
+            return false;
+        }
+        removed.getVariants().forEach(variant -> productOfVariant.remove(variant.getId(), productId));
+        return true;
+    }
+}
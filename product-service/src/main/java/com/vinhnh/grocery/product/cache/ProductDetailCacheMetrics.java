@@ -0,0 +1,40 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.vinhnh.grocery.product.dto.ProductDetailCacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đưa kích thước và tỉ lệ trúng của cache chi tiết sản phẩm lên Prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductDetailCacheMetrics implements MeterBinder {
+
+    private final ProductDetailCache productDetailCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.detail.cache.size", this, metrics -> metrics.stats().getSize())
+                .description("Số product trong cache chi tiết")
+                .register(registry);
+        FunctionCounter.builder("product.detail.cache.hits", this, metrics -> metrics.stats().getHits())
+                .description("Số lượt đọc chi tiết product lấy từ cache")
+                .register(registry);
+        FunctionCounter.builder("product.detail.cache.misses", this, metrics -> metrics.stats().getMisses())
+                .description("Số lượt đọc chi tiết product phải truy vấn database")
+                .register(registry);
+        FunctionCounter.builder("product.detail.cache.invalidations", this,
+                        metrics -> metrics.stats().getInvalidations())
+                .description("Số entry bị xóa do aggregate thay đổi")
+                .register(registry);
+    }
+
+    private ProductDetailCacheStats stats() {
+        return productDetailCache.getStats();
+    }
+}
@@ -0,0 +1,17 @@
+package com.vinhnh.grocery.product.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Cấu hình cho cache chi tiết sản phẩm (grocery.product-detail.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.product-detail")
+public class ProductDetailProperties {
+
+    /**
+     * Số product tối đa giữ trong cache, product ít được xem gần đây nhất bị thay trước
+     */
+    private int cacheSize = 10_000;
+}
@@ -0,0 +1,55 @@
+package com.vinhnh.grocery.product.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Đánh dấu kết quả query cache trên các bảng bị ghi bằng JDBC (bỏ qua Hibernate) là cũ.
+ *
+ * Hibernate tự làm việc này cho câu lệnh đi qua session: ghi nhận thời điểm ghi của bảng vào
+ * default-update-timestamps-region, kết quả query cache có trước thời điểm đó bị bỏ qua.
+ * Ở đây làm tương tự: trong transaction đặt thời điểm ghi về tương lai để không query nào đưa kết quả
+ * vào cache trong lúc chưa commit, kết thúc transaction thì đặt lại thành thời điểm hiện tại.
+ */
+@Component
+public class QueryCacheInvalidator {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public QueryCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * @param tables tên bảng bị ghi trong transaction hiện tại
+     */
+    public void invalidate(String... tables) {
+        TimestampsCache timestamps = sessionFactory.getCache().getTimestampsCache();
+        withSession(session -> timestamps.preInvalidate(tables, session));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            withSession(session -> timestamps.invalidate(tables, session));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                withSession(session -> timestamps.invalidate(tables, session));
+            }
+        });
+    }
+
+    private void withSession(Consumer<SharedSessionContractImplementor> action) {
+        // Session chỉ để Hibernate lấy cấu hình / thống kê, không mở kết nối database
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            action.accept((SharedSessionContractImplementor) session);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Đưa số lượt trúng / trượt, số entry bị loại và kích thước của từng region second-level cache lên Prometheus.
+ * Số liệu lấy từ thống kê của cache Caffeine bên dưới, nên gồm cả entry bị loại do vượt kích thước hoặc hết hạn.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final CacheManager secondLevelCacheManager;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : secondLevelCacheManager.getCacheNames()) {
+            Cache<?, ?> cache = secondLevelCacheManager.getCache(region).unwrap(Cache.class);
+            FunctionCounter.builder("second.level.cache.requests", cache, stat(CacheStats::hitCount))
+                    .tags("region", region, "result", "hit")
+                    .description("Số lượt đọc region tìm thấy entry")
+                    .register(registry);
+            FunctionCounter.builder("second.level.cache.requests", cache, stat(CacheStats::missCount))
+                    .tags("region", region, "result", "miss")
+                    .description("Số lượt đọc region không có entry, phải truy vấn database")
+                    .register(registry);
+            FunctionCounter.builder("second.level.cache.evictions", cache, stat(CacheStats::evictionCount))
+                    .tags("region", region)
+                    .description("Số entry bị loại do vượt kích thước hoặc hết thời gian sống")
+                    .register(registry);
+            Gauge.builder("second.level.cache.size", cache, Cache::estimatedSize)
+                    .tags("region", region)
+                    .description("Số entry ước lượng trong region")
+                    .register(registry);
+        }
+    }
+
+    private static ToDoubleFunction<Cache<?, ?>> stat(ToDoubleFunction<CacheStats> value) {
+        return cache -> value.applyAsDouble(cache.stats());
+    }
+}
@@ -0,0 +1,37 @@
+package com.vinhnh.grocery.product.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cấu hình second-level cache của Hibernate (grocery.second-level-cache.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Giới hạn theo region, key là tên region: category, branch (entity) và default-query-results-region
+     * (kết quả query cache). Region Hibernate cần mà không khai báo ở đây làm ứng dụng không khởi động được.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        /**
+         * Số entry tối đa, vượt quá thì entry ít được dùng bị loại
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Thời gian sống tính từ lúc ghi. Cũng là giới hạn độ cũ của dữ liệu khi chạy nhiều instance,
+         * vì mỗi instance giữ cache riêng và chỉ thấy thay đổi do chính nó ghi.
+         */
+        private Duration timeToLive = Duration.ofHours(1);
+    }
+}
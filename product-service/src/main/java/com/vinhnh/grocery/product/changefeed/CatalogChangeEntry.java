@@ -0,0 +1,35 @@
+package com.vinhnh.grocery.product.changefeed;
+
+import com.vinhnh.grocery.product.dto.CatalogChangeType;
+import com.vinhnh.grocery.product.dto.CatalogEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Thay đổi chờ ghi vào change log khi transaction commit
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogChangeEntry {
+
+    private final CatalogEntityType entityType;
+    private final UUID entityId;
+    private final UUID parentId;
+    private final CatalogChangeType changeType;
+    private final BigDecimal price;
+
+    public static CatalogChangeEntry category(UUID id, UUID parentId, CatalogChangeType changeType) {
+        return new CatalogChangeEntry(CatalogEntityType.CATEGORY, id, parentId, changeType, null);
+    }
+
+    public static CatalogChangeEntry product(UUID id, UUID categoryId, CatalogChangeType changeType) {
+        return new CatalogChangeEntry(CatalogEntityType.PRODUCT, id, categoryId, changeType, null);
+    }
+
+    public static CatalogChangeEntry variant(UUID id, UUID productId, BigDecimal price, CatalogChangeType changeType) {
+        return new CatalogChangeEntry(CatalogEntityType.VARIANT, id, productId, changeType, price);
+    }
+}
@@ -0,0 +1,177 @@
+package com.vinhnh.grocery.product.changefeed;
+
+import com.vinhnh.grocery.product.dto.CatalogChangeItem;
+import com.vinhnh.grocery.product.dto.CatalogChangeType;
+import com.vinhnh.grocery.product.dto.CatalogEntityType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Change log của catalog: ghi thay đổi của category / product / variant và đọc lại theo seq.
+ *
+ * - record / recordAll gom thay đổi vào transaction hiện tại (một đối tượng chỉ giữ thay đổi cuối cùng,
+ *   CREATED rồi UPDATED trong cùng transaction vẫn là CREATED). Ngay trước commit, seq được cấp từ dòng
+ *   catalog_change_sequence và các dòng catalog_change được insert trong chính transaction đó: rollback thì
+ *   change log cũng rollback.
+ * - UPDATE bộ đếm giữ khóa dòng đến khi commit, nên các transaction ghi change log commit lần lượt và seq
+ *   tăng theo đúng thứ tự commit: client đọc "seq > token" không bỏ sót thay đổi của transaction commit muộn
+ *   với seq nhỏ hơn. Khóa chỉ giữ trong khoảng từ trước commit đến commit.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class CatalogChangeLog {
+
+    private static final int SEQUENCE_ID = 1;
+
+    private static final String INIT_SEQUENCE = """
+            INSERT INTO catalog_change_sequence (id, last_seq)
+            SELECT ?, COALESCE(MAX(seq), 0) FROM catalog_change
+            WHERE NOT EXISTS (SELECT 1 FROM catalog_change_sequence WHERE id = ?)
+            """;
+    private static final String ALLOCATE_SEQUENCE =
+            "UPDATE catalog_change_sequence SET last_seq = last_seq + ? WHERE id = ?";
+    private static final String CURRENT_SEQUENCE = "SELECT last_seq FROM catalog_change_sequence WHERE id = ?";
+    private static final String INSERT_CHANGE = """
+            INSERT INTO catalog_change (seq, entity_type, entity_id, parent_id, change_type, price, changed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String CHANGES_AFTER = """
+            SELECT seq, entity_type, entity_id, parent_id, change_type, price, changed_at
+            FROM catalog_change
+            WHERE seq > ?
+            ORDER BY seq
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogChangeLog(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void initSequence() {
+        try {
+            jdbcTemplate.update(INIT_SEQUENCE, SEQUENCE_ID, SEQUENCE_ID);
+        } catch (DuplicateKeyException e) {
+            // Instance khác vừa tạo bộ đếm
+        }
+        log.info("Catalog change log at sequence {}", currentSequence());
+    }
+
+    /**
+     * Ghi một thay đổi trong transaction hiện tại
+     * @throws IllegalStateException nếu không có transaction
+     */
+    public void record(CatalogChangeEntry entry) {
+        recordAll(List.of(entry));
+    }
+
+    /**
+     * Ghi các thay đổi trong transaction hiện tại
+     * @throws IllegalStateException nếu không có transaction
+     */
+    public void recordAll(Collection<CatalogChangeEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change log catalog phải được ghi trong transaction của thay đổi");
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        entries.forEach(pending::add);
+    }
+
+    /**
+     * Seq của thay đổi cuối cùng đã commit
+     */
+    public long currentSequence() {
+        Long sequence = jdbcTemplate.queryForObject(CURRENT_SEQUENCE, Long.class, SEQUENCE_ID);
+        return sequence == null ? 0 : sequence;
+    }
+
+    /**
+     * Các thay đổi có seq lớn hơn afterSequence, theo thứ tự seq
+     */
+    public List<CatalogChangeItem> readAfter(long afterSequence, int limit) {
+        return jdbcTemplate.query(CHANGES_AFTER, (rs, rowNum) -> new CatalogChangeItem(
+                rs.getLong(1),
+                CatalogEntityType.valueOf(rs.getString(2)),
+                rs.getObject(3, UUID.class),
+                rs.getObject(4, UUID.class),
+                CatalogChangeType.valueOf(rs.getString(5)),
+                rs.getBigDecimal(6),
+                rs.getObject(7, LocalDateTime.class)), afterSequence, limit);
+    }
+
+    private void write(Collection<CatalogChangeEntry> entries) {
+        int count = entries.size();
+        if (jdbcTemplate.update(ALLOCATE_SEQUENCE, count, SEQUENCE_ID) != 1) {
+            throw new IllegalStateException("Không tìm thấy bộ đếm seq của change log catalog");
+        }
+        long sequence = currentSequence() - count;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(count);
+        for (CatalogChangeEntry entry : entries) {
+            args.add(new Object[]{++sequence, entry.getEntityType().name(), entry.getEntityId(), entry.getParentId(),
+                    entry.getChangeType().name(), entry.getPrice(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, args);
+    }
+
+    /**
+     * Thay đổi của một transaction, ghi xuống database ngay trước commit
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<Key, CatalogChangeEntry> entries = new LinkedHashMap<>();
+
+        void add(CatalogChangeEntry entry) {
+            Key key = new Key(entry.getEntityType(), entry.getEntityId());
+            CatalogChangeEntry previous = entries.remove(key);
+            if (previous != null && previous.getChangeType() == CatalogChangeType.CREATED
+                    && entry.getChangeType() == CatalogChangeType.UPDATED) {
+                entry = new CatalogChangeEntry(entry.getEntityType(), entry.getEntityId(), entry.getParentId(),
+                        CatalogChangeType.CREATED, entry.getPrice());
+            }
+            entries.put(key, entry);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!entries.isEmpty()) {
+                write(entries.values());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogChangeLog.this);
+        }
+    }
+
+    private record Key(CatalogEntityType entityType, UUID entityId) {
+    }
+}
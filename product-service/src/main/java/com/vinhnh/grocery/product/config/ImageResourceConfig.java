@@ -0,0 +1,30 @@
+package com.vinhnh.grocery.product.config;
+
+import com.vinhnh.grocery.product.image.ImageProperties;
+import com.vinhnh.grocery.product.image.ImageStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phục vụ thư mục ảnh sản phẩm tại grocery.image.public-url.
+ * Tên file không bao giờ bị ghi đè bằng nội dung khác nên client được cache lâu dài.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ImageResourceConfig implements WebMvcConfigurer {
+
+    private final ImageProperties imageProperties;
+    private final ImageStorage imageStorage;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(imageProperties.getPublicUrl().replaceAll("/+$", "") + "/**")
+                .addResourceLocations(imageStorage.getRoot().toUri().toString())
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+    }
+}
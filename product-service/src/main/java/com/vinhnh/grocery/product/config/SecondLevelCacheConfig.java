@@ -0,0 +1,79 @@
+package com.vinhnh.grocery.product.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.vinhnh.grocery.product.cache.PrimaryOnlyRegionFactory;
+import com.vinhnh.grocery.product.cache.SecondLevelCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache của Hibernate cho dữ liệu tham chiếu (Category, Branch) và query cache, lưu bằng Caffeine qua JCache.
+ *
+ * - Mỗi region là một cache Caffeine với số entry và thời gian sống lấy từ grocery.second-level-cache.regions.
+ *   Region không được khai báo làm Hibernate dừng khởi động (missing_cache_strategy = fail), không có cache nào
+ *   tự tạo ra mà không giới hạn.
+ * - Region default-update-timestamps-region (thời điểm ghi cuối của từng bảng) không giới hạn và không hết hạn:
+ *   mất entry ở đây làm query cache trả kết quả cũ. Số entry bằng số bảng nên không cần giới hạn.
+ * - Entry lưu theo tham chiếu: Hibernate chỉ đưa vào cache trạng thái đã tách rời, không sửa lại sau khi ghi.
+ * - Cache chỉ được nạp từ dữ liệu đọc ở primary: transaction đọc replica chỉ đọc cache, không ghi vào cache
+ *   (PrimaryOnlyRegionFactory), nên dữ liệu trễ của replica không được trả cho transaction đọc primary.
+ */
+@Configuration
+@Slf4j
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Provider giữ CacheManager theo URI: mỗi application context dùng URI riêng để không chia sẻ cache
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("grocery-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        properties.getRegions().forEach((name, region) -> {
+            if (RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(name)) {
+                throw new IllegalArgumentException("Region " + name + " không được giới hạn kích thước / thời gian sống");
+            }
+            cacheManager.createCache(name, configuration(region.getMaximumSize(), region.getTimeToLive().toNanos()));
+            log.info("Second-level cache region {}: maximumSize={}, timeToLive={}",
+                    name, region.getMaximumSize(), region.getTimeToLive());
+        });
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        timestamps.setNativeStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, new PrimaryOnlyRegionFactory());
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(long maximumSize, long timeToLiveNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(timeToLiveNanos));
+        // Thống kê của Caffeine (hit / miss / eviction), đọc bởi SecondLevelCacheMetrics
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
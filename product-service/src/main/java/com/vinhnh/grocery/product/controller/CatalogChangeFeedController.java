@@ -0,0 +1,136 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.CatalogChangeFeedResponse;
+import com.vinhnh.grocery.product.service.CatalogChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller cho change feed catalog
+ */
+@RestController
+@RequestMapping("/api/v1/catalog/changes")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Catalog Change Feed", description = "APIs đọc các thay đổi của catalog để đồng bộ cache")
+public class CatalogChangeFeedController {
+
+    private final CatalogChangeFeedService catalogChangeFeedService;
+
+    /**
+     * Lấy các thay đổi sau token
+     * GET /api/v1/catalog/changes?token=...&limit=500
+     */
+    @GetMapping
+    @Operation(
+        summary = "Các thay đổi của catalog",
+        description = "Trả về các category, product, variant được tạo, cập nhật hoặc vô hiệu hóa (kèm giá variant) " +
+                     "theo thứ tự seq tăng dần. Gửi nextToken ở lần gọi sau để đọc tiếp, gọi lại khi hasMore = true. " +
+                     "Mỗi đối tượng chỉ có một dòng cho mỗi transaction; client áp dụng theo thứ tự và đọc lại " +
+                     "đối tượng nếu cần thêm dữ liệu. Một thay đổi không bao giờ xuất hiện sau token đã vượt qua nó.",
+        tags = {"Catalog Change Feed"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy thay đổi thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Lấy thay đổi catalog thành công",
+                        "data": {
+                            "changes": [
+                                {
+                                    "sequence": 1041,
+                                    "entityType": "VARIANT",
+                                    "entityId": "423e4567-e89b-12d3-a456-426614174000",
+                                    "parentId": "123e4567-e89b-12d3-a456-426614174000",
+                                    "changeType": "CREATED",
+                                    "price": 32000.00,
+                                    "changedAt": "2024-01-15T10:30:00"
+                                },
+                                {
+                                    "sequence": 1042,
+                                    "entityType": "CATEGORY",
+                                    "entityId": "223e4567-e89b-12d3-a456-426614174000",
+                                    "parentId": null,
+                                    "changeType": "DEACTIVATED",
+                                    "price": null,
+                                    "changedAt": "2024-01-15T10:31:12"
+                                }
+                            ],
+                            "nextToken": "djF8Y2F0YWxvZzpjaGFuZ2VzfDEwNDI",
+                            "hasMore": false
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Token không hợp lệ hoặc limit ngoài khoảng 1..1000")
+    })
+    public ResponseEntity<DataResponse<CatalogChangeFeedResponse>> getChanges(
+        @Parameter(description = "Token từ lần gọi trước, bỏ trống để đọc từ đầu", example = "djF8Y2F0YWxvZzpjaGFuZ2VzfDEwNDI")
+        @RequestParam(required = false) String token,
+        @Parameter(description = "Số thay đổi tối đa (1..1000)", example = "500")
+        @RequestParam(defaultValue = "500") int limit) {
+        log.debug("Getting catalog changes after token {}", token);
+        CatalogChangeFeedResponse response = catalogChangeFeedService.getChanges(token, limit);
+        return ResponseEntity.ok(DataResponse.success("Lấy thay đổi catalog thành công", response));
+    }
+
+    /**
+     * Lấy token của thay đổi mới nhất
+     * GET /api/v1/catalog/changes/token
+     */
+    @GetMapping("/token")
+    @Operation(
+        summary = "Token hiện tại của change feed",
+        description = "Trả về token trỏ tới thay đổi mới nhất. Khi khởi tạo cache, lấy token này trước rồi mới đọc " +
+                     "toàn bộ catalog (ví dụ bằng /api/v1/catalog/export); các thay đổi xảy ra trong lúc đọc sẽ " +
+                     "có trong change feed từ token.",
+        tags = {"Catalog Change Feed"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy token thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Lấy token change feed thành công",
+                        "data": "djF8Y2F0YWxvZzpjaGFuZ2VzfDEwNDI"
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<DataResponse<String>> getCurrentToken() {
+        log.debug("Getting current catalog change token");
+        return ResponseEntity.ok(DataResponse.success("Lấy token change feed thành công",
+                catalogChangeFeedService.getCurrentToken()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.product.dto.CatalogExportFormat;
+import com.vinhnh.grocery.product.service.CatalogExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST Controller cho export catalog dạng stream
+ */
+@RestController
+@RequestMapping("/api/v1/catalog/export")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Catalog Export", description = "APIs export toàn bộ catalog cho đối tác và kho dữ liệu")
+public class CatalogExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final CatalogExportService catalogExportService;
+
+    /**
+     * Export catalog
+     * GET /api/v1/catalog/export?format=ndjson|csv&gzip=true|false
+     */
+    @GetMapping
+    @Operation(
+        summary = "Export catalog",
+        description = "Trả về toàn bộ catalog, mỗi variant một dòng gồm product, category, brand, giá và số lượng " +
+                     "có thể bán; product chưa có variant có một dòng với các cột variant rỗng. " +
+                     "Dữ liệu được đọc bằng cursor và ghi dần vào response, client nhận dòng đầu tiên ngay " +
+                     "và bộ nhớ server không tăng theo kích thước catalog. " +
+                     "Ví dụ: curl -o catalog.csv.gz '.../api/v1/catalog/export?format=csv&gzip=true'",
+        tags = {"Catalog Export"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Catalog dạng NDJSON, CSV (có header) hoặc gzip của một trong hai",
+            content = @Content(
+                mediaType = "application/x-ndjson",
+                examples = @ExampleObject(
+                    name = "NDJSON Row",
+                    value = """
+                    {"productId":"123e4567-e89b-12d3-a456-426614174000","productName":"Sữa tươi tiệt trùng","unit":"hộp","productActive":true,"categoryId":"223e4567-e89b-12d3-a456-426614174000","categoryName":"Sữa","brandId":"323e4567-e89b-12d3-a456-426614174000","brandName":"Vinamilk","variantId":"423e4567-e89b-12d3-a456-426614174000","sku":"MILK-1L-001","size":"1L","color":null,"price":32000.00,"variantActive":true,"availableQuantity":97}
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Định dạng không phải ndjson hoặc csv")
+    })
+    public ResponseEntity<StreamingResponseBody> export(
+        @Parameter(description = "Định dạng: ndjson hoặc csv", example = "ndjson")
+        @RequestParam(defaultValue = "ndjson") String format,
+        @Parameter(description = "Nén gzip", example = "false")
+        @RequestParam(defaultValue = "false") boolean gzip) {
+        CatalogExportFormat exportFormat = CatalogExportFormat.from(format);
+        log.info("Exporting catalog as {} (gzip: {})", exportFormat, gzip);
+
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+                catalogExportService.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                catalogExportService.export(exportFormat, output);
+            }
+        };
+
+        String fileName = "catalog." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,130 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.CatalogImportResponse;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * REST Controller cho import catalog hàng loạt
+ * Nhận file NDJSON hoặc CSV dạng stream (brands, categories, products, variants)
+ */
+@RestController
+@RequestMapping("/api/v1/catalog/import")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Catalog Import", description = "APIs để import catalog hàng loạt")
+public class CatalogImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    private static final String IMPORT_DESCRIPTION =
+            "Mỗi dòng có field type (BRAND, CATEGORY, PRODUCT, VARIANT). Các dòng tham chiếu nhau bằng tên " +
+            "(parent, category, brand, product) hoặc SKU, dòng cha phải đứng trước dòng con. " +
+            "Dòng đã tồn tại được đánh dấu SKIPPED nên có thể import lại cùng một file. " +
+            "Dữ liệu được đọc dạng stream và ghi bằng JDBC batch theo từng chunk 1000 dòng.";
+
+    private final CatalogImportService catalogImportService;
+
+    /**
+     * Import catalog từ NDJSON
+     * POST /api/v1/catalog/import (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(consumes = NDJSON)
+    @Operation(
+        summary = "Import catalog từ NDJSON",
+        description = "Import hàng loạt từ NDJSON, mỗi dòng là một JSON object. " + IMPORT_DESCRIPTION,
+        tags = {"Catalog Import"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import hoàn tất, xem kết quả từng dòng",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Import catalog hoàn tất",
+                        "data": {
+                            "total": 3,
+                            "created": 2,
+                            "skipped": 0,
+                            "failed": 1,
+                            "durationMillis": 42,
+                            "rows": [
+                                {"line": 1, "type": "BRAND", "key": "Vinamilk", "status": "CREATED", "id": "123e4567-e89b-12d3-a456-426614174000"},
+                                {"line": 2, "type": "CATEGORY", "key": "Sữa", "status": "CREATED", "id": "456e7890-e89b-12d3-a456-426614174001"},
+                                {"line": 3, "type": "PRODUCT", "key": "Sữa tươi", "status": "FAILED", "message": "Brand không tồn tại: TH"}
+                            ]
+                        }
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<DataResponse<CatalogImportResponse>> importNdjson(InputStream body) {
+        log.info("Importing catalog from NDJSON");
+        CatalogImportResponse response = catalogImportService.importNdjson(body);
+        return ResponseEntity.ok(DataResponse.success("Import catalog hoàn tất", response));
+    }
+
+    /**
+     * Import catalog từ CSV
+     * POST /api/v1/catalog/import (Content-Type: text/csv)
+     */
+    @PostMapping(consumes = CSV)
+    @Operation(
+        summary = "Import catalog từ CSV",
+        description = "Import hàng loạt từ CSV có dòng header, tên cột giống tên field của NDJSON " +
+                     "(type, name, description, parent, displayOrder, logoUrl, websiteUrl, unit, category, brand, " +
+                     "product, sku, size, color, price, weight, dimensions). " + IMPORT_DESCRIPTION,
+        tags = {"Catalog Import"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import hoàn tất, xem kết quả từng dòng"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "File CSV không hợp lệ",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    name = "Bad Request Error",
+                    value = """
+                    {
+                        "success": false,
+                        "message": "File CSV không hợp lệ",
+                        "data": null
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<DataResponse<CatalogImportResponse>> importCsv(InputStream body) {
+        log.info("Importing catalog from CSV");
+        CatalogImportResponse response = catalogImportService.importCsv(body);
+        return ResponseEntity.ok(DataResponse.success("Import catalog hoàn tất", response));
+    }
+}
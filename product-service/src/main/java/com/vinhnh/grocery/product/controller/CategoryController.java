@@ -1,8 +1,13 @@
 package com.vinhnh.grocery.product.controller;
 
 import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.common.dto.CursorPage;
+import com.vinhnh.grocery.common.dto.ResourceVersion;
 import com.vinhnh.grocery.product.dto.CategoryCreateRequest;
+import com.vinhnh.grocery.product.dto.CategoryCursorSort;
 import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategorySnapshotStats;
+import com.vinhnh.grocery.product.dto.CategoryTreeNode;
 import com.vinhnh.grocery.product.dto.CategoryUpdateRequest;
 import com.vinhnh.grocery.product.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,11 +21,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -135,6 +142,10 @@ public class CategoryController {
         tags = {"Category Management"}
     )
     @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "304",
+            description = "Dữ liệu không thay đổi so với ETag trong If-None-Match (không có body)"
+        ),
         @ApiResponse(
             responseCode = "200", 
             description = "Lấy thông tin category thành công",
@@ -201,10 +212,17 @@ public class CategoryController {
                 required = true,
                 example = "123e4567-e89b-12d3-a456-426614174000"
             ) 
-            @PathVariable UUID id) {
+            @PathVariable UUID id,
+            WebRequest webRequest) {
         log.info("Getting category by ID: {}", id);
+        ResourceVersion version = categoryService.getCategoryVersion(id);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         CategoryResponse response = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(DataResponse.success("Lấy category thành công", response));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(DataResponse.success("Lấy category thành công", response));
     }
 
     /**
@@ -215,10 +233,15 @@ public class CategoryController {
     @Operation(
         summary = "Lấy danh sách categories có phân trang", 
         description = "Lấy danh sách tất cả categories với hỗ trợ phân trang, sắp xếp và lọc. " +
-                     "Mặc định trả về 20 items mỗi trang, sắp xếp theo tên.",
+                     "Mặc định trả về 20 items mỗi trang, sắp xếp theo tên. " +
+                     "Với includeTotal=false, response không có totalElements/totalPages.",
         tags = {"Category Management"}
     )
     @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "304",
+            description = "Dữ liệu không thay đổi so với ETag trong If-None-Match (không có body)"
+        ),
         @ApiResponse(
             responseCode = "200", 
             description = "Lấy danh sách categories thành công",
@@ -262,15 +285,117 @@ public class CategoryController {
             )
         )
     })
-    public ResponseEntity<DataResponse<Page<CategoryResponse>>> getAllCategories(
+    public ResponseEntity<DataResponse<Slice<CategoryResponse>>> getAllCategories(
             @Parameter(
                 description = "Thông tin phân trang và sắp xếp",
                 example = "page=0&size=20&sort=name,asc"
             )
-            @PageableDefault(size = 20, sort = "name") Pageable pageable) {
-        log.info("Getting all categories with pagination: {}", pageable);
-        Page<CategoryResponse> response = categoryService.getAllCategories(pageable);
-        return ResponseEntity.ok(DataResponse.success("Lấy danh sách categories thành công", response));
+            @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            @Parameter(
+                description = "Có trả về totalElements/totalPages hay không. " +
+                             "Đặt false để bỏ qua câu count(*) khi client không cần tổng số",
+                example = "true"
+            )
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            WebRequest webRequest) {
+        log.info("Getting all categories with pagination: {}, includeTotal: {}", pageable, includeTotal);
+        ResourceVersion version = categoryService.getCategoriesVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
+        Slice<CategoryResponse> response = includeTotal
+                ? categoryService.getAllCategories(pageable)
+                : categoryService.getCategorySlice(pageable);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(DataResponse.success("Lấy danh sách categories thành công", response));
+    }
+
+    /**
+     * Lấy categories theo cursor (keyset pagination)
+     * GET /api/v1/categories/scroll?sort=DISPLAY_ORDER&size=20&cursor=...
+     */
+    @GetMapping("/scroll")
+    @Operation(
+        summary = "Lấy danh sách categories theo cursor",
+        description = "Phân trang theo cursor (keyset) thay cho page/offset: chi phí mỗi trang như nhau dù ở trang thứ bao nhiêu, " +
+                     "và category mới chèn vào không làm lệch kết quả giữa các trang. " +
+                     "Truyền nextCursor của response trước (cùng giá trị sort) để lấy trang kế tiếp.",
+        tags = {"Category Management"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "304",
+            description = "Dữ liệu không thay đổi so với ETag trong If-None-Match (không có body)"
+        ),
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy danh sách categories thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "success": true,
+                        "message": "Lấy danh sách categories thành công",
+                        "data": {
+                            "content": [
+                                {
+                                    "id": "123e4567-e89b-12d3-a456-426614174000",
+                                    "name": "Rau củ quả",
+                                    "description": "Các loại rau củ quả tươi",
+                                    "displayOrder": 0,
+                                    "isActive": true,
+                                    "createdAt": "2024-01-15T10:30:00Z",
+                                    "updatedAt": "2024-01-15T10:30:00Z"
+                                }
+                            ],
+                            "size": 20,
+                            "nextCursor": "djF8Y2F0ZWdvcnk6ZGlzcGxheV9vcmRlcnwwfDEyM2U0NTY3",
+                            "hasNext": true
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Cursor hoặc size không hợp lệ",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    name = "Bad Request Error",
+                    value = """
+                    {
+                        "success": false,
+                        "message": "Cursor không hợp lệ",
+                        "data": null
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<DataResponse<CursorPage<CategoryResponse>>> getCategoriesByCursor(
+            @Parameter(description = "nextCursor của trang trước, bỏ trống để lấy trang đầu")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Thứ tự sắp xếp: DISPLAY_ORDER hoặc UPDATED_AT", example = "DISPLAY_ORDER")
+            @RequestParam(defaultValue = "DISPLAY_ORDER") CategoryCursorSort sort,
+            @Parameter(description = "Số phần tử mỗi trang (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        log.info("Getting categories by cursor, sort: {}, size: {}", sort, size);
+        ResourceVersion version = categoryService.getCategoriesVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
+        CursorPage<CategoryResponse> response = categoryService.getCategoriesByCursor(cursor, sort, size);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(DataResponse.success("Lấy danh sách categories thành công", response));
     }
 
     /**
@@ -285,6 +410,10 @@ public class CategoryController {
         tags = {"Category Management"}
     )
     @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "304",
+            description = "Dữ liệu không thay đổi so với ETag trong If-None-Match (không có body)"
+        ),
         @ApiResponse(
             responseCode = "200", 
             description = "Lấy danh sách categories đang hoạt động thành công",
@@ -317,10 +446,146 @@ public class CategoryController {
             )
         )
     })
-    public ResponseEntity<List<CategoryResponse>> getAllActiveCategories() {
+    public ResponseEntity<List<CategoryResponse>> getAllActiveCategories(WebRequest webRequest) {
         log.info("Getting all active categories");
+        ResourceVersion version = categoryService.getActiveCategoriesVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         List<CategoryResponse> response = categoryService.getAllActiveCategories();
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(response);
+    }
+
+    /**
+     * Lấy thông tin snapshot categories đang hoạt động trong bộ nhớ
+     * GET /api/v1/categories/active/snapshot
+     */
+    @GetMapping("/active/snapshot")
+    @Operation(
+        summary = "Thông tin snapshot categories đang hoạt động",
+        description = "Trả về version, thời điểm build, thời gian build và trạng thái stale của " +
+                     "snapshot trong bộ nhớ phục vụ API /api/v1/categories/active.",
+        tags = {"Category Management"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy thông tin snapshot thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = CategorySnapshotStats.class),
+                examples = @ExampleObject(
+                    name = "Snapshot Stats",
+                    value = """
+                    {
+                        "version": 12,
+                        "requestedVersion": 12,
+                        "stale": false,
+                        "size": 150,
+                        "builtAt": "2024-01-15T10:30:00",
+                        "lastBuildMillis": 8,
+                        "rebuildCount": 12
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<CategorySnapshotStats> getActiveSnapshotStats() {
+        log.info("Getting active category snapshot stats");
+        CategorySnapshotStats stats = categoryService.getActiveSnapshotStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Lấy cây categories đang hoạt động
+     * GET /api/v1/categories/tree?rootId=...&maxDepth=3
+     */
+    @GetMapping("/tree")
+    @Operation(
+        summary = "Lấy cây categories đang hoạt động",
+        description = "Lấy cây categories lồng nhau (dùng cho mega-menu) bằng một câu query duy nhất. " +
+                     "Nếu có rootId thì chỉ lấy cây con từ category đó. maxDepth giới hạn độ sâu (0-10).",
+        tags = {"Category Management"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "304",
+            description = "Dữ liệu không thay đổi so với ETag trong If-None-Match (không có body)"
+        ),
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy cây categories thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = List.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    [
+                        {
+                            "id": "123e4567-e89b-12d3-a456-426614174000",
+                            "name": "Rau củ quả",
+                            "description": "Các loại rau củ quả tươi",
+                            "displayOrder": 0,
+                            "depth": 0,
+                            "children": [
+                                {
+                                    "id": "789e0123-e89b-12d3-a456-426614174002",
+                                    "name": "Rau xanh",
+                                    "description": "Các loại rau xanh tươi",
+                                    "displayOrder": 0,
+                                    "depth": 1,
+                                    "children": []
+                                }
+                            ]
+                        }
+                    ]
+                    """
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "rootId không tồn tại hoặc maxDepth không hợp lệ",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    name = "Bad Request Error",
+                    value = """
+                    {
+                        "success": false,
+                        "message": "maxDepth phải nằm trong khoảng 0-10",
+                        "data": null
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<List<CategoryTreeNode>> getCategoryTree(
+            @Parameter(
+                description = "UUID của category gốc, bỏ trống để lấy toàn bộ cây",
+                example = "123e4567-e89b-12d3-a456-426614174000"
+            )
+            @RequestParam(required = false) UUID rootId,
+            @Parameter(
+                description = "Độ sâu tối đa của cây (0 = chỉ lấy node gốc)",
+                example = "3"
+            )
+            @RequestParam(defaultValue = "10") int maxDepth,
+            WebRequest webRequest) {
+        log.info("Getting category tree from root: {}, maxDepth: {}", rootId, maxDepth);
+        ResourceVersion version = categoryService.getCategoriesVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
+        List<CategoryTreeNode> response = categoryService.getCategoryTree(rootId, maxDepth);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     /**
@@ -335,6 +600,10 @@ public class CategoryController {
         tags = {"Category Management"}
     )
     @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "304",
+            description = "Dữ liệu không thay đổi so với ETag trong If-None-Match (không có body)"
+        ),
         @ApiResponse(
             responseCode = "200", 
             description = "Tìm thấy category",
@@ -380,10 +649,17 @@ public class CategoryController {
                 required = true,
                 example = "Rau củ quả"
             )
-            @PathVariable String name) {
+            @PathVariable String name,
+            WebRequest webRequest) {
         log.info("Getting category by name: {}", name);
+        ResourceVersion version = categoryService.getCategoriesVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         CategoryResponse response = categoryService.getCategoryByName(name);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     /**
@@ -398,6 +674,10 @@ public class CategoryController {
         tags = {"Category Management"}
     )
     @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "304",
+            description = "Dữ liệu không thay đổi so với ETag trong If-None-Match (không có body)"
+        ),
         @ApiResponse(
             responseCode = "200", 
             description = "Tìm kiếm thành công",
@@ -453,10 +733,17 @@ public class CategoryController {
                 required = true,
                 example = "rau"
             )
-            @RequestParam String name) {
+            @RequestParam String name,
+            WebRequest webRequest) {
         log.info("Searching categories by name: {}", name);
+        ResourceVersion version = categoryService.getCategoriesVersion();
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         List<CategoryResponse> response = categoryService.searchCategoriesByName(name);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     /**
@@ -0,0 +1,184 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.AvailabilityRequest;
+import com.vinhnh.grocery.product.dto.RestockResponse;
+import com.vinhnh.grocery.product.dto.StockAlertResponse;
+import com.vinhnh.grocery.product.dto.StockLevel;
+import com.vinhnh.grocery.product.dto.VariantAvailabilityResponse;
+import com.vinhnh.grocery.product.service.InventoryService;
+import com.vinhnh.grocery.product.service.RestockService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * REST Controller cho truy vấn tồn kho
+ */
+@RestController
+@RequestMapping("/api/v1/inventory")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Inventory", description = "APIs để truy vấn và nhập tồn kho")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+    private final RestockService restockService;
+
+    /**
+     * Lấy các variant đang có cảnh báo tồn kho
+     * GET /api/v1/inventory/alerts?level=LOW
+     */
+    @GetMapping("/alerts")
+    @Operation(
+        summary = "Lấy cảnh báo tồn kho",
+        description = "Lấy các variant có available_quantity <= min_stock_level (LOW) hoặc " +
+                     "quantity > max_stock_level (OVER), mới nhất trước. Trạng thái được cập nhật tăng dần " +
+                     "sau mỗi thay đổi tồn kho, không quét bảng inventory.",
+        tags = {"Inventory"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy danh sách cảnh báo thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Lấy danh sách cảnh báo tồn kho thành công",
+                        "data": [
+                            {
+                                "productVariantId": "123e4567-e89b-12d3-a456-426614174000",
+                                "level": "LOW",
+                                "quantity": 12,
+                                "availableQuantity": 3,
+                                "minStockLevel": 5,
+                                "maxStockLevel": 200,
+                                "since": "2024-01-15T10:30:00"
+                            }
+                        ]
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Mức lọc không hợp lệ")
+    })
+    public ResponseEntity<DataResponse<List<StockAlertResponse>>> getStockAlerts(
+        @Parameter(description = "Mức cảnh báo (LOW, OVER), bỏ trống để lấy tất cả", example = "LOW")
+        @RequestParam(required = false) StockLevel level) {
+        log.info("Getting stock alerts, level: {}", level);
+        List<StockAlertResponse> alerts = inventoryService.getStockAlerts(level);
+        return ResponseEntity.ok(DataResponse.success("Lấy danh sách cảnh báo tồn kho thành công", alerts));
+    }
+
+    /**
+     * Kiểm tra còn hàng của nhiều variant cùng lúc
+     * POST /api/v1/inventory/availability
+     */
+    @PostMapping("/availability")
+    @Operation(
+        summary = "Kiểm tra còn hàng theo lô",
+        description = "Trả về số lượng có thể bán của tối đa 500 variant theo thứ tự request, dùng cho trang danh sách " +
+                     "sản phẩm và giỏ hàng. Đọc từ snapshot trong bộ nhớ được cập nhật sau mỗi thay đổi tồn kho " +
+                     "(trễ tối đa một chu kỳ flush giữ hàng). Variant không có tồn kho không có trong kết quả.",
+        tags = {"Inventory"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Kiểm tra thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Kiểm tra tồn kho thành công",
+                        "data": [
+                            {
+                                "productVariantId": "123e4567-e89b-12d3-a456-426614174000",
+                                "availableQuantity": 42,
+                                "inStock": true
+                            }
+                        ]
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Danh sách variant rỗng hoặc quá 500 phần tử")
+    })
+    public ResponseEntity<DataResponse<List<VariantAvailabilityResponse>>> getAvailability(
+        @Valid @RequestBody AvailabilityRequest request) {
+        log.debug("Checking availability of {} variants", request.getProductVariantIds().size());
+        List<VariantAvailabilityResponse> availability = inventoryService.getAvailability(request.getProductVariantIds());
+        return ResponseEntity.ok(DataResponse.success("Kiểm tra tồn kho thành công", availability));
+    }
+
+    /**
+     * Nhập kho hàng loạt từ file CSV của kho
+     * POST /api/v1/inventory/restock (Content-Type: text/csv)
+     */
+    @PostMapping(value = "/restock", consumes = "text/csv")
+    @Operation(
+        summary = "Nhập kho từ CSV",
+        description = "Cộng số lượng nhập vào tồn kho từ CSV có header, mỗi dòng \"sku,quantity\". " +
+                     "SKU lặp lại được cộng dồn, SKU không tồn tại được bỏ qua và liệt kê trong kết quả. " +
+                     "Cả file được áp dụng trong một transaction: dòng sai định dạng làm hỏng cả file. " +
+                     "Ví dụ: curl -X POST -H 'Content-Type: text/csv' --data-binary @restock.csv .../api/v1/inventory/restock",
+        tags = {"Inventory"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Nhập kho thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Nhập kho thành công",
+                        "data": {
+                            "totalLines": 1000000,
+                            "updatedVariants": 48210,
+                            "unknownSkuCount": 1,
+                            "unknownSkus": ["SKU-KHONG-CO"],
+                            "durationMillis": 4200
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "File sai định dạng hoặc làm số lượng nhỏ hơn số đã giữ")
+    })
+    public ResponseEntity<DataResponse<RestockResponse>> restock(InputStream body) {
+        log.info("Restocking inventory from CSV");
+        RestockResponse response = restockService.restockCsv(body);
+        return ResponseEntity.ok(DataResponse.success("Nhập kho thành công", response));
+    }
+}
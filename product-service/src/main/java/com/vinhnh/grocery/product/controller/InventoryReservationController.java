@@ -0,0 +1,150 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.StockReservationRequest;
+import com.vinhnh.grocery.product.dto.StockReservationResponse;
+import com.vinhnh.grocery.product.service.InventoryReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST Controller cho giữ hàng (reserved_quantity) của đơn hàng: giữ, hủy, xác nhận
+ */
+@RestController
+@RequestMapping("/api/v1/inventory/reservations")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Inventory Reservation", description = "APIs để giữ hàng cho đơn hàng")
+public class InventoryReservationController {
+
+    private final InventoryReservationService inventoryReservationService;
+
+    /**
+     * Giữ hàng cho tất cả các dòng của một đơn hàng
+     * POST /api/v1/inventory/reservations
+     */
+    @PostMapping
+    @Operation(
+        summary = "Giữ hàng cho đơn hàng",
+        description = "Giữ hàng cho tất cả các dòng trong một transaction: hoặc tất cả các dòng được giữ, " +
+                     "hoặc không dòng nào. Các dòng trùng variant được gộp lại. " +
+                     "Mỗi dòng là một câu UPDATE có điều kiện còn đủ hàng, gửi chung trong một JDBC batch. " +
+                     "Hàng được giữ trong holdSeconds giây (mặc định 15 phút), sau đó tự trả lại nếu chưa được xác nhận.",
+        tags = {"Inventory Reservation"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Giữ hàng thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 201,
+                        "message": "Giữ hàng thành công",
+                        "data": {
+                            "holdId": "789e0123-e89b-12d3-a456-426614174002",
+                            "lines": [
+                                {"productVariantId": "123e4567-e89b-12d3-a456-426614174000", "quantity": 2},
+                                {"productVariantId": "456e7890-e89b-12d3-a456-426614174001", "quantity": 1}
+                            ],
+                            "reservedAt": "2024-01-15T10:30:00",
+                            "expiresAt": "2024-01-15T10:45:00"
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Dữ liệu không hợp lệ hoặc có dòng không đủ hàng (không dòng nào được giữ)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    name = "Insufficient Stock",
+                    value = """
+                    {
+                        "status": 400,
+                        "message": "Không đủ hàng hoặc không có tồn kho cho variant: [456e7890-e89b-12d3-a456-426614174001]"
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<DataResponse<StockReservationResponse>> reserve(
+        @Parameter(
+            description = "Các dòng cần giữ hàng",
+            required = true,
+            schema = @Schema(implementation = StockReservationRequest.class)
+        )
+        @Valid @RequestBody StockReservationRequest request) {
+        log.info("Reserving stock for {} lines", request.getLines().size());
+        StockReservationResponse response = inventoryReservationService.reserve(request);
+        return ResponseEntity.ok(DataResponse.created("Giữ hàng thành công", response));
+    }
+
+    /**
+     * Hủy hold, trả lại hàng đã giữ
+     * DELETE /api/v1/inventory/reservations/{holdId}
+     */
+    @DeleteMapping("/{holdId}")
+    @Operation(
+        summary = "Hủy giữ hàng",
+        description = "Trả lại toàn bộ hàng của một hold (giỏ hàng hoặc checkout bị hủy). " +
+                     "Hold không được hủy sẽ tự trả lại hàng khi hết hạn.",
+        tags = {"Inventory Reservation"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Đã trả lại hàng"),
+        @ApiResponse(responseCode = "400", description = "Hold không tồn tại hoặc đã hết hạn")
+    })
+    public ResponseEntity<DataResponse<Void>> release(
+        @Parameter(description = "ID của hold", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
+        @PathVariable UUID holdId) {
+        log.info("Releasing hold: {}", holdId);
+        inventoryReservationService.release(holdId);
+        return ResponseEntity.ok(DataResponse.success("Đã hủy giữ hàng"));
+    }
+
+    /**
+     * Xác nhận hold khi đơn hàng thành công
+     * POST /api/v1/inventory/reservations/{holdId}/confirm
+     */
+    @PostMapping("/{holdId}/confirm")
+    @Operation(
+        summary = "Xác nhận giữ hàng",
+        description = "Đơn hàng đã thanh toán: trừ số lượng đã giữ khỏi cả quantity và reserved_quantity, " +
+                     "hold không còn hết hạn.",
+        tags = {"Inventory Reservation"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Đã xác nhận"),
+        @ApiResponse(responseCode = "400", description = "Hold không tồn tại hoặc đã hết hạn")
+    })
+    public ResponseEntity<DataResponse<Void>> confirm(
+        @Parameter(description = "ID của hold", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
+        @PathVariable UUID holdId) {
+        log.info("Confirming hold: {}", holdId);
+        inventoryReservationService.confirm(holdId);
+        return ResponseEntity.ok(DataResponse.success("Đã xác nhận giữ hàng"));
+    }
+}
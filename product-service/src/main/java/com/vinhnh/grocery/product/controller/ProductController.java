@@ -0,0 +1,157 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.ProductDetailCacheStats;
+import com.vinhnh.grocery.product.dto.ProductDetailResponse;
+import com.vinhnh.grocery.product.service.ProductDetailService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST Controller cho trang chi tiết sản phẩm
+ */
+@RestController
+@RequestMapping("/api/v1/products")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Product", description = "APIs chi tiết sản phẩm")
+public class ProductController {
+
+    private final ProductDetailService productDetailService;
+
+    /**
+     * Lấy chi tiết product
+     * GET /api/v1/products/{id}/detail
+     */
+    @GetMapping("/{id}/detail")
+    @Operation(
+        summary = "Chi tiết sản phẩm",
+        description = "Trả về product cùng category, brand, mọi variant (giá tăng dần) kèm hình ảnh theo thứ tự hiển thị " +
+                     "và tồn kho. Lần đọc đầu tiên dùng cố định 4 câu query bất kể số variant, các lần sau đọc từ cache " +
+                     "cho đến khi product, variant, category hoặc số lượng tồn kho thay đổi. " +
+                     "Số lượng có thể bán luôn là giá trị hiện tại.",
+        tags = {"Product"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy chi tiết thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Lấy chi tiết sản phẩm thành công",
+                        "data": {
+                            "id": "123e4567-e89b-12d3-a456-426614174000",
+                            "name": "Sữa tươi tiệt trùng",
+                            "description": "Sữa tươi nguyên chất",
+                            "unit": "hộp",
+                            "isActive": true,
+                            "categoryId": "223e4567-e89b-12d3-a456-426614174000",
+                            "categoryName": "Sữa",
+                            "brandId": "323e4567-e89b-12d3-a456-426614174000",
+                            "brandName": "Vinamilk",
+                            "brandLogoUrl": "https://cdn.example.com/brands/vinamilk.png",
+                            "variants": [
+                                {
+                                    "id": "423e4567-e89b-12d3-a456-426614174000",
+                                    "sku": "MILK-1L-001",
+                                    "size": "1L",
+                                    "color": null,
+                                    "price": 32000,
+                                    "weight": 1.050,
+                                    "dimensions": "7x7x20",
+                                    "isActive": true,
+                                    "images": [
+                                        {
+                                            "id": "523e4567-e89b-12d3-a456-426614174000",
+                                            "imageUrl": "/images/423e4567-e89b-12d3-a456-426614174000/6f1c2a-gallery.jpg",
+                                            "altText": "Hộp sữa 1L",
+                                            "isPrimary": true,
+                                            "displayOrder": 0,
+                                            "imageType": "gallery",
+                                            "fileSize": 84213,
+                                            "width": 800,
+                                            "height": 800
+                                        }
+                                    ],
+                                    "inventory": {
+                                        "quantity": 120,
+                                        "availableQuantity": 97,
+                                        "inStock": true,
+                                        "minStockLevel": 20,
+                                        "maxStockLevel": 500,
+                                        "lastRestockDate": "2024-01-15T10:30:00"
+                                    }
+                                }
+                            ]
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Không tìm thấy product")
+    })
+    public ResponseEntity<DataResponse<ProductDetailResponse>> getProductDetail(
+        @Parameter(description = "ID của product", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
+        @PathVariable UUID id) {
+        log.debug("Getting product detail: {}", id);
+        ProductDetailResponse response = productDetailService.getDetail(id);
+        return ResponseEntity.ok(DataResponse.success("Lấy chi tiết sản phẩm thành công", response));
+    }
+
+    /**
+     * Lấy trạng thái cache chi tiết sản phẩm
+     * GET /api/v1/products/detail/stats
+     */
+    @GetMapping("/detail/stats")
+    @Operation(
+        summary = "Trạng thái cache chi tiết sản phẩm",
+        description = "Trả về số product trong cache, số lượt trúng / trượt cache và số entry đã bị xóa do thay đổi.",
+        tags = {"Product"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy trạng thái cache thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ProductDetailCacheStats.class),
+                examples = @ExampleObject(
+                    name = "Cache Stats",
+                    value = """
+                    {
+                        "size": 8421,
+                        "capacity": 10000,
+                        "hits": 1520334,
+                        "misses": 40211,
+                        "invalidations": 3120
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<ProductDetailCacheStats> getDetailCacheStats() {
+        log.info("Getting product detail cache stats");
+        return ResponseEntity.ok(productDetailService.getCacheStats());
+    }
+}
@@ -0,0 +1,146 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.FacetIndexStats;
+import com.vinhnh.grocery.product.dto.ProductFacetResponse;
+import com.vinhnh.grocery.product.service.ProductFacetService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller cho lọc product theo facet
+ */
+@RestController
+@RequestMapping("/api/v1/products/facets")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Product Facet", description = "APIs lọc product theo category, brand, khoảng giá kèm số đếm facet")
+public class ProductFacetController {
+
+    private final ProductFacetService productFacetService;
+
+    /**
+     * Lọc product và đếm facet
+     * GET /api/v1/products/facets?categoryId=...&brandId=...&priceRange=1&page=0&size=20
+     */
+    @GetMapping
+    @Operation(
+        summary = "Lọc product theo facet",
+        description = "Trả về một trang product khớp bộ lọc cùng số product của từng category, brand và khoảng giá " +
+                     "cho thanh bộ lọc. Lặp lại tham số để chọn nhiều giá trị: trong cùng facet là \"hoặc\", " +
+                     "giữa các facet là \"và\". Số đếm của một facet tính trên bộ lọc của các facet còn lại. " +
+                     "Product thuộc mọi khoảng giá có ít nhất một variant đang bán.",
+        tags = {"Product Facet"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lọc thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Lọc sản phẩm thành công",
+                        "data": {
+                            "totalProducts": 128,
+                            "page": 0,
+                            "size": 20,
+                            "items": [
+                                {
+                                    "id": "123e4567-e89b-12d3-a456-426614174000",
+                                    "name": "Sữa tươi tiệt trùng 1L",
+                                    "unit": "hộp",
+                                    "categoryName": "Sữa",
+                                    "brandName": "Vinamilk"
+                                }
+                            ],
+                            "categories": [
+                                {"id": "223e4567-e89b-12d3-a456-426614174000", "name": "Sữa", "count": 128, "selected": true}
+                            ],
+                            "brands": [
+                                {"id": "323e4567-e89b-12d3-a456-426614174000", "name": "Vinamilk", "count": 57, "selected": false}
+                            ],
+                            "priceRanges": [
+                                {"index": 0, "minPrice": 0, "maxPrice": 20000, "count": 12, "selected": false},
+                                {"index": 1, "minPrice": 20000, "maxPrice": 50000, "count": 64, "selected": false}
+                            ]
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Chỉ số khoảng giá không tồn tại hoặc size ngoài khoảng 1-100")
+    })
+    public ResponseEntity<DataResponse<ProductFacetResponse>> filter(
+        @Parameter(description = "ID category được chọn (lặp lại để chọn nhiều)")
+        @RequestParam(name = "categoryId", required = false) List<UUID> categoryIds,
+        @Parameter(description = "ID brand được chọn (lặp lại để chọn nhiều)")
+        @RequestParam(name = "brandId", required = false) List<UUID> brandIds,
+        @Parameter(description = "Chỉ số khoảng giá được chọn (lặp lại để chọn nhiều)", example = "1")
+        @RequestParam(name = "priceRange", required = false) List<Integer> priceRanges,
+        @Parameter(description = "Số trang (bắt đầu từ 0)", example = "0")
+        @RequestParam(defaultValue = "0") int page,
+        @Parameter(description = "Số phần tử mỗi trang (1-100)", example = "20")
+        @RequestParam(defaultValue = "20") int size) {
+        log.debug("Filtering products, categories: {}, brands: {}, price ranges: {}", categoryIds, brandIds, priceRanges);
+        ProductFacetResponse response = productFacetService.filter(categoryIds, brandIds, priceRanges, page, size);
+        return ResponseEntity.ok(DataResponse.success("Lọc sản phẩm thành công", response));
+    }
+
+    /**
+     * Lấy trạng thái facet
+     * GET /api/v1/products/facets/stats
+     */
+    @GetMapping("/stats")
+    @Operation(
+        summary = "Trạng thái facet",
+        description = "Trả về số product, category, brand đang có trong facet, số product chờ cập nhật " +
+                     "và thời điểm cập nhật cuối.",
+        tags = {"Product Facet"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy trạng thái facet thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = FacetIndexStats.class),
+                examples = @ExampleObject(
+                    name = "Facet Stats",
+                    value = """
+                    {
+                        "products": 1000000,
+                        "categories": 350,
+                        "brands": 1200,
+                        "pendingUpdates": 0,
+                        "lastRefreshAt": "2024-01-15T10:30:00"
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<FacetIndexStats> getFacetStats() {
+        log.info("Getting product facet stats");
+        return ResponseEntity.ok(productFacetService.getFacetStats());
+    }
+}
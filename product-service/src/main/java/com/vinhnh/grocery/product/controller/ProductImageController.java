@@ -0,0 +1,138 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.ImageIngestionStats;
+import com.vinhnh.grocery.product.dto.ProductImageItem;
+import com.vinhnh.grocery.product.service.ProductImageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+/**
+ * REST Controller cho upload ảnh variant
+ */
+@RestController
+@RequestMapping("/api/v1/variants")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Product Image", description = "APIs upload ảnh variant và tạo bản thu nhỏ")
+public class ProductImageController {
+
+    private final ProductImageService productImageService;
+
+    /**
+     * Upload ảnh cho variant
+     * POST /api/v1/variants/{variantId}/images (multipart/form-data)
+     */
+    @PostMapping(value = "/{variantId}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "Upload ảnh variant",
+        description = "Lưu ảnh gốc (imageType = detail) và trả về ngay với trạng thái 202. Bản gallery (cạnh dài 800px) " +
+                     "và thumbnail (200px) được tạo ở nền, mỗi bản là một ảnh riêng của variant với cùng displayOrder; " +
+                     "trang danh sách nên dùng thumbnail thay cho ảnh gốc. Khi hàng đợi xử lý đầy, request upload " +
+                     "tự xử lý ảnh của mình nên sẽ chậm hơn. " +
+                     "Ví dụ: curl -F file=@milk.jpg -F isPrimary=true .../api/v1/variants/{variantId}/images",
+        tags = {"Product Image"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Đã nhận ảnh, đang tạo bản thu nhỏ",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Accepted Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Upload ảnh thành công",
+                        "data": {
+                            "id": "523e4567-e89b-12d3-a456-426614174000",
+                            "imageUrl": "/images/423e4567-e89b-12d3-a456-426614174000/6f1c2a.jpg",
+                            "altText": "Hộp sữa 1L",
+                            "isPrimary": true,
+                            "displayOrder": 0,
+                            "imageType": "detail",
+                            "fileSize": 3145728,
+                            "width": null,
+                            "height": null
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Không tìm thấy variant, file rỗng hoặc không phải ảnh JPEG/PNG/GIF/BMP")
+    })
+    public ResponseEntity<DataResponse<ProductImageItem>> uploadImage(
+        @Parameter(description = "ID của variant", required = true, example = "423e4567-e89b-12d3-a456-426614174000")
+        @PathVariable UUID variantId,
+        @Parameter(description = "File ảnh", required = true)
+        @RequestParam("file") MultipartFile file,
+        @Parameter(description = "Mô tả ảnh", example = "Hộp sữa 1L")
+        @RequestParam(required = false) String altText,
+        @Parameter(description = "Ảnh chính của variant", example = "true")
+        @RequestParam(required = false) Boolean isPrimary,
+        @Parameter(description = "Thứ tự hiển thị", example = "0")
+        @RequestParam(required = false) Integer displayOrder) {
+        log.info("Uploading image for variant {}: {} ({} bytes)", variantId, file.getOriginalFilename(), file.getSize());
+        ProductImageItem image = productImageService.upload(variantId, file, altText, isPrimary, displayOrder);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(DataResponse.success("Upload ảnh thành công", image));
+    }
+
+    /**
+     * Lấy trạng thái pipeline xử lý ảnh
+     * GET /api/v1/variants/images/stats
+     */
+    @GetMapping("/images/stats")
+    @Operation(
+        summary = "Trạng thái xử lý ảnh",
+        description = "Trả về số thread, số ảnh đang chờ / đang xử lý, số ảnh đã xong, lỗi và số lần upload phải tự xử lý " +
+                     "vì hàng đợi đầy.",
+        tags = {"Product Image"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy trạng thái thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ImageIngestionStats.class),
+                examples = @ExampleObject(
+                    name = "Ingestion Stats",
+                    value = """
+                    {
+                        "workerThreads": 2,
+                        "queueCapacity": 64,
+                        "queued": 5,
+                        "active": 2,
+                        "completed": 1840,
+                        "failed": 3,
+                        "callerRuns": 0
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<ImageIngestionStats> getIngestionStats() {
+        log.info("Getting image ingestion stats");
+        return ResponseEntity.ok(productImageService.getIngestionStats());
+    }
+}
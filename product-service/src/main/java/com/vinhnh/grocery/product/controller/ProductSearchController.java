@@ -0,0 +1,132 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.ProductSearchResponse;
+import com.vinhnh.grocery.product.dto.SearchIndexStats;
+import com.vinhnh.grocery.product.service.ProductSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller cho tìm kiếm product
+ */
+@RestController
+@RequestMapping("/api/v1/products/search")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Product Search", description = "APIs tìm kiếm product full-text")
+public class ProductSearchController {
+
+    private final ProductSearchService productSearchService;
+
+    /**
+     * Tìm kiếm product
+     * GET /api/v1/products/search?q=sua tuoi&page=0&size=20
+     */
+    @GetMapping
+    @Operation(
+        summary = "Tìm kiếm product",
+        description = "Tìm product theo tên, mô tả, tên category và tên brand, không phân biệt dấu tiếng Việt " +
+                     "(\"sua tuoi\" khớp \"Sữa tươi\"). Mọi từ đều phải khớp, từ cuối được hiểu là tiền tố nên dùng " +
+                     "được cho tìm trong lúc gõ. Kết quả xếp theo BM25, khớp ở tên được ưu tiên hơn mô tả. " +
+                     "Index nằm trong bộ nhớ và được cập nhật ngay sau khi product thay đổi.",
+        tags = {"Product Search"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tìm kiếm thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Tìm kiếm sản phẩm thành công",
+                        "data": {
+                            "query": "sua tuoi",
+                            "totalHits": 42,
+                            "page": 0,
+                            "size": 20,
+                            "items": [
+                                {
+                                    "id": "123e4567-e89b-12d3-a456-426614174000",
+                                    "name": "Sữa tươi tiệt trùng 1L",
+                                    "unit": "hộp",
+                                    "categoryName": "Sữa",
+                                    "brandName": "Vinamilk",
+                                    "score": 7.81
+                                }
+                            ]
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Từ khóa rỗng, size ngoài khoảng 1-100 hoặc trang vượt quá 1000 kết quả")
+    })
+    public ResponseEntity<DataResponse<ProductSearchResponse>> search(
+        @Parameter(description = "Từ khóa tìm kiếm", example = "sua tuoi")
+        @RequestParam String q,
+        @Parameter(description = "Số trang (bắt đầu từ 0)", example = "0")
+        @RequestParam(defaultValue = "0") int page,
+        @Parameter(description = "Số phần tử mỗi trang (1-100)", example = "20")
+        @RequestParam(defaultValue = "20") int size) {
+        log.debug("Searching products, q: {}, page: {}, size: {}", q, page, size);
+        ProductSearchResponse response = productSearchService.search(q, page, size);
+        return ResponseEntity.ok(DataResponse.success("Tìm kiếm sản phẩm thành công", response));
+    }
+
+    /**
+     * Lấy trạng thái index tìm kiếm
+     * GET /api/v1/products/search/index
+     */
+    @GetMapping("/index")
+    @Operation(
+        summary = "Trạng thái index tìm kiếm",
+        description = "Trả về số product đã index, số segment, số document chờ merge, số thay đổi đang chờ index " +
+                     "và thời điểm cập nhật cuối.",
+        tags = {"Product Search"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy trạng thái index thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = SearchIndexStats.class),
+                examples = @ExampleObject(
+                    name = "Index Stats",
+                    value = """
+                    {
+                        "documents": 1000000,
+                        "deletedDocuments": 1200,
+                        "segments": 7,
+                        "pendingUpdates": 0,
+                        "lastRefreshAt": "2024-01-15T10:30:00",
+                        "merges": 35
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<SearchIndexStats> getIndexStats() {
+        log.info("Getting product search index stats");
+        return ResponseEntity.ok(productSearchService.getIndexStats());
+    }
+}
@@ -0,0 +1,178 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.common.dto.DataResponse;
+import com.vinhnh.grocery.product.dto.SkuLookupStats;
+import com.vinhnh.grocery.product.dto.SkuResolveRequest;
+import com.vinhnh.grocery.product.dto.VariantSkuResponse;
+import com.vinhnh.grocery.product.service.SkuLookupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller cho tra cứu variant theo SKU
+ */
+@RestController
+@RequestMapping("/api/v1/variants/sku")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Variant SKU", description = "APIs tra cứu variant theo mã SKU")
+public class VariantSkuController {
+
+    private final SkuLookupService skuLookupService;
+
+    /**
+     * Tra cứu variant theo SKU
+     * GET /api/v1/variants/sku/{sku}
+     */
+    @GetMapping("/{sku}")
+    @Operation(
+        summary = "Tra cứu variant theo SKU",
+        description = "Trả về variant có SKU tương ứng (máy quét mã, nhập kho). SKU không tồn tại thường bị " +
+                     "Bloom filter từ chối mà không truy vấn database.",
+        tags = {"Variant SKU"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tra cứu thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Tra cứu SKU thành công",
+                        "data": {
+                            "sku": "MILK-1L-001",
+                            "found": true,
+                            "productVariantId": "123e4567-e89b-12d3-a456-426614174000",
+                            "productId": "223e4567-e89b-12d3-a456-426614174000",
+                            "price": 32000,
+                            "active": true
+                        }
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "SKU không tồn tại")
+    })
+    public ResponseEntity<DataResponse<VariantSkuResponse>> resolve(
+        @Parameter(description = "Mã SKU", required = true, example = "MILK-1L-001")
+        @PathVariable String sku) {
+        log.debug("Resolving SKU: {}", sku);
+        VariantSkuResponse response = skuLookupService.resolve(sku);
+        return ResponseEntity.ok(DataResponse.success("Tra cứu SKU thành công", response));
+    }
+
+    /**
+     * Tra cứu nhiều SKU cùng lúc
+     * POST /api/v1/variants/sku/resolve
+     */
+    @PostMapping("/resolve")
+    @Operation(
+        summary = "Tra cứu SKU theo lô",
+        description = "Trả về kết quả của tối đa 500 SKU theo thứ tự request; SKU không tồn tại có found = false. " +
+                     "Các SKU không có trong cache được tra bằng một câu truy vấn.",
+        tags = {"Variant SKU"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tra cứu thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = DataResponse.class),
+                examples = @ExampleObject(
+                    name = "Success Response",
+                    value = """
+                    {
+                        "status": 200,
+                        "message": "Tra cứu SKU thành công",
+                        "data": [
+                            {
+                                "sku": "MILK-1L-001",
+                                "found": true,
+                                "productVariantId": "123e4567-e89b-12d3-a456-426614174000",
+                                "productId": "223e4567-e89b-12d3-a456-426614174000",
+                                "price": 32000,
+                                "active": true
+                            },
+                            {
+                                "sku": "SKU-KHONG-CO",
+                                "found": false
+                            }
+                        ]
+                    }
+                    """
+                )
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Danh sách SKU rỗng hoặc quá 500 phần tử")
+    })
+    public ResponseEntity<DataResponse<List<VariantSkuResponse>>> resolveAll(
+        @Valid @RequestBody SkuResolveRequest request) {
+        log.debug("Resolving {} SKUs", request.getSkus().size());
+        List<VariantSkuResponse> response = skuLookupService.resolveAll(request.getSkus());
+        return ResponseEntity.ok(DataResponse.success("Tra cứu SKU thành công", response));
+    }
+
+    /**
+     * Lấy trạng thái cache và Bloom filter tra cứu SKU
+     * GET /api/v1/variants/sku/stats
+     */
+    @GetMapping("/stats")
+    @Operation(
+        summary = "Trạng thái tra cứu SKU",
+        description = "Trả về kích thước cache, số lượt trúng / trượt cache, số SKU bị Bloom filter từ chối " +
+                     "và tỉ lệ dương tính giả đo được so với ước lượng.",
+        tags = {"Variant SKU"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lấy trạng thái thành công",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = SkuLookupStats.class),
+                examples = @ExampleObject(
+                    name = "SKU Lookup Stats",
+                    value = """
+                    {
+                        "cachedSkus": 100000,
+                        "cacheCapacity": 100000,
+                        "cacheHits": 8423110,
+                        "cacheMisses": 301220,
+                        "bloomRejections": 52011,
+                        "bloomFalsePositives": 498,
+                        "observedFalsePositiveRate": 0.0095,
+                        "expectedFalsePositiveRate": 0.0071,
+                        "bloomSkus": 850000,
+                        "bloomCapacity": 1000000
+                    }
+                    """
+                )
+            )
+        )
+    })
+    public ResponseEntity<SkuLookupStats> getStats() {
+        log.info("Getting SKU lookup stats");
+        return ResponseEntity.ok(skuLookupService.getStats());
+    }
+}
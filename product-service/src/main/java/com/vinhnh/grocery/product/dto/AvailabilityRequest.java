@@ -0,0 +1,24 @@
+package com.vinhnh.grocery.product.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO cho request kiểm tra còn hàng của nhiều variant cùng lúc
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityRequest {
+
+    @NotEmpty(message = "Danh sách variant không được để trống")
+    @Size(max = 500, message = "Mỗi lần kiểm tra không được quá 500 variant")
+    private List<@NotNull(message = "ID variant không được để trống") UUID> productVariantIds;
+}
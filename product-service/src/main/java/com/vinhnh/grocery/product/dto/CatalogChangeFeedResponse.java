@@ -0,0 +1,21 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Một trang của change feed catalog
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeFeedResponse {
+
+    private List<CatalogChangeItem> changes;
+    // Gửi lại ở lần gọi sau để tiếp tục sau thay đổi cuối cùng của trang này, luôn khác null
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,28 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Một thay đổi trong change feed catalog
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeItem {
+
+    private long sequence;
+    private CatalogEntityType entityType;
+    private UUID entityId;
+    // Category cha (CATEGORY), category (PRODUCT) hoặc product (VARIANT)
+    private UUID parentId;
+    private CatalogChangeType changeType;
+    // Giá variant tại thời điểm thay đổi, chỉ có với VARIANT
+    private BigDecimal price;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,10 @@
+package com.vinhnh.grocery.product.dto;
+
+/**
+ * Loại thay đổi trong change feed. Kích hoạt lại một đối tượng được ghi là UPDATED.
+ */
+public enum CatalogChangeType {
+    CREATED,
+    UPDATED,
+    DEACTIVATED
+}
@@ -0,0 +1,10 @@
+package com.vinhnh.grocery.product.dto;
+
+/**
+ * Loại đối tượng catalog trong change feed
+ */
+public enum CatalogEntityType {
+    CATEGORY,
+    PRODUCT,
+    VARIANT
+}
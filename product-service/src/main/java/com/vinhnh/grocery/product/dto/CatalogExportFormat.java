@@ -0,0 +1,32 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Định dạng file export catalog
+ */
+@Getter
+@AllArgsConstructor
+public enum CatalogExportFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String mediaType;
+
+    /**
+     * Đọc định dạng không phân biệt hoa thường (ndjson, CSV, ...)
+     * @throws IllegalArgumentException nếu định dạng không được hỗ trợ
+     */
+    public static CatalogExportFormat from(String value) {
+        for (CatalogExportFormat format : values()) {
+            if (format.extension.equals(value == null ? null : value.trim().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Định dạng export không hỗ trợ: " + value + " (ndjson hoặc csv)");
+    }
+}
@@ -0,0 +1,23 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho kết quả import catalog
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportResponse {
+
+    private int total;
+    private int created;
+    private int skipped;
+    private int failed;
+    private long durationMillis;
+    private List<CatalogImportRowResult> rows;
+}
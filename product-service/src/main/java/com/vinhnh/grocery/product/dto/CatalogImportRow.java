@@ -0,0 +1,44 @@
+package com.vinhnh.grocery.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Một dòng trong file import catalog (NDJSON hoặc CSV)
+ * 
+ * Các dòng tham chiếu tới nhau bằng tên (không phân biệt hoa thường), SKU với variant:
+ * - CATEGORY: name, description, parent (tên category cha), displayOrder
+ * - BRAND: name, description, logoUrl, websiteUrl
+ * - PRODUCT: name, description, unit, category (tên category), brand (tên brand)
+ * - VARIANT: product (tên product), sku, size, color, price, weight, dimensions
+ * 
+ * Dòng cha phải xuất hiện trước dòng con trong file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CatalogImportRow {
+
+    private CatalogImportType type;
+    private String name;
+    private String description;
+    private String parent;
+    private Integer displayOrder;
+    private String logoUrl;
+    private String websiteUrl;
+    private String unit;
+    private String category;
+    private String brand;
+    private String product;
+    private String sku;
+    private String size;
+    private String color;
+    private BigDecimal price;
+    private BigDecimal weight;
+    private String dimensions;
+}
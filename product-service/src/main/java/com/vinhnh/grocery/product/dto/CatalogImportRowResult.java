@@ -0,0 +1,29 @@
+package com.vinhnh.grocery.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Kết quả import của một dòng
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogImportRowResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String SKIPPED = "SKIPPED";
+    public static final String FAILED = "FAILED";
+
+    private long line;
+    private CatalogImportType type;
+    private String key;
+    private String status;
+    private UUID id;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.vinhnh.grocery.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.Locale;
+
+/**
+ * Loại dòng dữ liệu trong file import catalog
+ */
+public enum CatalogImportType {
+    BRAND,
+    CATEGORY,
+    PRODUCT,
+    VARIANT;
+
+    /**
+     * Cho phép ghi type không phân biệt hoa thường trong file import (brand, Brand, BRAND)
+     */
+    @JsonCreator
+    public static CatalogImportType from(String value) {
+        return value == null || value.isBlank() ? null : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,13 @@
+package com.vinhnh.grocery.product.dto;
+
+/**
+ * Thứ tự sắp xếp hỗ trợ cho phân trang theo cursor của Category
+ */
+public enum CategoryCursorSort {
+
+    /** Sắp xếp theo (display_order, id) tăng dần - dùng cho hiển thị danh mục */
+    DISPLAY_ORDER,
+
+    /** Sắp xếp theo (updated_at, id) giảm dần - category mới cập nhật trước */
+    UPDATED_AT
+}
@@ -0,0 +1,24 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO cho thông tin snapshot category trong bộ nhớ
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySnapshotStats {
+
+    private long version;
+    private long requestedVersion;
+    private boolean stale;
+    private int size;
+    private LocalDateTime builtAt;
+    private long lastBuildMillis;
+    private long rebuildCount;
+}
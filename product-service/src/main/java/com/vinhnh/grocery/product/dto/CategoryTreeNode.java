@@ -0,0 +1,25 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO cho một node trong cây category (mega-menu)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTreeNode {
+
+    private UUID id;
+    private String name;
+    private String description;
+    private Integer displayOrder;
+    private Integer depth;
+    private List<CategoryTreeNode> children = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO cho trạng thái facet lọc sản phẩm
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetIndexStats {
+
+    /** Số product active trong facet */
+    private long products;
+
+    private int categories;
+    private int brands;
+
+    /** Số product đang chờ cập nhật facet */
+    private int pendingUpdates;
+
+    /** Thời điểm facet được cập nhật lần cuối */
+    private LocalDateTime lastRefreshAt;
+}
@@ -0,0 +1,23 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO cho số product của một giá trị facet (một category hoặc một brand)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetValueCount {
+
+    private UUID id;
+    private String name;
+    private long count;
+
+    /** Giá trị đang nằm trong bộ lọc */
+    private boolean selected;
+}
@@ -0,0 +1,19 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO cho trạng thái timing wheel hết hạn hold giữ hàng
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldExpiryStats {
+
+    private long pendingHolds;
+    private long lastExpiryLagMillis;
+    private long expiredHolds;
+    private long releaseFailures;
+}
@@ -0,0 +1,27 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO cho trạng thái pipeline xử lý ảnh
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageIngestionStats {
+
+    private int workerThreads;
+    private int queueCapacity;
+
+    /** Số ảnh đang chờ trong hàng đợi / đang được xử lý */
+    private int queued;
+    private int active;
+
+    private long completed;
+    private long failed;
+
+    /** Số ảnh thread nhận upload phải tự xử lý vì hàng đợi đầy */
+    private long callerRuns;
+}
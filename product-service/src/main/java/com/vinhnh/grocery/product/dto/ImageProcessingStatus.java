@@ -0,0 +1,16 @@
+package com.vinhnh.grocery.product.dto;
+
+/**
+ * Trạng thái xử lý ảnh gốc (tạo bản gallery / thumbnail) của ImageIngestionPipeline
+ */
+public enum ImageProcessingStatus {
+
+    /** Chưa xử lý xong: được đưa lại vào hàng đợi khi ứng dụng khởi động */
+    PENDING,
+
+    /** Đã ghi kích thước ảnh gốc và các bản thu nhỏ */
+    DONE,
+
+    /** Lỗi quá maxProcessingAttempts lần, không xử lý lại nữa */
+    FAILED
+}
@@ -0,0 +1,27 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO cho số product của một khoảng giá [minPrice, maxPrice)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRangeCount {
+
+    /** Chỉ số khoảng giá, dùng làm tham số priceRange khi lọc */
+    private int index;
+
+    private BigDecimal minPrice;
+
+    /** null nếu không giới hạn trên */
+    private BigDecimal maxPrice;
+
+    private long count;
+    private boolean selected;
+}
@@ -0,0 +1,24 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO cho trạng thái cache chi tiết sản phẩm
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDetailCacheStats {
+
+    /** Số product đang nằm trong cache / sức chứa cache */
+    private int size;
+    private int capacity;
+
+    private long hits;
+    private long misses;
+
+    /** Số entry bị xóa do product, variant, category hoặc tồn kho thay đổi */
+    private long invalidations;
+}
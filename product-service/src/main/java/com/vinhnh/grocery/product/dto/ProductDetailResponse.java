@@ -0,0 +1,33 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO cho trang chi tiết sản phẩm: product, category, brand, các variant kèm hình ảnh và tồn kho
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDetailResponse {
+
+    private UUID id;
+    private String name;
+    private String description;
+    private String unit;
+    private Boolean isActive;
+
+    private UUID categoryId;
+    private String categoryName;
+
+    private UUID brandId;
+    private String brandName;
+    private String brandLogoUrl;
+
+    /** Variant theo giá tăng dần */
+    private List<ProductVariantDetail> variants;
+}
@@ -0,0 +1,28 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho một trang product đã lọc kèm số đếm facet cho thanh bộ lọc
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResponse {
+
+    /** Tổng số product khớp bộ lọc */
+    private long totalProducts;
+
+    private int page;
+    private int size;
+    private List<ProductListItem> items;
+
+    /** Số đếm của mỗi facet tính trên bộ lọc của các facet còn lại, sắp theo số đếm giảm dần */
+    private List<FacetValueCount> categories;
+    private List<FacetValueCount> brands;
+    private List<PriceRangeCount> priceRanges;
+}
@@ -0,0 +1,31 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO cho một hình ảnh của variant
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImageItem {
+
+    private UUID id;
+    private String imageUrl;
+    private String altText;
+    private Boolean isPrimary;
+    private Integer displayOrder;
+    /** detail (ảnh gốc), gallery hoặc thumbnail */
+    private String imageType;
+
+    /** Kích thước file (byte) */
+    private Long fileSize;
+
+    /** Kích thước ảnh (px), null khi ảnh gốc chưa xử lý xong */
+    private Integer width;
+    private Integer height;
+}
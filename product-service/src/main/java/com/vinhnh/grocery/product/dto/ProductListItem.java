@@ -0,0 +1,22 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO cho một product trong danh sách đã lọc
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductListItem {
+
+    private UUID id;
+    private String name;
+    private String unit;
+    private String categoryName;
+    private String brandName;
+}
@@ -0,0 +1,25 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO cho một product trong kết quả tìm kiếm
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchItem {
+
+    private UUID id;
+    private String name;
+    private String unit;
+    private String categoryName;
+    private String brandName;
+
+    /** Điểm BM25, chỉ dùng để so sánh trong cùng một câu truy vấn */
+    private float score;
+}
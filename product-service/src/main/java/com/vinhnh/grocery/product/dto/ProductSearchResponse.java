@@ -0,0 +1,25 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho một trang kết quả tìm kiếm product
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponse {
+
+    private String query;
+
+    /** Tổng số product khớp câu truy vấn */
+    private long totalHits;
+
+    private int page;
+    private int size;
+    private List<ProductSearchItem> items;
+}
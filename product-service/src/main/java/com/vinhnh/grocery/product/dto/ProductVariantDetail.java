@@ -0,0 +1,33 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO cho một variant trong chi tiết sản phẩm
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductVariantDetail {
+
+    private UUID id;
+    private String sku;
+    private String size;
+    private String color;
+    private BigDecimal price;
+    private BigDecimal weight;
+    private String dimensions;
+    private Boolean isActive;
+
+    /** Hình ảnh theo display_order */
+    private List<ProductImageItem> images;
+
+    /** Tồn kho, null nếu variant chưa có dòng inventory */
+    private VariantInventoryDetail inventory;
+}
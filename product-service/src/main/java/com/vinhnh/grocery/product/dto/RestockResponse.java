@@ -0,0 +1,30 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho kết quả nhập kho (restock) từ file
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestockResponse {
+
+    /** Số dòng dữ liệu trong file (không tính header) */
+    private long totalLines;
+
+    /** Số variant đã được cộng thêm tồn kho */
+    private long updatedVariants;
+
+    /** Số SKU không tồn tại hoặc chưa có dòng inventory */
+    private long unknownSkuCount;
+
+    /** Tối đa 100 SKU không xác định đầu tiên (theo thứ tự chữ cái) */
+    private List<String> unknownSkus;
+
+    private long durationMillis;
+}
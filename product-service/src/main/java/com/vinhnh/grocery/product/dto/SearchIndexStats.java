@@ -0,0 +1,33 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO cho trạng thái index tìm kiếm sản phẩm
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexStats {
+
+    /** Số product đang tìm được */
+    private long documents;
+
+    /** Số document đã bị thay thế / xóa nhưng chưa được merge khỏi segment */
+    private long deletedDocuments;
+
+    private int segments;
+
+    /** Số product / category đang chờ index lại */
+    private int pendingUpdates;
+
+    /** Thời điểm index được cập nhật lần cuối, null nếu chưa mở xong */
+    private LocalDateTime lastRefreshAt;
+
+    /** Số lần merge segment */
+    private long merges;
+}
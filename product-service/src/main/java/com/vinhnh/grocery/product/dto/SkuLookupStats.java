@@ -0,0 +1,40 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO cho trạng thái cache và Bloom filter tra cứu SKU
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuLookupStats {
+
+    /** Số SKU đang nằm trong cache / sức chứa cache */
+    private int cachedSkus;
+    private int cacheCapacity;
+
+    /** Số lượt tra cứu lấy được từ cache */
+    private long cacheHits;
+
+    /** Số lượt tra cứu phải truy vấn database */
+    private long cacheMisses;
+
+    /** Số lượt tra cứu bị Bloom filter từ chối, không truy vấn database */
+    private long bloomRejections;
+
+    /** Số lượt Bloom filter cho qua nhưng database không có SKU */
+    private long bloomFalsePositives;
+
+    /** Tỉ lệ dương tính giả đo được: falsePositives / (falsePositives + rejections) */
+    private double observedFalsePositiveRate;
+
+    /** Tỉ lệ dương tính giả ước lượng theo mức lấp đầy của filter */
+    private double expectedFalsePositiveRate;
+
+    /** Số SKU đã thêm vào filter / số SKU filter được thiết kế cho */
+    private long bloomSkus;
+    private long bloomCapacity;
+}
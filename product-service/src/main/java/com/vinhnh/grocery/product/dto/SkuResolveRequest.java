@@ -0,0 +1,23 @@
+package com.vinhnh.grocery.product.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho request tra cứu nhiều SKU cùng lúc
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuResolveRequest {
+
+    @NotEmpty(message = "Danh sách SKU không được để trống")
+    @Size(max = 500, message = "Mỗi lần tra cứu không được quá 500 SKU")
+    private List<@NotBlank(message = "SKU không được để trống") String> skus;
+}
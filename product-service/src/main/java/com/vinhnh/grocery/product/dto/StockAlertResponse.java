@@ -0,0 +1,25 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO cho một variant đang ở mức tồn kho thấp hoặc vượt mức
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAlertResponse {
+
+    private UUID productVariantId;
+    private StockLevel level;
+    private int quantity;
+    private int availableQuantity;
+    private Integer minStockLevel;
+    private Integer maxStockLevel;
+    private LocalDateTime since;
+}
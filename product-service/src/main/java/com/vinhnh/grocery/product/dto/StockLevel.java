@@ -0,0 +1,16 @@
+package com.vinhnh.grocery.product.dto;
+
+/**
+ * Mức tồn kho của một variant so với ngưỡng min / max của nó
+ */
+public enum StockLevel {
+
+    /** Trong khoảng ngưỡng (hoặc không có ngưỡng) */
+    NORMAL,
+
+    /** available_quantity <= min_stock_level: cần nhập thêm */
+    LOW,
+
+    /** quantity > max_stock_level: tồn kho vượt mức tối đa */
+    OVER
+}
@@ -0,0 +1,25 @@
+package com.vinhnh.grocery.product.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO cho một dòng giữ hàng (variant và số lượng)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLine {
+
+    @NotNull(message = "ID variant không được để trống")
+    private UUID productVariantId;
+
+    @NotNull(message = "Số lượng không được để trống")
+    @Min(value = 1, message = "Số lượng phải lớn hơn 0")
+    private Integer quantity;
+}
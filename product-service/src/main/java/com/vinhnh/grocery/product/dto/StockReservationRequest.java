@@ -0,0 +1,32 @@
+package com.vinhnh.grocery.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho request giữ hàng cho tất cả các dòng của một đơn hàng
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+
+    @NotEmpty(message = "Danh sách sản phẩm không được để trống")
+    @Size(max = 500, message = "Một đơn hàng không được quá 500 dòng")
+    private List<@Valid StockReservationLine> lines;
+
+    /** Thời hạn giữ hàng (giây), null thì dùng grocery.inventory.hold.default-ttl */
+    @Min(value = 1, message = "Thời hạn giữ hàng phải lớn hơn 0")
+    private Integer holdSeconds;
+
+    public StockReservationRequest(List<StockReservationLine> lines) {
+        this.lines = lines;
+    }
+}
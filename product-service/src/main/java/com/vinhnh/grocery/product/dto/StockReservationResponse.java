@@ -0,0 +1,23 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO cho kết quả giữ hàng (các dòng trùng variant đã được gộp), hold tự hết hạn sau expiresAt
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+
+    private UUID holdId;
+    private List<StockReservationLine> lines;
+    private LocalDateTime reservedAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,20 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO cho số lượng có thể bán của một variant
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantAvailabilityResponse {
+
+    private UUID productVariantId;
+    private int availableQuantity;
+    private boolean inStock;
+}
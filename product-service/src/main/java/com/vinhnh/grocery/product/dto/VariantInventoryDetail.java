@@ -0,0 +1,27 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO cho tồn kho của một variant trong chi tiết sản phẩm
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantInventoryDetail {
+
+    /** Số lượng thực có trong kho */
+    private int quantity;
+
+    /** Số lượng có thể bán, đọc từ AvailabilitySnapshot tại thời điểm request */
+    private int availableQuantity;
+
+    private boolean inStock;
+    private Integer minStockLevel;
+    private Integer maxStockLevel;
+    private LocalDateTime lastRestockDate;
+}
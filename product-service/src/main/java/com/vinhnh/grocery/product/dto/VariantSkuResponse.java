@@ -0,0 +1,27 @@
+package com.vinhnh.grocery.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO cho kết quả tra cứu variant theo SKU
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantSkuResponse {
+
+    private String sku;
+
+    /** SKU có tồn tại hay không; các field còn lại null khi không tồn tại */
+    private boolean found;
+
+    private UUID productVariantId;
+    private UUID productId;
+    private BigDecimal price;
+    private Boolean active;
+}
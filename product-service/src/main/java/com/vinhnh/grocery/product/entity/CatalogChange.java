@@ -0,0 +1,53 @@
+package com.vinhnh.grocery.product.entity;
+
+import com.vinhnh.grocery.product.dto.CatalogChangeType;
+import com.vinhnh.grocery.product.dto.CatalogEntityType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Một dòng change log của catalog, ghi trong cùng transaction với thay đổi của category / product / variant.
+ * seq là khóa chính, tăng dần theo thứ tự commit (CatalogChangeLog), nên đọc "seq > token" đi theo index.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "catalog_change")
+public class CatalogChange {
+
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", length = 20, nullable = false)
+    private CatalogEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    @Column(name = "parent_id")
+    private UUID parentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", length = 20, nullable = false)
+    private CatalogChangeType changeType;
+
+    @Column(name = "price", precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
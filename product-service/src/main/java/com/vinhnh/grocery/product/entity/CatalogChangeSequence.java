@@ -0,0 +1,28 @@
+package com.vinhnh.grocery.product.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bộ đếm seq của change log catalog (một dòng duy nhất, id = 1).
+ * Transaction cấp seq giữ khóa dòng này đến khi commit, nên seq tăng theo đúng thứ tự commit.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "catalog_change_sequence")
+public class CatalogChangeSequence {
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+}
@@ -0,0 +1,42 @@
+package com.vinhnh.grocery.product.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Phần hàng đang được giữ của một variant trong một hold (giỏ hàng / checkout).
+ * Một hold gồm nhiều dòng cùng holdId; hold hết hạn sau expiresAt thì reserved_quantity được trả lại.
+ * Dòng được ghi / xóa bằng JDBC trong InventoryReservationServiceImpl, entity chỉ dùng để sinh schema.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_hold", indexes = {
+        @Index(name = "idx_inventory_hold_hold_id", columnList = "hold_id"),
+        @Index(name = "idx_inventory_hold_expires_at", columnList = "expires_at")
+})
+public class InventoryHold {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "hold_id", nullable = false)
+    private UUID holdId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_variant_id", nullable = false)
+    private ProductVariant productVariant;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,28 @@
+package com.vinhnh.grocery.product.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Epoch journal cuối cùng mà ReservationEngine đã ghi xuống bảng inventory.
+ * Được cập nhật trong cùng transaction với các delta nên replay sau crash không áp dụng trùng.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_reservation_checkpoint")
+public class InventoryReservationCheckpoint {
+
+    @Id
+    @Column(name = "instance_id", length = 100)
+    private String instanceId;
+
+    @Column(name = "last_epoch", nullable = false)
+    private Long lastEpoch;
+}
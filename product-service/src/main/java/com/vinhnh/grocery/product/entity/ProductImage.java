@@ -1,6 +1,7 @@
 package com.vinhnh.grocery.product.entity;
 
 import com.vinhnh.grocery.common.entity.AuditableEntity;
+import com.vinhnh.grocery.product.dto.ImageProcessingStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -42,4 +43,11 @@ public class ProductImage extends AuditableEntity {
 
     @Column(name = "height")
     private Integer height; // Chiều cao ảnh
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_status", length = 20)
+    private ImageProcessingStatus processingStatus; // Chỉ ảnh gốc (detail), null với bản thu nhỏ
+
+    @Column(name = "processing_attempts")
+    private Integer processingAttempts; // Số lần xử lý lỗi
 }
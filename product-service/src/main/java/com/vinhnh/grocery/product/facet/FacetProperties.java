@@ -0,0 +1,23 @@
+package com.vinhnh.grocery.product.facet;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Cấu hình cho facet lọc sản phẩm (grocery.facet.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.facet")
+public class FacetProperties {
+
+    /**
+     * Mốc chia khoảng giá (VND, tăng dần). n mốc tạo n + 1 khoảng: [0, m1), [m1, m2), ..., [mn, ∞).
+     * Product thuộc mọi khoảng có ít nhất một variant đang bán.
+     */
+    private List<BigDecimal> priceBounds = List.of(
+            new BigDecimal("20000"), new BigDecimal("50000"), new BigDecimal("100000"),
+            new BigDecimal("200000"), new BigDecimal("500000"));
+}
@@ -0,0 +1,25 @@
+package com.vinhnh.grocery.product.facet;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Kết quả lọc của ProductFacetIndex: tổng số product khớp, một trang product id và số đếm của từng giá trị facet.
+ * Số đếm của một facet tính trên bộ lọc của các facet còn lại (chọn thêm một giá trị cùng facet thì được bao nhiêu).
+ */
+@Getter
+@AllArgsConstructor
+public class FacetResult {
+
+    private final long totalProducts;
+    private final List<UUID> productIds;
+    private final Map<UUID, Long> categoryCounts;
+    private final Map<UUID, Long> brandCounts;
+
+    /** Số product theo khoảng giá, cùng chỉ số với ProductFacetIndex.getPriceRanges() */
+    private final long[] priceRangeCounts;
+}
@@ -0,0 +1,499 @@
+package com.vinhnh.grocery.product.facet;
+
+import java.util.Arrays;
+
+/**
+ * Tập số nguyên không âm (ordinal của product) dạng nén theo kiểu Roaring: chia theo 16 bit cao thành các container,
+ * mỗi container giữ 16 bit thấp dưới dạng
+ * - mảng char đã sắp xếp khi có tối đa 4096 phần tử (2 byte mỗi phần tử),
+ * - bitmap 65536 bit (8 KB) khi nhiều hơn.
+ * Giao hai tập và đếm phần giao chạy theo từng cặp container cùng khóa, không giải nén.
+ *
+ * Không thread-safe. ProductFacetIndex chỉ sửa bản sao riêng của thread ghi và công bố bản đã xong,
+ * các thread đọc chỉ gọi các phương thức không sửa đổi.
+ */
+final class OrdinalBitmap {
+
+    /** Ngưỡng chuyển giữa container mảng và container bitmap */
+    static final int ARRAY_MAX = 4096;
+
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    OrdinalBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private OrdinalBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    void add(int ordinal) {
+        char key = (char) (ordinal >>> 16);
+        int index = find(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) ordinal);
+            return;
+        }
+        index = -index - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = new ArrayContainer(new char[]{(char) ordinal}, 1);
+        size++;
+    }
+
+    void remove(int ordinal) {
+        int index = find((char) (ordinal >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) ordinal);
+        if (container.cardinality() > 0) {
+            containers[index] = container;
+            return;
+        }
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    boolean contains(int ordinal) {
+        int index = find((char) (ordinal >>> 16));
+        return index >= 0 && containers[index].contains((char) ordinal);
+    }
+
+    long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    OrdinalBitmap copy() {
+        Container[] copied = new Container[Math.max(4, size)];
+        for (int i = 0; i < size; i++) {
+            copied[i] = containers[i].copy();
+        }
+        return new OrdinalBitmap(Arrays.copyOf(keys, copied.length), copied, size);
+    }
+
+    /**
+     * Phần giao của hai tập, tạo bitmap mới
+     */
+    static OrdinalBitmap and(OrdinalBitmap a, OrdinalBitmap b) {
+        int capacity = Math.max(4, Math.min(a.size, b.size));
+        OrdinalBitmap result = new OrdinalBitmap(new char[capacity], new Container[capacity], 0);
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container container = a.containers[i].and(b.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.keys[result.size] = a.keys[i];
+                    result.containers[result.size++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Số phần tử của phần giao, không tạo bitmap trung gian
+     */
+    static long andCardinality(OrdinalBitmap a, OrdinalBitmap b) {
+        long cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Phần hợp của hai tập, tạo bitmap mới
+     */
+    static OrdinalBitmap or(OrdinalBitmap a, OrdinalBitmap b) {
+        int capacity = Math.max(4, a.size + b.size);
+        OrdinalBitmap result = new OrdinalBitmap(new char[capacity], new Container[capacity], 0);
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.keys[result.size] = a.keys[i];
+                result.containers[result.size++] = a.containers[i++].copy();
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.keys[result.size] = b.keys[j];
+                result.containers[result.size++] = b.containers[j++].copy();
+            } else {
+                result.keys[result.size] = a.keys[i];
+                result.containers[result.size++] = a.containers[i++].or(b.containers[j++]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Các phần tử theo thứ tự tăng dần, bỏ qua offset phần tử đầu, lấy tối đa limit phần tử
+     */
+    int[] toArray(long offset, int limit) {
+        int[] values = new int[(int) Math.max(0, Math.min(limit, cardinality() - offset))];
+        int position = 0;
+        long skip = offset;
+        for (int i = 0; i < size && position < values.length; i++) {
+            Container container = containers[i];
+            if (skip >= container.cardinality()) {
+                skip -= container.cardinality();
+                continue;
+            }
+            position = container.copyTo(keys[i] << 16, (int) skip, values, position);
+            skip = 0;
+        }
+        return values;
+    }
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    /**
+     * 16 bit thấp của các phần tử có cùng 16 bit cao. add / remove trả về container thay thế khi đổi dạng lưu trữ.
+     */
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container copy();
+
+        /**
+         * Chép các phần tử từ vị trí skip vào out (đã cộng 16 bit cao) cho tới khi out đầy
+         * @return vị trí kế tiếp trong out
+         */
+        abstract int copyTo(int high, int skip, int[] out, int position);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return bitmap.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            if (cardinality + array.cardinality > ARRAY_MAX) {
+                return toBitmap().or(other);
+            }
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(1, cardinality)), cardinality);
+        }
+
+        @Override
+        int copyTo(int high, int skip, int[] out, int position) {
+            for (int i = skip; i < cardinality && position < out.length; i++) {
+                out[position++] = high | values[i];
+            }
+            return position;
+        }
+
+        private BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | (1L << value);
+            if (before != words[value >>> 6]) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            if (before != words[value >>> 6]) {
+                cardinality--;
+            }
+            return cardinality > ARRAY_MAX ? this : toArray();
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            BitmapContainer bitmap = new BitmapContainer(result, count);
+            return count > ARRAY_MAX ? bitmap : bitmap.toArray();
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = words.clone();
+            int count = cardinality;
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    char value = array.values[i];
+                    if ((result[value >>> 6] & (1L << value)) == 0) {
+                        result[value >>> 6] |= 1L << value;
+                        count++;
+                    }
+                }
+            } else {
+                long[] otherWords = ((BitmapContainer) other).words;
+                count = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] |= otherWords[i];
+                    count += Long.bitCount(result[i]);
+                }
+            }
+            return new BitmapContainer(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int copyTo(int high, int skip, int[] out, int position) {
+            int seen = 0;
+            for (int i = 0; i < BITMAP_WORDS && position < out.length; i++) {
+                long word = words[i];
+                int bits = Long.bitCount(word);
+                if (seen + bits <= skip) {
+                    seen += bits;
+                    continue;
+                }
+                while (word != 0 && position < out.length) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (seen++ >= skip) {
+                        out[position++] = high | (i << 6) | bit;
+                    }
+                }
+            }
+            return position;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
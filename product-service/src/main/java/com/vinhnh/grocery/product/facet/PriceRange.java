@@ -0,0 +1,18 @@
+package com.vinhnh.grocery.product.facet;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Một khoảng giá [minPrice, maxPrice) của facet giá; maxPrice null là không giới hạn trên
+ */
+@Getter
+@AllArgsConstructor
+public class PriceRange {
+
+    private final int index;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+}
@@ -0,0 +1,350 @@
+package com.vinhnh.grocery.product.facet;
+
+import com.vinhnh.grocery.common.util.DirtyKeyDrainer;
+import com.vinhnh.grocery.product.dto.FacetIndexStats;
+import com.vinhnh.grocery.product.search.ProductChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Facet category / brand / khoảng giá cho bộ lọc sản phẩm, tính bằng phép toán trên bitmap thay vì GROUP BY.
+ *
+ * - Mỗi product active có một ordinal (số nguyên cấp tăng dần, không tái sử dụng). Mỗi giá trị facet
+ *   (một category, một brand, một khoảng giá) là một OrdinalBitmap gồm ordinal của các product mang giá trị đó.
+ * - Lọc là giao các bitmap (các giá trị đã chọn trong cùng facet thì hợp lại), số đếm là số phần tử của phần giao,
+ *   không tạo bitmap trung gian.
+ * - Khởi động: nạp toàn bộ products và product_variant (đang bán) bằng hai câu truy vấn.
+ *   ProductChangedEvent (sau commit) đánh dấu product cần đọc lại; thread ghi duy nhất đọc lại đúng các product đó,
+ *   chép (copy-on-write) những bitmap bị đổi rồi publish FacetSnapshot mới qua field volatile, giống ProductSearchIndex.
+ *   Truy vấn không khóa và luôn thấy một trạng thái nhất quán.
+ */
+@Component
+@Slf4j
+public class ProductFacetIndex {
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+
+    private static final String PRODUCT_QUERY = "SELECT id, category_id, brand_id, is_active FROM products";
+    private static final String VARIANT_QUERY = "SELECT product_id, price FROM product_variant WHERE is_active = true";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BigDecimal[] priceBounds;
+    private final List<PriceRange> priceRanges;
+
+    private final DirtyKeyDrainer<UUID> writer =
+            new DirtyKeyDrainer<>("product-facet-index", QUERY_CHUNK_SIZE, this::refresh);
+
+    // Trạng thái của thread ghi: giá trị facet hiện tại của từng ordinal, để gỡ khỏi bitmap cũ khi product đổi
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private UUID[] products = new UUID[1024];
+    private UUID[] categoryOf = new UUID[1024];
+    private UUID[] brandOf = new UUID[1024];
+    private int[] priceMaskOf = new int[1024];
+    private int productCount;
+
+    private volatile FacetSnapshot snapshot;
+    private volatile LocalDateTime lastRefreshAt;
+
+    public ProductFacetIndex(JdbcTemplate jdbcTemplate, FacetProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceBounds = properties.getPriceBounds().stream().sorted().distinct().toArray(BigDecimal[]::new);
+        if (priceBounds.length > Integer.SIZE - 1) {
+            throw new IllegalStateException("grocery.facet.price-bounds tối đa " + (Integer.SIZE - 1) + " mốc");
+        }
+        List<PriceRange> ranges = new ArrayList<>(priceBounds.length + 1);
+        for (int i = 0; i <= priceBounds.length; i++) {
+            ranges.add(new PriceRange(i, i == 0 ? BigDecimal.ZERO : priceBounds[i - 1],
+                    i == priceBounds.length ? null : priceBounds[i]));
+        }
+        this.priceRanges = Collections.unmodifiableList(ranges);
+        OrdinalBitmap[] emptyRanges = new OrdinalBitmap[ranges.size()];
+        Arrays.setAll(emptyRanges, i -> new OrdinalBitmap());
+        this.snapshot = new FacetSnapshot(products, new OrdinalBitmap(), Map.of(), Map.of(), emptyRanges);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        writer.markAll(event.getProductIds());
+    }
+
+    /**
+     * Khoảng giá của facet giá, theo thứ tự chỉ số
+     */
+    public List<PriceRange> getPriceRanges() {
+        return priceRanges;
+    }
+
+    /**
+     * Lọc product và đếm facet. Bộ lọc null / rỗng là không lọc theo facet đó;
+     * nhiều giá trị trong cùng facet là "hoặc", giữa các facet là "và".
+     * @param priceRangeIndexes chỉ số trong getPriceRanges()
+     * @param offset số product bỏ qua (theo thứ tự ordinal)
+     * @param limit số product id tối đa trả về
+     */
+    public FacetResult query(Collection<UUID> categoryIds, Collection<UUID> brandIds,
+                             Collection<Integer> priceRangeIndexes, long offset, int limit) {
+        FacetSnapshot current = snapshot;
+        OrdinalBitmap categoryFilter = union(categoryIds, current.categories::get);
+        OrdinalBitmap brandFilter = union(brandIds, current.brands::get);
+        OrdinalBitmap priceFilter = union(priceRangeIndexes, index -> current.priceRanges[index]);
+
+        // Số đếm của mỗi facet bỏ qua bộ lọc của chính facet đó
+        OrdinalBitmap categoryBase = intersect(current.live, brandFilter, priceFilter);
+        OrdinalBitmap brandBase = intersect(current.live, categoryFilter, priceFilter);
+        OrdinalBitmap priceBase = intersect(current.live, categoryFilter, brandFilter);
+        OrdinalBitmap matched = categoryFilter == null ? priceBase : OrdinalBitmap.and(priceBase, categoryFilter);
+        if (priceFilter != null) {
+            matched = OrdinalBitmap.and(matched, priceFilter);
+        }
+
+        Map<UUID, Long> categoryCounts = count(current.categories, categoryBase);
+        Map<UUID, Long> brandCounts = count(current.brands, brandBase);
+        long[] priceRangeCounts = new long[current.priceRanges.length];
+        for (int i = 0; i < priceRangeCounts.length; i++) {
+            priceRangeCounts[i] = OrdinalBitmap.andCardinality(priceBase, current.priceRanges[i]);
+        }
+
+        int[] page = matched.toArray(offset, limit);
+        List<UUID> productIds = new ArrayList<>(page.length);
+        for (int ordinal : page) {
+            productIds.add(current.products[ordinal]);
+        }
+        return new FacetResult(matched.cardinality(), productIds, categoryCounts, brandCounts, priceRangeCounts);
+    }
+
+    public FacetIndexStats getStats() {
+        FacetSnapshot current = snapshot;
+        return new FacetIndexStats(current.live.cardinality(), current.categories.size(), current.brands.size(),
+                writer.pending(), lastRefreshAt);
+    }
+
+    @PostConstruct
+    void load() {
+        long startNanos = System.nanoTime();
+        Map<OrdinalBitmap, Boolean> owned = new IdentityHashMap<>();
+        FacetSnapshot loaded = apply(snapshot, readProducts(PRODUCT_QUERY), readPriceMasks(VARIANT_QUERY), owned);
+        lastRefreshAt = LocalDateTime.now();
+        snapshot = loaded;
+        log.info("Loaded product facets: {} products, {} categories, {} brands in {} ms", loaded.live.cardinality(),
+                loaded.categories.size(), loaded.brands.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.stop();
+    }
+
+    /**
+     * Đọc lại một lô product rồi publish snapshot mới (chạy trên thread ghi)
+     */
+    private void refresh(List<UUID> productIds) {
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        Object[] args = productIds.toArray();
+        Map<UUID, ProductFacets> rows = readProducts(PRODUCT_QUERY + " WHERE id IN (" + placeholders + ")", args);
+        Map<UUID, Integer> priceMasks = readPriceMasks(VARIANT_QUERY + " AND product_id IN (" + placeholders + ")", args);
+        for (UUID productId : productIds) {
+            // Product không còn trong bảng được xử lý như product bị vô hiệu hóa
+            rows.putIfAbsent(productId, new ProductFacets(null, null, false));
+        }
+        FacetSnapshot next = apply(snapshot, rows, priceMasks, new IdentityHashMap<>());
+        lastRefreshAt = LocalDateTime.now();
+        snapshot = next;
+    }
+
+    /**
+     * Đưa các product về đúng giá trị facet mới. Bitmap của snapshot cũ không bị sửa: lần đầu chạm tới
+     * một bitmap trong lần cập nhật này thì chép ra (owned giữ các bản đã chép).
+     */
+    private FacetSnapshot apply(FacetSnapshot current, Map<UUID, ProductFacets> rows, Map<UUID, Integer> priceMasks,
+                                Map<OrdinalBitmap, Boolean> owned) {
+        Map<UUID, OrdinalBitmap> categories = new HashMap<>(current.categories);
+        Map<UUID, OrdinalBitmap> brands = new HashMap<>(current.brands);
+        OrdinalBitmap[] ranges = current.priceRanges.clone();
+        OrdinalBitmap live = own(current.live, owned);
+
+        for (Map.Entry<UUID, ProductFacets> entry : rows.entrySet()) {
+            UUID productId = entry.getKey();
+            ProductFacets facets = entry.getValue();
+            Integer existing = ordinals.get(productId);
+            if (existing == null && !facets.active()) {
+                continue;
+            }
+            int ordinal = existing != null ? existing : assignOrdinal(productId);
+            UUID category = facets.active() ? facets.categoryId() : null;
+            UUID brand = facets.active() ? facets.brandId() : null;
+            int priceMask = facets.active() ? priceMasks.getOrDefault(productId, 0) : 0;
+
+            if (!Objects.equals(categoryOf[ordinal], category)) {
+                move(categories, categoryOf[ordinal], category, ordinal, owned);
+                categoryOf[ordinal] = category;
+            }
+            if (!Objects.equals(brandOf[ordinal], brand)) {
+                move(brands, brandOf[ordinal], brand, ordinal, owned);
+                brandOf[ordinal] = brand;
+            }
+            int changed = priceMaskOf[ordinal] ^ priceMask;
+            for (int range = 0; changed != 0; range++, changed >>>= 1) {
+                if ((changed & 1) != 0) {
+                    ranges[range] = own(ranges[range], owned);
+                    if ((priceMask & (1 << range)) != 0) {
+                        ranges[range].add(ordinal);
+                    } else {
+                        ranges[range].remove(ordinal);
+                    }
+                }
+            }
+            priceMaskOf[ordinal] = priceMask;
+            if (facets.active()) {
+                live.add(ordinal);
+            } else {
+                live.remove(ordinal);
+            }
+        }
+        return new FacetSnapshot(products, live, categories, brands, ranges);
+    }
+
+    private void move(Map<UUID, OrdinalBitmap> facet, UUID from, UUID to, int ordinal, Map<OrdinalBitmap, Boolean> owned) {
+        if (from != null) {
+            OrdinalBitmap bitmap = own(facet.get(from), owned);
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                facet.remove(from);
+            } else {
+                facet.put(from, bitmap);
+            }
+        }
+        if (to != null) {
+            OrdinalBitmap bitmap = facet.get(to);
+            bitmap = bitmap == null ? new OrdinalBitmap() : own(bitmap, owned);
+            owned.put(bitmap, Boolean.TRUE);
+            bitmap.add(ordinal);
+            facet.put(to, bitmap);
+        }
+    }
+
+    private static OrdinalBitmap own(OrdinalBitmap bitmap, Map<OrdinalBitmap, Boolean> owned) {
+        if (owned.containsKey(bitmap)) {
+            return bitmap;
+        }
+        OrdinalBitmap copy = bitmap.copy();
+        owned.put(copy, Boolean.TRUE);
+        return copy;
+    }
+
+    private int assignOrdinal(UUID productId) {
+        if (productCount == products.length) {
+            // Snapshot đang publish vẫn giữ mảng cũ; phần tử dưới productCount không bao giờ bị ghi lại
+            int capacity = productCount * 2;
+            products = Arrays.copyOf(products, capacity);
+            categoryOf = Arrays.copyOf(categoryOf, capacity);
+            brandOf = Arrays.copyOf(brandOf, capacity);
+            priceMaskOf = Arrays.copyOf(priceMaskOf, capacity);
+        }
+        int ordinal = productCount++;
+        products[ordinal] = productId;
+        ordinals.put(productId, ordinal);
+        return ordinal;
+    }
+
+    private Map<UUID, ProductFacets> readProducts(String sql, Object... args) {
+        Map<UUID, ProductFacets> rows = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            rows.put(rs.getObject(1, UUID.class), new ProductFacets(rs.getObject(2, UUID.class),
+                    rs.getObject(3, UUID.class), rs.getBoolean(4)));
+        }, args);
+        return rows;
+    }
+
+    private Map<UUID, Integer> readPriceMasks(String sql, Object... args) {
+        Map<UUID, Integer> masks = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            masks.merge(rs.getObject(1, UUID.class), 1 << priceRange(rs.getBigDecimal(2)), (a, b) -> a | b);
+        }, args);
+        return masks;
+    }
+
+    private int priceRange(BigDecimal price) {
+        int index = Arrays.binarySearch(priceBounds, price);
+        // Giá bằng đúng mốc thuộc khoảng bắt đầu từ mốc đó
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static <K> OrdinalBitmap union(Collection<K> values, Function<K, OrdinalBitmap> lookup) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        OrdinalBitmap result = new OrdinalBitmap();
+        for (K value : values) {
+            OrdinalBitmap bitmap = lookup.apply(value);
+            if (bitmap != null) {
+                result = OrdinalBitmap.or(result, bitmap);
+            }
+        }
+        return result;
+    }
+
+    private static OrdinalBitmap intersect(OrdinalBitmap live, OrdinalBitmap first, OrdinalBitmap second) {
+        OrdinalBitmap result = live;
+        if (first != null) {
+            result = OrdinalBitmap.and(result, first);
+        }
+        if (second != null) {
+            result = OrdinalBitmap.and(result, second);
+        }
+        return result;
+    }
+
+    private static Map<UUID, Long> count(Map<UUID, OrdinalBitmap> facet, OrdinalBitmap base) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (Map.Entry<UUID, OrdinalBitmap> entry : facet.entrySet()) {
+            long count = OrdinalBitmap.andCardinality(base, entry.getValue());
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    private record ProductFacets(UUID categoryId, UUID brandId, boolean active) {
+    }
+
+    /**
+     * Trạng thái bất biến được publish cho các truy vấn. products dùng chung với thread ghi:
+     * thread ghi chỉ ghi vào các ô chưa có ordinal nào trỏ tới.
+     */
+    private static final class FacetSnapshot {
+
+        final UUID[] products;
+        final OrdinalBitmap live;
+        final Map<UUID, OrdinalBitmap> categories;
+        final Map<UUID, OrdinalBitmap> brands;
+        final OrdinalBitmap[] priceRanges;
+
+        FacetSnapshot(UUID[] products, OrdinalBitmap live, Map<UUID, OrdinalBitmap> categories,
+                      Map<UUID, OrdinalBitmap> brands, OrdinalBitmap[] priceRanges) {
+            this.products = products;
+            this.live = live;
+            this.categories = categories;
+            this.brands = brands;
+            this.priceRanges = priceRanges;
+        }
+    }
+}
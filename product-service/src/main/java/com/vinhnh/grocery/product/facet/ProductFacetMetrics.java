@@ -0,0 +1,27 @@
+package com.vinhnh.grocery.product.facet;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đưa kích thước và số thay đổi đang chờ của facet lên Prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductFacetMetrics implements MeterBinder {
+
+    private final ProductFacetIndex productFacetIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("facet.index.products", productFacetIndex, index -> index.getStats().getProducts())
+                .description("Số product active trong facet")
+                .register(registry);
+        Gauge.builder("facet.index.pending", productFacetIndex, index -> index.getStats().getPendingUpdates())
+                .description("Số product đang chờ cập nhật facet")
+                .register(registry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.vinhnh.grocery.product.image;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đưa độ dài hàng đợi và số ảnh đã xử lý của pipeline ảnh lên Prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageIngestionMetrics implements MeterBinder {
+
+    private final ImageIngestionPipeline imageIngestionPipeline;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("image.ingestion.queued", imageIngestionPipeline, pipeline -> pipeline.getStats().getQueued())
+                .description("Số ảnh đang chờ xử lý")
+                .register(registry);
+        FunctionCounter.builder("image.ingestion.completed", imageIngestionPipeline,
+                        pipeline -> pipeline.getStats().getCompleted())
+                .description("Số ảnh đã tạo xong bản thu nhỏ")
+                .register(registry);
+        FunctionCounter.builder("image.ingestion.failed", imageIngestionPipeline,
+                        pipeline -> pipeline.getStats().getFailed())
+                .description("Số ảnh xử lý lỗi")
+                .register(registry);
+        FunctionCounter.builder("image.ingestion.caller_runs", imageIngestionPipeline,
+                        pipeline -> pipeline.getStats().getCallerRuns())
+                .description("Số ảnh được xử lý ngay trên thread upload vì hàng đợi đầy")
+                .register(registry);
+    }
+}
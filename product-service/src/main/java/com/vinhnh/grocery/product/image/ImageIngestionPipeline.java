@@ -0,0 +1,210 @@
+package com.vinhnh.grocery.product.image;
+
+import com.vinhnh.grocery.product.dto.ImageIngestionStats;
+import com.vinhnh.grocery.product.entity.ProductImage;
+import com.vinhnh.grocery.product.repository.ProductImageRepository;
+import com.vinhnh.grocery.product.search.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Xử lý ảnh gốc sau khi upload: đọc kích thước, tạo bản gallery và thumbnail (JPEG), ghi mỗi bản thành một
+ * dòng ProductImage riêng.
+ *
+ * - Pool cố định workerThreads thread với hàng đợi giới hạn queueCapacity. Khi hàng đợi đầy, thread nhận upload
+ *   tự xử lý ảnh của mình (caller-runs): upload chậm lại thay vì bộ nhớ tăng không giới hạn.
+ * - Ảnh gốc được giải mã một lần (subsampling khi quá lớn); thumbnail thu nhỏ từ bản gallery.
+ * - Cập nhật kích thước ảnh gốc và insert các bản thu nhỏ trong cùng một transaction, kèm ProductChangedEvent
+ *   để cache chi tiết sản phẩm đọc lại. Câu UPDATE chỉ khớp khi width còn null: một ảnh được xử lý hai lần
+ *   (upload và khởi động lại chạy cùng lúc) chỉ ghi bản thu nhỏ một lần.
+ * - Ảnh gốc PENDING được đưa lại vào hàng đợi khi ứng dụng khởi động. Mỗi lần lỗi tăng processing_attempts;
+ *   đủ maxProcessingAttempts lần thì chuyển FAILED và không xử lý lại (file hỏng không bị giải mã mãi mỗi lần khởi động).
+ */
+@Component
+@Slf4j
+public class ImageIngestionPipeline {
+
+    public static final String DETAIL = "detail";
+    public static final String GALLERY = "gallery";
+    public static final String THUMBNAIL = "thumbnail";
+
+    // processing_status null: dòng có từ trước khi có cột này
+    private static final String PENDING_QUERY = """
+            SELECT i.id, i.product_variant_id, v.product_id, i.image_url
+            FROM product_image i JOIN product_variant v ON v.id = i.product_variant_id
+            WHERE i.image_type = 'detail' AND i.width IS NULL
+              AND (i.processing_status IS NULL OR i.processing_status = 'PENDING')
+            """;
+
+    private static final String RECORD_ORIGINAL = """
+            UPDATE product_image SET width = ?, height = ?, processing_status = 'DONE', updated_at = ?
+            WHERE id = ? AND width IS NULL
+            """;
+
+    private static final String RECORD_FAILURE = """
+            UPDATE product_image
+            SET processing_attempts = COALESCE(processing_attempts, 0) + 1,
+                processing_status = CASE WHEN COALESCE(processing_attempts, 0) + 1 >= ? THEN 'FAILED'
+                                         ELSE 'PENDING' END,
+                updated_at = ?
+            WHERE id = ? AND width IS NULL
+            """;
+
+    private final ImageProperties properties;
+    private final ImageStorage imageStorage;
+    private final ProductImageRepository productImageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor workers;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+
+    public ImageIngestionPipeline(ImageProperties properties,
+                                  ImageStorage imageStorage,
+                                  ProductImageRepository productImageRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.imageStorage = imageStorage;
+        this.productImageRepository = productImageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                task -> {
+                    Thread thread = new Thread(task, "image-ingestion-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    if (executor.isShutdown()) {
+                        log.warn("Image pipeline is shut down, image will be processed on next startup");
+                        return;
+                    }
+                    callerRuns.increment();
+                    task.run();
+                });
+    }
+
+    /**
+     * Đưa ảnh gốc vừa lưu (dòng ProductImage đã commit) vào hàng đợi xử lý
+     */
+    public void submit(UUID imageId, UUID variantId, UUID productId, String fileName) {
+        workers.execute(() -> process(imageId, variantId, productId, fileName));
+    }
+
+    public ImageIngestionStats getStats() {
+        return new ImageIngestionStats(properties.getWorkerThreads(), properties.getQueueCapacity(),
+                workers.getQueue().size(), workers.getActiveCount(), completed.sum(), failed.sum(), callerRuns.sum());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void resumePending() {
+        jdbcTemplate.query(PENDING_QUERY, rs -> {
+            submit(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getObject(3, UUID.class),
+                    ImageStorage.fileName(rs.getString(4)));
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+
+    private void process(UUID imageId, UUID variantId, UUID productId, String fileName) {
+        try {
+            ImageRenderer.Decoded decoded = ImageRenderer.decode(imageStorage.resolve(variantId, fileName),
+                    properties.getGallerySize());
+            String baseName = fileName.substring(0, fileName.lastIndexOf('.'));
+            List<Rendition> renditions = new ArrayList<>(2);
+            BufferedImage source = decoded.image();
+            for (String type : List.of(GALLERY, THUMBNAIL)) {
+                int maxSize = type.equals(GALLERY) ? properties.getGallerySize() : properties.getThumbnailSize();
+                int[] size = ImageRenderer.fit(decoded.width(), decoded.height(), maxSize);
+                source = ImageRenderer.scale(source, size[0], size[1]);
+                String name = baseName + "-" + type + ".jpg";
+                Path target = imageStorage.resolve(variantId, name);
+                Path temporary = target.resolveSibling(name + ".tmp");
+                ImageRenderer.writeJpeg(source, temporary, properties.getJpegQuality());
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                renditions.add(new Rendition(type, name, Files.size(target), size[0], size[1]));
+            }
+            transactionTemplate.executeWithoutResult(status -> record(imageId, variantId, productId, decoded,
+                    renditions));
+            completed.increment();
+            log.debug("Processed image {} ({}x{})", imageId, decoded.width(), decoded.height());
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.error("Failed to process image {} of variant {}", imageId, variantId, e);
+            recordFailure(imageId);
+        }
+    }
+
+    private void recordFailure(UUID imageId) {
+        try {
+            jdbcTemplate.update(RECORD_FAILURE, properties.getMaxProcessingAttempts(),
+                    Timestamp.valueOf(LocalDateTime.now()), imageId);
+        } catch (RuntimeException e) {
+            // Không ghi được số lần lỗi: ảnh vẫn PENDING, lần khởi động sau thử lại
+            log.error("Failed to record processing failure of image {}", imageId, e);
+        }
+    }
+
+    private void record(UUID imageId, UUID variantId, UUID productId, ImageRenderer.Decoded decoded,
+                        List<Rendition> renditions) {
+        // Khóa dòng ảnh gốc: lần xử lý chạy song song chờ tới khi transaction này kết thúc rồi không khớp width IS NULL
+        int updated = jdbcTemplate.update(RECORD_ORIGINAL, decoded.width(), decoded.height(),
+                Timestamp.valueOf(LocalDateTime.now()), imageId);
+        ProductImage original = updated == 0 ? null : productImageRepository.findById(imageId).orElse(null);
+        if (original == null) {
+            log.warn("Image {} was removed or already processed", imageId);
+            return;
+        }
+        for (Rendition rendition : renditions) {
+            ProductImage image = new ProductImage();
+            image.setProductVariant(original.getProductVariant());
+            image.setImageUrl(imageStorage.url(variantId, rendition.fileName()));
+            image.setAltText(original.getAltText());
+            image.setIsPrimary(original.getIsPrimary());
+            image.setDisplayOrder(original.getDisplayOrder());
+            image.setImageType(rendition.type());
+            image.setFileSize(rendition.fileSize());
+            image.setWidth(rendition.width());
+            image.setHeight(rendition.height());
+            productImageRepository.save(image);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(List.of(productId)));
+    }
+
+    private record Rendition(String type, String fileName, long fileSize, int width, int height) {
+    }
+}
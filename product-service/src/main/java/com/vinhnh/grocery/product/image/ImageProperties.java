@@ -0,0 +1,50 @@
+package com.vinhnh.grocery.product.image;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Cấu hình cho lưu trữ và xử lý ảnh sản phẩm (grocery.image.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.image")
+public class ImageProperties {
+
+    /**
+     * Thư mục lưu ảnh gốc và các bản thu nhỏ, mỗi variant một thư mục con
+     */
+    private Path storageDirectory = Path.of("./data/images");
+
+    /**
+     * Tiền tố URL phục vụ thư mục ảnh (image_url = public-url/{variantId}/{tên file})
+     */
+    private String publicUrl = "/images";
+
+    /**
+     * Số thread xử lý ảnh
+     */
+    private int workerThreads = 2;
+
+    /**
+     * Số ảnh chờ xử lý tối đa. Khi hàng đợi đầy, thread nhận upload tự xử lý ảnh của mình (backpressure)
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Cạnh dài tối đa (px) của bản thumbnail và gallery
+     */
+    private int thumbnailSize = 200;
+    private int gallerySize = 800;
+
+    /**
+     * Chất lượng nén JPEG của các bản thu nhỏ (0-1)
+     */
+    private float jpegQuality = 0.85f;
+
+    /**
+     * Số lần xử lý lỗi tối đa của một ảnh gốc; quá số này ảnh được đánh dấu FAILED và không xử lý lại khi khởi động
+     */
+    private int maxProcessingAttempts = 3;
+}
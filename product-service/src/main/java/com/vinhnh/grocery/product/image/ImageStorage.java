@@ -0,0 +1,79 @@
+package com.vinhnh.grocery.product.image;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Vị trí file ảnh trên filesystem cục bộ và URL công khai tương ứng: {storage-directory}/{variantId}/{tên file}
+ */
+@Component
+public class ImageStorage {
+
+    // Định dạng ImageIO đọc được -> phần mở rộng của file gốc
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "jpeg", "jpg", "jpg", "jpg", "png", "png", "gif", "gif", "bmp", "bmp");
+
+    private final Path root;
+    private final String publicUrl;
+
+    public ImageStorage(ImageProperties properties) {
+        this.root = properties.getStorageDirectory().toAbsolutePath().normalize();
+        this.publicUrl = properties.getPublicUrl().replaceAll("/+$", "");
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public Path directory(UUID variantId) {
+        return root.resolve(variantId.toString());
+    }
+
+    public Path resolve(UUID variantId, String fileName) {
+        return directory(variantId).resolve(fileName);
+    }
+
+    /**
+     * Lưu ảnh gốc upload vào thư mục của variant dưới tên ngẫu nhiên, định dạng được kiểm tra theo header file
+     * @return tên file đã lưu
+     * @throws IllegalArgumentException nếu file không phải ảnh JPEG, PNG, GIF hoặc BMP
+     */
+    public String storeOriginal(UUID variantId, MultipartFile file) {
+        String token = UUID.randomUUID().toString();
+        Path temporary = resolve(variantId, token + ".upload");
+        try {
+            Files.createDirectories(temporary.getParent());
+            file.transferTo(temporary);
+            String format = ImageRenderer.probeFormat(temporary);
+            String extension = format == null ? null : EXTENSIONS.get(format);
+            if (extension == null) {
+                Files.deleteIfExists(temporary);
+                throw new IllegalArgumentException("Định dạng ảnh không được hỗ trợ, chỉ nhận JPEG, PNG, GIF, BMP");
+            }
+            String fileName = token + "." + extension;
+            Files.move(temporary, resolve(variantId, fileName), StandardCopyOption.ATOMIC_MOVE);
+            return fileName;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không lưu được ảnh upload", e);
+        }
+    }
+
+    public String url(UUID variantId, String fileName) {
+        return publicUrl + "/" + variantId + "/" + fileName;
+    }
+
+    /**
+     * Tên file trong URL do url(...) tạo ra
+     */
+    public static String fileName(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,161 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.common.util.DirtyKeyDrainer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Snapshot available_quantity của toàn bộ variant trong bộ nhớ, cho các câu hỏi "còn hàng không?" với tần suất cao.
+ *
+ * - Khởi động: nạp cả bảng inventory (hai cột) vào VariantQuantityTable.
+ * - Mỗi InventoryChangedEvent (sau commit) đánh dấu các variant bị thay đổi; một thread nền (thread ghi duy nhất
+ *   của bảng) đọc lại đúng các dòng đó theo primary key, giống StockLevelMonitor.
+ * - Variant chưa có trong snapshot (ví dụ dòng inventory tạo mới không qua event) được đọc từ database
+ *   trong cùng request rồi đánh dấu để thread nền nạp vào.
+ * - Id không có dòng inventory không được thêm vào snapshot: VariantQuantityTable không xóa được key, nhớ các id
+ *   này làm bảng lớn dần theo id tùy ý từ request. Mỗi lần tra cứu id như vậy là một lần đọc database.
+ *   Chỉ variant đã có trong snapshot mà mất dòng inventory mới được ghi đè thành NO_INVENTORY.
+ *
+ * Đường đọc chỉ là probe trên mảng nguyên thủy: không khóa, không cấp phát. Snapshot phản ánh dữ liệu đã commit
+ * và được báo qua InventoryChangedEvent.
+ */
+@Component
+@Slf4j
+public class AvailabilitySnapshot {
+
+    /** Variant không có dòng inventory */
+    public static final int NO_INVENTORY = Integer.MIN_VALUE;
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final VariantQuantityTable table = new VariantQuantityTable(INITIAL_CAPACITY);
+    private final LongAdder misses = new LongAdder();
+    private final DirtyKeyDrainer<UUID> refresher =
+            new DirtyKeyDrainer<>("availability-snapshot", QUERY_CHUNK_SIZE, this::refresh);
+
+    public AvailabilitySnapshot(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        List<UUID> variantIds = new ArrayList<>(event.getDeltas().size());
+        for (InventoryDelta delta : event.getDeltas()) {
+            variantIds.add(delta.getProductVariantId());
+        }
+        refresher.markAll(variantIds);
+    }
+
+    /**
+     * Ghi available_quantity của từng variant vào available (cùng chỉ số), NO_INVENTORY nếu variant không có tồn kho.
+     * Không cấp phát khi mọi variant đã có trong snapshot.
+     * @param variantIds danh sách variant cần kiểm tra
+     * @param available mảng kết quả, dài ít nhất bằng variantIds
+     */
+    public void getAvailableQuantities(UUID[] variantIds, int[] available) {
+        int missing = 0;
+        for (int i = 0; i < variantIds.length; i++) {
+            UUID variantId = variantIds[i];
+            int quantity = table.get(variantId.getMostSignificantBits(), variantId.getLeastSignificantBits());
+            available[i] = quantity;
+            if (quantity == VariantQuantityTable.MISSING) {
+                missing++;
+            }
+        }
+        if (missing > 0) {
+            misses.add(missing);
+            loadMissing(variantIds, available);
+        }
+    }
+
+    /**
+     * Số variant đang có trong snapshot
+     */
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Tổng số lần tra cứu không có trong snapshot, phải đọc database
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @PostConstruct
+    void load() {
+        jdbcTemplate.query("SELECT product_variant_id, available_quantity FROM inventory", rs -> {
+            UUID variantId = rs.getObject(1, UUID.class);
+            table.put(variantId.getMostSignificantBits(), variantId.getLeastSignificantBits(), rs.getInt(2));
+        });
+        log.info("Loaded availability snapshot with {} variants", table.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.stop();
+    }
+
+    private void loadMissing(UUID[] variantIds, int[] available) {
+        List<UUID> missing = new ArrayList<>();
+        for (int i = 0; i < variantIds.length; i++) {
+            if (available[i] == VariantQuantityTable.MISSING) {
+                missing.add(variantIds[i]);
+            }
+        }
+        Map<UUID, Integer> loaded = new HashMap<>();
+        for (int from = 0; from < missing.size(); from += QUERY_CHUNK_SIZE) {
+            loaded.putAll(query(missing.subList(from, Math.min(missing.size(), from + QUERY_CHUNK_SIZE))));
+        }
+        for (int i = 0; i < variantIds.length; i++) {
+            if (available[i] == VariantQuantityTable.MISSING) {
+                available[i] = loaded.getOrDefault(variantIds[i], NO_INVENTORY);
+            }
+        }
+        if (loaded.isEmpty()) {
+            return;
+        }
+        // Chỉ thread nền được ghi vào bảng
+        refresher.markAll(loaded.keySet());
+    }
+
+    private void refresh(List<UUID> variantIds) {
+        Map<UUID, Integer> loaded = query(variantIds);
+        for (UUID variantId : variantIds) {
+            long high = variantId.getMostSignificantBits();
+            long low = variantId.getLeastSignificantBits();
+            Integer quantity = loaded.get(variantId);
+            if (quantity != null) {
+                table.put(high, low, quantity);
+            } else if (table.get(high, low) != VariantQuantityTable.MISSING) {
+                // Ghi đè key đã có không làm bảng lớn thêm
+                table.put(high, low, NO_INVENTORY);
+            }
+        }
+    }
+
+    private Map<UUID, Integer> query(List<UUID> variantIds) {
+        Map<UUID, Integer> result = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(variantIds.size(), "?"));
+        jdbcTemplate.query("SELECT product_variant_id, available_quantity FROM inventory WHERE product_variant_id IN ("
+                + placeholders + ")", rs -> {
+            result.put(rs.getObject(1, UUID.class), rs.getInt(2));
+        }, variantIds.toArray());
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package com.vinhnh.grocery.product.inventory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đưa kích thước và số lần miss của snapshot tồn kho lên Prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilitySnapshotMetrics implements MeterBinder {
+
+    private final AvailabilitySnapshot availabilitySnapshot;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.availability.snapshot.size", availabilitySnapshot, AvailabilitySnapshot::size)
+                .description("Số variant đang có trong snapshot tồn kho")
+                .register(registry);
+        FunctionCounter.builder("inventory.availability.snapshot.misses", availabilitySnapshot,
+                        AvailabilitySnapshot::getMissCount)
+                .description("Số lần tra cứu tồn kho không có trong snapshot, phải đọc database")
+                .register(registry);
+    }
+}
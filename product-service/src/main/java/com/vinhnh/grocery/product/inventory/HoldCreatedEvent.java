@@ -0,0 +1,18 @@
+package com.vinhnh.grocery.product.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Event phát ra khi một hold giữ hàng được tạo. HoldExpiryScheduler đưa hold vào timing wheel sau khi commit.
+ */
+@Getter
+@AllArgsConstructor
+public class HoldCreatedEvent {
+
+    private final UUID holdId;
+    private final LocalDateTime expiresAt;
+}
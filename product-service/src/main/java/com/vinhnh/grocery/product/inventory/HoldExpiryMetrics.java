@@ -0,0 +1,44 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.product.dto.HoldExpiryStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đưa trạng thái hết hạn hold giữ hàng lên Prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class HoldExpiryMetrics implements MeterBinder {
+
+    private final HoldExpiryScheduler holdExpiryScheduler;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.holds.pending", this, metrics -> metrics.stats().getPendingHolds())
+                .description("Số hold giữ hàng đang chờ hết hạn trong timing wheel")
+                .register(registry);
+        TimeGauge.builder("inventory.holds.expiry.lag", this, TimeUnit.MILLISECONDS,
+                        metrics -> metrics.stats().getLastExpiryLagMillis())
+                .description("Độ trễ giữa deadline và lúc trả lại hàng của lô hold hết hạn gần nhất")
+                .register(registry);
+        FunctionCounter.builder("inventory.holds.expired", this, metrics -> metrics.stats().getExpiredHolds())
+                .description("Tổng số hold hết hạn đã được trả lại hàng")
+                .register(registry);
+        FunctionCounter.builder("inventory.holds.release.failures", this,
+                        metrics -> metrics.stats().getReleaseFailures())
+                .description("Số lô hold hết hạn trả lại thất bại (sẽ được thử lại)")
+                .register(registry);
+    }
+
+    private HoldExpiryStats stats() {
+        return holdExpiryScheduler.getStats();
+    }
+}
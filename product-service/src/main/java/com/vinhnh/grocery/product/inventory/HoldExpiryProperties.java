@@ -0,0 +1,35 @@
+package com.vinhnh.grocery.product.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cấu hình thời hạn giữ hàng và timing wheel hết hạn hold (grocery.inventory.hold.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.inventory.hold")
+public class HoldExpiryProperties {
+
+    /** Thời hạn giữ hàng khi request không chỉ định */
+    private Duration defaultTtl = Duration.ofMinutes(15);
+
+    /** Thời hạn giữ hàng tối đa cho phép */
+    private Duration maxTtl = Duration.ofHours(24);
+
+    /** Độ dài một tick của tầng thấp nhất (độ trễ hết hạn tối đa) */
+    private Duration tick = Duration.ofMillis(100);
+
+    /** Số bucket mỗi tầng của timing wheel */
+    private int wheelSize = 512;
+
+    /** Số hold tối đa được trả lại trong một transaction */
+    private int releaseBatchSize = 500;
+
+    /**
+     * Chu kỳ quét inventory_hold tìm hold đã hết hạn mà wheel của instance này không biết
+     * (tạo ở instance khác sau khi instance này khởi động). Là độ trễ hết hạn tối đa của các hold đó.
+     */
+    private Duration sweepInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,187 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.product.dto.HoldExpiryStats;
+import com.vinhnh.grocery.product.service.InventoryReservationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trả lại hàng của các hold hết hạn bằng một hierarchical timing wheel trong bộ nhớ.
+ *
+ * - Hold mới (HoldCreatedEvent, sau commit) được đưa vào hàng đợi rồi vào wheel ở tick kế tiếp: O(1).
+ * - Mỗi tick, các hold hết hạn được gom lại và trả lại theo lô releaseBatchSize hold mỗi transaction,
+ *   không quét bảng inventory_hold.
+ * - Khi khởi động, wheel được dựng lại từ inventory_hold (một câu GROUP BY đọc dạng stream).
+ * - Wheel chỉ biết hold tạo trong instance này (hoặc đã có lúc khởi động). Mỗi sweepInterval, inventory_hold được
+ *   quét theo expires_at (index idx_inventory_hold_expires_at) để trả lại hold đã hết hạn mà wheel không biết,
+ *   như hold tạo ở instance khác; wheel là đường nhanh, quét định kỳ là đường bảo đảm.
+ *
+ * Hold đã hủy / xác nhận / trả lại bởi lần quét vẫn nằm trong wheel tới hạn, khi đó lần trả lại không tìm thấy
+ * dòng nào và bị bỏ qua. Khi chạy nhiều instance, mỗi hold chỉ được trả lại một lần (FOR UPDATE + DELETE),
+ * hold tạo ở instance khác hết hạn trễ tối đa sweepInterval.
+ */
+@Component
+@Slf4j
+public class HoldExpiryScheduler {
+
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private static final String DUE_HOLDS = "SELECT DISTINCT hold_id FROM inventory_hold WHERE expires_at <= ? LIMIT ?";
+
+    private final InventoryReservationService inventoryReservationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final HoldExpiryProperties properties;
+
+    private final ConcurrentLinkedQueue<PendingHold> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong expiredHolds = new AtomicLong();
+    private final AtomicLong releaseFailures = new AtomicLong();
+    private volatile long wheelSize;
+    private volatile long lastExpiryLagMillis;
+
+    /** Chỉ được truy cập bởi thread hold-expiry (và start() trước khi thread chạy) */
+    private TimingWheel<UUID> wheel;
+    private ScheduledExecutorService ticker;
+
+    public HoldExpiryScheduler(InventoryReservationService inventoryReservationService,
+                               JdbcTemplate jdbcTemplate,
+                               HoldExpiryProperties properties) {
+        this.inventoryReservationService = inventoryReservationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldCreated(HoldCreatedEvent event) {
+        pending.add(new PendingHold(event.getHoldId(), toEpochMillis(event.getExpiresAt())));
+    }
+
+    public HoldExpiryStats getStats() {
+        return new HoldExpiryStats(wheelSize + pending.size(), lastExpiryLagMillis,
+                expiredHolds.get(), releaseFailures.get());
+    }
+
+    @PostConstruct
+    void start() {
+        long tickMillis = properties.getTick().toMillis();
+        wheel = new TimingWheel<>(tickMillis, properties.getWheelSize(), System.currentTimeMillis());
+        jdbcTemplate.query("SELECT hold_id, MIN(expires_at) AS expires_at FROM inventory_hold GROUP BY hold_id", rs -> {
+            wheel.add(rs.getObject("hold_id", UUID.class),
+                    toEpochMillis(rs.getTimestamp("expires_at").toLocalDateTime()));
+        });
+        wheelSize = wheel.size();
+        log.info("Rebuilt hold expiry wheel with {} holds", wheelSize);
+
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tickQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        // Cùng thread với tick: wheel và lần quét không chạy song song
+        long sweepMillis = properties.getSweepInterval().toMillis();
+        ticker.scheduleWithFixedDelay(this::sweepQuietly, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Một tick: nhận hold mới, tiến đồng hồ, trả lại các hold hết hạn theo lô
+     */
+    private void tick() {
+        PendingHold hold;
+        while ((hold = pending.poll()) != null) {
+            wheel.add(hold.holdId(), hold.deadlineMillis());
+        }
+
+        long now = System.currentTimeMillis();
+        List<UUID> expired = new ArrayList<>();
+        long[] oldestDeadline = {Long.MAX_VALUE};
+        wheel.advance(now, (holdId, deadline) -> {
+            expired.add(holdId);
+            oldestDeadline[0] = Math.min(oldestDeadline[0], deadline);
+        });
+
+        int batchSize = properties.getReleaseBatchSize();
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<UUID> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            try {
+                expiredHolds.addAndGet(inventoryReservationService.releaseExpired(batch));
+            } catch (RuntimeException e) {
+                // Đưa lại vào wheel để thử lại sau, hold chưa bị xóa nên không mất hàng đã giữ
+                releaseFailures.incrementAndGet();
+                log.error("Failed to release {} expired holds, will retry", batch.size(), e);
+                for (UUID holdId : batch) {
+                    wheel.add(holdId, now + RETRY_DELAY_MILLIS);
+                }
+            }
+        }
+        if (!expired.isEmpty()) {
+            lastExpiryLagMillis = System.currentTimeMillis() - oldestDeadline[0];
+        }
+        wheelSize = wheel.size();
+    }
+
+    /**
+     * Trả lại các hold đã hết hạn còn trong inventory_hold, theo lô releaseBatchSize
+     */
+    private void sweep() {
+        int batchSize = properties.getReleaseBatchSize();
+        while (true) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<UUID> due = jdbcTemplate.queryForList(DUE_HOLDS, UUID.class, now, batchSize);
+            if (due.isEmpty()) {
+                return;
+            }
+            int released = inventoryReservationService.releaseExpired(due);
+            expiredHolds.addAndGet(released);
+            log.debug("Swept {} expired holds", released);
+            if (due.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            // Hold chưa bị xóa, lần quét sau thử lại
+            releaseFailures.incrementAndGet();
+            log.error("Expired hold sweep failed, will retry", e);
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.error("Hold expiry tick failed", e);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record PendingHold(UUID holdId, long deadlineMillis) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.vinhnh.grocery.product.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Event phát ra khi quantity / reserved_quantity của các dòng inventory thay đổi bằng SQL trực tiếp
+ * (không qua entity Inventory). Các thành phần giữ trạng thái tồn kho trong bộ nhớ lắng nghe event này
+ * sau khi transaction commit.
+ */
+@Getter
+@AllArgsConstructor
+public class InventoryChangedEvent {
+
+    /** Thành phần đã thay đổi tồn kho, để nó bỏ qua event của chính mình */
+    private final Object source;
+
+    private final List<InventoryDelta> deltas;
+}
@@ -0,0 +1,25 @@
+package com.vinhnh.grocery.product.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Thay đổi tồn kho của một variant: quantity (hàng thực có) và reserved_quantity (hàng đang được giữ)
+ */
+@Getter
+@AllArgsConstructor
+public class InventoryDelta {
+
+    private final UUID productVariantId;
+    private final int quantityDelta;
+    private final int reservedDelta;
+
+    /**
+     * Thay đổi của số lượng còn có thể bán (quantity - reserved_quantity)
+     */
+    public int getAvailableDelta() {
+        return quantityDelta - reservedDelta;
+    }
+}
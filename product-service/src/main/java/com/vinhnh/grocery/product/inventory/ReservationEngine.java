@@ -0,0 +1,518 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.product.entity.InventoryReservationCheckpoint;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.InventoryReservationCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Engine giữ hàng (reserve) trong bộ nhớ, theo productVariant id.
+ *
+ * - Reserve: một compare-and-set trên counter "còn có thể đặt" của variant, không lock, không truy vấn database
+ *   (trừ lần đầu gặp variant). Counter không bao giờ xuống dưới 0 nên không bán vượt tồn kho.
+ * - Mỗi thay đổi được ghi vào journal memory-mapped của epoch hiện tại và cộng vào delta của epoch đó.
+ * - Thread flusher mỗi flushInterval đóng epoch hiện tại, ghi tổng delta từng variant xuống bảng inventory
+ *   bằng một JDBC batch, cập nhật checkpoint trong cùng transaction rồi xóa file journal.
+ * - Khi khởi động, các journal có epoch lớn hơn checkpoint (process chết trước khi flush) được replay.
+ * - Sau mỗi lần ghi, delta được phát lại dưới dạng InventoryChangedEvent cho các thành phần khác.
+ * - UPDATE khi flush có điều kiện 0 <= reserved_quantity <= quantity: delta của variant vi phạm điều kiện
+ *   (tồn kho bị giữ / giảm ngoài engine trong lúc delta chờ flush) bị bỏ, được đếm và ghi log. Counter của variant
+ *   được đặt lại bằng số lượng còn có thể đặt trong database trừ delta của các epoch sau vẫn chờ flush.
+ *   Database không bao giờ có available_quantity âm.
+ *
+ * Engine giả định nó là nơi duy nhất giữ hàng trong bộ nhớ cho các variant đã nạp, nên chỉ một instance
+ * product-service (hoặc mỗi instance một tập variant riêng) được dùng engine. Thay đổi tồn kho bằng SQL trực tiếp
+ * trong cùng instance (InventoryChangedEvent) được cộng vào counter sau khi commit.
+ *
+ * Luồng giữ hàng của ứng dụng là InventoryReservationService (UPDATE có điều kiện), không đi qua engine. Engine chỉ
+ * được tạo khi grocery.inventory.reservation.enabled = true (benchmark, thử nghiệm): khi tắt không có thread flusher,
+ * thư mục journal hay dòng checkpoint nào được tạo.
+ */
+@Component
+@ConditionalOnProperty(prefix = "grocery.inventory.reservation", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReservationEngine {
+
+    private static final String APPLY_DELTA = """
+            UPDATE inventory
+            SET reserved_quantity = reserved_quantity + ?,
+                available_quantity = quantity - reserved_quantity - ?,
+                updated_at = ?
+            WHERE product_variant_id = ?
+              AND reserved_quantity + ? BETWEEN 0 AND quantity
+            """;
+
+    /** Số segment đã flush giữ lại để dùng cho các epoch sau */
+    private static final int MAX_SPARE_SEGMENTS = 2;
+
+    private static final String LOCK_FILE = "engine.lock";
+
+    private static final String UPDATE_CHECKPOINT =
+            "UPDATE inventory_reservation_checkpoint SET last_epoch = ? WHERE instance_id = ?";
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryReservationCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationEngineProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<UUID, AtomicInteger> unreserved = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Epoch> sealedEpochs = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<ReservationJournal> spareSegments = new ConcurrentLinkedQueue<>();
+    private final AtomicLong rejectedDeltas = new AtomicLong();
+    private final Object rotationLock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile Epoch current;
+    private Path directory;
+    private FileChannel lockChannel;
+    private ScheduledExecutorService flusher;
+
+    public ReservationEngine(InventoryRepository inventoryRepository,
+                             InventoryReservationCheckpointRepository checkpointRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ReservationEngineProperties properties,
+                             ApplicationEventPublisher eventPublisher) {
+        this.inventoryRepository = inventoryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Giữ hàng cho một variant
+     * @return false nếu không đủ hàng, khi đó không có gì thay đổi
+     */
+    public boolean tryReserve(UUID variantId, int quantity) {
+        requirePositive(quantity);
+        return record(variantId, quantity, counter(variantId));
+    }
+
+    /**
+     * Trả lại hàng đã giữ (hủy giỏ hàng / đơn hàng).
+     * Người gọi chịu trách nhiệm chỉ trả lại đúng số lượng đã reserve thành công.
+     */
+    public void release(UUID variantId, int quantity) {
+        requirePositive(quantity);
+        record(variantId, -quantity, counter(variantId));
+    }
+
+    /**
+     * Số lượng còn có thể đặt theo engine (đã trừ các reserve chưa được flush)
+     */
+    public int getUnreservedQuantity(UUID variantId) {
+        return counter(variantId).get();
+    }
+
+    /**
+     * Số delta bị bỏ khi flush vì vi phạm điều kiện tồn kho
+     */
+    public long getRejectedDeltas() {
+        return rejectedDeltas.get();
+    }
+
+    /**
+     * Cập nhật counter của các variant đã nạp khi tồn kho bị thay đổi ngoài engine.
+     * Nếu counter được nạp từ database ngay giữa lúc commit và lúc nhận event, delta bị trừ hai lần:
+     * counter thấp hơn thực tế (không bán vượt), trở lại đúng sau khi restart.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (event.getSource() == this) {
+            return;
+        }
+        for (InventoryDelta delta : event.getDeltas()) {
+            AtomicInteger counter = unreserved.get(delta.getProductVariantId());
+            if (counter != null) {
+                counter.addAndGet(delta.getAvailableDelta());
+            }
+        }
+    }
+
+    /**
+     * Ghi tất cả delta đang chờ xuống database (được gọi định kỳ bởi thread flusher)
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Epoch open = current;
+            if (!open.journal.isEmpty()) {
+                rotate(open);
+            }
+            Epoch epoch;
+            while ((epoch = sealedEpochs.peek()) != null) {
+                applyDeltas(epoch.getId(), epoch.drainDeltas());
+                sealedEpochs.poll();
+                recycle(epoch.journal);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        directory = properties.getJournalDirectory().resolve(properties.getInstanceId());
+        lockDirectory();
+        long checkpoint = checkpointRepository.findById(properties.getInstanceId())
+                .orElseGet(() -> checkpointRepository.save(
+                        new InventoryReservationCheckpoint(properties.getInstanceId(), 0L)))
+                .getLastEpoch();
+        long lastEpoch = recover(checkpoint);
+        current = new Epoch(ReservationJournal.create(directory, lastEpoch + 1, properties.getJournalSegmentRecords()));
+
+        long interval = properties.getFlushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "reservation-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (current.journal.isEmpty()) {
+            current.journal.delete();
+        }
+        ReservationJournal spare;
+        while ((spare = spareSegments.poll()) != null) {
+            spare.delete();
+        }
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to release reservation journal lock in {}", directory, e);
+        }
+    }
+
+    /**
+     * Giữ file lock trên thư mục journal: hai engine dùng chung thư mục sẽ replay / xóa journal của nhau
+     */
+    private void lockDirectory() {
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (lockChannel.tryLock() == null) {
+                lockChannel.close();
+                throw new IllegalStateException("Thư mục journal đang được dùng bởi engine khác: " + directory);
+            }
+        } catch (OverlappingFileLockException e) {
+            throw new IllegalStateException("Thư mục journal đang được dùng bởi engine khác: " + directory, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không mở được thư mục journal " + directory, e);
+        }
+    }
+
+    /**
+     * Replay các journal segment chưa được checkpoint, theo thứ tự epoch
+     * @return epoch lớn nhất đã thấy
+     */
+    private long recover(long checkpoint) {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(file -> ReservationJournal.parseEpoch(file) >= 0)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không đọc được thư mục journal " + directory, e);
+        }
+
+        long lastEpoch = checkpoint;
+        for (Path segment : segments) {
+            long epoch = ReservationJournal.parseEpoch(segment);
+            if (epoch > checkpoint) {
+                Map<UUID, Long> deltas = ReservationJournal.readDeltas(segment);
+                applyDeltas(epoch, deltas);
+                log.info("Replayed reservation journal epoch {} with {} variants", epoch, deltas.size());
+            }
+            lastEpoch = Math.max(lastEpoch, epoch);
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Không xóa được journal segment " + segment, e);
+            }
+        }
+        return lastEpoch;
+    }
+
+    private void applyDeltas(long epoch, Map<UUID, Long> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<InventoryDelta> pending = new ArrayList<>(deltas.size());
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((variantId, delta) -> {
+            if (delta != 0) {
+                int value = Math.toIntExact(delta);
+                pending.add(new InventoryDelta(variantId, 0, value));
+                args.add(new Object[]{value, value, now, variantId, value});
+            }
+        });
+        int[] updated = transactionTemplate.execute(status -> {
+            int[] counts = args.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(APPLY_DELTA, args);
+            jdbcTemplate.update(UPDATE_CHECKPOINT, epoch, properties.getInstanceId());
+            return counts;
+        });
+        List<InventoryDelta> applied = new ArrayList<>(pending.size());
+        List<UUID> rejected = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            InventoryDelta delta = pending.get(i);
+            if (updated[i] == 0) {
+                rejected(epoch, delta);
+                rejected.add(delta.getProductVariantId());
+            } else if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+                applied.add(delta);
+            }
+        }
+        resync(epoch, rejected);
+        if (!applied.isEmpty()) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(this, applied));
+        }
+    }
+
+    /**
+     * Delta không ghi được (không có inventory, hoặc tồn kho đã bị giữ / giảm ngoài engine): bỏ delta,
+     * counter của variant được đặt lại bởi resync
+     */
+    private void rejected(long epoch, InventoryDelta delta) {
+        rejectedDeltas.incrementAndGet();
+        log.error("Dropped reservation delta {} for variant {} in epoch {}: inventory row missing or not enough stock",
+                delta.getReservedDelta(), delta.getProductVariantId(), epoch);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Epoch lỗi vẫn nằm đầu hàng đợi và được thử lại ở chu kỳ sau
+            log.error("Failed to flush reservation deltas, will retry", e);
+        }
+    }
+
+    /**
+     * Đặt lại counter của các variant có delta bị bỏ ở epoch rejectedEpoch (đã commit, flushLock đang được giữ):
+     * số lượng còn có thể đặt trong database trừ tổng delta của các epoch sau vẫn chờ flush.
+     *
+     * Counter được giữ nguyên instance (thread đang cầm counter không ghi vào counter mồ côi) và chỉ được đặt
+     * khi không còn thay đổi nào đang dở: epoch hiện tại bị đóng trước khi epoch mới được mở, reserve / release
+     * mới chờ đến khi resync xong. Mỗi thay đổi counter nằm trong khoảng ghi của một epoch (record) nên
+     * counter + delta chờ flush là chính xác tại thời điểm đó.
+     */
+    private void resync(long rejectedEpoch, List<UUID> variantIds) {
+        Map<UUID, Integer> database = new LinkedHashMap<>();
+        for (UUID variantId : variantIds) {
+            if (unreserved.containsKey(variantId)) {
+                database.put(variantId, inventoryRepository.findUnreservedQuantityByVariantId(variantId).orElse(0));
+            }
+        }
+        if (database.isEmpty()) {
+            // Khi replay lúc khởi động chưa có counter nào được nạp
+            return;
+        }
+        synchronized (rotationLock) {
+            Epoch open = current;
+            open.sealed = true;
+            while (open.writers.get() != 0) {
+                Thread.onSpinWait();
+            }
+            database.forEach((variantId, quantity) -> {
+                long pending = open.pendingDelta(variantId);
+                for (Epoch epoch : sealedEpochs) {
+                    if (epoch.getId() > rejectedEpoch) {
+                        pending += epoch.pendingDelta(variantId);
+                    }
+                }
+                unreserved.get(variantId).set(Math.toIntExact(quantity - pending));
+            });
+            sealedEpochs.add(open);
+            current = new Epoch(nextSegment(open.getId() + 1));
+        }
+    }
+
+    /**
+     * Áp dụng delta lên counter và ghi nó vào epoch hiện tại, trong cùng một khoảng ghi của epoch:
+     * rotate / resync chờ mọi thay đổi đang dở trước khi đọc delta của epoch
+     * @return false nếu là reserve và counter không đủ hàng, khi đó không có gì thay đổi
+     */
+    private boolean record(UUID variantId, int delta, AtomicInteger counter) {
+        while (true) {
+            Epoch epoch = current;
+            if (epoch.sealed) {
+                // Resync đang chờ các thay đổi đang dở, epoch mới chưa được mở
+                Thread.onSpinWait();
+                continue;
+            }
+            epoch.writers.incrementAndGet();
+            try {
+                if (epoch.sealed) {
+                    // Epoch vừa bị đóng, đọc lại current
+                    continue;
+                }
+                if (!take(counter, delta)) {
+                    return false;
+                }
+                if (epoch.journal.append(variantId, delta)) {
+                    epoch.deltas.computeIfAbsent(variantId, id -> new LongAdder()).add(delta);
+                    return true;
+                }
+                // Hoàn lại counter, thay đổi được áp dụng lại ở epoch mới
+                counter.addAndGet(delta);
+            } finally {
+                epoch.writers.decrementAndGet();
+            }
+            // Segment đầy: đóng epoch sớm, flusher sẽ ghi nó ở chu kỳ kế tiếp
+            rotate(epoch);
+        }
+    }
+
+    /**
+     * Trừ delta (số lượng giữ thêm, âm khi trả lại) khỏi counter, không để counter xuống dưới 0 khi giữ hàng
+     */
+    private static boolean take(AtomicInteger counter, int delta) {
+        if (delta < 0) {
+            counter.addAndGet(-delta);
+            return true;
+        }
+        int before;
+        do {
+            before = counter.get();
+            if (before < delta) {
+                return false;
+            }
+        } while (!counter.compareAndSet(before, before - delta));
+        return true;
+    }
+
+    /**
+     * Đóng epoch expected (nếu nó vẫn là epoch hiện tại) và chờ các thread đang ghi vào nó hoàn tất
+     */
+    private void rotate(Epoch expected) {
+        synchronized (rotationLock) {
+            Epoch open = current;
+            if (open != expected) {
+                return;
+            }
+            current = new Epoch(nextSegment(open.getId() + 1));
+            open.sealed = true;
+            while (open.writers.get() != 0) {
+                Thread.onSpinWait();
+            }
+            sealedEpochs.add(open);
+        }
+    }
+
+    private ReservationJournal nextSegment(long epoch) {
+        ReservationJournal spare = spareSegments.poll();
+        return spare != null
+                ? spare.reuse(epoch)
+                : ReservationJournal.create(directory, epoch, properties.getJournalSegmentRecords());
+    }
+
+    /**
+     * Giữ lại segment vừa flush (đã nằm trong checkpoint) cho epoch sau, xóa nếu đã đủ segment dự phòng
+     */
+    private void recycle(ReservationJournal journal) {
+        if (spareSegments.size() >= MAX_SPARE_SEGMENTS) {
+            journal.delete();
+            return;
+        }
+        journal.clear();
+        spareSegments.add(journal);
+    }
+
+    private AtomicInteger counter(UUID variantId) {
+        AtomicInteger counter = unreserved.get(variantId);
+        if (counter != null) {
+            return counter;
+        }
+        int quantity = inventoryRepository.findUnreservedQuantityByVariantId(variantId)
+                .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy tồn kho cho variant: " + variantId));
+        // Counter không bao giờ bị xóa (resync đặt lại giá trị trên cùng instance) nên giá trị đọc từ database
+        // chỉ được dùng một lần, trước mọi reserve
+        AtomicInteger loaded = new AtomicInteger(quantity);
+        AtomicInteger existing = unreserved.putIfAbsent(variantId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Số lượng phải lớn hơn 0");
+        }
+    }
+
+    /**
+     * Một epoch: journal segment và tổng delta theo variant của các thay đổi ghi vào segment đó
+     */
+    private static final class Epoch {
+
+        private final ReservationJournal journal;
+        private final ConcurrentHashMap<UUID, LongAdder> deltas = new ConcurrentHashMap<>();
+        private final AtomicInteger writers = new AtomicInteger();
+        private volatile boolean sealed;
+
+        private Epoch(ReservationJournal journal) {
+            this.journal = journal;
+        }
+
+        private long getId() {
+            return journal.getEpoch();
+        }
+
+        private long pendingDelta(UUID variantId) {
+            LongAdder delta = deltas.get(variantId);
+            return delta != null ? delta.sum() : 0;
+        }
+
+        private Map<UUID, Long> drainDeltas() {
+            Map<UUID, Long> result = new HashMap<>(deltas.size());
+            deltas.forEach((variantId, delta) -> result.put(variantId, delta.sum()));
+            return result;
+        }
+    }
+}
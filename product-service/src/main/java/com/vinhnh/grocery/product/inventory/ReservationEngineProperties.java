@@ -0,0 +1,30 @@
+package com.vinhnh.grocery.product.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Cấu hình cho ReservationEngine (grocery.inventory.reservation.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.inventory.reservation")
+public class ReservationEngineProperties {
+
+    /** Tạo ReservationEngine (flusher, journal, checkpoint). Ứng dụng giữ hàng qua InventoryReservationService nên mặc định tắt */
+    private boolean enabled = false;
+
+    /** Tên của engine: khóa checkpoint trong bảng inventory_reservation_checkpoint và thư mục con của journal */
+    private String instanceId = "product-service";
+
+    /** Chu kỳ ghi các delta reserved_quantity đã gom xuống bảng inventory */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /** Thư mục gốc chứa journal segment (phải nằm trên ổ đĩa bền vững, không dùng tmpfs khi chạy thật) */
+    private Path journalDirectory = Path.of(System.getProperty("java.io.tmpdir"), "grocery", "reservation-journal");
+
+    /** Số record tối đa của một journal segment; segment đầy sẽ được đóng sớm trước chu kỳ flush */
+    private int journalSegmentRecords = 1 << 18;
+}
@@ -0,0 +1,170 @@
+package com.vinhnh.grocery.product.inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Một segment journal của ReservationEngine, ghi vào file memory-mapped.
+ *
+ * Mỗi record dài RECORD_SIZE byte: variant id (16 byte), delta (4 byte), marker (4 byte).
+ * Các thread ghi lấy slot bằng một phép getAndIncrement rồi ghi vào vùng riêng của mình,
+ * marker được ghi sau cùng (release) nên record chưa ghi xong sẽ bị bỏ qua khi đọc lại.
+ *
+ * Dữ liệu nằm trong page cache ngay khi ghi, nên vẫn còn nếu process bị kill (kể cả kill -9);
+ * không gọi force() trên hot path, do đó không bảo vệ trước mất điện / crash hệ điều hành.
+ *
+ * Segment đã flush được clear() rồi reuse() cho epoch sau: đổi tên file và dùng lại vùng nhớ đã map,
+ * không map file mới ở mỗi lần đóng epoch.
+ */
+final class ReservationJournal {
+
+    static final int RECORD_SIZE = 24;
+
+    private static final String FILE_PREFIX = "epoch-";
+    private static final String FILE_SUFFIX = ".journal";
+    private static final int MARKER_OFFSET = 20;
+    private static final int COMMITTED = 0x52455356;
+    private static final VarHandle INT_VIEW =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final long epoch;
+    private final Path file;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    private ReservationJournal(long epoch, Path file, int capacity, MappedByteBuffer buffer) {
+        this.epoch = epoch;
+        this.file = file;
+        this.capacity = capacity;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Tạo segment mới (file thưa, chỉ chiếm dung lượng khi có record)
+     */
+    static ReservationJournal create(Path directory, long epoch, int capacity) {
+        Path file = directory.resolve(fileName(epoch));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            buffer.order(ByteOrder.nativeOrder());
+            return new ReservationJournal(epoch, file, capacity, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không tạo được journal segment " + file, e);
+        }
+    }
+
+    /**
+     * Ghi một delta reserved_quantity
+     * @return false nếu segment đã đầy
+     */
+    boolean append(UUID variantId, int delta) {
+        int slot = nextSlot.getAndIncrement();
+        if (slot >= capacity) {
+            return false;
+        }
+        int offset = slot * RECORD_SIZE;
+        buffer.putLong(offset, variantId.getMostSignificantBits());
+        buffer.putLong(offset + 8, variantId.getLeastSignificantBits());
+        buffer.putInt(offset + 16, delta);
+        INT_VIEW.setRelease(buffer, offset + MARKER_OFFSET, COMMITTED);
+        return true;
+    }
+
+    /**
+     * Xóa marker của các record đã ghi. Chỉ gọi khi epoch đã nằm trong checkpoint và không còn thread nào ghi;
+     * phải xong trước reuse() để crash sau khi đổi tên không replay record cũ dưới epoch mới.
+     */
+    void clear() {
+        int written = Math.min(nextSlot.get(), capacity);
+        for (int slot = 0; slot < written; slot++) {
+            INT_VIEW.setRelease(buffer, slot * RECORD_SIZE + MARKER_OFFSET, 0);
+        }
+    }
+
+    /**
+     * Dùng lại segment đã clear() cho epoch mới
+     */
+    ReservationJournal reuse(long newEpoch) {
+        Path target = file.resolveSibling(fileName(newEpoch));
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không đổi tên được journal segment " + file, e);
+        }
+        return new ReservationJournal(newEpoch, target, capacity, buffer);
+    }
+
+    boolean isEmpty() {
+        return nextSlot.get() == 0;
+    }
+
+    long getEpoch() {
+        return epoch;
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không xóa được journal segment " + file, e);
+        }
+    }
+
+    /**
+     * Cộng dồn delta theo variant của các record đã ghi xong trong một file segment
+     */
+    static Map<UUID, Long> readDeltas(Path file) {
+        Map<UUID, Long> deltas = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.nativeOrder());
+            int records = (int) (channel.size() / RECORD_SIZE);
+            for (int slot = 0; slot < records; slot++) {
+                int offset = slot * RECORD_SIZE;
+                // Các thread ghi song song nên record chưa xong có thể nằm giữa hai record đã xong
+                if (buffer.getInt(offset + MARKER_OFFSET) != COMMITTED) {
+                    continue;
+                }
+                UUID variantId = new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+                deltas.merge(variantId, (long) buffer.getInt(offset + 16), Long::sum);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không đọc được journal segment " + file, e);
+        }
+        return deltas;
+    }
+
+    static String fileName(long epoch) {
+        return FILE_PREFIX + String.format("%019d", epoch) + FILE_SUFFIX;
+    }
+
+    /**
+     * Lấy epoch từ tên file, -1 nếu không phải file journal
+     */
+    static long parseEpoch(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
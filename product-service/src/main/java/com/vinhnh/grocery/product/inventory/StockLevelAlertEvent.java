@@ -0,0 +1,20 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.product.dto.StockAlertResponse;
+import com.vinhnh.grocery.product.dto.StockLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event phát ra khi một variant chuyển mức tồn kho (NORMAL → LOW, LOW → NORMAL, NORMAL → OVER, ...).
+ * Chỉ phát khi vượt ngưỡng, không phát lại khi tồn kho thay đổi nhưng vẫn ở cùng một mức.
+ */
+@Getter
+@AllArgsConstructor
+public class StockLevelAlertEvent {
+
+    private final StockLevel previousLevel;
+
+    /** Trạng thái mới; level = NORMAL nghĩa là cảnh báo trước đó đã hết */
+    private final StockAlertResponse alert;
+}
@@ -0,0 +1,35 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.product.dto.StockLevel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Đưa số variant tồn kho thấp / vượt mức lên Prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class StockLevelMetrics implements MeterBinder {
+
+    private final StockLevelMonitor stockLevelMonitor;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (StockLevel level : new StockLevel[]{StockLevel.LOW, StockLevel.OVER}) {
+            Gauge.builder("inventory.stock.alerts", stockLevelMonitor, monitor -> monitor.countActiveAlerts(level))
+                    .description("Số variant đang ở mức tồn kho này")
+                    .tag("level", level.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        FunctionCounter.builder("inventory.stock.level.transitions", stockLevelMonitor,
+                        StockLevelMonitor::getTransitionCount)
+                .description("Tổng số lần variant chuyển mức tồn kho (đã phát cảnh báo)")
+                .register(registry);
+    }
+}
@@ -0,0 +1,150 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.common.util.DirtyKeyDrainer;
+import com.vinhnh.grocery.product.dto.StockAlertResponse;
+import com.vinhnh.grocery.product.dto.StockLevel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Phát hiện variant tồn kho thấp / vượt mức một cách tăng dần, không quét định kỳ bảng inventory.
+ *
+ * - Khởi động: nạp các variant đang LOW / OVER bằng một câu query khớp với partial index
+ *   idx_inventory_stock_alert (schema-postgresql.sql), nên chỉ đọc các dòng đang cảnh báo.
+ * - Mỗi InventoryChangedEvent (sau commit) đánh dấu các variant bị thay đổi; một thread nền gom các variant
+ *   đã đánh dấu, đọc lại đúng các dòng đó theo primary key và so mức mới với mức đang nhớ.
+ * - Chỉ phát StockLevelAlertEvent khi mức thay đổi. Bộ nhớ chỉ giữ các variant đang LOW / OVER.
+ */
+@Component
+@Slf4j
+public class StockLevelMonitor {
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+
+    private static final String ALERT_COLUMNS =
+            "product_variant_id, quantity, available_quantity, min_stock_level, max_stock_level";
+
+    /** Điều kiện phải giống hệt WHERE của idx_inventory_stock_alert để PostgreSQL dùng được partial index */
+    private static final String ALERT_PREDICATE =
+            "available_quantity <= min_stock_level OR quantity > max_stock_level";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<UUID, StockAlertResponse> activeAlerts = new ConcurrentHashMap<>();
+    private final AtomicLong transitions = new AtomicLong();
+    private final DirtyKeyDrainer<UUID> evaluator =
+            new DirtyKeyDrainer<>("stock-level-monitor", QUERY_CHUNK_SIZE, this::evaluate);
+
+    public StockLevelMonitor(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        List<UUID> variantIds = new ArrayList<>(event.getDeltas().size());
+        for (InventoryDelta delta : event.getDeltas()) {
+            variantIds.add(delta.getProductVariantId());
+        }
+        evaluator.markAll(variantIds);
+    }
+
+    /**
+     * Các variant đang LOW / OVER (level = null: tất cả)
+     */
+    public List<StockAlertResponse> getActiveAlerts(StockLevel level) {
+        List<StockAlertResponse> result = new ArrayList<>();
+        for (StockAlertResponse alert : activeAlerts.values()) {
+            if (level == null || alert.getLevel() == level) {
+                result.add(alert);
+            }
+        }
+        return result;
+    }
+
+    public long countActiveAlerts(StockLevel level) {
+        return activeAlerts.values().stream().filter(alert -> alert.getLevel() == level).count();
+    }
+
+    /**
+     * Tổng số lần chuyển mức đã phát event
+     */
+    public long getTransitionCount() {
+        return transitions.get();
+    }
+
+    @PostConstruct
+    void backfill() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.query("SELECT " + ALERT_COLUMNS + " FROM inventory WHERE " + ALERT_PREDICATE, rs -> {
+            StockAlertResponse alert = toAlert(rs, now);
+            activeAlerts.put(alert.getProductVariantId(), alert);
+        });
+        log.info("Loaded {} active stock alerts", activeAlerts.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        evaluator.stop();
+    }
+
+    private void evaluate(List<UUID> variantIds) {
+        LocalDateTime now = LocalDateTime.now();
+        String placeholders = String.join(",", Collections.nCopies(variantIds.size(), "?"));
+        jdbcTemplate.query("SELECT " + ALERT_COLUMNS + " FROM inventory WHERE product_variant_id IN ("
+                + placeholders + ")", rs -> {
+            StockAlertResponse current = toAlert(rs, now);
+            StockAlertResponse previous = activeAlerts.get(current.getProductVariantId());
+            StockLevel previousLevel = previous == null ? StockLevel.NORMAL : previous.getLevel();
+            if (current.getLevel() == previousLevel) {
+                if (previous != null) {
+                    current.setSince(previous.getSince());
+                    activeAlerts.put(current.getProductVariantId(), current);
+                }
+                return;
+            }
+            if (current.getLevel() == StockLevel.NORMAL) {
+                activeAlerts.remove(current.getProductVariantId());
+            } else {
+                activeAlerts.put(current.getProductVariantId(), current);
+            }
+            transitions.incrementAndGet();
+            log.warn("Variant {} stock level {} -> {} (quantity={}, available={}, min={}, max={})",
+                    current.getProductVariantId(), previousLevel, current.getLevel(), current.getQuantity(),
+                    current.getAvailableQuantity(), current.getMinStockLevel(), current.getMaxStockLevel());
+            eventPublisher.publishEvent(new StockLevelAlertEvent(previousLevel, current));
+        }, variantIds.toArray());
+    }
+
+    private static StockAlertResponse toAlert(ResultSet rs, LocalDateTime now) throws SQLException {
+        int quantity = rs.getInt("quantity");
+        int available = rs.getInt("available_quantity");
+        Integer min = rs.getObject("min_stock_level", Integer.class);
+        Integer max = rs.getObject("max_stock_level", Integer.class);
+        StockLevel level = StockLevel.NORMAL;
+        if (min != null && available <= min) {
+            level = StockLevel.LOW;
+        } else if (max != null && quantity > max) {
+            level = StockLevel.OVER;
+        }
+        return new StockAlertResponse(rs.getObject("product_variant_id", UUID.class), level,
+                quantity, available, min, max, now);
+    }
+}
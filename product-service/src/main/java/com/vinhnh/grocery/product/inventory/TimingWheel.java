@@ -0,0 +1,135 @@
+package com.vinhnh.grocery.product.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (không thread-safe, chỉ một thread gọi add/advance).
+ *
+ * Tầng 0 có wheelSize bucket, mỗi bucket dài tickMillis; tầng i có bucket dài tickMillis * wheelSize^i.
+ * Thêm một phần tử là O(1): chọn tầng thấp nhất có cửa sổ chứa deadline rồi đưa vào bucket tương ứng.
+ * Khi đồng hồ tầng 0 chạm đầu một bucket của tầng trên, bucket đó được đổ xuống tầng dưới, nên mỗi phần tử
+ * chỉ bị di chuyển tối đa (số tầng - 1) lần trước khi hết hạn. Tầng mới được tạo khi có deadline xa hơn.
+ *
+ * Phần tử hết hạn trễ tối đa một tick, không bao giờ sớm hơn deadline.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+
+    /** Đầu tick hiện tại của tầng 0 (đã làm tròn xuống theo tickMillis), chưa được xử lý */
+    private long currentTime;
+    private int size;
+
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis phải > 0 và wheelSize phải >= 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        levels.add(new Level<>(tickMillis, wheelSize));
+    }
+
+    /**
+     * Thêm phần tử hết hạn tại deadlineMillis (deadline đã qua sẽ hết hạn ở tick kế tiếp)
+     */
+    void add(T item, long deadlineMillis) {
+        place(new Entry<>(item, deadlineMillis));
+        size++;
+    }
+
+    /**
+     * Tiến đồng hồ tới nowMillis, gọi expired cho mọi phần tử có deadline đã qua
+     * @return số phần tử hết hạn
+     */
+    int advance(long nowMillis, ExpiredHandler<T> expired) {
+        int count = 0;
+        while (currentTime + tickMillis <= nowMillis) {
+            ArrayDeque<Entry<T>> bucket = levels.get(0).bucketFor(currentTime);
+            Entry<T> entry;
+            while ((entry = bucket.poll()) != null) {
+                expired.onExpired(entry.item, entry.deadline);
+                count++;
+            }
+            currentTime += tickMillis;
+            cascade();
+        }
+        size -= count;
+        return count;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Đổ bucket của các tầng trên bắt đầu tại currentTime xuống tầng dưới (tầng cao trước)
+     */
+    private void cascade() {
+        for (int i = levels.size() - 1; i >= 1; i--) {
+            Level<T> level = levels.get(i);
+            if (currentTime % level.tickMillis != 0) {
+                continue;
+            }
+            ArrayDeque<Entry<T>> bucket = level.bucketFor(currentTime);
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            ArrayDeque<Entry<T>> moved = new ArrayDeque<>(bucket);
+            bucket.clear();
+            for (Entry<T> entry : moved) {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long deadline = Math.max(entry.deadline, currentTime);
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                Level<T> top = levels.get(i - 1);
+                levels.add(new Level<>(Math.multiplyExact(top.tickMillis, (long) wheelSize), wheelSize));
+            }
+            Level<T> level = levels.get(i);
+            long windowStart = currentTime - Math.floorMod(currentTime, level.tickMillis);
+            if (deadline < windowStart + level.span) {
+                level.bucketFor(deadline).add(entry);
+                return;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ExpiredHandler<T> {
+
+        void onExpired(T item, long deadlineMillis);
+    }
+
+    private static final class Level<T> {
+
+        private final long tickMillis;
+        private final long span;
+        private final ArrayDeque<Entry<T>>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMillis, int wheelSize) {
+            this.tickMillis = tickMillis;
+            this.span = Math.multiplyExact(tickMillis, (long) wheelSize);
+            this.buckets = (ArrayDeque<Entry<T>>[]) new ArrayDeque<?>[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+        }
+
+        private ArrayDeque<Entry<T>> bucketFor(long time) {
+            return buckets[(int) Math.floorMod(Math.floorDiv(time, tickMillis), (long) buckets.length)];
+        }
+    }
+
+    private record Entry<T>(T item, long deadline) {
+    }
+}
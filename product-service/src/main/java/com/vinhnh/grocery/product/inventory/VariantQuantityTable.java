@@ -0,0 +1,137 @@
+package com.vinhnh.grocery.product.inventory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Bảng băm open addressing (linear probing) từ UUID variant sang một số int, không boxing và không object cho mỗi entry:
+ * key được tách thành hai mảng long (most / least significant bits), value nằm trong mảng int cùng chỉ số.
+ *
+ * Một thread ghi, nhiều thread đọc không khóa:
+ * - Slot trống có high = 0. Khi thêm key, low và value được ghi trước, high ghi sau cùng bằng setRelease,
+ *   nên thread đọc thấy high (getAcquire) thì cũng thấy low / value tương ứng.
+ * - Khi quá tải (MAX_LOAD), thread ghi dựng bảng gấp đôi rồi publish qua field volatile; thread đọc đang dùng
+ *   bảng cũ vẫn thấy dữ liệu đúng tại thời điểm bắt đầu đọc.
+ * - Không hỗ trợ xóa key (không cần tombstone).
+ *
+ * UUID có most significant bits = 0 không lưu được (0 là đánh dấu slot trống). UUID v4 / v7 luôn có nibble version
+ * khác 0 trong phần này nên không gặp trường hợp đó; get() với key như vậy luôn trả về MISSING.
+ */
+final class VariantQuantityTable {
+
+    /** Giá trị get() trả về khi key không có trong bảng */
+    static final int MISSING = Integer.MIN_VALUE + 1;
+
+    private static final float MAX_LOAD = 0.5f;
+    private static final int MIN_CAPACITY = 16;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private volatile Slots slots;
+    private volatile int size;
+
+    VariantQuantityTable(int expectedSize) {
+        this.slots = new Slots(capacityFor(expectedSize));
+    }
+
+    /**
+     * Đọc value của key, MISSING nếu không có. An toàn khi gọi từ nhiều thread song song với put().
+     */
+    int get(long high, long low) {
+        Slots current = slots;
+        int mask = current.mask;
+        int index = index(high, low, mask);
+        while (true) {
+            long slotHigh = (long) LONGS.getAcquire(current.high, index);
+            if (slotHigh == 0) {
+                return MISSING;
+            }
+            if (slotHigh == high && current.low[index] == low) {
+                return (int) INTS.getAcquire(current.values, index);
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Thêm hoặc ghi đè value của key. Chỉ được gọi từ một thread tại một thời điểm.
+     */
+    void put(long high, long low, int value) {
+        if (high == 0) {
+            return;
+        }
+        Slots current = slots;
+        int index = index(high, low, current.mask);
+        while (true) {
+            long slotHigh = current.high[index];
+            if (slotHigh == high && current.low[index] == low) {
+                INTS.setRelease(current.values, index, value);
+                return;
+            }
+            if (slotHigh == 0) {
+                if (size + 1 > current.values.length * MAX_LOAD) {
+                    current = grow(current);
+                    index = index(high, low, current.mask);
+                    continue;
+                }
+                current.low[index] = low;
+                current.values[index] = value;
+                LONGS.setRelease(current.high, index, high);
+                size = size + 1;
+                return;
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Slots grow(Slots current) {
+        Slots bigger = new Slots(current.values.length * 2);
+        for (int i = 0; i < current.values.length; i++) {
+            long high = current.high[i];
+            if (high == 0) {
+                continue;
+            }
+            int index = index(high, current.low[i], bigger.mask);
+            while (bigger.high[index] != 0) {
+                index = (index + 1) & bigger.mask;
+            }
+            bigger.high[index] = high;
+            bigger.low[index] = current.low[i];
+            bigger.values[index] = current.values[i];
+        }
+        // Ghi volatile publish toàn bộ nội dung bảng mới cho thread đọc
+        slots = bigger;
+        return bigger;
+    }
+
+    private static int index(long high, long low, int mask) {
+        // Bit cao của phép nhân Fibonacci trộn đều cả hai nửa UUID
+        long hash = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.min(1 << 30, (long) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD));
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private static final class Slots {
+
+        final long[] high;
+        final long[] low;
+        final int[] values;
+        final int mask;
+
+        Slots(int capacity) {
+            this.high = new long[capacity];
+            this.low = new long[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.vinhnh.grocery.product.mapper;
+
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.entity.Category;
+
+/**
+ * Chuyển đổi giữa Category entity và các DTO
+ * Các đường đọc danh sách dùng DTO projection trong CategoryRepository thay vì mapper này
+ */
+public final class CategoryMapper {
+
+    private CategoryMapper() {
+    }
+
+    /**
+     * Map Category entity sang CategoryResponse DTO
+     */
+    public static CategoryResponse toResponse(Category category) {
+        CategoryResponse response = new CategoryResponse();
+        response.setId(category.getId());
+        response.setName(category.getName());
+        response.setDescription(category.getDescription());
+        response.setDisplayOrder(category.getDisplayOrder());
+        response.setIsActive(category.getIsActive());
+        response.setCreatedAt(category.getCreatedAt());
+        response.setUpdatedAt(category.getUpdatedAt());
+        response.setCreatedBy(category.getCreatedBy());
+        response.setUpdatedBy(category.getUpdatedBy());
+        
+        // Set parent info nếu có
+        if (category.getParent() != null) {
+            response.setParentId(category.getParent().getId());
+            response.setParentName(category.getParent().getName());
+        }
+        
+        return response;
+    }
+}
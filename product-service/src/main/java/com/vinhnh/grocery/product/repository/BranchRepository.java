@@ -3,10 +3,31 @@ package com.vinhnh.grocery.product.repository;
 import org.springframework.stereotype.Repository;
 
 import com.vinhnh.grocery.product.entity.Branch;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import com.vinhnh.grocery.product.repository.projection.NameIdRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface BranchRepository extends JpaRepository<Branch, UUID> {
-    
+
+    /**
+     * Query cache chỉ giữ danh sách id, từng Branch được lấy từ second-level cache (tên brand của facet)
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Branch> findAllById(Iterable<UUID> ids);
+
+    /**
+     * Resolve hàng loạt tên (đã lowercase) sang id, dùng cho import
+     */
+    @Query("select b.id as id, lower(b.branchName) as name from Branch b where lower(b.branchName) in :names and b.isActive = true")
+    List<NameIdRow> findActiveIdsByLowerNameIn(@Param("names") Collection<String> names);
 }
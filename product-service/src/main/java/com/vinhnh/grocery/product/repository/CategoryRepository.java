@@ -2,11 +2,173 @@ package com.vinhnh.grocery.product.repository;
 
 import org.springframework.stereotype.Repository;
 
+import com.vinhnh.grocery.product.dto.CategoryResponse;
 import com.vinhnh.grocery.product.entity.Category;
+import com.vinhnh.grocery.product.repository.projection.CategoryTreeRow;
+import com.vinhnh.grocery.product.repository.projection.NameIdRow;
+import com.vinhnh.grocery.product.repository.projection.VersionRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
-    
+
+    /**
+     * Phần select chung cho các query trả về CategoryResponse trực tiếp (DTO projection).
+     * Thông tin parent được lấy bằng left join trong cùng câu query, không lazy load từng dòng.
+     */
+    String RESPONSE_SELECT = """
+            select new com.vinhnh.grocery.product.dto.CategoryResponse(
+                c.id, c.name, c.description, p.id, p.name, c.displayOrder, c.isActive,
+                c.createdAt, c.updatedAt, c.createdBy, c.updatedBy)
+            from Category c left join c.parent p
+            """;
+
+    /**
+     * So sánh không phân biệt hoa thường, dùng index idx_category_active_lower_name.
+     * Kết quả nằm trong query cache, bị bỏ qua khi bảng category có thay đổi.
+     */
+    @Query("select count(c) > 0 from Category c where lower(c.name) = lower(:name) and c.isActive = true")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsActiveByNameIgnoreCase(@Param("name") String name);
+
+    @Query(RESPONSE_SELECT + "where lower(c.name) = lower(:name) and c.isActive = true")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<CategoryResponse> findActiveResponsesByNameIgnoreCase(@Param("name") String name);
+
+    /**
+     * Tìm kiếm theo từ khóa (contains), dùng trigram index idx_category_active_lower_name_trgm
+     * Từ khóa phải được escape các ký tự %, _ và \ trước khi truyền vào
+     */
+    @Query(RESPONSE_SELECT + "where lower(c.name) like lower(concat('%', :keyword, '%')) escape '\\' and c.isActive = true")
+    List<CategoryResponse> searchActiveResponsesByName(@Param("keyword") String keyword);
+
+    @Query(RESPONSE_SELECT + "where c.isActive = true")
+    List<CategoryResponse> findActiveResponses();
+
+    @Query(value = RESPONSE_SELECT, countQuery = "select count(c) from Category c")
+    Page<CategoryResponse> findAllResponses(Pageable pageable);
+
+    /**
+     * Giống findAllResponses nhưng không chạy câu count(*) (lấy size + 1 dòng để biết còn trang sau)
+     */
+    @Query(RESPONSE_SELECT)
+    Slice<CategoryResponse> findAllResponsesSlice(Pageable pageable);
+
+    long countByIsActiveTrue();
+
+    /*
+     * Keyset pagination: điều kiện "sau cursor" thay cho OFFSET, dùng index
+     * idx_category_display_order_id / idx_category_updated_at_id nên mọi trang có cùng chi phí.
+     * Điều kiện "a > x or (a = x and id > :id)" không phải một khoảng trên index; cận dư thừa "a >= x" đứng đầu
+     * cho planner điểm bắt đầu seek, phần or chỉ còn lọc các dòng có a = x.
+     */
+
+    @Query(RESPONSE_SELECT + "order by coalesce(c.displayOrder, 0), c.id")
+    List<CategoryResponse> findFirstByDisplayOrder(Limit limit);
+
+    @Query(RESPONSE_SELECT + """
+            where coalesce(c.displayOrder, 0) >= :displayOrder
+              and (coalesce(c.displayOrder, 0) > :displayOrder
+                   or (coalesce(c.displayOrder, 0) = :displayOrder and c.id > :id))
+            order by coalesce(c.displayOrder, 0), c.id
+            """)
+    List<CategoryResponse> findAfterByDisplayOrder(@Param("displayOrder") int displayOrder,
+                                                   @Param("id") UUID id, Limit limit);
+
+    @Query(RESPONSE_SELECT + "order by c.updatedAt desc, c.id desc")
+    List<CategoryResponse> findFirstByUpdatedAt(Limit limit);
+
+    @Query(RESPONSE_SELECT + """
+            where c.updatedAt <= :updatedAt
+              and (c.updatedAt < :updatedAt
+                   or (c.updatedAt = :updatedAt and c.id < :id))
+            order by c.updatedAt desc, c.id desc
+            """)
+    List<CategoryResponse> findAfterByUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt,
+                                                @Param("id") UUID id, Limit limit);
+
+    /**
+     * Lấy toàn bộ cây category đang hoạt động (từ các category gốc) bằng một recursive CTE.
+     * Kết quả sắp xếp theo depth nên node cha luôn đứng trước node con.
+     * id được trả về dạng text để driver nào (PostgreSQL, H2) cũng map được sang UUID của projection.
+     */
+    @Query(value = """
+            WITH RECURSIVE category_tree (id, parent_id, name, description, display_order, depth) AS (
+                SELECT c.id, c.parent_id, c.name, c.description, c.display_order, 0
+                FROM category c
+                WHERE c.parent_id IS NULL AND c.is_active = true
+                UNION ALL
+                SELECT child.id, child.parent_id, child.name, child.description, child.display_order, t.depth + 1
+                FROM category child
+                JOIN category_tree t ON child.parent_id = t.id
+                WHERE child.is_active = true AND t.depth < :maxDepth
+            )
+            SELECT CAST(id AS varchar) AS "id", CAST(parent_id AS varchar) AS "parentId",
+                   name AS "name", description AS "description",
+                   display_order AS "displayOrder", depth AS "depth"
+            FROM category_tree
+            ORDER BY depth, display_order, name
+            """, nativeQuery = true)
+    List<CategoryTreeRow> findActiveTree(@Param("maxDepth") int maxDepth);
+
+    /**
+     * Lấy cây con đang hoạt động bắt đầu từ rootId bằng một recursive CTE
+     */
+    @Query(value = """
+            WITH RECURSIVE category_tree (id, parent_id, name, description, display_order, depth) AS (
+                SELECT c.id, c.parent_id, c.name, c.description, c.display_order, 0
+                FROM category c
+                WHERE c.id = :rootId AND c.is_active = true
+                UNION ALL
+                SELECT child.id, child.parent_id, child.name, child.description, child.display_order, t.depth + 1
+                FROM category child
+                JOIN category_tree t ON child.parent_id = t.id
+                WHERE child.is_active = true AND t.depth < :maxDepth
+            )
+            SELECT CAST(id AS varchar) AS "id", CAST(parent_id AS varchar) AS "parentId",
+                   name AS "name", description AS "description",
+                   display_order AS "displayOrder", depth AS "depth"
+            FROM category_tree
+            ORDER BY depth, display_order, name
+            """, nativeQuery = true)
+    List<CategoryTreeRow> findActiveSubtree(@Param("rootId") UUID rootId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Resolve hàng loạt tên category (đã lowercase) sang id, dùng cho import
+     */
+    @Query("select c.id as id, lower(c.name) as name from Category c where lower(c.name) in :names and c.isActive = true")
+    List<NameIdRow> findActiveIdsByLowerNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Phiên bản của toàn bảng category cho conditional GET.
+     * max(updated_at) đọc từ index idx_category_updated_at_id, count(*) bắt được cả các dòng bị xóa.
+     */
+    @Query("select max(c.updatedAt) as lastModified, count(c) as total from Category c")
+    VersionRow findTableVersion();
+
+    /**
+     * updated_at của một category, lấy giá trị mới hơn giữa category và parent
+     * (response có chứa tên parent nên đổi tên parent cũng phải đổi ETag)
+     */
+    @Query("""
+            select case when p.updatedAt > c.updatedAt then p.updatedAt else c.updatedAt end
+            from Category c left join c.parent p
+            where c.id = :id
+            """)
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") UUID id);
 }
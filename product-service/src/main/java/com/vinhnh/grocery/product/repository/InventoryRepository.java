@@ -4,9 +4,25 @@ import org.springframework.stereotype.Repository;
 
 import com.vinhnh.grocery.product.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
-    
+
+    /**
+     * Số lượng còn có thể đặt (quantity - reserved_quantity) của một variant, không load entity
+     */
+    @Query("select i.quantity - i.reservedQuantity from Inventory i where i.productVariant.id = :variantId")
+    Optional<Integer> findUnreservedQuantityByVariantId(@Param("variantId") UUID variantId);
+
+    /**
+     * Tồn kho của mọi variant thuộc một product, một câu query
+     */
+    @Query("select i from Inventory i where i.productVariant.product.id = :productId")
+    List<Inventory> findByProductId(@Param("productId") UUID productId);
 }
@@ -0,0 +1,9 @@
+package com.vinhnh.grocery.product.repository;
+
+import com.vinhnh.grocery.product.entity.InventoryReservationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryReservationCheckpointRepository extends JpaRepository<InventoryReservationCheckpoint, String> {
+}
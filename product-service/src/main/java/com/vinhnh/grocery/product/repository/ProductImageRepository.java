@@ -4,9 +4,19 @@ import org.springframework.stereotype.Repository;
 
 import com.vinhnh.grocery.product.entity.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, UUID> {
-    
+
+    /**
+     * Hình ảnh của mọi variant thuộc một product theo display_order, một câu query
+     */
+    @Query("select i from ProductImage i where i.productVariant.product.id = :productId " +
+           "order by i.displayOrder, i.createdAt")
+    List<ProductImage> findByProductIdOrderByDisplayOrder(@Param("productId") UUID productId);
 }
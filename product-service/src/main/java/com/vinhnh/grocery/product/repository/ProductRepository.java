@@ -3,10 +3,38 @@ package com.vinhnh.grocery.product.repository;
 import org.springframework.stereotype.Repository;
 
 import com.vinhnh.grocery.product.entity.Product;
+import com.vinhnh.grocery.product.repository.projection.NameIdRow;
+import com.vinhnh.grocery.product.repository.projection.ProductSearchRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
-    
+
+    /**
+     * Resolve hàng loạt tên (đã lowercase) sang id, dùng cho import
+     */
+    @Query("select p.id as id, lower(p.name) as name from Product p where lower(p.name) in :names and p.isActive = true")
+    List<NameIdRow> findActiveIdsByLowerNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Các cột hiển thị của những product tìm được, category và brand join trong cùng câu query
+     */
+    @Query("select p.id as id, p.name as name, p.unit as unit, c.name as categoryName, b.branchName as brandName " +
+           "from Product p join p.category c join p.brand b where p.id in :ids")
+    List<ProductSearchRow> findSearchRowsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Product kèm category và brand (entity graph), một câu query
+     */
+    @EntityGraph(attributePaths = {"category", "brand"})
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findDetailById(@Param("id") UUID id);
 }
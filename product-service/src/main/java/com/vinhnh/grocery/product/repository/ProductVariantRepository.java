@@ -3,10 +3,27 @@ package com.vinhnh.grocery.product.repository;
 import org.springframework.stereotype.Repository;
 
 import com.vinhnh.grocery.product.entity.ProductVariant;
+import com.vinhnh.grocery.product.repository.projection.NameIdRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, UUID> {
-    
+
+    /**
+     * Resolve hàng loạt SKU sang id variant, dùng cho import
+     */
+    @Query("select v.id as id, v.sku as name from ProductVariant v where v.sku in :skus")
+    List<NameIdRow> findIdsBySkuIn(@Param("skus") Collection<String> skus);
+
+    /**
+     * Toàn bộ variant của một product, giá tăng dần
+     */
+    @Query("select v from ProductVariant v where v.product.id = :productId order by v.price, v.sku")
+    List<ProductVariant> findByProductIdOrderByPrice(@Param("productId") UUID productId);
 }
@@ -0,0 +1,21 @@
+package com.vinhnh.grocery.product.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection cho một dòng kết quả của recursive CTE lấy cây category
+ */
+public interface CategoryTreeRow {
+
+    UUID getId();
+
+    UUID getParentId();
+
+    String getName();
+
+    String getDescription();
+
+    Integer getDisplayOrder();
+
+    Integer getDepth();
+}
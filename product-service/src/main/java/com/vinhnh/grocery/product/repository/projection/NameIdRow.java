@@ -0,0 +1,13 @@
+package com.vinhnh.grocery.product.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection (khóa tự nhiên, id) dùng để resolve tham chiếu hàng loạt khi import
+ */
+public interface NameIdRow {
+
+    UUID getId();
+
+    String getName();
+}
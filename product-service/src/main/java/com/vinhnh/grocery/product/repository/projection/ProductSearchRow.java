@@ -0,0 +1,19 @@
+package com.vinhnh.grocery.product.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection các cột hiển thị của product trong kết quả tìm kiếm
+ */
+public interface ProductSearchRow {
+
+    UUID getId();
+
+    String getName();
+
+    String getUnit();
+
+    String getCategoryName();
+
+    String getBrandName();
+}
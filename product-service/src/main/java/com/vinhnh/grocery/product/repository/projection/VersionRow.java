@@ -0,0 +1,13 @@
+package com.vinhnh.grocery.product.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection max(updated_at) và count(*) của một bảng, dùng để tính ETag / Last-Modified
+ */
+public interface VersionRow {
+
+    LocalDateTime getLastModified();
+
+    long getTotal();
+}
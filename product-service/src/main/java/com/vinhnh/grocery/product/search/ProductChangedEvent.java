@@ -0,0 +1,18 @@
+package com.vinhnh.grocery.product.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Event phát ra khi product hoặc variant của product được tạo / cập nhật.
+ * ProductSearchIndex và ProductFacetIndex lắng nghe event này sau khi transaction commit để đọc lại các product đó.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    private final Collection<UUID> productIds;
+}
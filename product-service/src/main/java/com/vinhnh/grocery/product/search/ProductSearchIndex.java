@@ -0,0 +1,878 @@
+package com.vinhnh.grocery.product.search;
+
+import com.vinhnh.grocery.common.util.DirtyKeyDrainer;
+import com.vinhnh.grocery.product.cache.CategoryChangedEvent;
+import com.vinhnh.grocery.product.dto.SearchIndexStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Index tìm kiếm full-text cho product, chạy trong process, trên name, description, tên category và tên brand.
+ *
+ * - Index gồm các SearchSegment bất biến cộng một bitset document đã xóa cho mỗi segment. Mỗi lần cập nhật
+ *   dựng một IndexSnapshot mới (copy-on-write) rồi publish qua field volatile: truy vấn không khóa, luôn thấy
+ *   một trạng thái nhất quán.
+ * - Cập nhật gần thời gian thực: ProductChangedEvent / CategoryChangedEvent (sau commit) đánh dấu product cần
+ *   index lại; thread ghi duy nhất đọc lại đúng các product đó, đánh dấu xóa bản cũ và thêm một segment nhỏ.
+ *   Khi số segment vượt maxSegments, các segment nhỏ nhất được merge (bỏ luôn document đã xóa).
+ * - Segment được ghi ra đĩa một lần khi tạo; manifest (danh sách segment, bitset xóa, thời điểm cập nhật cuối)
+ *   được thay nguyên tử sau mỗi lần cập nhật. Khởi động lại chỉ đọc các file này rồi index lại các product
+ *   thay đổi sau thời điểm trong manifest, không build lại từ đầu.
+ * - Xếp hạng BM25 (k1 = 1.2, b = 0.75), tần suất term nhân trọng số field (name 4, category 2, brand 2,
+ *   description 1). Mọi từ trong câu truy vấn đều phải khớp; từ cuối được hiểu là tiền tố (tìm trong lúc gõ).
+ *
+ * Xóa product không có trong hệ thống; product bị vô hiệu hóa (is_active = false) bị bỏ khỏi index khi được index lại.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final String MANIFEST = "segments.manifest";
+    private static final String LOCK_FILE = "index.lock";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int MANIFEST_MAGIC = 0x474d414e; // "GMAN"
+    private static final int MANIFEST_VERSION = 1;
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+    private static final int FETCH_SIZE = 1000;
+
+    /** Từ cuối ngắn hơn thì chỉ khớp chính xác, không mở rộng tiền tố */
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    /** Trọng số field, cùng thứ tự với các cột sau p.id trong DOCUMENT_QUERY */
+    private static final int[] FIELD_WEIGHTS = {4, 2, 2, 1};
+
+    private static final String DOCUMENT_QUERY = """
+            SELECT p.id, p.name, c.name, b.branch_name, p.description, p.is_active
+            FROM products p
+            JOIN category c ON c.id = p.category_id
+            JOIN branch b ON b.id = p.brand_id
+            """;
+
+    private static final String CHANGED_SINCE = """
+            SELECT p.id
+            FROM products p
+            JOIN category c ON c.id = p.category_id
+            JOIN branch b ON b.id = p.brand_id
+            WHERE p.updated_at >= ? OR c.updated_at >= ? OR b.updated_at >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SearchIndexProperties properties;
+
+    private final AtomicLong merges = new AtomicLong();
+
+    private volatile IndexSnapshot snapshot = IndexSnapshot.EMPTY;
+    private volatile LocalDateTime lastRefreshAt;
+
+    // Chỉ thread ghi dùng các field dưới đây
+    private long nextGeneration = 1;
+    private Path directory;
+    private FileChannel lockChannel;
+    // Product cần index lại; category được đổi thành các product của nó trên cùng thread ghi
+    private DirtyKeyDrainer<UUID> dirtyProducts;
+    private DirtyKeyDrainer<UUID> dirtyCategories;
+
+    public ProductSearchIndex(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              SearchIndexProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        dirtyProducts.markAll(event.getProductIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        // categoryId null: import tạo category mới, chưa product nào trỏ tới ngoài các product có ProductChangedEvent riêng
+        if (event.getCategoryId() != null) {
+            dirtyCategories.mark(event.getCategoryId());
+        }
+    }
+
+    /**
+     * Tìm product khớp mọi từ trong câu truy vấn, xếp theo điểm BM25 giảm dần
+     * @param query câu truy vấn, có dấu hoặc không dấu
+     * @param offset số kết quả bỏ qua
+     * @param limit số kết quả tối đa trả về
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        IndexSnapshot current = snapshot;
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (tokens.isEmpty() || current.liveDocs == 0) {
+            return new SearchHits(0, List.of());
+        }
+
+        // Document frequency tính cả posting của document đã xóa (chưa merge) nên N cũng tính cả chúng, như maxDoc
+        // của Lucene; dùng liveDocs thì df có thể lớn hơn N và idf âm
+        long maxDocs = current.liveDocs + current.deletedDocs;
+        List<String> exact = tokens.subList(0, tokens.size() - 1);
+        float[] exactIdf = new float[exact.size()];
+        for (int i = 0; i < exact.size(); i++) {
+            long df = current.documentFrequency(exact.get(i));
+            if (df == 0) {
+                return new SearchHits(0, List.of());
+            }
+            exactIdf[i] = idf(df, maxDocs);
+        }
+        Map<String, Long> expansions = expand(current, tokens.get(tokens.size() - 1));
+        if (expansions.isEmpty()) {
+            return new SearchHits(0, List.of());
+        }
+        List<String> expansionTerms = new ArrayList<>(expansions.keySet());
+        float[] expansionIdf = new float[expansionTerms.size()];
+        for (int j = 0; j < expansionTerms.size(); j++) {
+            expansionIdf[j] = idf(expansions.get(expansionTerms.get(j)), maxDocs);
+        }
+
+        TopHits top = new TopHits(offset + limit);
+        long totalHits = 0;
+        for (int s = 0; s < current.segments.length; s++) {
+            totalHits += searchSegment(s, current, exact, exactIdf, expansionTerms, expansionIdf, top);
+        }
+        return new SearchHits(totalHits, top.page(current, offset, limit));
+    }
+
+    public SearchIndexStats getStats() {
+        IndexSnapshot current = snapshot;
+        return new SearchIndexStats(current.liveDocs, current.deletedDocs, current.segments.length,
+                dirtyProducts.pending() + dirtyCategories.pending(), lastRefreshAt, merges.get());
+    }
+
+    @PostConstruct
+    void start() {
+        directory = properties.getIndexDirectory();
+        lockDirectory();
+        // Mỗi lô product là một segment mới và một lần ghi manifest
+        dirtyProducts = new DirtyKeyDrainer<>("product-search-index", properties.getBuildSegmentSize(), this::reindex);
+        dirtyCategories = new DirtyKeyDrainer<>(dirtyProducts, "product-search-index-categories",
+                QUERY_CHUNK_SIZE, this::expandCategories);
+        // Mở index ở thread nền: build lần đầu trên catalog lớn mất nhiều giây, không chặn khởi động
+        dirtyProducts.execute(this::open);
+    }
+
+    @PreDestroy
+    void stop() {
+        dirtyProducts.stop(Duration.ofSeconds(30));
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to release search index lock in {}", directory, e);
+        }
+        snapshot = IndexSnapshot.EMPTY;
+        lastRefreshAt = null;
+    }
+
+    /**
+     * Giữ file lock trên thư mục index: hai instance dùng chung thư mục sẽ ghi đè manifest của nhau
+     */
+    private void lockDirectory() {
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (lockChannel.tryLock() == null) {
+                lockChannel.close();
+                throw new IllegalStateException("Thư mục index đang được dùng bởi instance khác: " + directory);
+            }
+        } catch (OverlappingFileLockException e) {
+            throw new IllegalStateException("Thư mục index đang được dùng bởi instance khác: " + directory, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không mở được thư mục index " + directory, e);
+        }
+    }
+
+    private void open() {
+        long startNanos = System.nanoTime();
+        Path manifest = directory.resolve(MANIFEST);
+        try {
+            if (Files.exists(manifest)) {
+                LocalDateTime watermark = loadManifest(manifest);
+                log.info("Loaded product search index from {}: {} documents in {} segments, catching up from {}",
+                        directory, snapshot.liveDocs, snapshot.segments.length, watermark);
+                catchUp(watermark);
+            } else {
+                rebuild();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to open product search index in {}, rebuilding", directory, e);
+            try {
+                snapshot = IndexSnapshot.EMPTY;
+                Files.deleteIfExists(manifest);
+                rebuild();
+            } catch (IOException | RuntimeException rebuildError) {
+                log.error("Failed to rebuild product search index", rebuildError);
+                return;
+            }
+        }
+        log.info("Product search index ready: {} documents in {} segments ({} ms)",
+                snapshot.liveDocs, snapshot.segments.length, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Build toàn bộ index từ database. Manifest chỉ được ghi khi build xong: bị dừng giữa chừng thì lần sau build lại.
+     */
+    private void rebuild() throws IOException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        deleteUnreferencedSegments();
+        SearchSegment.Builder[] builder = {new SearchSegment.Builder()};
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DOCUMENT_QUERY + " WHERE p.is_active = true");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            builder[0].add(rs.getObject(1, UUID.class), fields(rs), FIELD_WEIGHTS);
+            if (builder[0].size() >= properties.getBuildSegmentSize()) {
+                applyUnchecked(builder[0], List.of());
+                builder[0] = new SearchSegment.Builder();
+            }
+        }));
+        apply(builder[0], List.of());
+        commit(startedAt);
+    }
+
+    private void catchUp(LocalDateTime watermark) {
+        Timestamp from = Timestamp.valueOf(watermark.minus(properties.getCatchUpMargin()));
+        // Chạy sau open() trên cùng thread ghi
+        dirtyProducts.markAll(jdbcTemplate.queryForList(CHANGED_SINCE, UUID.class, from, from, from));
+    }
+
+    private void expandCategories(List<UUID> categoryIds) {
+        String placeholders = String.join(",", Collections.nCopies(categoryIds.size(), "?"));
+        dirtyProducts.markAll(jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE category_id IN (" + placeholders + ")", UUID.class, categoryIds.toArray()));
+    }
+
+    /**
+     * Index lại một lô product (tối đa buildSegmentSize) thành một segment rồi ghi manifest
+     */
+    private void reindex(List<UUID> productIds) throws IOException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        SearchSegment.Builder builder = new SearchSegment.Builder();
+        for (int from = 0; from < productIds.size(); from += QUERY_CHUNK_SIZE) {
+            List<UUID> chunk = productIds.subList(from, Math.min(productIds.size(), from + QUERY_CHUNK_SIZE));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(DOCUMENT_QUERY + " WHERE p.id IN (" + placeholders + ")", rs -> {
+                if (rs.getBoolean(6)) {
+                    builder.add(rs.getObject(1, UUID.class), fields(rs), FIELD_WEIGHTS);
+                }
+            }, chunk.toArray());
+        }
+        apply(builder, productIds);
+        commit(startedAt);
+        log.debug("Reindexed {} products", productIds.size());
+    }
+
+    /**
+     * Đánh dấu xóa bản cũ của các product trong replaced, thêm segment mới từ builder, merge nếu cần
+     * rồi publish snapshot mới. Segment mới được ghi ra đĩa trước khi publish.
+     */
+    private void apply(SearchSegment.Builder builder, List<UUID> replaced) throws IOException {
+        IndexSnapshot current = snapshot;
+        List<SearchSegment> segments = new ArrayList<>(List.of(current.segments));
+        List<BitSet> deleted = new ArrayList<>(List.of(current.deleted));
+        for (int s = 0; s < segments.size(); s++) {
+            BitSet copy = null;
+            for (UUID productId : replaced) {
+                int doc = segments.get(s).findDoc(productId);
+                if (doc >= 0 && !deleted.get(s).get(doc)) {
+                    if (copy == null) {
+                        copy = (BitSet) deleted.get(s).clone();
+                    }
+                    copy.set(doc);
+                }
+            }
+            if (copy != null) {
+                deleted.set(s, copy);
+            }
+        }
+        if (!builder.isEmpty()) {
+            SearchSegment segment = builder.build(nextGeneration++);
+            segment.write(segmentFile(segment.getGeneration()));
+            segments.add(segment);
+            deleted.add(new BitSet());
+        }
+        merge(segments, deleted);
+        snapshot = new IndexSnapshot(segments, deleted);
+    }
+
+    private void applyUnchecked(SearchSegment.Builder builder, List<UUID> replaced) {
+        try {
+            apply(builder, replaced);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Merge các segment có ít document còn sống nhất cho tới khi không vượt maxSegments
+     */
+    private void merge(List<SearchSegment> segments, List<BitSet> deleted) throws IOException {
+        while (segments.size() > Math.max(1, properties.getMaxSegments())) {
+            List<Integer> order = new ArrayList<>();
+            for (int s = 0; s < segments.size(); s++) {
+                order.add(s);
+            }
+            order.sort(Comparator.comparingInt(s -> segments.get(s).docCount() - deleted.get(s).cardinality()));
+            int count = Math.max(2, segments.size() - properties.getMaxSegments() + 1);
+            List<Integer> chosen = new ArrayList<>(order.subList(0, count));
+            chosen.sort(Comparator.reverseOrder());
+
+            List<SearchSegment> inputs = new ArrayList<>();
+            List<BitSet> inputDeletes = new ArrayList<>();
+            for (int s : chosen) {
+                inputs.add(segments.remove(s));
+                inputDeletes.add(deleted.remove(s));
+            }
+            SearchSegment merged = SearchSegment.merge(nextGeneration++, inputs, inputDeletes);
+            merged.write(segmentFile(merged.getGeneration()));
+            segments.add(merged);
+            deleted.add(new BitSet());
+            merges.incrementAndGet();
+            log.debug("Merged {} segments into segment {} ({} documents)", inputs.size(),
+                    merged.getGeneration(), merged.docCount());
+        }
+    }
+
+    /**
+     * Ghi manifest của snapshot hiện tại (thay nguyên tử) rồi xóa các segment không còn dùng
+     */
+    private void commit(LocalDateTime refreshedAt) throws IOException {
+        IndexSnapshot current = snapshot;
+        Path temporary = directory.resolve(MANIFEST + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MANIFEST_MAGIC);
+            out.writeInt(MANIFEST_VERSION);
+            out.writeUTF(refreshedAt.toString());
+            out.writeLong(nextGeneration);
+            out.writeInt(current.segments.length);
+            for (int s = 0; s < current.segments.length; s++) {
+                out.writeLong(current.segments[s].getGeneration());
+                long[] words = current.deleted[s].toLongArray();
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+            out.flush();
+            stream.getFD().sync();
+        }
+        Files.move(temporary, directory.resolve(MANIFEST),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        lastRefreshAt = refreshedAt;
+        deleteUnreferencedSegments();
+    }
+
+    private LocalDateTime loadManifest(Path manifest) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifest)))) {
+            if (in.readInt() != MANIFEST_MAGIC || in.readInt() != MANIFEST_VERSION) {
+                throw new IOException("Không phải manifest index hợp lệ: " + manifest);
+            }
+            LocalDateTime watermark = LocalDateTime.parse(in.readUTF());
+            nextGeneration = in.readLong();
+            int count = in.readInt();
+            List<SearchSegment> segments = new ArrayList<>(count);
+            List<BitSet> deleted = new ArrayList<>(count);
+            for (int s = 0; s < count; s++) {
+                long generation = in.readLong();
+                long[] words = new long[in.readInt()];
+                for (int w = 0; w < words.length; w++) {
+                    words[w] = in.readLong();
+                }
+                segments.add(SearchSegment.read(segmentFile(generation), generation));
+                deleted.add(BitSet.valueOf(words));
+            }
+            snapshot = new IndexSnapshot(segments, deleted);
+            lastRefreshAt = watermark;
+            deleteUnreferencedSegments();
+            return watermark;
+        }
+    }
+
+    private void deleteUnreferencedSegments() throws IOException {
+        Set<Path> referenced = new HashSet<>();
+        for (SearchSegment segment : snapshot.segments) {
+            referenced.add(segmentFile(segment.getGeneration()));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX) && !referenced.contains(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private Path segmentFile(long generation) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%019d", generation) + SEGMENT_SUFFIX);
+    }
+
+    private static String[] fields(ResultSet rs) throws SQLException {
+        return new String[]{rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)};
+    }
+
+
+    /**
+     * Các term có tiền tố prefix kèm document frequency; quá maxPrefixExpansions thì giữ các term phổ biến nhất,
+     * luôn giữ term trùng chính xác với prefix
+     */
+    private Map<String, Long> expand(IndexSnapshot current, String prefix) {
+        Map<String, Long> expansions = new HashMap<>();
+        if (prefix.length() < MIN_PREFIX_LENGTH) {
+            long df = current.documentFrequency(prefix);
+            if (df > 0) {
+                expansions.put(prefix, df);
+            }
+            return expansions;
+        }
+        for (SearchSegment segment : current.segments) {
+            for (int t = segment.prefixStart(prefix); t < segment.termCount() && segment.term(t).startsWith(prefix); t++) {
+                expansions.merge(segment.term(t), (long) segment.postingCount(t), Long::sum);
+            }
+        }
+        int max = Math.max(1, properties.getMaxPrefixExpansions());
+        if (expansions.size() > max) {
+            List<Map.Entry<String, Long>> entries = new ArrayList<>(expansions.entrySet());
+            entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            Map<String, Long> kept = new HashMap<>();
+            Long exact = expansions.get(prefix);
+            if (exact != null) {
+                kept.put(prefix, exact);
+            }
+            for (Map.Entry<String, Long> entry : entries) {
+                if (kept.size() >= max) {
+                    break;
+                }
+                kept.put(entry.getKey(), entry.getValue());
+            }
+            return kept;
+        }
+        return expansions;
+    }
+
+    /**
+     * Chấm điểm các document của một segment khớp mọi từ chính xác và ít nhất một term mở rộng từ tiền tố
+     * @return số document khớp
+     */
+    private long searchSegment(int segmentIndex, IndexSnapshot current, List<String> exact, float[] exactIdf,
+                               List<String> expansionTerms, float[] expansionIdf, TopHits top) {
+        SearchSegment segment = current.segments[segmentIndex];
+        BitSet deleted = current.deleted[segmentIndex];
+        float averageLength = current.averageLength;
+
+        int[] exactTerms = new int[exact.size()];
+        for (int i = 0; i < exactTerms.length; i++) {
+            exactTerms[i] = segment.termIndex(exact.get(i));
+            if (exactTerms[i] < 0) {
+                return 0;
+            }
+        }
+        int[] prefixTerms = new int[expansionTerms.size()];
+        float[] prefixIdf = new float[expansionTerms.size()];
+        int prefixCount = 0;
+        for (int j = 0; j < expansionTerms.size(); j++) {
+            int term = segment.termIndex(expansionTerms.get(j));
+            if (term >= 0) {
+                prefixTerms[prefixCount] = term;
+                prefixIdf[prefixCount] = expansionIdf[j];
+                prefixCount++;
+            }
+        }
+        if (prefixCount == 0) {
+            return 0;
+        }
+
+        int[] docs = segment.postingDocs();
+        int[] prefixCursor = new int[prefixCount];
+        for (int j = 0; j < prefixCount; j++) {
+            prefixCursor[j] = segment.postingStart(prefixTerms[j]);
+        }
+        long hits = 0;
+
+        if (exactTerms.length == 0) {
+            return searchPrefix(segmentIndex, segment, deleted, averageLength, prefixTerms, prefixIdf, prefixCount, top);
+        }
+
+        // Duyệt posting ngắn nhất trong các từ chính xác, nhảy (galloping) trên các posting còn lại
+        int driver = 0;
+        for (int i = 1; i < exactTerms.length; i++) {
+            if (segment.postingCount(exactTerms[i]) < segment.postingCount(exactTerms[driver])) {
+                driver = i;
+            }
+        }
+        int[] cursor = new int[exactTerms.length];
+        for (int i = 0; i < exactTerms.length; i++) {
+            cursor[i] = segment.postingStart(exactTerms[i]);
+        }
+        for (int p = segment.postingStart(exactTerms[driver]); p < segment.postingEnd(exactTerms[driver]); p++) {
+            int doc = docs[p];
+            if (deleted.get(doc)) {
+                continue;
+            }
+            float norm = norm(segment.docLength(doc), averageLength);
+            float score = bm25(exactIdf[driver], segment.freq(p), norm);
+            boolean matched = true;
+            for (int i = 0; i < exactTerms.length && matched; i++) {
+                if (i == driver) {
+                    continue;
+                }
+                int end = segment.postingEnd(exactTerms[i]);
+                cursor[i] = advance(docs, cursor[i], end, doc);
+                if (cursor[i] == end || docs[cursor[i]] != doc) {
+                    matched = false;
+                } else {
+                    score += bm25(exactIdf[i], segment.freq(cursor[i]), norm);
+                }
+            }
+            if (!matched) {
+                continue;
+            }
+            float best = 0;
+            boolean prefixMatched = false;
+            for (int j = 0; j < prefixCount; j++) {
+                int end = segment.postingEnd(prefixTerms[j]);
+                prefixCursor[j] = advance(docs, prefixCursor[j], end, doc);
+                if (prefixCursor[j] < end && docs[prefixCursor[j]] == doc) {
+                    best = Math.max(best, bm25(prefixIdf[j], segment.freq(prefixCursor[j]), norm));
+                    prefixMatched = true;
+                }
+            }
+            if (prefixMatched) {
+                hits++;
+                top.offer(score + best, segmentIndex, doc);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Chỉ có một từ: trộn tuần tự posting của các term mở rộng, điểm của document là điểm của term khớp tốt nhất.
+     * Vì lấy max (không cộng), khi top đã đầy mỗi term bỏ qua độc lập các block có chặn trên không vượt điểm thấp nhất
+     * trong top (block-max) mà kết quả không đổi. Số document khớp được đếm riêng, không cần chấm điểm.
+     * @return số document khớp
+     */
+    private static long searchPrefix(int segmentIndex, SearchSegment segment, BitSet deleted, float averageLength,
+                                     int[] terms, float[] idf, int termCount, TopHits top) {
+        int[] docs = segment.postingDocs();
+        int[] cursor = new int[termCount];
+        int[] end = new int[termCount];
+        int[] blockEnd = new int[termCount];
+        float[] blockBound = new float[termCount];
+        for (int j = 0; j < termCount; j++) {
+            cursor[j] = segment.postingStart(terms[j]);
+            end[j] = segment.postingEnd(terms[j]);
+            blockEnd[j] = cursor[j];
+        }
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int j = 0; j < termCount; j++) {
+                if (top.isFull()) {
+                    float threshold = top.minScore();
+                    while (cursor[j] < end[j]) {
+                        if (cursor[j] >= blockEnd[j]) {
+                            int block = segment.block(terms[j], cursor[j]);
+                            blockEnd[j] = segment.blockEnd(terms[j], cursor[j]);
+                            blockBound[j] = bm25(idf[j], segment.blockMaxFreq(block),
+                                    norm(segment.blockMinLength(block), averageLength));
+                        }
+                        if (blockBound[j] > threshold) {
+                            break;
+                        }
+                        cursor[j] = blockEnd[j];
+                    }
+                }
+                if (cursor[j] < end[j]) {
+                    doc = Math.min(doc, docs[cursor[j]]);
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            float norm = norm(segment.docLength(doc), averageLength);
+            float best = 0;
+            for (int j = 0; j < termCount; j++) {
+                if (cursor[j] < end[j] && docs[cursor[j]] == doc) {
+                    best = Math.max(best, bm25(idf[j], segment.freq(cursor[j]), norm));
+                    cursor[j]++;
+                }
+            }
+            if (!deleted.get(doc)) {
+                top.offer(best, segmentIndex, doc);
+            }
+        }
+        return countPrefix(segment, deleted, terms, termCount);
+    }
+
+    /**
+     * Số document chưa xóa có ít nhất một trong các term: một term thì lấy độ dài posting trừ document đã xóa,
+     * nhiều term thì OR các posting vào một bitset
+     */
+    private static long countPrefix(SearchSegment segment, BitSet deleted, int[] terms, int termCount) {
+        int[] docs = segment.postingDocs();
+        if (termCount == 1) {
+            int start = segment.postingStart(terms[0]);
+            int end = segment.postingEnd(terms[0]);
+            long count = end - start;
+            for (int doc = deleted.nextSetBit(0); doc >= 0; doc = deleted.nextSetBit(doc + 1)) {
+                if (Arrays.binarySearch(docs, start, end, doc) >= 0) {
+                    count--;
+                }
+            }
+            return count;
+        }
+        long[] words = new long[(segment.docCount() + 63) >>> 6];
+        for (int j = 0; j < termCount; j++) {
+            for (int p = segment.postingStart(terms[j]); p < segment.postingEnd(terms[j]); p++) {
+                words[docs[p] >>> 6] |= 1L << docs[p];
+            }
+        }
+        long count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        for (int doc = deleted.nextSetBit(0); doc >= 0; doc = deleted.nextSetBit(doc + 1)) {
+            if ((words[doc >>> 6] & (1L << doc)) != 0) {
+                count--;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Vị trí đầu tiên trong docs[from, end) có docId >= target: nhảy cấp số nhân rồi binary search
+     */
+    static int advance(int[] docs, int from, int end, int target) {
+        if (from >= end || docs[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        while (low + step < end && docs[low + step] < target) {
+            low += step;
+            step <<= 1;
+        }
+        int high = Math.min(end, low + step);
+        int lo = low + 1;
+        while (lo < high) {
+            int mid = (lo + high) >>> 1;
+            if (docs[mid] < target) {
+                lo = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static float idf(long df, long documents) {
+        return (float) Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+    }
+
+    private static float norm(int docLength, float averageLength) {
+        return K1 * (1 - B + B * docLength / averageLength);
+    }
+
+    private static float bm25(float idf, int freq, float norm) {
+        return idf * freq * (K1 + 1) / (freq + norm);
+    }
+
+    /**
+     * Trạng thái bất biến của index tại một thời điểm
+     */
+    private static final class IndexSnapshot {
+
+        static final IndexSnapshot EMPTY = new IndexSnapshot(List.of(), List.of());
+
+        final SearchSegment[] segments;
+        final BitSet[] deleted;
+        final long liveDocs;
+        final long deletedDocs;
+        final float averageLength;
+
+        IndexSnapshot(List<SearchSegment> segments, List<BitSet> deleted) {
+            this.segments = segments.toArray(new SearchSegment[0]);
+            this.deleted = deleted.toArray(new BitSet[0]);
+            long live = 0;
+            long removed = 0;
+            long totalLength = 0;
+            for (int s = 0; s < this.segments.length; s++) {
+                SearchSegment segment = this.segments[s];
+                int deletedCount = this.deleted[s].cardinality();
+                live += segment.docCount() - deletedCount;
+                removed += deletedCount;
+                totalLength += segment.totalLength();
+                for (int doc = this.deleted[s].nextSetBit(0); doc >= 0; doc = this.deleted[s].nextSetBit(doc + 1)) {
+                    totalLength -= segment.docLength(doc);
+                }
+            }
+            this.liveDocs = live;
+            this.deletedDocs = removed;
+            this.averageLength = live == 0 ? 1 : Math.max(1, (float) totalLength / live);
+        }
+
+        /**
+         * Số document chứa term trên mọi segment (kể cả document đã xóa chưa merge, như Lucene)
+         */
+        long documentFrequency(String term) {
+            long df = 0;
+            for (SearchSegment segment : segments) {
+                int index = segment.termIndex(term);
+                if (index >= 0) {
+                    df += segment.postingCount(index);
+                }
+            }
+            return df;
+        }
+    }
+
+    /**
+     * Min-heap giữ offset + limit kết quả điểm cao nhất, không tạo object cho từng document
+     */
+    private static final class TopHits {
+
+        private final float[] scores;
+        private final int[] segments;
+        private final int[] docs;
+        private int size;
+
+        TopHits(int capacity) {
+            this.scores = new float[capacity];
+            this.segments = new int[capacity];
+            this.docs = new int[capacity];
+        }
+
+        boolean isFull() {
+            return size > 0 && size == scores.length;
+        }
+
+        /**
+         * Điểm thấp nhất đang giữ; document mới phải có điểm lớn hơn mới vào được top khi đã đầy
+         */
+        float minScore() {
+            return scores[0];
+        }
+
+        void offer(float score, int segment, int doc) {
+            if (scores.length == 0) {
+                return;
+            }
+            if (size < scores.length) {
+                set(size, score, segment, doc);
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                set(0, score, segment, doc);
+                siftDown(0);
+            }
+        }
+
+        List<SearchHit> page(IndexSnapshot snapshot, int offset, int limit) {
+            // Lấy dần phần tử nhỏ nhất ra cuối mảng: sau vòng lặp mảng xếp giảm dần
+            int count = size;
+            while (size > 1) {
+                swap(0, --size);
+                siftDown(0);
+            }
+            List<SearchHit> hits = new ArrayList<>();
+            for (int i = offset; i < Math.min(count, offset + limit); i++) {
+                hits.add(new SearchHit(snapshot.segments[segments[i]].productId(docs[i]), scores[i]));
+            }
+            return hits;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (scores[index] >= scores[parent]) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void set(int index, float score, int segment, int doc) {
+            scores[index] = score;
+            segments[index] = segment;
+            docs[index] = doc;
+        }
+
+        private void swap(int a, int b) {
+            float score = scores[a];
+            int segment = segments[a];
+            int doc = docs[a];
+            set(a, scores[b], segments[b], docs[b]);
+            set(b, score, segment, doc);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.vinhnh.grocery.product.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đưa kích thước và số thay đổi đang chờ của index tìm kiếm lên Prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchMetrics implements MeterBinder {
+
+    private final ProductSearchIndex productSearchIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.index.documents", productSearchIndex, index -> index.getStats().getDocuments())
+                .description("Số product đang tìm được trong index")
+                .register(registry);
+        Gauge.builder("search.index.segments", productSearchIndex, index -> index.getStats().getSegments())
+                .description("Số segment của index")
+                .register(registry);
+        Gauge.builder("search.index.pending", productSearchIndex, index -> index.getStats().getPendingUpdates())
+                .description("Số product / category đang chờ index lại")
+                .register(registry);
+        FunctionCounter.builder("search.index.merges", productSearchIndex, index -> index.getStats().getMerges())
+                .description("Tổng số lần merge segment")
+                .register(registry);
+    }
+}
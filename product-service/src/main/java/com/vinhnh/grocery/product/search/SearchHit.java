@@ -0,0 +1,17 @@
+package com.vinhnh.grocery.product.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Một product khớp câu truy vấn và điểm BM25 của nó
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+
+    private final UUID productId;
+    private final float score;
+}
@@ -0,0 +1,17 @@
+package com.vinhnh.grocery.product.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Kết quả tìm kiếm: tổng số product khớp và trang kết quả đã xếp hạng
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+
+    private final long totalHits;
+    private final List<SearchHit> hits;
+}
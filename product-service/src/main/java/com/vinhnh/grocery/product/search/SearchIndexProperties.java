@@ -0,0 +1,33 @@
+package com.vinhnh.grocery.product.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Cấu hình cho index tìm kiếm sản phẩm (grocery.search.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.search")
+public class SearchIndexProperties {
+
+    /** Thư mục chứa segment và manifest của index; mỗi instance cần một thư mục riêng */
+    private Path indexDirectory = Path.of(System.getProperty("java.io.tmpdir"), "grocery", "search-index");
+
+    /** Số segment tối đa; vượt quá thì các segment nhỏ nhất được merge lại */
+    private int maxSegments = 10;
+
+    /** Số document tối đa của một segment khi build toàn bộ hoặc cập nhật hàng loạt */
+    private int buildSegmentSize = 100_000;
+
+    /** Số term tối đa được mở rộng từ tiền tố của từ cuối cùng trong câu truy vấn (ưu tiên term phổ biến) */
+    private int maxPrefixExpansions = 64;
+
+    /**
+     * Khi khởi động từ index trên đĩa, các product / category / brand có updated_at muộn hơn
+     * (thời điểm cập nhật index cuối - catchUpMargin) được index lại
+     */
+    private Duration catchUpMargin = Duration.ofMinutes(1);
+}
@@ -0,0 +1,543 @@
+package com.vinhnh.grocery.product.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Một segment bất biến của inverted index: term dictionary đã sắp xếp và posting list của từng term.
+ *
+ * - Document được sắp theo UUID của product, nên tìm document của một product là binary search
+ *   và hai segment có thể merge bằng cách trộn tuần tự.
+ * - Posting list của term t nằm trong postingDocs[postingStart[t] .. postingStart[t + 1]), docId tăng dần;
+ *   postingFreqs cùng chỉ số là tần suất đã nhân trọng số field (tối đa MAX_FREQ).
+ * - Posting list được chia thành block BLOCK_SIZE posting; mỗi block nhớ tần suất lớn nhất và độ dài document nhỏ nhất
+ *   (tính khi dựng / đọc segment, không ghi ra file) để truy vấn chặn trên điểm BM25 và bỏ qua cả block (block-max).
+ * - Không có object cho từng document hay từng posting: toàn bộ là mảng nguyên thủy.
+ *
+ * Định dạng file: magic, version, số document, (UUID, độ dài) của từng document, số term,
+ * rồi với từng term: tên, số posting, các cặp (khoảng cách docId dạng varint, tần suất 1 byte).
+ */
+final class SearchSegment {
+
+    static final int MAX_FREQ = 255;
+    static final int BLOCK_SIZE = 128;
+
+    private static final int MAGIC = 0x47534547; // "GSEG"
+    private static final int VERSION = 1;
+
+    private final long generation;
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final int[] docLength;
+    private final String[] terms;
+    private final int[] postingStart;
+    private final int[] postingDocs;
+    private final byte[] postingFreqs;
+    private final int[] blockStart;
+    private final byte[] blockMaxFreq;
+    private final int[] blockMinLength;
+    private final long totalLength;
+
+    private SearchSegment(long generation, long[] idHigh, long[] idLow, int[] docLength,
+                          String[] terms, int[] postingStart, int[] postingDocs, byte[] postingFreqs) {
+        this.generation = generation;
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+        this.docLength = docLength;
+        this.terms = terms;
+        this.postingStart = postingStart;
+        this.postingDocs = postingDocs;
+        this.postingFreqs = postingFreqs;
+        this.blockStart = new int[terms.length + 1];
+        for (int t = 0; t < terms.length; t++) {
+            blockStart[t + 1] = blockStart[t] + (postingStart[t + 1] - postingStart[t] + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        }
+        this.blockMaxFreq = new byte[blockStart[terms.length]];
+        this.blockMinLength = new int[blockStart[terms.length]];
+        Arrays.fill(blockMinLength, Integer.MAX_VALUE);
+        for (int t = 0; t < terms.length; t++) {
+            for (int p = postingStart[t]; p < postingStart[t + 1]; p++) {
+                int block = blockStart[t] + (p - postingStart[t]) / BLOCK_SIZE;
+                blockMaxFreq[block] = (byte) Math.max(Byte.toUnsignedInt(blockMaxFreq[block]),
+                        Byte.toUnsignedInt(postingFreqs[p]));
+                blockMinLength[block] = Math.min(blockMinLength[block], docLength[postingDocs[p]]);
+            }
+        }
+        long total = 0;
+        for (int length : docLength) {
+            total += length;
+        }
+        this.totalLength = total;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    int docCount() {
+        return idHigh.length;
+    }
+
+    int termCount() {
+        return terms.length;
+    }
+
+    long totalLength() {
+        return totalLength;
+    }
+
+    int docLength(int doc) {
+        return docLength[doc];
+    }
+
+    UUID productId(int doc) {
+        return new UUID(idHigh[doc], idLow[doc]);
+    }
+
+    /**
+     * Document của product trong segment, -1 nếu không có
+     */
+    int findDoc(UUID productId) {
+        long high = productId.getMostSignificantBits();
+        long low = productId.getLeastSignificantBits();
+        int from = 0;
+        int to = idHigh.length - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            int cmp = compare(idHigh[mid], idLow[mid], high, low);
+            if (cmp < 0) {
+                from = mid + 1;
+            } else if (cmp > 0) {
+                to = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Chỉ số của term trong dictionary, -1 nếu không có
+     */
+    int termIndex(String term) {
+        int index = Arrays.binarySearch(terms, term);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * Chỉ số term đầu tiên >= prefix; các term có tiền tố prefix nằm liên tiếp từ vị trí này
+     */
+    int prefixStart(String prefix) {
+        int index = Arrays.binarySearch(terms, prefix);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    String term(int termIndex) {
+        return terms[termIndex];
+    }
+
+    int postingStart(int termIndex) {
+        return postingStart[termIndex];
+    }
+
+    int postingEnd(int termIndex) {
+        return postingStart[termIndex + 1];
+    }
+
+    int postingCount(int termIndex) {
+        return postingStart[termIndex + 1] - postingStart[termIndex];
+    }
+
+    int[] postingDocs() {
+        return postingDocs;
+    }
+
+    int freq(int posting) {
+        return Byte.toUnsignedInt(postingFreqs[posting]);
+    }
+
+    /**
+     * Block chứa posting (thuộc term termIndex)
+     */
+    int block(int termIndex, int posting) {
+        return blockStart[termIndex] + (posting - postingStart[termIndex]) / BLOCK_SIZE;
+    }
+
+    /**
+     * Vị trí posting ngay sau block chứa posting
+     */
+    int blockEnd(int termIndex, int posting) {
+        int offset = posting - postingStart[termIndex];
+        return Math.min(postingStart[termIndex + 1], posting - offset % BLOCK_SIZE + BLOCK_SIZE);
+    }
+
+    int blockMaxFreq(int block) {
+        return Byte.toUnsignedInt(blockMaxFreq[block]);
+    }
+
+    int blockMinLength(int block) {
+        return blockMinLength[block];
+    }
+
+    /**
+     * Ghi segment ra file và fsync trước khi trả về
+     */
+    void write(Path file) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(idHigh.length);
+            for (int doc = 0; doc < idHigh.length; doc++) {
+                out.writeLong(idHigh[doc]);
+                out.writeLong(idLow[doc]);
+                writeVarInt(out, docLength[doc]);
+            }
+            out.writeInt(terms.length);
+            for (int t = 0; t < terms.length; t++) {
+                out.writeUTF(terms[t]);
+                writeVarInt(out, postingCount(t));
+                int previous = 0;
+                for (int p = postingStart[t]; p < postingStart[t + 1]; p++) {
+                    writeVarInt(out, postingDocs[p] - previous);
+                    out.writeByte(postingFreqs[p]);
+                    previous = postingDocs[p];
+                }
+            }
+            out.flush();
+            stream.getFD().sync();
+        }
+    }
+
+    static SearchSegment read(Path file, long generation) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Không phải segment index hợp lệ: " + file);
+            }
+            int docCount = in.readInt();
+            long[] idHigh = new long[docCount];
+            long[] idLow = new long[docCount];
+            int[] docLength = new int[docCount];
+            for (int doc = 0; doc < docCount; doc++) {
+                idHigh[doc] = in.readLong();
+                idLow[doc] = in.readLong();
+                docLength[doc] = readVarInt(in);
+            }
+            int termCount = in.readInt();
+            String[] terms = new String[termCount];
+            int[] postingStart = new int[termCount + 1];
+            IntBuffer docs = new IntBuffer(Math.max(16, docCount * 8));
+            ByteBuffer freqs = new ByteBuffer(Math.max(16, docCount * 8));
+            for (int t = 0; t < termCount; t++) {
+                terms[t] = in.readUTF();
+                postingStart[t] = docs.size;
+                int count = readVarInt(in);
+                int doc = 0;
+                for (int p = 0; p < count; p++) {
+                    doc += readVarInt(in);
+                    docs.add(doc);
+                    freqs.add(in.readByte());
+                }
+            }
+            postingStart[termCount] = docs.size;
+            return new SearchSegment(generation, idHigh, idLow, docLength, terms, postingStart,
+                    docs.toArray(), freqs.toArray());
+        }
+    }
+
+    /**
+     * Gộp nhiều segment thành một, bỏ các document đã bị đánh dấu xóa
+     * @param deleted document đã xóa của từng segment (cùng thứ tự với segments)
+     */
+    static SearchSegment merge(long generation, List<SearchSegment> segments, List<BitSet> deleted) {
+        int count = segments.size();
+        int[][] docMap = new int[count][];
+        int[] cursor = new int[count];
+        int liveDocs = 0;
+        for (int s = 0; s < count; s++) {
+            docMap[s] = new int[segments.get(s).docCount()];
+            Arrays.fill(docMap[s], -1);
+            liveDocs += segments.get(s).docCount() - deleted.get(s).cardinality();
+        }
+
+        // Trộn document còn sống của các segment theo thứ tự UUID
+        long[] idHigh = new long[liveDocs];
+        long[] idLow = new long[liveDocs];
+        int[] docLength = new int[liveDocs];
+        int next = 0;
+        while (true) {
+            int best = -1;
+            for (int s = 0; s < count; s++) {
+                SearchSegment segment = segments.get(s);
+                while (cursor[s] < segment.docCount() && deleted.get(s).get(cursor[s])) {
+                    cursor[s]++;
+                }
+                if (cursor[s] < segment.docCount() && (best < 0 || compare(
+                        segment.idHigh[cursor[s]], segment.idLow[cursor[s]],
+                        segments.get(best).idHigh[cursor[best]], segments.get(best).idLow[cursor[best]]) < 0)) {
+                    best = s;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            SearchSegment segment = segments.get(best);
+            int doc = cursor[best]++;
+            if (next > 0 && idHigh[next - 1] == segment.idHigh[doc] && idLow[next - 1] == segment.idLow[doc]) {
+                continue;
+            }
+            idHigh[next] = segment.idHigh[doc];
+            idLow[next] = segment.idLow[doc];
+            docLength[next] = segment.docLength[doc];
+            docMap[best][doc] = next++;
+        }
+        if (next < liveDocs) {
+            idHigh = Arrays.copyOf(idHigh, next);
+            idLow = Arrays.copyOf(idLow, next);
+            docLength = Arrays.copyOf(docLength, next);
+        }
+
+        // Trộn term dictionary; posting của mỗi segment sau khi đổi docId vẫn tăng dần nên trộn tuần tự được
+        int postingCapacity = 0;
+        for (SearchSegment segment : segments) {
+            postingCapacity += segment.postingDocs.length;
+        }
+        List<String> terms = new ArrayList<>();
+        IntBuffer postingStart = new IntBuffer(1024);
+        int[] postingDocs = new int[postingCapacity];
+        byte[] postingFreqs = new byte[postingCapacity];
+        int size = 0;
+        int[] termCursor = new int[count];
+        int[] postingCursor = new int[count];
+        while (true) {
+            String term = null;
+            for (int s = 0; s < count; s++) {
+                if (termCursor[s] < segments.get(s).terms.length) {
+                    String candidate = segments.get(s).terms[termCursor[s]];
+                    if (term == null || candidate.compareTo(term) < 0) {
+                        term = candidate;
+                    }
+                }
+            }
+            if (term == null) {
+                break;
+            }
+            int termStart = size;
+            for (int s = 0; s < count; s++) {
+                SearchSegment segment = segments.get(s);
+                if (termCursor[s] < segment.terms.length && segment.terms[termCursor[s]].equals(term)) {
+                    postingCursor[s] = segment.postingStart[termCursor[s]];
+                } else {
+                    postingCursor[s] = -1;
+                }
+            }
+            while (true) {
+                int best = -1;
+                int bestDoc = Integer.MAX_VALUE;
+                for (int s = 0; s < count; s++) {
+                    if (postingCursor[s] < 0) {
+                        continue;
+                    }
+                    SearchSegment segment = segments.get(s);
+                    int end = segment.postingStart[termCursor[s] + 1];
+                    while (postingCursor[s] < end && docMap[s][segment.postingDocs[postingCursor[s]]] < 0) {
+                        postingCursor[s]++;
+                    }
+                    if (postingCursor[s] == end) {
+                        postingCursor[s] = -1;
+                        continue;
+                    }
+                    int mapped = docMap[s][segment.postingDocs[postingCursor[s]]];
+                    if (mapped < bestDoc) {
+                        best = s;
+                        bestDoc = mapped;
+                    }
+                }
+                if (best < 0) {
+                    break;
+                }
+                postingDocs[size] = bestDoc;
+                postingFreqs[size] = segments.get(best).postingFreqs[postingCursor[best]];
+                size++;
+                postingCursor[best]++;
+            }
+            if (size > termStart) {
+                terms.add(term);
+                postingStart.add(termStart);
+            }
+            for (int s = 0; s < count; s++) {
+                SearchSegment segment = segments.get(s);
+                if (termCursor[s] < segment.terms.length && segment.terms[termCursor[s]].equals(term)) {
+                    termCursor[s]++;
+                }
+            }
+        }
+        postingStart.add(size);
+        return new SearchSegment(generation, idHigh, idLow, docLength, terms.toArray(new String[0]),
+                postingStart.toArray(), Arrays.copyOf(postingDocs, size), Arrays.copyOf(postingFreqs, size));
+    }
+
+    static int compare(long high, long low, long otherHigh, long otherLow) {
+        int cmp = Long.compare(high, otherHigh);
+        return cmp != 0 ? cmp : Long.compare(low, otherLow);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Gom document rồi dựng segment; thêm lại cùng một product thì bản sau thay bản trước
+     */
+    static final class Builder {
+
+        private final Map<UUID, Document> documents = new LinkedHashMap<>();
+
+        /**
+         * @param fields nội dung từng field, cùng thứ tự với weights
+         * @param weights trọng số của từng field (tần suất term được nhân với trọng số)
+         */
+        void add(UUID productId, String[] fields, int[] weights) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            for (int f = 0; f < fields.length; f++) {
+                for (String token : TextAnalyzer.analyze(fields[f])) {
+                    frequencies.merge(token, weights[f], Integer::sum);
+                    length += weights[f];
+                }
+            }
+            documents.put(productId, new Document(productId, frequencies, length));
+        }
+
+        int size() {
+            return documents.size();
+        }
+
+        boolean isEmpty() {
+            return documents.isEmpty();
+        }
+
+        SearchSegment build(long generation) {
+            Document[] docs = documents.values().toArray(new Document[0]);
+            Arrays.sort(docs, (a, b) -> compare(a.id.getMostSignificantBits(), a.id.getLeastSignificantBits(),
+                    b.id.getMostSignificantBits(), b.id.getLeastSignificantBits()));
+
+            long[] idHigh = new long[docs.length];
+            long[] idLow = new long[docs.length];
+            int[] docLength = new int[docs.length];
+            Map<String, Postings> postings = new HashMap<>();
+            for (int doc = 0; doc < docs.length; doc++) {
+                idHigh[doc] = docs[doc].id.getMostSignificantBits();
+                idLow[doc] = docs[doc].id.getLeastSignificantBits();
+                docLength[doc] = docs[doc].length;
+                for (Map.Entry<String, Integer> entry : docs[doc].frequencies.entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), key -> new Postings())
+                            .add(doc, Math.min(MAX_FREQ, entry.getValue()));
+                }
+            }
+
+            String[] terms = postings.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            int[] postingStart = new int[terms.length + 1];
+            int total = 0;
+            for (int t = 0; t < terms.length; t++) {
+                postingStart[t] = total;
+                total += postings.get(terms[t]).docs.size;
+            }
+            postingStart[terms.length] = total;
+            int[] postingDocs = new int[total];
+            byte[] postingFreqs = new byte[total];
+            for (int t = 0; t < terms.length; t++) {
+                Postings termPostings = postings.get(terms[t]);
+                System.arraycopy(termPostings.docs.values, 0, postingDocs, postingStart[t], termPostings.docs.size);
+                System.arraycopy(termPostings.freqs.values, 0, postingFreqs, postingStart[t], termPostings.freqs.size);
+            }
+            return new SearchSegment(generation, idHigh, idLow, docLength, terms, postingStart, postingDocs, postingFreqs);
+        }
+
+        private record Document(UUID id, Map<String, Integer> frequencies, int length) {
+        }
+
+        private static final class Postings {
+
+            private final IntBuffer docs = new IntBuffer(4);
+            private final ByteBuffer freqs = new ByteBuffer(4);
+
+            void add(int doc, int freq) {
+                docs.add(doc);
+                freqs.add((byte) freq);
+            }
+        }
+    }
+
+    private static final class IntBuffer {
+
+        private int[] values;
+        private int size;
+
+        IntBuffer(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class ByteBuffer {
+
+        private byte[] values;
+        private int size;
+
+        ByteBuffer(int capacity) {
+            this.values = new byte[capacity];
+        }
+
+        void add(byte value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
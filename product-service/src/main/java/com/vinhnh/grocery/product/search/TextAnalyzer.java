@@ -0,0 +1,55 @@
+package com.vinhnh.grocery.product.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tách từ cho index tìm kiếm: bỏ dấu tiếng Việt (NFD rồi bỏ dấu kết hợp, đ → d), chuyển chữ thường
+ * và cắt theo ký tự không phải chữ / số. "Sữa tươi Đà Lạt" → [sua, tuoi, da, lat].
+ * Cùng một analyzer cho cả lúc index và lúc truy vấn nên người dùng gõ có dấu hay không dấu đều khớp.
+ */
+final class TextAnalyzer {
+
+    /** Token dài hơn bị cắt bớt, tránh term dictionary phình vì chuỗi rác */
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean tokenChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(folded.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            // đ / Đ không tách dấu khi chuẩn hóa NFD
+            if (c == 'đ' || c == 'Đ') {
+                c = 'd';
+            }
+            folded.append(Character.toLowerCase(c));
+        }
+        return folded.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.CatalogChangeFeedResponse;
+
+/**
+ * Service interface cho change feed catalog (đồng bộ cache phía downstream)
+ */
+public interface CatalogChangeFeedService {
+
+    /**
+     * Lấy các thay đổi sau token theo thứ tự seq
+     * @param token token từ lần gọi trước (nextToken hoặc getCurrentToken), rỗng để đọc từ đầu change log
+     * @param limit số thay đổi tối đa, 1..MAX_PAGE_SIZE
+     * @throws IllegalArgumentException nếu token hoặc limit không hợp lệ
+     */
+    CatalogChangeFeedResponse getChanges(String token, int limit);
+
+    /**
+     * Token trỏ tới thay đổi mới nhất: client vừa đọc lại toàn bộ catalog lấy token này trước khi đọc,
+     * sau đó chỉ cần đọc change feed từ token
+     */
+    String getCurrentToken();
+}
@@ -0,0 +1,21 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.CatalogExportFormat;
+
+import java.io.OutputStream;
+
+/**
+ * Service interface cho export toàn bộ catalog (product, category, brand, variant, giá, tồn kho)
+ */
+public interface CatalogExportService {
+
+    /**
+     * Ghi catalog vào output, mỗi variant một dòng (product chưa có variant: một dòng với các cột variant rỗng).
+     * Dữ liệu được đọc bằng cursor và ghi ngay từng dòng, bộ nhớ dùng không phụ thuộc kích thước catalog.
+     * Output không bị đóng.
+     * @param format NDJSON hoặc CSV (có dòng header)
+     * @param output nơi ghi dữ liệu
+     * @return số dòng đã ghi
+     */
+    long export(CatalogExportFormat format, OutputStream output);
+}
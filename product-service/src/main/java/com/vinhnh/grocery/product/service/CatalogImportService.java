@@ -0,0 +1,26 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.CatalogImportResponse;
+
+import java.io.InputStream;
+
+/**
+ * Service interface cho import catalog hàng loạt
+ * Import brands, categories, products và variants từ file NDJSON hoặc CSV
+ */
+public interface CatalogImportService {
+
+    /**
+     * Import từ NDJSON (mỗi dòng là một JSON object CatalogImportRow)
+     * @param input nội dung request, được đọc dạng stream
+     * @return CatalogImportResponse kết quả từng dòng
+     */
+    CatalogImportResponse importNdjson(InputStream input);
+
+    /**
+     * Import từ CSV có dòng header (tên cột giống tên field của CatalogImportRow)
+     * @param input nội dung request, được đọc dạng stream
+     * @return CatalogImportResponse kết quả từng dòng
+     */
+    CatalogImportResponse importCsv(InputStream input);
+}
@@ -1,10 +1,16 @@
 package com.vinhnh.grocery.product.service;
 
+import com.vinhnh.grocery.common.dto.CursorPage;
+import com.vinhnh.grocery.common.dto.ResourceVersion;
 import com.vinhnh.grocery.product.dto.CategoryCreateRequest;
+import com.vinhnh.grocery.product.dto.CategoryCursorSort;
 import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategorySnapshotStats;
+import com.vinhnh.grocery.product.dto.CategoryTreeNode;
 import com.vinhnh.grocery.product.dto.CategoryUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.UUID;
@@ -36,6 +42,22 @@ public interface CategoryService {
      */
     Page<CategoryResponse> getAllCategories(Pageable pageable);
 
+    /**
+     * Lấy category theo trang nhưng không đếm tổng số phần tử (bỏ qua câu count)
+     * @param pageable thông tin phân trang
+     * @return Slice<CategoryResponse>
+     */
+    Slice<CategoryResponse> getCategorySlice(Pageable pageable);
+
+    /**
+     * Lấy category theo cursor (keyset pagination)
+     * @param cursor cursor của trang trước, null để lấy trang đầu
+     * @param sort thứ tự sắp xếp, phải giống với lúc tạo cursor
+     * @param size số phần tử mỗi trang
+     * @return CursorPage<CategoryResponse>
+     */
+    CursorPage<CategoryResponse> getCategoriesByCursor(String cursor, CategoryCursorSort sort, int size);
+
     /**
      * Lấy tất cả category đang hoạt động
      * @return List<CategoryResponse>
@@ -56,6 +78,14 @@ public interface CategoryService {
      */
     List<CategoryResponse> searchCategoriesByName(String name);
 
+    /**
+     * Lấy cây category đang hoạt động bằng một câu query
+     * @param rootId UUID của category gốc, null để lấy toàn bộ cây
+     * @param maxDepth độ sâu tối đa (0 = chỉ lấy node gốc)
+     * @return List<CategoryTreeNode>
+     */
+    List<CategoryTreeNode> getCategoryTree(UUID rootId, int maxDepth);
+
     /**
      * Cập nhật category
      * @param id UUID của category
@@ -103,4 +133,29 @@ public interface CategoryService {
      * @return long
      */
     long countActiveCategories();
+
+    /**
+     * Lấy thông tin snapshot category đang hoạt động trong bộ nhớ
+     * @return CategorySnapshotStats
+     */
+    CategorySnapshotStats getActiveSnapshotStats();
+
+    /**
+     * Lấy phiên bản (ETag / Last-Modified) của một category mà không đọc entity
+     * @param id UUID của category
+     * @return ResourceVersion
+     */
+    ResourceVersion getCategoryVersion(UUID id);
+
+    /**
+     * Lấy phiên bản của toàn bảng category, dùng cho các endpoint trả về danh sách
+     * @return ResourceVersion
+     */
+    ResourceVersion getCategoriesVersion();
+
+    /**
+     * Lấy phiên bản của danh sách category đang hoạt động từ snapshot trong bộ nhớ
+     * @return ResourceVersion
+     */
+    ResourceVersion getActiveCategoriesVersion();
 }
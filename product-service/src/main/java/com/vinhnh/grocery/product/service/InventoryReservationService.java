@@ -0,0 +1,43 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.StockReservationRequest;
+import com.vinhnh.grocery.product.dto.StockReservationResponse;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Service interface cho giữ hàng (reserved_quantity) trực tiếp trên database, theo hold có thời hạn
+ */
+public interface InventoryReservationService {
+
+    /**
+     * Giữ hàng cho tất cả các dòng của một đơn hàng trong một transaction.
+     * Nếu một dòng không đủ hàng thì không dòng nào được giữ.
+     * @param request các dòng (variant, số lượng)
+     * @return StockReservationResponse các dòng đã giữ
+     * @throws IllegalArgumentException nếu có variant không tồn tại hoặc không đủ hàng
+     */
+    StockReservationResponse reserve(StockReservationRequest request);
+
+    /**
+     * Hủy hold, trả lại hàng đã giữ (giỏ hàng / checkout bị hủy)
+     * @param holdId ID của hold
+     * @throws IllegalArgumentException nếu hold không tồn tại hoặc đã hết hạn
+     */
+    void release(UUID holdId);
+
+    /**
+     * Xác nhận hold khi đơn hàng thành công: trừ cả quantity và reserved_quantity
+     * @param holdId ID của hold
+     * @throws IllegalArgumentException nếu hold không tồn tại hoặc đã hết hạn
+     */
+    void confirm(UUID holdId);
+
+    /**
+     * Trả lại hàng của các hold đã hết hạn trong một transaction (hold đã được hủy / xác nhận bị bỏ qua)
+     * @param holdIds ID của các hold
+     * @return số hold thực sự được trả lại
+     */
+    int releaseExpired(Collection<UUID> holdIds);
+}
@@ -0,0 +1,28 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.StockAlertResponse;
+import com.vinhnh.grocery.product.dto.StockLevel;
+import com.vinhnh.grocery.product.dto.VariantAvailabilityResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface cho truy vấn tồn kho
+ */
+public interface InventoryService {
+
+    /**
+     * Lấy các variant đang có cảnh báo tồn kho, từ trạng thái trong bộ nhớ (không quét bảng inventory)
+     * @param level LOW hoặc OVER, null để lấy tất cả
+     * @return List<StockAlertResponse>
+     */
+    List<StockAlertResponse> getStockAlerts(StockLevel level);
+
+    /**
+     * Số lượng có thể bán của nhiều variant, đọc từ snapshot trong bộ nhớ
+     * @param productVariantIds danh sách variant (tối đa 500)
+     * @return List<VariantAvailabilityResponse> theo thứ tự request, bỏ qua variant không có tồn kho
+     */
+    List<VariantAvailabilityResponse> getAvailability(List<UUID> productVariantIds);
+}
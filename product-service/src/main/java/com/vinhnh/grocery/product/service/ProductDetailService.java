@@ -0,0 +1,26 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.ProductDetailCacheStats;
+import com.vinhnh.grocery.product.dto.ProductDetailResponse;
+
+import java.util.UUID;
+
+/**
+ * Service interface cho trang chi tiết sản phẩm
+ */
+public interface ProductDetailService {
+
+    /**
+     * Lấy chi tiết product: category, brand, mọi variant kèm hình ảnh và tồn kho
+     * @param id ID của product
+     * @return ProductDetailResponse
+     * @throws IllegalArgumentException nếu không tìm thấy product
+     */
+    ProductDetailResponse getDetail(UUID id);
+
+    /**
+     * Trạng thái cache chi tiết sản phẩm
+     * @return ProductDetailCacheStats
+     */
+    ProductDetailCacheStats getCacheStats();
+}
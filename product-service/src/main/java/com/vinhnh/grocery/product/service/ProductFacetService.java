@@ -0,0 +1,33 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.FacetIndexStats;
+import com.vinhnh.grocery.product.dto.ProductFacetResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface cho lọc product theo facet (category, brand, khoảng giá)
+ */
+public interface ProductFacetService {
+
+    /**
+     * Lọc product và đếm facet cho thanh bộ lọc.
+     * Nhiều giá trị trong cùng facet là "hoặc", giữa các facet là "và"; danh sách rỗng là không lọc.
+     * @param categoryIds các category được chọn
+     * @param brandIds các brand được chọn
+     * @param priceRanges chỉ số các khoảng giá được chọn
+     * @param page số trang (bắt đầu từ 0)
+     * @param size số phần tử mỗi trang (1-100)
+     * @return ProductFacetResponse trang product và số đếm của từng giá trị facet
+     * @throws IllegalArgumentException nếu chỉ số khoảng giá hoặc phân trang không hợp lệ
+     */
+    ProductFacetResponse filter(List<UUID> categoryIds, List<UUID> brandIds, List<Integer> priceRanges,
+                                int page, int size);
+
+    /**
+     * Trạng thái facet
+     * @return FacetIndexStats
+     */
+    FacetIndexStats getFacetStats();
+}
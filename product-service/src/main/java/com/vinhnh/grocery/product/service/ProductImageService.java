@@ -0,0 +1,32 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.ImageIngestionStats;
+import com.vinhnh.grocery.product.dto.ProductImageItem;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+/**
+ * Service interface cho upload ảnh variant
+ */
+public interface ProductImageService {
+
+    /**
+     * Lưu ảnh gốc và đưa vào hàng đợi tạo bản gallery / thumbnail.
+     * Kích thước ảnh gốc và các bản thu nhỏ (mỗi bản một ProductImage) được ghi khi xử lý xong.
+     * @param variantId ID của variant
+     * @param file ảnh JPEG, PNG, GIF hoặc BMP
+     * @param altText mô tả ảnh
+     * @param isPrimary ảnh chính của variant
+     * @param displayOrder thứ tự hiển thị
+     * @return ProductImageItem của ảnh gốc (imageType = detail, chưa có width / height)
+     * @throws IllegalArgumentException nếu không tìm thấy variant, file rỗng hoặc không phải ảnh
+     */
+    ProductImageItem upload(UUID variantId, MultipartFile file, String altText, Boolean isPrimary, Integer displayOrder);
+
+    /**
+     * Trạng thái pipeline xử lý ảnh
+     * @return ImageIngestionStats
+     */
+    ImageIngestionStats getIngestionStats();
+}
@@ -0,0 +1,26 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.ProductSearchResponse;
+import com.vinhnh.grocery.product.dto.SearchIndexStats;
+
+/**
+ * Service interface cho tìm kiếm product full-text
+ */
+public interface ProductSearchService {
+
+    /**
+     * Tìm product theo tên, mô tả, category và brand; không phân biệt dấu tiếng Việt
+     * @param query từ khóa, từ cuối được hiểu là tiền tố
+     * @param page số trang (bắt đầu từ 0)
+     * @param size số phần tử mỗi trang (1-100)
+     * @return ProductSearchResponse các product xếp theo độ liên quan
+     * @throws IllegalArgumentException nếu từ khóa rỗng hoặc trang vượt quá 1000 kết quả đầu tiên
+     */
+    ProductSearchResponse search(String query, int page, int size);
+
+    /**
+     * Trạng thái index tìm kiếm
+     * @return SearchIndexStats
+     */
+    SearchIndexStats getIndexStats();
+}
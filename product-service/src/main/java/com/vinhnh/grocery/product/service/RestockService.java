@@ -0,0 +1,20 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.RestockResponse;
+
+import java.io.InputStream;
+
+/**
+ * Service interface cho nhập kho (restock) hàng loạt từ file của kho
+ */
+public interface RestockService {
+
+    /**
+     * Cộng số lượng nhập vào inventory từ CSV có header, mỗi dòng "sku,quantity".
+     * Cả file được áp dụng trong một transaction: dòng không hợp lệ làm hỏng cả file.
+     * @param input nội dung file, được đọc dạng stream
+     * @return RestockResponse kết quả nhập kho
+     * @throws IllegalArgumentException nếu file không hợp lệ hoặc restock làm số lượng nhỏ hơn số đã giữ
+     */
+    RestockResponse restockCsv(InputStream input);
+}
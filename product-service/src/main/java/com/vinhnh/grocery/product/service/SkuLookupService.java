@@ -0,0 +1,33 @@
+package com.vinhnh.grocery.product.service;
+
+import com.vinhnh.grocery.product.dto.SkuLookupStats;
+import com.vinhnh.grocery.product.dto.VariantSkuResponse;
+
+import java.util.List;
+
+/**
+ * Service interface cho tra cứu variant theo SKU (quét mã, nhập kho, đồng bộ từ hệ thống bán hàng)
+ */
+public interface SkuLookupService {
+
+    /**
+     * Tra cứu variant theo SKU
+     * @param sku mã SKU (bỏ khoảng trắng hai đầu)
+     * @return VariantSkuResponse
+     * @throws IllegalArgumentException nếu SKU không tồn tại
+     */
+    VariantSkuResponse resolve(String sku);
+
+    /**
+     * Tra cứu nhiều SKU cùng lúc
+     * @param skus tối đa 500 SKU
+     * @return kết quả theo thứ tự request, SKU không tồn tại có found = false
+     */
+    List<VariantSkuResponse> resolveAll(List<String> skus);
+
+    /**
+     * Trạng thái cache và Bloom filter tra cứu SKU
+     * @return SkuLookupStats
+     */
+    SkuLookupStats getStats();
+}
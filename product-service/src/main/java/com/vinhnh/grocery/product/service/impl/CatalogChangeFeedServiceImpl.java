@@ -0,0 +1,69 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.common.util.CursorCodec;
+import com.vinhnh.grocery.product.changefeed.CatalogChangeLog;
+import com.vinhnh.grocery.product.dto.CatalogChangeFeedResponse;
+import com.vinhnh.grocery.product.dto.CatalogChangeItem;
+import com.vinhnh.grocery.product.service.CatalogChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementation của CatalogChangeFeedService
+ *
+ * Token là cursor (CursorCodec) chứa seq của thay đổi cuối cùng client đã nhận. Mỗi trang là một range scan
+ * trên khóa chính của catalog_change, chi phí theo số thay đổi chứ không theo kích thước catalog.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogChangeFeedServiceImpl implements CatalogChangeFeedService {
+
+    /** Số thay đổi tối đa mỗi lần đọc */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String TOKEN_TYPE = "catalog:changes";
+
+    private final CatalogChangeLog catalogChangeLog;
+
+    @Override
+    public CatalogChangeFeedResponse getChanges(String token, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit phải từ 1 đến " + MAX_PAGE_SIZE);
+        }
+        long after = token == null || token.isBlank() ? 0 : decode(token);
+        log.debug("Reading catalog changes after sequence {} (limit {})", after, limit);
+
+        // Lấy dư một dòng để biết còn thay đổi phía sau hay không
+        List<CatalogChangeItem> rows = catalogChangeLog.readAfter(after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<CatalogChangeItem> changes = hasMore ? rows.subList(0, limit) : rows;
+        long last = changes.isEmpty() ? after : changes.get(changes.size() - 1).getSequence();
+        return new CatalogChangeFeedResponse(List.copyOf(changes), encode(last), hasMore);
+    }
+
+    @Override
+    public String getCurrentToken() {
+        return encode(catalogChangeLog.currentSequence());
+    }
+
+    private static String encode(long sequence) {
+        return CursorCodec.encode(TOKEN_TYPE, Long.toString(sequence));
+    }
+
+    private static long decode(String token) {
+        String value = CursorCodec.decode(token, TOKEN_TYPE, 1)[0];
+        try {
+            long sequence = Long.parseLong(value);
+            if (sequence < 0) {
+                throw new IllegalArgumentException("Token không hợp lệ");
+            }
+            return sequence;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Token không hợp lệ");
+        }
+    }
+}
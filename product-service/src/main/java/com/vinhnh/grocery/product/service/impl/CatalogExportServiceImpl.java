@@ -0,0 +1,154 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.vinhnh.grocery.product.dto.CatalogExportFormat;
+import com.vinhnh.grocery.product.service.CatalogExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Implementation của CatalogExportService
+ *
+ * Một câu query join product / category / brand / variant / inventory, đọc bằng cursor forward-only với
+ * fetch size cố định (PostgreSQL chỉ dùng cursor khi tắt autocommit, nên query chạy trong transaction read-only).
+ * Mỗi dòng được ghi thẳng ra output qua JsonGenerator / CsvGenerator của Jackson, không tạo entity hay DTO:
+ * bộ nhớ chỉ gồm một lô fetch và buffer của generator.
+ */
+@Service
+@Slf4j
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    static final int FETCH_SIZE = 1_000;
+
+    private static final String EXPORT_QUERY = """
+            SELECT p.id, p.name, p.unit, p.is_active, c.id, c.name, b.id, b.branch_name,
+                   v.id, v.sku, v.size, v.color, v.price, v.is_active, i.available_quantity
+            FROM products p
+            JOIN category c ON c.id = p.category_id
+            JOIN branch b ON b.id = p.brand_id
+            LEFT JOIN product_variant v ON v.product_id = p.id
+            LEFT JOIN inventory i ON i.product_variant_id = v.id
+            """;
+
+    private static final String[] COLUMNS = {
+            "productId", "productName", "unit", "productActive", "categoryId", "categoryName", "brandId", "brandName",
+            "variantId", "sku", "size", "color", "price", "variantActive", "availableQuantity"
+    };
+
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final CsvSchema csvSchema;
+
+    public CatalogExportServiceImpl(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper) {
+        this.cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : COLUMNS) {
+            schema.addColumn(column);
+        }
+        this.csvSchema = schema.build().withHeader();
+    }
+
+    @Override
+    public long export(CatalogExportFormat format, OutputStream output) {
+        long started = System.nanoTime();
+        long[] rows = {0};
+        try (JsonGenerator generator = createGenerator(format, output)) {
+            readOnlyTransaction.executeWithoutResult(status -> cursorTemplate.query(EXPORT_QUERY, rs -> {
+                try {
+                    writeRow(generator, format, rs);
+                } catch (IOException e) {
+                    // Client ngắt kết nối: dừng đọc cursor
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Exported {} catalog rows as {} in {} ms", rows[0], format, (System.nanoTime() - started) / 1_000_000);
+        return rows[0];
+    }
+
+    private JsonGenerator createGenerator(CatalogExportFormat format, OutputStream output) throws IOException {
+        JsonGenerator generator;
+        if (format == CatalogExportFormat.CSV) {
+            generator = csvMapper.getFactory().createGenerator(output);
+            generator.setSchema(csvSchema);
+        } else {
+            generator = objectMapper.getFactory().createGenerator(output);
+            generator.setRootValueSeparator(null);
+        }
+        // Output thuộc về caller (response / GZIPOutputStream)
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void writeRow(JsonGenerator generator, CatalogExportFormat format, ResultSet rs)
+            throws IOException, SQLException {
+        generator.writeStartObject();
+        writeUuid(generator, COLUMNS[0], rs.getObject(1, UUID.class));
+        generator.writeStringField(COLUMNS[1], rs.getString(2));
+        generator.writeStringField(COLUMNS[2], rs.getString(3));
+        generator.writeBooleanField(COLUMNS[3], rs.getBoolean(4));
+        writeUuid(generator, COLUMNS[4], rs.getObject(5, UUID.class));
+        generator.writeStringField(COLUMNS[5], rs.getString(6));
+        writeUuid(generator, COLUMNS[6], rs.getObject(7, UUID.class));
+        generator.writeStringField(COLUMNS[7], rs.getString(8));
+        UUID variantId = rs.getObject(9, UUID.class);
+        writeUuid(generator, COLUMNS[8], variantId);
+        generator.writeStringField(COLUMNS[9], rs.getString(10));
+        generator.writeStringField(COLUMNS[10], rs.getString(11));
+        generator.writeStringField(COLUMNS[11], rs.getString(12));
+        BigDecimal price = rs.getBigDecimal(13);
+        if (price == null) {
+            generator.writeNullField(COLUMNS[12]);
+        } else {
+            generator.writeNumberField(COLUMNS[12], price);
+        }
+        if (variantId == null) {
+            generator.writeNullField(COLUMNS[13]);
+        } else {
+            generator.writeBooleanField(COLUMNS[13], rs.getBoolean(14));
+        }
+        int available = rs.getInt(15);
+        if (rs.wasNull()) {
+            generator.writeNullField(COLUMNS[14]);
+        } else {
+            generator.writeNumberField(COLUMNS[14], available);
+        }
+        generator.writeEndObject();
+        if (format == CatalogExportFormat.NDJSON) {
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static void writeUuid(JsonGenerator generator, String field, UUID value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value.toString());
+        }
+    }
+}
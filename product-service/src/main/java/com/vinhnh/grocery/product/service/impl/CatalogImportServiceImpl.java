@@ -0,0 +1,529 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.vinhnh.grocery.product.cache.CategoryChangedEvent;
+import com.vinhnh.grocery.product.cache.QueryCacheInvalidator;
+import com.vinhnh.grocery.product.changefeed.CatalogChangeEntry;
+import com.vinhnh.grocery.product.changefeed.CatalogChangeLog;
+import com.vinhnh.grocery.product.dto.CatalogChangeType;
+import com.vinhnh.grocery.product.dto.CatalogImportResponse;
+import com.vinhnh.grocery.product.dto.CatalogImportRow;
+import com.vinhnh.grocery.product.dto.CatalogImportRowResult;
+import com.vinhnh.grocery.product.dto.CatalogImportType;
+import com.vinhnh.grocery.product.repository.BranchRepository;
+import com.vinhnh.grocery.product.repository.CategoryRepository;
+import com.vinhnh.grocery.product.repository.ProductRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.repository.projection.NameIdRow;
+import com.vinhnh.grocery.product.search.ProductChangedEvent;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.sku.SkuCreatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Implementation của CatalogImportService
+ *
+ * File được đọc dạng stream và xử lý theo từng chunk CHUNK_SIZE dòng, mỗi chunk một transaction:
+ * 1. Resolve tất cả tham chiếu (category cha, brand, product, SKU đã tồn tại) bằng một query IN cho mỗi loại
+ * 2. Sinh UUID phía client nên không cần round trip lấy id sau mỗi insert
+ * 3. Insert bằng JDBC batch theo thứ tự brand → category → product → variant
+ *
+ * Dòng đã tồn tại (trùng tên / SKU) được đánh dấu SKIPPED nên có thể chạy lại cùng một file.
+ */
+@Service
+@Slf4j
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String INSERT_BRAND = """
+            INSERT INTO branch (id, branch_name, description, logo_url, website_url,
+                                created_at, updated_at, created_by, updated_by, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true)
+            """;
+
+    private static final String INSERT_CATEGORY = """
+            INSERT INTO category (id, name, description, parent_id, display_order,
+                                  created_at, updated_at, created_by, updated_by, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true)
+            """;
+
+    private static final String INSERT_PRODUCT = """
+            INSERT INTO products (id, name, description, unit, category_id, brand_id,
+                                  created_at, updated_at, created_by, updated_by, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true)
+            """;
+
+    private static final String INSERT_VARIANT = """
+            INSERT INTO product_variant (id, product_id, size, color, price, sku, weight, dimensions,
+                                         created_at, updated_at, created_by, updated_by, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true)
+            """;
+
+    private final CategoryRepository categoryRepository;
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogChangeLog catalogChangeLog;
+    private final QueryCacheInvalidator queryCacheInvalidator;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+
+    public CatalogImportServiceImpl(CategoryRepository categoryRepository,
+                                    BranchRepository branchRepository,
+                                    ProductRepository productRepository,
+                                    ProductVariantRepository productVariantRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    AuditorAware<String> auditorAware,
+                                    ApplicationEventPublisher eventPublisher,
+                                    CatalogChangeLog catalogChangeLog,
+                                    QueryCacheInvalidator queryCacheInvalidator,
+                                    ObjectMapper objectMapper) {
+        this.categoryRepository = categoryRepository;
+        this.branchRepository = branchRepository;
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.auditorAware = auditorAware;
+        this.eventPublisher = eventPublisher;
+        this.catalogChangeLog = catalogChangeLog;
+        this.queryCacheInvalidator = queryCacheInvalidator;
+        this.ndjsonReader = objectMapper.readerFor(CatalogImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        CsvMapper csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .build();
+        this.csvReader = csvMapper.readerFor(CatalogImportRow.class)
+                .with(CsvSchema.emptySchema().withHeader());
+    }
+
+    @Override
+    public CatalogImportResponse importNdjson(InputStream input) {
+        log.info("Starting NDJSON catalog import");
+        ImportSession session = new ImportSession();
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    session.add(lineNumber, ndjsonReader.readValue(line));
+                } catch (JsonProcessingException ex) {
+                    session.fail(lineNumber, null, null, "Dòng không phải JSON hợp lệ: " + ex.getOriginalMessage());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Không đọc được nội dung import", ex);
+        }
+
+        return session.finish();
+    }
+
+    @Override
+    public CatalogImportResponse importCsv(InputStream input) {
+        log.info("Starting CSV catalog import");
+        ImportSession session = new ImportSession();
+
+        try (MappingIterator<CatalogImportRow> rows = csvReader.readValues(input)) {
+            while (rows.hasNextValue()) {
+                long lineNumber = rows.getCurrentLocation().getLineNr();
+                try {
+                    session.add(lineNumber, rows.nextValue());
+                } catch (DatabindException ex) {
+                    // Giá trị sai kiểu (ví dụ price không phải số): chỉ bỏ dòng này
+                    session.fail(lineNumber, null, null, "Dòng CSV không hợp lệ: " + ex.getOriginalMessage());
+                }
+            }
+        } catch (DatabindException ex) {
+            throw new IllegalArgumentException("File CSV không hợp lệ: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Không đọc được nội dung import", ex);
+        }
+
+        return session.finish();
+    }
+
+    /**
+     * Trạng thái của một lần import: tham chiếu đã biết (từ database hoặc đã import), chunk hiện tại và kết quả
+     */
+    private final class ImportSession {
+
+        private final long startNanos = System.nanoTime();
+        private final Map<String, UUID> brandIds = new HashMap<>();
+        private final Map<String, UUID> categoryIds = new HashMap<>();
+        private final Map<String, UUID> productIds = new HashMap<>();
+        private final Map<String, UUID> variantIds = new HashMap<>();
+        private final List<CatalogImportRowResult> results = new ArrayList<>();
+        private final List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final String auditor = auditorAware.getCurrentAuditor().orElse(null);
+
+        void add(long line, CatalogImportRow row) {
+            chunk.add(new PendingRow(line, row));
+            if (chunk.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void fail(long line, CatalogImportType type, String key, String message) {
+            results.add(new CatalogImportRowResult(line, type, key, CatalogImportRowResult.FAILED, null, message));
+        }
+
+        CatalogImportResponse finish() {
+            flush();
+
+            int created = 0;
+            int skipped = 0;
+            int failed = 0;
+            for (CatalogImportRowResult result : results) {
+                switch (result.getStatus()) {
+                    case CatalogImportRowResult.CREATED -> created++;
+                    case CatalogImportRowResult.SKIPPED -> skipped++;
+                    default -> failed++;
+                }
+            }
+            results.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+
+            long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            log.info("Catalog import finished: {} rows, {} created, {} skipped, {} failed in {} ms",
+                    results.size(), created, skipped, failed, durationMillis);
+            return new CatalogImportResponse(results.size(), created, skipped, failed, durationMillis, results);
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<PendingRow> rows = List.copyOf(chunk);
+            chunk.clear();
+
+            ChunkPlan plan = new ChunkPlan();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    resolveReferences(rows);
+                    plan(rows, plan);
+                    plan.execute();
+                });
+                results.addAll(plan.results);
+            } catch (RuntimeException ex) {
+                log.error("Catalog import chunk failed: {}", ex.getMessage());
+                // Chunk bị rollback: bỏ các id đã đăng ký trong chunk và đánh dấu các dòng định tạo là FAILED
+                plan.rollbackRegistrations();
+                for (CatalogImportRowResult result : plan.results) {
+                    if (CatalogImportRowResult.CREATED.equals(result.getStatus())) {
+                        result.setStatus(CatalogImportRowResult.FAILED);
+                        result.setId(null);
+                        result.setMessage("Lỗi khi ghi database: " + rootMessage(ex));
+                    }
+                    results.add(result);
+                }
+            }
+        }
+
+        /**
+         * Một query IN cho mỗi loại tham chiếu chưa biết trong chunk
+         */
+        private void resolveReferences(List<PendingRow> rows) {
+            Set<String> brands = new HashSet<>();
+            Set<String> categories = new HashSet<>();
+            Set<String> products = new HashSet<>();
+            Set<String> skus = new HashSet<>();
+
+            for (PendingRow pending : rows) {
+                CatalogImportRow row = pending.row();
+                if (row.getType() == null) {
+                    continue;
+                }
+                switch (row.getType()) {
+                    case BRAND -> addKey(brands, brandIds, row.getName());
+                    case CATEGORY -> {
+                        addKey(categories, categoryIds, row.getName());
+                        addKey(categories, categoryIds, row.getParent());
+                    }
+                    case PRODUCT -> {
+                        addKey(products, productIds, row.getName());
+                        addKey(categories, categoryIds, row.getCategory());
+                        addKey(brands, brandIds, row.getBrand());
+                    }
+                    case VARIANT -> {
+                        addKey(products, productIds, row.getProduct());
+                        if (row.getSku() != null && !variantIds.containsKey(row.getSku().trim())) {
+                            skus.add(row.getSku().trim());
+                        }
+                    }
+                }
+            }
+
+            load(brands, brandIds, branchRepository::findActiveIdsByLowerNameIn);
+            load(categories, categoryIds, categoryRepository::findActiveIdsByLowerNameIn);
+            load(products, productIds, productRepository::findActiveIdsByLowerNameIn);
+            load(skus, variantIds, productVariantRepository::findIdsBySkuIn);
+        }
+
+        private void addKey(Set<String> keys, Map<String, UUID> known, String name) {
+            String key = normalize(name);
+            if (key != null && !known.containsKey(key)) {
+                keys.add(key);
+            }
+        }
+
+        private void load(Set<String> keys, Map<String, UUID> target,
+                          Function<Collection<String>, List<NameIdRow>> query) {
+            if (keys.isEmpty()) {
+                return;
+            }
+            for (NameIdRow row : query.apply(keys)) {
+                target.putIfAbsent(row.getName(), row.getId());
+            }
+        }
+
+        /**
+         * Duyệt các dòng theo thứ tự trong file, quyết định CREATED / SKIPPED / FAILED và gom tham số batch
+         */
+        private void plan(List<PendingRow> rows, ChunkPlan plan) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            for (PendingRow pending : rows) {
+                long line = pending.line();
+                CatalogImportRow row = pending.row();
+                CatalogImportType type = row.getType();
+                if (type == null) {
+                    plan.fail(line, null, null, "Thiếu type (BRAND, CATEGORY, PRODUCT, VARIANT)");
+                    continue;
+                }
+
+                switch (type) {
+                    case BRAND -> {
+                        String key = normalize(row.getName());
+                        if (key == null) {
+                            plan.fail(line, type, null, "Tên brand không được để trống");
+                        } else if (brandIds.containsKey(key)) {
+                            plan.skip(line, type, row.getName(), brandIds.get(key));
+                        } else {
+                            UUID id = plan.register(brandIds, key);
+                            plan.brands.add(new Object[]{id, row.getName().trim(), row.getDescription(),
+                                    row.getLogoUrl(), row.getWebsiteUrl(), now, now, auditor, auditor});
+                            plan.create(line, type, row.getName(), id);
+                        }
+                    }
+                    case CATEGORY -> {
+                        String key = normalize(row.getName());
+                        String parentKey = normalize(row.getParent());
+                        if (key == null || key.length() < 2 || key.length() > 100) {
+                            plan.fail(line, type, row.getName(), "Tên category phải từ 2-100 ký tự");
+                        } else if (categoryIds.containsKey(key)) {
+                            plan.skip(line, type, row.getName(), categoryIds.get(key));
+                        } else if (parentKey != null && !categoryIds.containsKey(parentKey)) {
+                            plan.fail(line, type, row.getName(), "Parent category không tồn tại: " + row.getParent());
+                        } else {
+                            UUID id = plan.register(categoryIds, key);
+                            UUID parentId = parentKey == null ? null : categoryIds.get(parentKey);
+                            int displayOrder = row.getDisplayOrder() != null ? row.getDisplayOrder() : 0;
+                            plan.categories.add(new Object[]{id, row.getName().trim(), row.getDescription(),
+                                    parentId, displayOrder, now, now, auditor, auditor});
+                            plan.create(line, type, row.getName(), id);
+                        }
+                    }
+                    case PRODUCT -> {
+                        String key = normalize(row.getName());
+                        UUID categoryId = categoryIds.get(normalize(row.getCategory()));
+                        UUID brandId = brandIds.get(normalize(row.getBrand()));
+                        if (key == null) {
+                            plan.fail(line, type, null, "Tên product không được để trống");
+                        } else if (productIds.containsKey(key)) {
+                            plan.skip(line, type, row.getName(), productIds.get(key));
+                        } else if (categoryId == null) {
+                            plan.fail(line, type, row.getName(), "Category không tồn tại: " + row.getCategory());
+                        } else if (brandId == null) {
+                            plan.fail(line, type, row.getName(), "Brand không tồn tại: " + row.getBrand());
+                        } else {
+                            UUID id = plan.register(productIds, key);
+                            plan.products.add(new Object[]{id, row.getName().trim(), row.getDescription(),
+                                    row.getUnit(), categoryId, brandId, now, now, auditor, auditor});
+                            plan.create(line, type, row.getName(), id);
+                        }
+                    }
+                    case VARIANT -> {
+                        String sku = row.getSku() == null || row.getSku().isBlank() ? null : row.getSku().trim();
+                        UUID productId = productIds.get(normalize(row.getProduct()));
+                        if (sku == null) {
+                            plan.fail(line, type, null, "SKU không được để trống");
+                        } else if (variantIds.containsKey(sku)) {
+                            plan.skip(line, type, sku, variantIds.get(sku));
+                        } else if (productId == null) {
+                            plan.fail(line, type, sku, "Product không tồn tại: " + row.getProduct());
+                        } else if (row.getPrice() == null || row.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+                            plan.fail(line, type, sku, "Giá variant không hợp lệ");
+                        } else {
+                            UUID id = plan.register(variantIds, sku);
+                            plan.variants.add(new Object[]{id, productId, row.getSize(), row.getColor(),
+                                    row.getPrice(), sku, row.getWeight(), row.getDimensions(), now, now, auditor, auditor});
+                            plan.create(line, type, sku, id);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Các insert và kết quả của một chunk
+         */
+        private final class ChunkPlan {
+
+            private final List<Object[]> brands = new ArrayList<>();
+            private final List<Object[]> categories = new ArrayList<>();
+            private final List<Object[]> products = new ArrayList<>();
+            private final List<Object[]> variants = new ArrayList<>();
+            private final List<CatalogImportRowResult> results = new ArrayList<>();
+            private final List<Map.Entry<Map<String, UUID>, String>> registrations = new ArrayList<>();
+
+            UUID register(Map<String, UUID> target, String key) {
+                UUID id = UUID.randomUUID();
+                target.put(key, id);
+                registrations.add(Map.entry(target, key));
+                return id;
+            }
+
+            void rollbackRegistrations() {
+                registrations.forEach(entry -> entry.getKey().remove(entry.getValue()));
+                registrations.clear();
+            }
+
+            void create(long line, CatalogImportType type, String key, UUID id) {
+                results.add(new CatalogImportRowResult(line, type, key, CatalogImportRowResult.CREATED, id, null));
+            }
+
+            void skip(long line, CatalogImportType type, String key, UUID id) {
+                results.add(new CatalogImportRowResult(line, type, key, CatalogImportRowResult.SKIPPED, id, "Đã tồn tại"));
+            }
+
+            void fail(long line, CatalogImportType type, String key, String message) {
+                results.add(new CatalogImportRowResult(line, type, key, CatalogImportRowResult.FAILED, null, message));
+            }
+
+            void execute() {
+                // Thứ tự insert theo quan hệ khóa ngoại
+                batch(INSERT_BRAND, brands);
+                batch(INSERT_CATEGORY, categories);
+                batch(INSERT_PRODUCT, products);
+                batch(INSERT_VARIANT, variants);
+                invalidateQueryCache();
+
+                if (!variants.isEmpty()) {
+                    // Trước commit: SKU phải có trong Bloom filter trước khi transaction khác thấy được variant
+                    List<String> skus = variants.stream().map(args -> (String) args[5]).toList();
+                    eventPublisher.publishEvent(new SkuCreatedEvent(skus));
+                }
+                if (!categories.isEmpty()) {
+                    eventPublisher.publishEvent(new CategoryChangedEvent(null));
+                }
+                // Variant mới đổi khoảng giá của product cha (facet giá), kể cả product đã có từ trước
+                Set<UUID> changedProducts = new HashSet<>();
+                products.forEach(args -> changedProducts.add((UUID) args[0]));
+                variants.forEach(args -> changedProducts.add((UUID) args[1]));
+                if (!changedProducts.isEmpty()) {
+                    eventPublisher.publishEvent(new ProductChangedEvent(changedProducts));
+                }
+                recordChanges();
+            }
+
+            /**
+             * Insert bằng JDBC không qua Hibernate: tự đánh dấu query cache trên branch / category là cũ
+             */
+            private void invalidateQueryCache() {
+                List<String> tables = new ArrayList<>(2);
+                if (!brands.isEmpty()) {
+                    tables.add("branch");
+                }
+                if (!categories.isEmpty()) {
+                    tables.add("category");
+                }
+                if (!tables.isEmpty()) {
+                    queryCacheInvalidator.invalidate(tables.toArray(String[]::new));
+                }
+            }
+
+            /**
+             * Ghi category / product / variant vừa insert vào change log, trong transaction của chunk
+             */
+            private void recordChanges() {
+                List<CatalogChangeEntry> changes = new ArrayList<>(categories.size() + products.size() + variants.size());
+                categories.forEach(args -> changes.add(
+                        CatalogChangeEntry.category((UUID) args[0], (UUID) args[3], CatalogChangeType.CREATED)));
+                products.forEach(args -> changes.add(
+                        CatalogChangeEntry.product((UUID) args[0], (UUID) args[4], CatalogChangeType.CREATED)));
+                variants.forEach(args -> changes.add(CatalogChangeEntry.variant((UUID) args[0], (UUID) args[1],
+                        (BigDecimal) args[4], CatalogChangeType.CREATED)));
+                catalogChangeLog.recordAll(changes);
+            }
+
+            private void batch(String sql, List<Object[]> args) {
+                if (!args.isEmpty()) {
+                    jdbcTemplate.batchUpdate(sql, args);
+                }
+            }
+        }
+    }
+
+    private record PendingRow(long line, CatalogImportRow row) {
+    }
+
+    private static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -1,21 +1,42 @@
 package com.vinhnh.grocery.product.service.impl;
 
+import com.vinhnh.grocery.product.cache.CategoryChangedEvent;
+import com.vinhnh.grocery.product.cache.CategorySnapshotHolder;
+import com.vinhnh.grocery.common.dto.CursorPage;
+import com.vinhnh.grocery.common.dto.ResourceVersion;
+import com.vinhnh.grocery.common.util.CursorCodec;
+import com.vinhnh.grocery.product.changefeed.CatalogChangeEntry;
+import com.vinhnh.grocery.product.changefeed.CatalogChangeLog;
+import com.vinhnh.grocery.product.dto.CatalogChangeType;
 import com.vinhnh.grocery.product.dto.CategoryCreateRequest;
+import com.vinhnh.grocery.product.dto.CategoryCursorSort;
 import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategorySnapshotStats;
+import com.vinhnh.grocery.product.dto.CategoryTreeNode;
 import com.vinhnh.grocery.product.dto.CategoryUpdateRequest;
 import com.vinhnh.grocery.product.entity.Category;
+import com.vinhnh.grocery.product.mapper.CategoryMapper;
 import com.vinhnh.grocery.product.repository.CategoryRepository;
+import com.vinhnh.grocery.product.repository.projection.CategoryTreeRow;
+import com.vinhnh.grocery.product.repository.projection.VersionRow;
 import com.vinhnh.grocery.product.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Implementation của CategoryService
@@ -27,7 +48,19 @@ import java.util.stream.Collectors;
 @Transactional
 public class CategoryServiceImpl implements CategoryService {
 
+    /** Độ sâu tối đa cho phép khi lấy cây category */
+    public static final int MAX_TREE_DEPTH = 10;
+
+    /** Số phần tử tối đa mỗi trang khi phân trang theo cursor */
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final String CURSOR_DISPLAY_ORDER = "category:display_order";
+    private static final String CURSOR_UPDATED_AT = "category:updated_at";
+
     private final CategoryRepository categoryRepository;
+    private final CategorySnapshotHolder categorySnapshotHolder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogChangeLog catalogChangeLog;
 
     @Override
     public CategoryResponse createCategory(CategoryCreateRequest request) {
@@ -52,9 +85,11 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
+        recordChange(savedCategory, CatalogChangeType.CREATED);
         log.info("Created category with ID: {}", savedCategory.getId());
         
-        return mapToResponse(savedCategory);
+        return CategoryMapper.toResponse(savedCategory);
     }
 
     @Override
@@ -65,7 +100,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Category không tồn tại với ID: " + id));
         
-        return mapToResponse(category);
+        return CategoryMapper.toResponse(category);
     }
 
     @Override
@@ -73,8 +108,52 @@ public class CategoryServiceImpl implements CategoryService {
     public Page<CategoryResponse> getAllCategories(Pageable pageable) {
         log.info("Getting all categories with pagination");
         
-        Page<Category> categories = categoryRepository.findAll(pageable);
-        return categories.map(this::mapToResponse);
+        // DTO projection: parent được join trong cùng câu query, không lazy load từng dòng
+        return categoryRepository.findAllResponses(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CategoryResponse> getCategorySlice(Pageable pageable) {
+        log.info("Getting categories slice without total count");
+        
+        return categoryRepository.findAllResponsesSlice(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CategoryResponse> getCategoriesByCursor(String cursor, CategoryCursorSort sort, int size) {
+        log.info("Getting categories by cursor, sort: {}, size: {}", sort, size);
+
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("size phải nằm trong khoảng 1-" + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        // Lấy dư một phần tử để biết còn trang sau hay không
+        Limit limit = Limit.of(size + 1);
+        boolean firstPage = cursor == null || cursor.isBlank();
+
+        if (sort == CategoryCursorSort.UPDATED_AT) {
+            List<CategoryResponse> rows;
+            if (firstPage) {
+                rows = categoryRepository.findFirstByUpdatedAt(limit);
+            } else {
+                String[] keys = CursorCodec.decode(cursor, CURSOR_UPDATED_AT, 2);
+                rows = categoryRepository.findAfterByUpdatedAt(parseCursorTimestamp(keys[0]), parseCursorId(keys[1]), limit);
+            }
+            return CursorPage.of(rows, size, last -> CursorCodec.encode(CURSOR_UPDATED_AT,
+                    last.getUpdatedAt().toString(), last.getId().toString()));
+        }
+
+        List<CategoryResponse> rows;
+        if (firstPage) {
+            rows = categoryRepository.findFirstByDisplayOrder(limit);
+        } else {
+            String[] keys = CursorCodec.decode(cursor, CURSOR_DISPLAY_ORDER, 2);
+            rows = categoryRepository.findAfterByDisplayOrder(parseCursorInt(keys[0]), parseCursorId(keys[1]), limit);
+        }
+        return CursorPage.of(rows, size, last -> CursorCodec.encode(CURSOR_DISPLAY_ORDER,
+                String.valueOf(last.getDisplayOrder() != null ? last.getDisplayOrder() : 0), last.getId().toString()));
     }
 
     @Override
@@ -82,13 +161,8 @@ public class CategoryServiceImpl implements CategoryService {
     public List<CategoryResponse> getAllActiveCategories() {
         log.info("Getting all active categories");
         
-        List<Category> categories = categoryRepository.findAll().stream()
-                .filter(Category::getIsActive)
-                .collect(Collectors.toList());
-        
-        return categories.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        // Đọc từ snapshot trong bộ nhớ, chỉ truy vấn database khi snapshot đã bị invalidate
+        return categorySnapshotHolder.current().getActiveCategories();
     }
 
     @Override
@@ -96,12 +170,9 @@ public class CategoryServiceImpl implements CategoryService {
     public CategoryResponse getCategoryByName(String name) {
         log.info("Getting category by name: {}", name);
         
-        Category category = categoryRepository.findAll().stream()
-                .filter(c -> c.getName().equalsIgnoreCase(name) && c.getIsActive())
+        return categoryRepository.findActiveResponsesByNameIgnoreCase(name).stream()
                 .findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("Category không tồn tại với tên: " + name));
-        
-        return mapToResponse(category);
     }
 
     @Override
@@ -109,13 +180,28 @@ public class CategoryServiceImpl implements CategoryService {
     public List<CategoryResponse> searchCategoriesByName(String name) {
         log.info("Searching categories by name: {}", name);
         
-        List<Category> categories = categoryRepository.findAll().stream()
-                .filter(c -> c.getName().toLowerCase().contains(name.toLowerCase()) && c.getIsActive())
-                .collect(Collectors.toList());
-        
-        return categories.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return categoryRepository.searchActiveResponsesByName(escapeLikePattern(name));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryTreeNode> getCategoryTree(UUID rootId, int maxDepth) {
+        log.info("Getting category tree from root: {}, maxDepth: {}", rootId, maxDepth);
+
+        if (maxDepth < 0 || maxDepth > MAX_TREE_DEPTH) {
+            throw new IllegalArgumentException("maxDepth phải nằm trong khoảng 0-" + MAX_TREE_DEPTH);
+        }
+
+        // Một câu query duy nhất (recursive CTE) cho toàn bộ cây con
+        List<CategoryTreeRow> rows = rootId == null
+                ? categoryRepository.findActiveTree(maxDepth)
+                : categoryRepository.findActiveSubtree(rootId, maxDepth);
+
+        if (rootId != null && rows.isEmpty()) {
+            throw new IllegalArgumentException("Category không tồn tại với ID: " + rootId);
+        }
+
+        return buildTree(rows);
     }
 
     @Override
@@ -150,9 +236,11 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(updatedCategory.getId()));
+        recordChange(updatedCategory, CatalogChangeType.UPDATED);
         log.info("Updated category with ID: {}", updatedCategory.getId());
         
-        return mapToResponse(updatedCategory);
+        return CategoryMapper.toResponse(updatedCategory);
     }
 
     @Override
@@ -165,6 +253,8 @@ public class CategoryServiceImpl implements CategoryService {
         // Soft delete
         category.setIsActive(false);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        recordChange(category, CatalogChangeType.DEACTIVATED);
         
         log.info("Deleted category with ID: {}", id);
     }
@@ -178,9 +268,11 @@ public class CategoryServiceImpl implements CategoryService {
         
         category.setIsActive(true);
         Category activatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(activatedCategory.getId()));
+        recordChange(activatedCategory, CatalogChangeType.UPDATED);
         
         log.info("Activated category with ID: {}", id);
-        return mapToResponse(activatedCategory);
+        return CategoryMapper.toResponse(activatedCategory);
     }
 
     @Override
@@ -192,9 +284,11 @@ public class CategoryServiceImpl implements CategoryService {
         
         category.setIsActive(false);
         Category deactivatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(deactivatedCategory.getId()));
+        recordChange(deactivatedCategory, CatalogChangeType.DEACTIVATED);
         
         log.info("Deactivated category with ID: {}", id);
-        return mapToResponse(deactivatedCategory);
+        return CategoryMapper.toResponse(deactivatedCategory);
     }
 
     @Override
@@ -206,39 +300,105 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     @Transactional(readOnly = true)
     public boolean existsByName(String name) {
-        return categoryRepository.findAll().stream()
-                .anyMatch(c -> c.getName().equalsIgnoreCase(name) && c.getIsActive());
+        return categoryRepository.existsActiveByNameIgnoreCase(name);
     }
 
     @Override
     @Transactional(readOnly = true)
     public long countActiveCategories() {
-        return categoryRepository.findAll().stream()
-                .filter(Category::getIsActive)
-                .count();
+        return categoryRepository.countByIsActiveTrue();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CategorySnapshotStats getActiveSnapshotStats() {
+        return categorySnapshotHolder.getStats();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getCategoryVersion(UUID id) {
+        LocalDateTime lastModified = categoryRepository.findLastModifiedById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Category không tồn tại với ID: " + id));
+        return ResourceVersion.of(id.toString(), lastModified);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getCategoriesVersion() {
+        VersionRow version = categoryRepository.findTableVersion();
+        return ResourceVersion.of("categories", version.getTotal(), version.getLastModified());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getActiveCategoriesVersion() {
+        return categorySnapshotHolder.current().getResourceVersion();
     }
 
     /**
-     * Map Category entity sang CategoryResponse DTO
+     * Dựng cây lồng nhau trong một lượt duyệt.
+     * Các dòng đã được sắp xếp theo depth nên node cha luôn được tạo trước node con.
+     * Node xuất hiện lại (dữ liệu parent bị vòng lặp) sẽ bị bỏ qua.
      */
-    private CategoryResponse mapToResponse(Category category) {
-        CategoryResponse response = new CategoryResponse();
-        response.setId(category.getId());
-        response.setName(category.getName());
-        response.setDescription(category.getDescription());
-        response.setDisplayOrder(category.getDisplayOrder());
-        response.setIsActive(category.getIsActive());
-        response.setCreatedAt(category.getCreatedAt());
-        response.setUpdatedAt(category.getUpdatedAt());
-        response.setCreatedBy(category.getCreatedBy());
-        response.setUpdatedBy(category.getUpdatedBy());
-        
-        // Set parent info nếu có
-        if (category.getParent() != null) {
-            response.setParentId(category.getParent().getId());
-            response.setParentName(category.getParent().getName());
+    private List<CategoryTreeNode> buildTree(List<CategoryTreeRow> rows) {
+        Map<UUID, CategoryTreeNode> nodes = new HashMap<>(Math.max(16, rows.size() * 4 / 3 + 1));
+        List<CategoryTreeNode> roots = new ArrayList<>();
+
+        for (CategoryTreeRow row : rows) {
+            if (nodes.containsKey(row.getId())) {
+                continue;
+            }
+            CategoryTreeNode node = new CategoryTreeNode(row.getId(), row.getName(), row.getDescription(),
+                    row.getDisplayOrder(), row.getDepth(), new ArrayList<>());
+            nodes.put(row.getId(), node);
+
+            CategoryTreeNode parent = row.getDepth() == 0 ? null : nodes.get(row.getParentId());
+            if (parent == null) {
+                roots.add(node);
+            } else {
+                parent.getChildren().add(node);
+            }
         }
-        
-        return response;
+
+        return roots;
+    }
+
+    private UUID parseCursorId(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+    }
+
+    private int parseCursorInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+    }
+
+    private LocalDateTime parseCursorTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+    }
+
+    private void recordChange(Category category, CatalogChangeType changeType) {
+        UUID parentId = category.getParent() == null ? null : category.getParent().getId();
+        catalogChangeLog.record(CatalogChangeEntry.category(category.getId(), parentId, changeType));
+    }
+
+    /**
+     * Escape các ký tự đặc biệt của LIKE để từ khóa được so khớp nguyên văn
+     */
+    private String escapeLikePattern(String keyword) {
+        return keyword.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 }
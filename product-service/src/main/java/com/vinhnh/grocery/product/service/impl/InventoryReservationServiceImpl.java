@@ -0,0 +1,210 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.StockReservationLine;
+import com.vinhnh.grocery.product.dto.StockReservationRequest;
+import com.vinhnh.grocery.product.dto.StockReservationResponse;
+import com.vinhnh.grocery.product.inventory.HoldCreatedEvent;
+import com.vinhnh.grocery.product.inventory.HoldExpiryProperties;
+import com.vinhnh.grocery.product.inventory.InventoryChangedEvent;
+import com.vinhnh.grocery.product.inventory.InventoryDelta;
+import com.vinhnh.grocery.product.service.InventoryReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Implementation của InventoryReservationService
+ *
+ * Mỗi dòng là một câu UPDATE có điều kiện, chỉ thành công khi còn đủ hàng tại thời điểm ghi.
+ * Tất cả các dòng được gửi trong một JDBC batch (một round trip), không load entity Inventory.
+ * Database tự serialize các UPDATE trên cùng một dòng nên không có lost update; dòng nào trả về
+ * 0 row (không đủ hàng hoặc không có inventory) làm cả transaction rollback.
+ *
+ * Hàng đã giữ được ghi vào inventory_hold trong cùng transaction và trả lại khi hold bị hủy,
+ * được xác nhận, hoặc hết hạn (HoldExpiryScheduler).
+ *
+ * Đây là đường giữ hàng duy nhất của ứng dụng: điều kiện tồn kho được kiểm tra trong database, không dựa vào
+ * counter trong bộ nhớ. ReservationEngine (tắt mặc định) không được bật trên instance phục vụ API này: engine chỉ
+ * biết các hold ở đây sau khi commit, trong khoảng đó counter của nó cao hơn thực tế.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryReservationServiceImpl implements InventoryReservationService {
+
+    private static final String GUARDED_RESERVE = """
+            UPDATE inventory
+            SET reserved_quantity = reserved_quantity + ?,
+                available_quantity = quantity - reserved_quantity - ?,
+                updated_at = ?
+            WHERE product_variant_id = ?
+              AND quantity - reserved_quantity >= ?
+            """;
+
+    private static final String INSERT_HOLD = """
+            INSERT INTO inventory_hold (id, hold_id, product_variant_id, quantity, expires_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String SETTLE_HOLD = """
+            UPDATE inventory
+            SET quantity = quantity - ?,
+                reserved_quantity = reserved_quantity - ?,
+                available_quantity = quantity - ? - (reserved_quantity - ?),
+                updated_at = ?
+            WHERE product_variant_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HoldExpiryProperties holdExpiryProperties;
+
+    @Override
+    @Transactional
+    public StockReservationResponse reserve(StockReservationRequest request) {
+        Duration ttl = holdTtl(request.getHoldSeconds());
+
+        // Gộp các dòng trùng variant và sắp xếp theo id: mọi transaction lock các dòng inventory
+        // theo cùng một thứ tự nên hai đơn hàng chứa cùng các variant không deadlock
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        for (StockReservationLine line : request.getLines()) {
+            quantities.merge(line.getProductVariantId(), line.getQuantity(), Math::addExact);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        quantities.forEach((variantId, quantity) ->
+                args.add(new Object[]{quantity, quantity, timestamp, variantId, quantity}));
+        int[] updated = jdbcTemplate.batchUpdate(GUARDED_RESERVE, args);
+
+        List<UUID> rejected = new ArrayList<>();
+        List<StockReservationLine> lines = new ArrayList<>(quantities.size());
+        List<InventoryDelta> deltas = new ArrayList<>(quantities.size());
+        int index = 0;
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            if (updated[index++] == 0) {
+                rejected.add(entry.getKey());
+            }
+            lines.add(new StockReservationLine(entry.getKey(), entry.getValue()));
+            deltas.add(new InventoryDelta(entry.getKey(), 0, entry.getValue()));
+        }
+        if (!rejected.isEmpty()) {
+            // RuntimeException: các dòng đã UPDATE trong batch được rollback
+            throw new IllegalArgumentException("Không đủ hàng hoặc không có tồn kho cho variant: " + rejected);
+        }
+
+        UUID holdId = UUID.randomUUID();
+        LocalDateTime expiresAt = now.plus(ttl);
+        Timestamp expiresAtTimestamp = Timestamp.valueOf(expiresAt);
+        List<Object[]> holdArgs = new ArrayList<>(lines.size());
+        for (StockReservationLine line : lines) {
+            holdArgs.add(new Object[]{UUID.randomUUID(), holdId, line.getProductVariantId(), line.getQuantity(), expiresAtTimestamp});
+        }
+        jdbcTemplate.batchUpdate(INSERT_HOLD, holdArgs);
+
+        eventPublisher.publishEvent(new InventoryChangedEvent(this, deltas));
+        eventPublisher.publishEvent(new HoldCreatedEvent(holdId, expiresAt));
+        log.debug("Reserved stock for {} variants, hold {} expires at {}", lines.size(), holdId, expiresAt);
+        return new StockReservationResponse(holdId, lines, now, expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public void release(UUID holdId) {
+        // Hold đã hết hạn nhưng chưa được trả lại vẫn hủy được: kết quả giống như khi hết hạn
+        if (settle(List.of(holdId), false, false) == 0) {
+            throw new IllegalArgumentException("Hold không tồn tại hoặc đã hết hạn: " + holdId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void confirm(UUID holdId) {
+        // Hold đã quá expires_at không được xác nhận, kể cả khi chưa được trả lại
+        if (settle(List.of(holdId), true, true) == 0) {
+            throw new IllegalArgumentException("Hold không tồn tại hoặc đã hết hạn: " + holdId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int releaseExpired(Collection<UUID> holdIds) {
+        if (holdIds.isEmpty()) {
+            return 0;
+        }
+        return settle(holdIds, false, false);
+    }
+
+    /**
+     * Xóa các dòng hold và trả lại reserved_quantity (consume = true: trừ luôn quantity vì hàng đã bán).
+     * Dòng hold được lock (FOR UPDATE) trước khi xóa nên một hold chỉ được xử lý đúng một lần,
+     * kể cả khi hủy / xác nhận chạy song song với hết hạn.
+     * @param unexpiredOnly chỉ xử lý hold có expires_at sau thời điểm hiện tại
+     * @return số hold tìm thấy
+     */
+    private int settle(Collection<UUID> holdIds, boolean consume, boolean unexpiredOnly) {
+        String placeholders = String.join(",", Collections.nCopies(holdIds.size(), "?"));
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> selectArgs = new ArrayList<>(holdIds);
+        String select = "SELECT hold_id, product_variant_id, quantity FROM inventory_hold WHERE hold_id IN ("
+                + placeholders + ")";
+        if (unexpiredOnly) {
+            select += " AND expires_at > ?";
+            selectArgs.add(timestamp);
+        }
+
+        Set<UUID> found = new HashSet<>();
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        jdbcTemplate.query(select + " FOR UPDATE", rs -> {
+            found.add(rs.getObject("hold_id", UUID.class));
+            quantities.merge(rs.getObject("product_variant_id", UUID.class), rs.getInt("quantity"), Integer::sum);
+        }, selectArgs.toArray());
+        if (found.isEmpty()) {
+            return 0;
+        }
+        // Chỉ xóa dòng đã lock: dòng bị lọc bởi expires_at giữ lại cho lần trả lại khi hết hạn
+        jdbcTemplate.update("DELETE FROM inventory_hold WHERE hold_id IN ("
+                + String.join(",", Collections.nCopies(found.size(), "?")) + ")", found.toArray());
+
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        List<InventoryDelta> deltas = new ArrayList<>(quantities.size());
+        quantities.forEach((variantId, quantity) -> {
+            int consumed = consume ? quantity : 0;
+            args.add(new Object[]{consumed, quantity, consumed, quantity, timestamp, variantId});
+            deltas.add(new InventoryDelta(variantId, -consumed, -quantity));
+        });
+        jdbcTemplate.batchUpdate(SETTLE_HOLD, args);
+
+        eventPublisher.publishEvent(new InventoryChangedEvent(this, deltas));
+        return found.size();
+    }
+
+    private Duration holdTtl(Integer holdSeconds) {
+        if (holdSeconds == null) {
+            return holdExpiryProperties.getDefaultTtl();
+        }
+        Duration ttl = Duration.ofSeconds(holdSeconds);
+        if (ttl.compareTo(holdExpiryProperties.getMaxTtl()) > 0) {
+            throw new IllegalArgumentException(
+                    "Thời hạn giữ hàng tối đa là " + holdExpiryProperties.getMaxTtl().toSeconds() + " giây");
+        }
+        return ttl;
+    }
+}
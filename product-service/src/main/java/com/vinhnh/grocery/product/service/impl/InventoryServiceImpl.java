@@ -0,0 +1,51 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.StockAlertResponse;
+import com.vinhnh.grocery.product.dto.StockLevel;
+import com.vinhnh.grocery.product.dto.VariantAvailabilityResponse;
+import com.vinhnh.grocery.product.inventory.AvailabilitySnapshot;
+import com.vinhnh.grocery.product.inventory.StockLevelMonitor;
+import com.vinhnh.grocery.product.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation của InventoryService
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+
+    private final StockLevelMonitor stockLevelMonitor;
+    private final AvailabilitySnapshot availabilitySnapshot;
+
+    @Override
+    public List<StockAlertResponse> getStockAlerts(StockLevel level) {
+        if (level == StockLevel.NORMAL) {
+            throw new IllegalArgumentException("Chỉ hỗ trợ lọc theo mức LOW hoặc OVER");
+        }
+        List<StockAlertResponse> alerts = stockLevelMonitor.getActiveAlerts(level);
+        alerts.sort(Comparator.comparing(StockAlertResponse::getSince).reversed());
+        return alerts;
+    }
+
+    @Override
+    public List<VariantAvailabilityResponse> getAvailability(List<UUID> productVariantIds) {
+        UUID[] variantIds = productVariantIds.toArray(new UUID[0]);
+        int[] available = new int[variantIds.length];
+        availabilitySnapshot.getAvailableQuantities(variantIds, available);
+
+        List<VariantAvailabilityResponse> result = new ArrayList<>(variantIds.length);
+        for (int i = 0; i < variantIds.length; i++) {
+            if (available[i] != AvailabilitySnapshot.NO_INVENTORY) {
+                result.add(new VariantAvailabilityResponse(variantIds[i], available[i], available[i] > 0));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,149 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.common.datasource.DataSourceRouting;
+import com.vinhnh.grocery.product.cache.ProductDetailCache;
+import com.vinhnh.grocery.product.dto.ProductDetailCacheStats;
+import com.vinhnh.grocery.product.dto.ProductDetailResponse;
+import com.vinhnh.grocery.product.dto.ProductImageItem;
+import com.vinhnh.grocery.product.dto.ProductVariantDetail;
+import com.vinhnh.grocery.product.dto.VariantInventoryDetail;
+import com.vinhnh.grocery.product.entity.Inventory;
+import com.vinhnh.grocery.product.entity.Product;
+import com.vinhnh.grocery.product.entity.ProductImage;
+import com.vinhnh.grocery.product.entity.ProductVariant;
+import com.vinhnh.grocery.product.inventory.AvailabilitySnapshot;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductImageRepository;
+import com.vinhnh.grocery.product.repository.ProductRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.ProductDetailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementation của ProductDetailService
+ *
+ * Cache miss đọc cả aggregate bằng đúng 4 câu query trong một transaction read-only, bất kể số variant:
+ * product + category + brand (entity graph), variant, hình ảnh và inventory (mỗi loại một query theo product id).
+ * Association LAZY không bao giờ được khởi tạo nên không có N+1.
+ * Kết quả được cache (ProductDetailCache); số lượng có thể bán luôn lấy từ AvailabilitySnapshot tại thời điểm request.
+ */
+@Service
+@Slf4j
+public class ProductDetailServiceImpl implements ProductDetailService {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final ProductImageRepository productImageRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ProductDetailCache productDetailCache;
+    private final AvailabilitySnapshot availabilitySnapshot;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductDetailServiceImpl(ProductRepository productRepository,
+                                    ProductVariantRepository productVariantRepository,
+                                    ProductImageRepository productImageRepository,
+                                    InventoryRepository inventoryRepository,
+                                    ProductDetailCache productDetailCache,
+                                    AvailabilitySnapshot availabilitySnapshot,
+                                    PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.productImageRepository = productImageRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.productDetailCache = productDetailCache;
+        this.availabilitySnapshot = availabilitySnapshot;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public ProductDetailResponse getDetail(UUID id) {
+        ProductDetailResponse cached = productDetailCache.get(id);
+        if (cached == null) {
+            long generation = productDetailCache.generation();
+            // Nạp cache từ primary: replica còn trễ có thể trả về bản trước thay đổi vừa xóa cache
+            cached = DataSourceRouting.onPrimary(() -> readOnlyTransaction.execute(status -> load(id)));
+            productDetailCache.put(cached, generation);
+        }
+        return withAvailability(cached);
+    }
+
+    @Override
+    public ProductDetailCacheStats getCacheStats() {
+        return productDetailCache.getStats();
+    }
+
+    private ProductDetailResponse load(UUID id) {
+        log.debug("Loading product detail: {}", id);
+        Product product = productRepository.findDetailById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy product với ID: " + id));
+        List<ProductVariant> variants = productVariantRepository.findByProductIdOrderByPrice(id);
+
+        Map<UUID, List<ProductImageItem>> imagesByVariant = new HashMap<>();
+        for (ProductImage image : productImageRepository.findByProductIdOrderByDisplayOrder(id)) {
+            // getId() trên proxy LAZY không khởi tạo variant
+            imagesByVariant.computeIfAbsent(image.getProductVariant().getId(), variantId -> new ArrayList<>())
+                    .add(new ProductImageItem(image.getId(), image.getImageUrl(), image.getAltText(),
+                            image.getIsPrimary(), image.getDisplayOrder(), image.getImageType(),
+                            image.getFileSize(), image.getWidth(), image.getHeight()));
+        }
+        Map<UUID, Inventory> inventoryByVariant = new HashMap<>();
+        for (Inventory inventory : inventoryRepository.findByProductId(id)) {
+            inventoryByVariant.put(inventory.getProductVariant().getId(), inventory);
+        }
+
+        List<ProductVariantDetail> variantDetails = new ArrayList<>(variants.size());
+        for (ProductVariant variant : variants) {
+            Inventory inventory = inventoryByVariant.get(variant.getId());
+            variantDetails.add(new ProductVariantDetail(variant.getId(), variant.getSku(), variant.getSize(),
+                    variant.getColor(), variant.getPrice(), variant.getWeight(), variant.getDimensions(),
+                    variant.getIsActive(), List.copyOf(imagesByVariant.getOrDefault(variant.getId(), List.of())),
+                    inventory == null ? null : new VariantInventoryDetail(inventory.getQuantity(),
+                            inventory.getAvailableQuantity(), inventory.getAvailableQuantity() > 0,
+                            inventory.getMinStockLevel(), inventory.getMaxStockLevel(),
+                            inventory.getLastRestockDate())));
+        }
+        return new ProductDetailResponse(product.getId(), product.getName(), product.getDescription(),
+                product.getUnit(), product.getIsActive(), product.getCategory().getId(),
+                product.getCategory().getName(), product.getBrand().getId(), product.getBrand().getBranchName(),
+                product.getBrand().getLogoUrl(), List.copyOf(variantDetails));
+    }
+
+    /**
+     * Bản sao của chi tiết đã cache với số lượng có thể bán hiện tại, không sửa entry trong cache
+     */
+    private ProductDetailResponse withAvailability(ProductDetailResponse cached) {
+        List<ProductVariantDetail> variants = cached.getVariants();
+        UUID[] variantIds = new UUID[variants.size()];
+        for (int i = 0; i < variantIds.length; i++) {
+            variantIds[i] = variants.get(i).getId();
+        }
+        int[] available = new int[variantIds.length];
+        availabilitySnapshot.getAvailableQuantities(variantIds, available);
+
+        List<ProductVariantDetail> current = new ArrayList<>(variants.size());
+        for (int i = 0; i < variantIds.length; i++) {
+            ProductVariantDetail variant = variants.get(i);
+            VariantInventoryDetail inventory = variant.getInventory();
+            if (inventory != null && available[i] != AvailabilitySnapshot.NO_INVENTORY) {
+                inventory = new VariantInventoryDetail(inventory.getQuantity(), available[i], available[i] > 0,
+                        inventory.getMinStockLevel(), inventory.getMaxStockLevel(), inventory.getLastRestockDate());
+            }
+            current.add(new ProductVariantDetail(variant.getId(), variant.getSku(), variant.getSize(),
+                    variant.getColor(), variant.getPrice(), variant.getWeight(), variant.getDimensions(),
+                    variant.getIsActive(), variant.getImages(), inventory));
+        }
+        return new ProductDetailResponse(cached.getId(), cached.getName(), cached.getDescription(), cached.getUnit(),
+                cached.getIsActive(), cached.getCategoryId(), cached.getCategoryName(), cached.getBrandId(),
+                cached.getBrandName(), cached.getBrandLogoUrl(), current);
+    }
+}
@@ -0,0 +1,136 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.cache.CategorySnapshotHolder;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.FacetIndexStats;
+import com.vinhnh.grocery.product.dto.FacetValueCount;
+import com.vinhnh.grocery.product.dto.PriceRangeCount;
+import com.vinhnh.grocery.product.dto.ProductFacetResponse;
+import com.vinhnh.grocery.product.dto.ProductListItem;
+import com.vinhnh.grocery.product.entity.Branch;
+import com.vinhnh.grocery.product.facet.FacetResult;
+import com.vinhnh.grocery.product.facet.PriceRange;
+import com.vinhnh.grocery.product.facet.ProductFacetIndex;
+import com.vinhnh.grocery.product.repository.BranchRepository;
+import com.vinhnh.grocery.product.repository.ProductRepository;
+import com.vinhnh.grocery.product.repository.projection.ProductSearchRow;
+import com.vinhnh.grocery.product.service.ProductFacetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation của ProductFacetService
+ *
+ * Lọc và đếm hoàn toàn trên bitmap của ProductFacetIndex; database chỉ được đọc theo primary key
+ * để lấy các cột hiển thị của trang product và tên brand. Tên category lấy từ CategorySnapshotHolder, đọc trong
+ * transaction read-only trước câu SQL đầu tiên như contract của holder yêu cầu.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetServiceImpl implements ProductFacetService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final Comparator<FacetValueCount> FACET_ORDER = Comparator.comparingLong(FacetValueCount::getCount)
+            .reversed()
+            .thenComparing(FacetValueCount::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ProductFacetIndex productFacetIndex;
+    private final CategorySnapshotHolder categorySnapshotHolder;
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFacetResponse filter(List<UUID> categoryIds, List<UUID> brandIds, List<Integer> priceRanges,
+                                       int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size phải nằm trong khoảng 1-" + MAX_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page không được âm");
+        }
+        List<PriceRange> ranges = productFacetIndex.getPriceRanges();
+        Set<Integer> selectedRanges = priceRanges == null ? Set.of() : new HashSet<>(priceRanges);
+        for (Integer range : selectedRanges) {
+            if (range == null || range < 0 || range >= ranges.size()) {
+                throw new IllegalArgumentException("priceRange phải nằm trong khoảng 0-" + (ranges.size() - 1));
+            }
+        }
+        Set<UUID> selectedCategories = categoryIds == null ? Set.of() : new HashSet<>(categoryIds);
+        Set<UUID> selectedBrands = brandIds == null ? Set.of() : new HashSet<>(brandIds);
+        Map<UUID, CategoryResponse> categories = categorySnapshotHolder.current().getById();
+
+        FacetResult result = productFacetIndex.query(selectedCategories, selectedBrands, selectedRanges,
+                (long) page * size, size);
+
+        List<FacetValueCount> categoryCounts = counts(result.getCategoryCounts(), selectedCategories,
+                id -> categories.containsKey(id) ? categories.get(id).getName() : null);
+
+        Set<UUID> brandIdsToName = new HashSet<>(result.getBrandCounts().keySet());
+        brandIdsToName.addAll(selectedBrands);
+        Map<UUID, String> brandNames = branchRepository.findAllById(brandIdsToName).stream()
+                .collect(Collectors.toMap(Branch::getId, Branch::getBranchName));
+        List<FacetValueCount> brandCounts = counts(result.getBrandCounts(), selectedBrands, brandNames::get);
+
+        List<PriceRangeCount> priceRangeCounts = new ArrayList<>(ranges.size());
+        for (PriceRange range : ranges) {
+            priceRangeCounts.add(new PriceRangeCount(range.getIndex(), range.getMinPrice(), range.getMaxPrice(),
+                    result.getPriceRangeCounts()[range.getIndex()], selectedRanges.contains(range.getIndex())));
+        }
+
+        return new ProductFacetResponse(result.getTotalProducts(), page, size, loadItems(result.getProductIds()),
+                categoryCounts, brandCounts, priceRangeCounts);
+    }
+
+    @Override
+    public FacetIndexStats getFacetStats() {
+        return productFacetIndex.getStats();
+    }
+
+    /**
+     * Giá trị đang được chọn luôn có mặt (kể cả khi đếm được 0) để thanh bộ lọc bỏ chọn được
+     */
+    private static List<FacetValueCount> counts(Map<UUID, Long> counts, Set<UUID> selected,
+                                                Function<UUID, String> names) {
+        List<FacetValueCount> values = new ArrayList<>(counts.size() + selected.size());
+        counts.forEach((id, count) -> values.add(new FacetValueCount(id, names.apply(id), count, selected.contains(id))));
+        for (UUID id : selected) {
+            if (!counts.containsKey(id)) {
+                values.add(new FacetValueCount(id, names.apply(id), 0, true));
+            }
+        }
+        values.sort(FACET_ORDER);
+        return values;
+    }
+
+    private List<ProductListItem> loadItems(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, ProductSearchRow> rows = productRepository.findSearchRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductSearchRow::getId, Function.identity()));
+        List<ProductListItem> items = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            ProductSearchRow row = rows.get(id);
+            if (row != null) {
+                items.add(new ProductListItem(row.getId(), row.getName(), row.getUnit(),
+                        row.getCategoryName(), row.getBrandName()));
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,74 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.ImageIngestionStats;
+import com.vinhnh.grocery.product.dto.ImageProcessingStatus;
+import com.vinhnh.grocery.product.dto.ProductImageItem;
+import com.vinhnh.grocery.product.entity.ProductImage;
+import com.vinhnh.grocery.product.entity.ProductVariant;
+import com.vinhnh.grocery.product.image.ImageIngestionPipeline;
+import com.vinhnh.grocery.product.image.ImageStorage;
+import com.vinhnh.grocery.product.repository.ProductImageRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.search.ProductChangedEvent;
+import com.vinhnh.grocery.product.service.ProductImageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation của ProductImageService
+ *
+ * Request upload chỉ ghi file gốc xuống đĩa và insert một dòng ProductImage; giải mã và thu nhỏ ảnh
+ * chạy trên pool của ImageIngestionPipeline.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImageServiceImpl implements ProductImageService {
+
+    private final ProductVariantRepository productVariantRepository;
+    private final ProductImageRepository productImageRepository;
+    private final ImageStorage imageStorage;
+    private final ImageIngestionPipeline imageIngestionPipeline;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public ProductImageItem upload(UUID variantId, MultipartFile file, String altText, Boolean isPrimary,
+                                   Integer displayOrder) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File ảnh không được để trống");
+        }
+        ProductVariant variant = productVariantRepository.findById(variantId)
+                .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy variant với ID: " + variantId));
+        UUID productId = variant.getProduct().getId();
+        String fileName = imageStorage.storeOriginal(variantId, file);
+
+        ProductImage image = new ProductImage();
+        image.setProductVariant(variant);
+        image.setImageUrl(imageStorage.url(variantId, fileName));
+        image.setAltText(altText);
+        image.setIsPrimary(Boolean.TRUE.equals(isPrimary));
+        image.setDisplayOrder(displayOrder == null ? 0 : displayOrder);
+        image.setImageType(ImageIngestionPipeline.DETAIL);
+        image.setFileSize(file.getSize());
+        image.setProcessingStatus(ImageProcessingStatus.PENDING);
+        image.setProcessingAttempts(0);
+        ProductImage saved = productImageRepository.save(image);
+        log.info("Stored image {} for variant {} ({} bytes)", saved.getId(), variantId, file.getSize());
+
+        eventPublisher.publishEvent(new ProductChangedEvent(List.of(productId)));
+        imageIngestionPipeline.submit(saved.getId(), variantId, productId, fileName);
+        return new ProductImageItem(saved.getId(), saved.getImageUrl(), saved.getAltText(), saved.getIsPrimary(),
+                saved.getDisplayOrder(), saved.getImageType(), saved.getFileSize(), null, null);
+    }
+
+    @Override
+    public ImageIngestionStats getIngestionStats() {
+        return imageIngestionPipeline.getStats();
+    }
+}
@@ -0,0 +1,74 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.ProductSearchItem;
+import com.vinhnh.grocery.product.dto.ProductSearchResponse;
+import com.vinhnh.grocery.product.dto.SearchIndexStats;
+import com.vinhnh.grocery.product.repository.ProductRepository;
+import com.vinhnh.grocery.product.repository.projection.ProductSearchRow;
+import com.vinhnh.grocery.product.search.ProductSearchIndex;
+import com.vinhnh.grocery.product.search.SearchHit;
+import com.vinhnh.grocery.product.search.SearchHits;
+import com.vinhnh.grocery.product.service.ProductSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation của ProductSearchService
+ *
+ * Xếp hạng hoàn toàn trong ProductSearchIndex; database chỉ được đọc một lần theo primary key
+ * để lấy các cột hiển thị của trang kết quả.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    /** Chỉ giữ top (page + 1) * size kết quả khi xếp hạng nên giới hạn độ sâu phân trang */
+    static final int MAX_RESULT_WINDOW = 1000;
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+
+    @Override
+    public ProductSearchResponse search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Từ khóa tìm kiếm không được để trống");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size phải nằm trong khoảng 1-" + MAX_PAGE_SIZE);
+        }
+        if (page < 0 || (long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Chỉ xem được " + MAX_RESULT_WINDOW + " kết quả đầu tiên");
+        }
+
+        SearchHits hits = productSearchIndex.search(query, page * size, size);
+        List<UUID> ids = hits.getHits().stream().map(SearchHit::getProductId).toList();
+        Map<UUID, ProductSearchRow> rows = ids.isEmpty() ? Map.of() : productRepository.findSearchRowsByIdIn(ids)
+                .stream().collect(Collectors.toMap(ProductSearchRow::getId, Function.identity()));
+
+        List<ProductSearchItem> items = new ArrayList<>(ids.size());
+        for (SearchHit hit : hits.getHits()) {
+            ProductSearchRow row = rows.get(hit.getProductId());
+            if (row != null) {
+                items.add(new ProductSearchItem(row.getId(), row.getName(), row.getUnit(),
+                        row.getCategoryName(), row.getBrandName(), hit.getScore()));
+            }
+        }
+        return new ProductSearchResponse(query, hits.getTotalHits(), page, size, items);
+    }
+
+    @Override
+    public SearchIndexStats getIndexStats() {
+        return productSearchIndex.getStats();
+    }
+}
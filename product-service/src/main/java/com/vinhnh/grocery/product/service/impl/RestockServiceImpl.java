@@ -0,0 +1,275 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.vinhnh.grocery.product.dto.RestockResponse;
+import com.vinhnh.grocery.product.inventory.InventoryChangedEvent;
+import com.vinhnh.grocery.product.inventory.InventoryDelta;
+import com.vinhnh.grocery.product.service.RestockService;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation của RestockService
+ *
+ * Cả file được xử lý set-based trong một transaction, không load entity nào:
+ * 1. Nạp file vào bảng tạm restock_staging: COPY FROM STDIN trên PostgreSQL,
+ *    JDBC batch theo chunk CHUNK_SIZE dòng trên database khác (H2 khi test)
+ * 2. Gộp theo variant vào restock_totals bằng một INSERT ... SELECT ... GROUP BY (SKU lặp lại được cộng dồn)
+ * 3. Cập nhật inventory bằng một câu UPDATE duy nhất
+ *
+ * Hai bảng tạm được tạo với ON COMMIT DROP nên tự mất khi transaction kết thúc,
+ * kể cả khi rollback, và không đụng nhau giữa các request chạy song song.
+ *
+ * Lỗi SQL khi nạp file chỉ được coi là file không hợp lệ (IllegalArgumentException) khi SQLState thuộc
+ * lớp 22 (dữ liệu sai) hoặc 23 (vi phạm ràng buộc); lỗi khác (mất kết nối, hết tài nguyên...) giữ nguyên là lỗi server.
+ */
+@Service
+@Slf4j
+public class RestockServiceImpl implements RestockService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    static final int MAX_REPORTED_UNKNOWN_SKUS = 100;
+
+    private static final String CREATE_STAGING = """
+            CREATE LOCAL TEMPORARY TABLE restock_staging (
+                sku VARCHAR(255) NOT NULL,
+                quantity_delta INTEGER NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String CREATE_TOTALS = """
+            CREATE LOCAL TEMPORARY TABLE restock_totals (
+                product_variant_id UUID PRIMARY KEY,
+                quantity_delta BIGINT NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    // H2 commit transaction khi chạy DDL, trừ khi bảng tạm được khai báo TRANSACTIONAL
+    private static final String H2_TEMPORARY_SUFFIX = " TRANSACTIONAL";
+
+    private static final String COPY_STAGING =
+            "COPY restock_staging (sku, quantity_delta) FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+    private static final String INSERT_STAGING = "INSERT INTO restock_staging (sku, quantity_delta) VALUES (?, ?)";
+
+    private static final String AGGREGATE_TOTALS = """
+            INSERT INTO restock_totals (product_variant_id, quantity_delta)
+            SELECT v.id, SUM(s.quantity_delta)
+            FROM restock_staging s
+            JOIN product_variant v ON v.sku = s.sku
+            JOIN inventory i ON i.product_variant_id = v.id
+            GROUP BY v.id
+            """;
+
+    private static final String APPLY_TOTALS = """
+            UPDATE inventory
+            SET (quantity, available_quantity, last_restock_date, updated_at) = (
+                SELECT inventory.quantity + t.quantity_delta,
+                       inventory.quantity + t.quantity_delta - inventory.reserved_quantity,
+                       ?, ?
+                FROM restock_totals t
+                WHERE t.product_variant_id = inventory.product_variant_id)
+            WHERE product_variant_id IN (SELECT product_variant_id FROM restock_totals)
+            """;
+
+    // Tổng theo variant là BIGINT: quantity / available_quantity mới phải nằm trong INTEGER trước khi UPDATE
+    private static final String COUNT_OUT_OF_RANGE = """
+            SELECT COUNT(*) FROM inventory i
+            JOIN restock_totals t ON t.product_variant_id = i.product_variant_id
+            WHERE i.quantity + t.quantity_delta NOT BETWEEN -2147483648 AND 2147483647
+               OR i.quantity + t.quantity_delta - i.reserved_quantity NOT BETWEEN -2147483648 AND 2147483647
+            """;
+
+    private static final String COUNT_BELOW_RESERVED = """
+            SELECT COUNT(*) FROM inventory
+            WHERE product_variant_id IN (SELECT product_variant_id FROM restock_totals)
+              AND quantity < reserved_quantity
+            """;
+
+    private static final String UNKNOWN_SKUS = """
+            FROM restock_staging s
+            WHERE NOT EXISTS (
+                SELECT 1 FROM product_variant v
+                JOIN inventory i ON i.product_variant_id = v.id
+                WHERE v.sku = s.sku)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader csvReader;
+
+    public RestockServiceImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.csvReader = CsvMapper.builder()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+                .build()
+                .readerFor(String[].class);
+    }
+
+    @Override
+    @Transactional
+    public RestockResponse restockCsv(InputStream input) {
+        log.info("Starting CSV restock");
+        long startNanos = System.nanoTime();
+
+        long totalLines = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> load(connection, input));
+        jdbcTemplate.update(AGGREGATE_TOTALS);
+        Long outOfRange = jdbcTemplate.queryForObject(COUNT_OUT_OF_RANGE, Long.class);
+        if (outOfRange != null && outOfRange > 0) {
+            throw new IllegalArgumentException(
+                    "Restock làm số lượng vượt quá giới hạn cho " + outOfRange + " variant");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update(APPLY_TOTALS, Timestamp.valueOf(now), Timestamp.valueOf(now));
+        Long belowReserved = jdbcTemplate.queryForObject(COUNT_BELOW_RESERVED, Long.class);
+        if (belowReserved != null && belowReserved > 0) {
+            throw new IllegalArgumentException(
+                    "Restock làm số lượng nhỏ hơn số đã giữ cho " + belowReserved + " variant");
+        }
+
+        Long unknownCount = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT s.sku) " + UNKNOWN_SKUS, Long.class);
+        List<String> unknownSkus = jdbcTemplate.queryForList(
+                "SELECT DISTINCT s.sku " + UNKNOWN_SKUS + " ORDER BY s.sku LIMIT " + MAX_REPORTED_UNKNOWN_SKUS,
+                String.class);
+
+        publishChanges();
+        RestockResponse response = new RestockResponse(
+                totalLines, updated, unknownCount == null ? 0 : unknownCount, unknownSkus, 0);
+        response.setDurationMillis((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Restock finished: {} lines, {} variants updated, {} unknown SKUs, {} ms",
+                response.getTotalLines(), response.getUpdatedVariants(),
+                response.getUnknownSkuCount(), response.getDurationMillis());
+        return response;
+    }
+
+    /**
+     * Tạo hai bảng tạm và nạp file vào restock_staging
+     * @return số dòng dữ liệu đã nạp
+     */
+    private long load(Connection connection, InputStream input) throws SQLException {
+        boolean postgres = connection.isWrapperFor(PGConnection.class);
+        String suffix = postgres ? "" : H2_TEMPORARY_SUFFIX;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING + suffix);
+            statement.execute(CREATE_TOTALS + suffix);
+        }
+
+        if (!postgres) {
+            return insertInChunks(connection, input);
+        }
+        try {
+            long rows = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING, input);
+            // Bảng tạm không được autovacuum analyze: cập nhật thống kê để planner chọn hash join khi file lớn
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE restock_staging");
+            }
+            return rows;
+        } catch (SQLException ex) {
+            // Lỗi dữ liệu (số lượng không phải số, thiếu cột...) được PostgreSQL báo kèm số dòng
+            throw invalidFileOrRethrow(ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Không đọc được nội dung restock", ex);
+        }
+    }
+
+    private long insertInChunks(Connection connection, InputStream input) throws SQLException {
+        long rows = 0;
+        try (MappingIterator<String[]> lines = csvReader.readValues(input);
+             PreparedStatement insert = connection.prepareStatement(INSERT_STAGING)) {
+            if (lines.hasNextValue()) {
+                lines.nextValue(); // header
+            }
+            while (lines.hasNextValue()) {
+                long lineNumber = lines.getCurrentLocation().getLineNr();
+                String[] line = lines.nextValue();
+                if (line.length == 1 && line[0].isEmpty()) {
+                    continue;
+                }
+                if (line.length != 2 || line[0].isEmpty()) {
+                    throw new IllegalArgumentException("File restock không hợp lệ: dòng " + lineNumber
+                            + " phải có dạng sku,quantity");
+                }
+                insert.setString(1, line[0]);
+                insert.setInt(2, parseQuantity(line[1], lineNumber));
+                insert.addBatch();
+                if (++rows % CHUNK_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        } catch (SQLException ex) {
+            throw invalidFileOrRethrow(ex);
+        } catch (DatabindException ex) {
+            throw new IllegalArgumentException("File restock không hợp lệ: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Không đọc được nội dung restock", ex);
+        }
+        return rows;
+    }
+
+    /**
+     * @return IllegalArgumentException khi lỗi do nội dung file (SQLState lớp 22 / 23)
+     * @throws SQLException lỗi khác, được JdbcTemplate chuyển thành DataAccessException
+     */
+    private static IllegalArgumentException invalidFileOrRethrow(SQLException ex) throws SQLException {
+        String state = ex.getSQLState();
+        if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+            return new IllegalArgumentException("File restock không hợp lệ: " + ex.getMessage());
+        }
+        throw ex;
+    }
+
+    private int parseQuantity(String value, long lineNumber) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("File restock không hợp lệ: dòng " + lineNumber
+                    + " có số lượng không phải số nguyên: " + value);
+        }
+    }
+
+    /**
+     * Báo thay đổi cho các thành phần giữ trạng thái tồn kho trong bộ nhớ, theo từng chunk
+     * để file lớn không tạo một event khổng lồ.
+     * Chạy sau hai bước kiểm tra: quantity cũ và mới đều trong [0, Integer.MAX_VALUE] nên tổng vừa int
+     */
+    private void publishChanges() {
+        List<InventoryDelta> chunk = new ArrayList<>(CHUNK_SIZE);
+        jdbcTemplate.query("SELECT product_variant_id, quantity_delta FROM restock_totals", row -> {
+            chunk.add(new InventoryDelta(row.getObject(1, UUID.class), Math.toIntExact(row.getLong(2)), 0));
+            if (chunk.size() == CHUNK_SIZE) {
+                eventPublisher.publishEvent(new InventoryChangedEvent(this, List.copyOf(chunk)));
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            eventPublisher.publishEvent(new InventoryChangedEvent(this, List.copyOf(chunk)));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.SkuLookupStats;
+import com.vinhnh.grocery.product.dto.VariantSkuResponse;
+import com.vinhnh.grocery.product.service.SkuLookupService;
+import com.vinhnh.grocery.product.sku.SkuResolver;
+import com.vinhnh.grocery.product.sku.SkuSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation của SkuLookupService
+ *
+ * Mọi tra cứu đi qua SkuResolver: SKU không tồn tại thường bị Bloom filter từ chối mà không truy vấn database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SkuLookupServiceImpl implements SkuLookupService {
+
+    private final SkuResolver skuResolver;
+
+    @Override
+    public VariantSkuResponse resolve(String sku) {
+        String normalized = sku == null ? "" : sku.trim();
+        SkuSummary summary = normalized.isEmpty() ? null : skuResolver.resolve(normalized);
+        if (summary == null) {
+            throw new IllegalArgumentException("Không tìm thấy variant với SKU: " + normalized);
+        }
+        return toResponse(normalized, summary);
+    }
+
+    @Override
+    public List<VariantSkuResponse> resolveAll(List<String> skus) {
+        List<String> normalized = skus.stream().map(String::trim).toList();
+        Map<String, SkuSummary> found = skuResolver.resolveAll(normalized);
+        log.debug("Resolved {} of {} SKUs", found.size(), normalized.size());
+        return normalized.stream().map(sku -> toResponse(sku, found.get(sku))).toList();
+    }
+
+    @Override
+    public SkuLookupStats getStats() {
+        return skuResolver.getStats();
+    }
+
+    private static VariantSkuResponse toResponse(String sku, SkuSummary summary) {
+        if (summary == null) {
+            return new VariantSkuResponse(sku, false, null, null, null, null);
+        }
+        return new VariantSkuResponse(sku, true, summary.getProductVariantId(), summary.getProductId(),
+                summary.getPrice(), summary.isActive());
+    }
+}
@@ -0,0 +1,106 @@
+package com.vinhnh.grocery.product.sku;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter trên chuỗi SKU: mightContain trả false thì SKU chắc chắn không tồn tại,
+ * trả true thì SKU có thể tồn tại (sai với xác suất khoảng falsePositiveRate khi chưa vượt số phần tử dự kiến).
+ *
+ * - Số bit m = -n ln(p) / (ln 2)^2, số hàm băm k = m / n ln 2.
+ * - k vị trí bit lấy theo double hashing (Kirsch–Mitzenmacher) từ hai giá trị băm 64 bit của SKU.
+ * - Bit nằm trong AtomicLongArray, bật bằng CAS: nhiều thread put cùng lúc an toàn, thread đọc không khóa.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final AtomicLong setBits = new AtomicLong();
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitCount, int hashCount, long expectedInsertions) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) >>> 6));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions phải >= 1 và falsePositiveRate trong (0, 1)");
+        }
+        long bits = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bits, hashes, expectedInsertions);
+    }
+
+    void put(String sku) {
+        long hash1 = hash(sku, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(sku, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0) {
+                long witness = words.compareAndExchange(index, word, word | mask);
+                if (witness == word) {
+                    setBits.incrementAndGet();
+                    break;
+                }
+                word = witness;
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String sku) {
+        long hash1 = hash(sku, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(sku, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Số lần put (kể cả SKU trùng)
+     */
+    long insertions() {
+        return insertions.get();
+    }
+
+    long expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * Tỉ lệ dương tính giả ước lượng theo số bit đã bật: (bit bật / m)^k
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow((double) setBits.get() / bitCount, hashCount);
+    }
+
+    /**
+     * FNV-1a 64 bit trên các ký tự rồi trộn bit (finalizer của MurmurHash3)
+     */
+    private static long hash(String value, long seed) {
+        long hash = seed ^ 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,150 @@
+package com.vinhnh.grocery.product.sku;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Cache SKU -> SkuSummary có giới hạn số phần tử, thay thế theo CLOCK (second chance).
+ *
+ * - get không khóa: tra ConcurrentHashMap rồi bật cờ referenced của entry.
+ * - put / invalidate khóa trên cache. Khi đầy, kim đồng hồ quét vòng ring: entry có cờ referenced được
+ *   xóa cờ và giữ lại, entry đầu tiên không có cờ bị thay. SKU được đọc thường xuyên vì vậy ở lại cache,
+ *   một lượt quét SKU chỉ đọc một lần không đẩy được chúng ra như LRU.
+ *
+ * Người đọc lấy generation() trước khi đọc database và truyền vào put: generation được so sánh trong cùng lock
+ * với lúc ghi, nên kết quả đọc trước một lần invalidate (có thể đã cũ) không được đưa vào cache.
+ */
+final class SkuCache {
+
+    private final int capacity;
+    private final Map<String, Entry> entries;
+    private final Entry[] ring;
+    // Tăng mỗi lần invalidate, trong lock
+    private final AtomicLong generation = new AtomicLong();
+    private int hand;
+    private int size;
+
+    SkuCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity phải >= 1");
+        }
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+        this.ring = new Entry[capacity];
+    }
+
+    SkuSummary get(String sku) {
+        Entry entry = entries.get(sku);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Đưa kết quả đọc database vào cache, bỏ qua nếu đã có invalidate kể từ readGeneration
+     */
+    synchronized void put(SkuSummary value, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        Entry existing = entries.get(value.getSku());
+        if (existing != null) {
+            // Thay entry tại đúng vị trí trong ring, giữ cờ referenced
+            Entry replacement = new Entry(value, existing.slot);
+            replacement.referenced = existing.referenced;
+            ring[existing.slot] = replacement;
+            entries.put(value.getSku(), replacement);
+            return;
+        }
+        int slot;
+        if (size < capacity) {
+            slot = nextFreeSlot();
+            size++;
+        } else {
+            slot = evict();
+        }
+        Entry entry = new Entry(value, slot);
+        ring[slot] = entry;
+        entries.put(value.getSku(), entry);
+    }
+
+    /**
+     * Xóa các entry thỏa điều kiện, trả về số entry đã xóa
+     */
+    synchronized int invalidateIf(Predicate<SkuSummary> condition) {
+        generation.incrementAndGet();
+        int removed = 0;
+        for (int i = 0; i < ring.length; i++) {
+            Entry entry = ring[i];
+            if (entry != null && condition.test(entry.value)) {
+                entries.remove(entry.value.getSku(), entry);
+                ring[i] = null;
+                size--;
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        Arrays.fill(ring, null);
+        size = 0;
+        hand = 0;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private int nextFreeSlot() {
+        while (ring[hand] != null) {
+            hand = (hand + 1) % capacity;
+        }
+        int slot = hand;
+        hand = (hand + 1) % capacity;
+        return slot;
+    }
+
+    private int evict() {
+        while (true) {
+            Entry candidate = ring[hand];
+            int slot = hand;
+            hand = (hand + 1) % capacity;
+            if (candidate.referenced) {
+                candidate.referenced = false;
+            } else {
+                entries.remove(candidate.value.getSku(), candidate);
+                return slot;
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final SkuSummary value;
+        private final int slot;
+        // Ghi không đồng bộ từ thread đọc; mất một lần bật cờ chỉ làm entry sớm bị thay hơn, không sai dữ liệu
+        private volatile boolean referenced;
+
+        private Entry(SkuSummary value, int slot) {
+            this.value = value;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.vinhnh.grocery.product.sku;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Event phát ra ngay sau khi insert variant, trước khi transaction commit.
+ * SkuResolver lắng nghe đồng bộ để thêm SKU vào Bloom filter: khi transaction commit SKU đã có trong filter,
+ * không có khoảng thời gian SKU đã tồn tại mà bị filter từ chối.
+ */
+@Getter
+@AllArgsConstructor
+public class SkuCreatedEvent {
+
+    private final Collection<String> skus;
+}
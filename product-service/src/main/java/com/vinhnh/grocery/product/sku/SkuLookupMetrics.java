@@ -0,0 +1,48 @@
+package com.vinhnh.grocery.product.sku;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đưa số lượt tra cứu SKU theo kết quả và tỉ lệ dương tính giả của Bloom filter lên Prometheus
+ */
+@Component
+@RequiredArgsConstructor
+public class SkuLookupMetrics implements MeterBinder {
+
+    private final SkuResolver skuResolver;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sku.lookup", skuResolver, resolver -> resolver.getStats().getCacheHits())
+                .description("Số lượt tra cứu SKU theo kết quả")
+                .tag("result", "cache_hit")
+                .register(registry);
+        FunctionCounter.builder("sku.lookup", skuResolver, resolver -> resolver.getStats().getCacheMisses())
+                .description("Số lượt tra cứu SKU theo kết quả")
+                .tag("result", "cache_miss")
+                .register(registry);
+        FunctionCounter.builder("sku.lookup", skuResolver, resolver -> resolver.getStats().getBloomRejections())
+                .description("Số lượt tra cứu SKU theo kết quả")
+                .tag("result", "bloom_rejected")
+                .register(registry);
+        FunctionCounter.builder("sku.lookup", skuResolver, resolver -> resolver.getStats().getBloomFalsePositives())
+                .description("Số lượt tra cứu SKU theo kết quả")
+                .tag("result", "bloom_false_positive")
+                .register(registry);
+        Gauge.builder("sku.bloom.false_positive_rate", skuResolver, SkuResolver::observedFalsePositiveRate)
+                .description("Tỉ lệ dương tính giả đo được của Bloom filter SKU")
+                .register(registry);
+        Gauge.builder("sku.bloom.expected_false_positive_rate", skuResolver,
+                        resolver -> resolver.getStats().getExpectedFalsePositiveRate())
+                .description("Tỉ lệ dương tính giả ước lượng theo mức lấp đầy của Bloom filter SKU")
+                .register(registry);
+        Gauge.builder("sku.cache.size", skuResolver, resolver -> resolver.getStats().getCachedSkus())
+                .description("Số SKU trong cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.vinhnh.grocery.product.sku;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cấu hình cho tra cứu variant theo SKU (grocery.sku.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "grocery.sku")
+public class SkuLookupProperties {
+
+    /**
+     * Số SKU tối đa giữ trong cache
+     */
+    private int cacheSize = 100_000;
+
+    /**
+     * Số SKU dự kiến, dùng để chọn kích thước Bloom filter. Filter được dựng lại với kích thước gấp đôi
+     * số SKU hiện có khi số SKU đã thêm vượt con số này.
+     */
+    private long expectedSkus = 1_000_000;
+
+    /**
+     * Tỉ lệ dương tính giả mục tiêu của Bloom filter (SKU không tồn tại nhưng vẫn phải truy vấn database)
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Chu kỳ dựng lại Bloom filter từ database. SKU được insert ở instance khác hoặc ngoài ứng dụng không đi qua
+     * SkuCreatedEvent của instance này: chúng có thể bị filter từ chối cho tới lần dựng lại kế tiếp.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,243 @@
+package com.vinhnh.grocery.product.sku;
+
+import com.vinhnh.grocery.product.dto.SkuLookupStats;
+import com.vinhnh.grocery.product.search.ProductChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tra cứu variant theo SKU: Bloom filter -> cache -> database.
+ *
+ * - Bloom filter chứa mọi SKU đã có, nạp lúc khởi động. SKU không có trong filter bị từ chối ngay, không truy vấn
+ *   database (SKU gõ sai, quét dò SKU).
+ * - SKU qua được filter tra tiếp SkuCache (CLOCK); không có trong cache thì gom lại thành một câu truy vấn IN.
+ *   SKU qua filter nhưng database không có được đếm là dương tính giả, để so với tỉ lệ cấu hình.
+ * - Variant mới được thêm vào filter qua SkuCreatedEvent, phát trong transaction insert (trước commit).
+ *   Khi số SKU vượt kích thước thiết kế, filter được dựng lại ở thread nền từ database với kích thước gấp đôi;
+ *   SKU của các transaction chưa commit lúc dựng lại được giữ riêng và thêm vào filter mới trước khi thay.
+ * - SKU insert ở instance khác hoặc ngoài ứng dụng không có SkuCreatedEvent ở instance này. Filter được dựng lại
+ *   theo chu kỳ rebuildInterval, nên các SKU đó bị từ chối nhầm (âm tính giả) lâu nhất một chu kỳ.
+ * - ProductChangedEvent (sau commit) xóa khỏi cache các SKU thuộc product thay đổi.
+ */
+@Component
+@Slf4j
+public class SkuResolver {
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+
+    private static final String SKU_QUERY = "SELECT sku FROM product_variant";
+    private static final String VARIANT_QUERY =
+            "SELECT id, product_id, sku, price, is_active FROM product_variant WHERE sku IN ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SkuLookupProperties properties;
+    private final SkuCache cache;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder bloomRejections = new LongAdder();
+    private final LongAdder bloomFalsePositives = new LongAdder();
+
+    private final Object registrationLock = new Object();
+    // SKU đã thêm vào filter nhưng transaction chưa kết thúc, chưa chắc thấy được khi quét database
+    private final Set<String> uncommitted = ConcurrentHashMap.newKeySet();
+    // Khác null trong lúc dựng lại filter: SKU thêm trong lúc quét database
+    private List<String> registeredDuringRebuild;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "sku-bloom-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile BloomFilter filter;
+
+    public SkuResolver(JdbcTemplate jdbcTemplate, SkuLookupProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.cache = new SkuCache(properties.getCacheSize());
+        this.filter = BloomFilter.create(properties.getExpectedSkus(), properties.getFalsePositiveRate());
+    }
+
+    @PostConstruct
+    void load() {
+        long started = System.nanoTime();
+        filter = build();
+        log.info("Loaded {} SKUs into Bloom filter in {} ms", filter.insertions(),
+                (System.nanoTime() - started) / 1_000_000);
+        long interval = properties.getRebuildInterval().toMillis();
+        rebuilder.scheduleWithFixedDelay(this::scheduleRebuild, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Thêm SKU của variant vừa insert vào filter, đồng bộ trong transaction insert
+     */
+    @EventListener
+    public void onSkuCreated(SkuCreatedEvent event) {
+        if (event.getSkus().isEmpty()) {
+            return;
+        }
+        List<String> skus = List.copyOf(event.getSkus());
+        synchronized (registrationLock) {
+            BloomFilter current = filter;
+            skus.forEach(current::put);
+            if (registeredDuringRebuild != null) {
+                registeredDuringRebuild.addAll(skus);
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                uncommitted.addAll(skus);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        skus.forEach(uncommitted::remove);
+                    }
+                });
+            }
+            if (current.insertions() > current.expectedInsertions()) {
+                scheduleRebuild();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<UUID> productIds = new HashSet<>(event.getProductIds());
+        cache.invalidateIf(summary -> productIds.contains(summary.getProductId()));
+    }
+
+    /**
+     * Tra cứu một SKU, null nếu không tồn tại
+     */
+    public SkuSummary resolve(String sku) {
+        return resolveAll(List.of(sku)).get(sku);
+    }
+
+    /**
+     * Tra cứu nhiều SKU, các SKU cần truy vấn database được gom thành câu truy vấn IN theo lô.
+     * @return SKU -> thông tin variant, chỉ gồm các SKU tồn tại
+     */
+    public Map<String, SkuSummary> resolveAll(Collection<String> skus) {
+        BloomFilter current = filter;
+        Map<String, SkuSummary> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String sku : new LinkedHashSet<>(skus)) {
+            if (!current.mightContain(sku)) {
+                bloomRejections.increment();
+                continue;
+            }
+            SkuSummary cached = cache.get(sku);
+            if (cached != null) {
+                cacheHits.increment();
+                found.put(sku, cached);
+            } else {
+                cacheMisses.increment();
+                missing.add(sku);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += QUERY_CHUNK_SIZE) {
+            List<String> chunk = missing.subList(from, Math.min(from + QUERY_CHUNK_SIZE, missing.size()));
+            // Kết quả truy vấn bắt đầu trước một lần invalidate không được đưa vào cache
+            long generation = cache.generation();
+            List<SkuSummary> rows = jdbcTemplate.query(
+                    VARIANT_QUERY + "(" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")",
+                    (rs, rowNum) -> new SkuSummary(rs.getObject(1, UUID.class),
+                            rs.getObject(2, UUID.class), rs.getString(3), rs.getBigDecimal(4),
+                            rs.getBoolean(5)),
+                    chunk.toArray());
+            for (SkuSummary row : rows) {
+                found.put(row.getSku(), row);
+                cache.put(row, generation);
+            }
+            bloomFalsePositives.add(chunk.size() - rows.size());
+        }
+        return found;
+    }
+
+    public SkuLookupStats getStats() {
+        BloomFilter current = filter;
+        return new SkuLookupStats(cache.size(), cache.capacity(), cacheHits.sum(), cacheMisses.sum(),
+                bloomRejections.sum(), bloomFalsePositives.sum(), observedFalsePositiveRate(),
+                current.expectedFalsePositiveRate(), current.insertions(), current.expectedInsertions());
+    }
+
+    /**
+     * Tỉ lệ dương tính giả đo được trên các SKU không tồn tại: falsePositives / (falsePositives + rejections)
+     */
+    double observedFalsePositiveRate() {
+        long falsePositives = bloomFalsePositives.sum();
+        long negatives = falsePositives + bloomRejections.sum();
+        return negatives == 0 ? 0 : (double) falsePositives / negatives;
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        try {
+            List<String> carried;
+            synchronized (registrationLock) {
+                carried = new ArrayList<>(uncommitted);
+                registeredDuringRebuild = new ArrayList<>();
+            }
+            long started = System.nanoTime();
+            BloomFilter next = build();
+            synchronized (registrationLock) {
+                carried.forEach(next::put);
+                registeredDuringRebuild.forEach(next::put);
+                registeredDuringRebuild = null;
+                filter = next;
+            }
+            log.info("Rebuilt Bloom filter for {} SKUs (capacity {}) in {} ms", next.insertions(),
+                    next.expectedInsertions(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (registrationLock) {
+                registeredDuringRebuild = null;
+            }
+            log.error("Failed to rebuild Bloom filter, keeping the current one", e);
+        } finally {
+            rebuildScheduled.set(false);
+        }
+    }
+
+    private BloomFilter build() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_variant", Long.class);
+        long capacity = Math.max(properties.getExpectedSkus(), 2 * (count == null ? 0 : count));
+        BloomFilter next = BloomFilter.create(capacity, properties.getFalsePositiveRate());
+        jdbcTemplate.query(SKU_QUERY, rs -> {
+            next.put(rs.getString(1));
+        });
+        return next;
+    }
+}
@@ -0,0 +1,21 @@
+package com.vinhnh.grocery.product.sku;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Thông tin variant cần cho tra cứu theo SKU (giữ trong SkuCache)
+ */
+@Getter
+@AllArgsConstructor
+public class SkuSummary {
+
+    private final UUID productVariantId;
+    private final UUID productId;
+    private final String sku;
+    private final BigDecimal price;
+    private final boolean active;
+}
@@ -0,0 +1,39 @@
+-- ==================== PRODUCT SERVICE INDEXES ====================
+-- Các index không khai báo được bằng JPA annotation (functional / partial index).
+-- Được chạy sau khi Hibernate cập nhật schema (spring.jpa.defer-datasource-initialization).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Category: tra cứu theo tên không phân biệt hoa thường (existsByName, getCategoryByName)
+CREATE INDEX IF NOT EXISTS idx_category_active_lower_name
+    ON category (lower(name))
+    WHERE is_active = true;
+
+-- Category: tìm kiếm theo từ khóa lower(name) LIKE '%...%' (searchCategoriesByName)
+CREATE INDEX IF NOT EXISTS idx_category_active_lower_name_trgm
+    ON category USING gin (lower(name) gin_trgm_ops)
+    WHERE is_active = true;
+
+-- Category: liệt kê và đếm category đang hoạt động (index-only scan)
+CREATE INDEX IF NOT EXISTS idx_category_active_id
+    ON category (id)
+    WHERE is_active = true;
+
+-- Category: bước đệ quy của cây category (join child.parent_id = parent.id)
+CREATE INDEX IF NOT EXISTS idx_category_active_parent
+    ON category (parent_id, display_order)
+    WHERE is_active = true;
+
+-- Category: keyset pagination theo (display_order, id) và (updated_at, id)
+CREATE INDEX IF NOT EXISTS idx_category_display_order_id
+    ON category ((coalesce(display_order, 0)), id);
+
+CREATE INDEX IF NOT EXISTS idx_category_updated_at_id
+    ON category (updated_at, id);
+
+-- Inventory: nạp các variant đang tồn kho thấp / vượt mức khi khởi động (StockLevelMonitor).
+-- Điều kiện WHERE phải giống hệt câu query backfill; index chỉ chứa các dòng đang cảnh báo.
+CREATE INDEX IF NOT EXISTS idx_inventory_stock_alert
+    ON inventory (product_variant_id)
+    INCLUDE (quantity, available_quantity, min_stock_level, max_stock_level)
+    WHERE available_quantity <= min_stock_level OR quantity > max_stock_level;
@@ -0,0 +1,57 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.vinhnh.grocery.product.dto.CategoryCreateRequest;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategorySnapshotStats;
+import com.vinhnh.grocery.product.dto.CategoryUpdateRequest;
+import com.vinhnh.grocery.product.service.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kiểm tra snapshot category được invalidate sau khi các thao tác ghi commit
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CategorySnapshotHolderTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategorySnapshotHolder categorySnapshotHolder;
+
+    @Test
+    void snapshotFollowsCommittedWrites() {
+        CategoryResponse parent = categoryService.createCategory(
+                new CategoryCreateRequest("Snapshot cha " + UUID.randomUUID(), null, null, 0));
+        CategoryResponse child = categoryService.createCategory(
+                new CategoryCreateRequest("Snapshot con " + UUID.randomUUID(), null, parent.getId(), 1));
+
+        CategorySnapshot snapshot = categorySnapshotHolder.current();
+        assertThat(snapshot.getById()).containsKeys(parent.getId(), child.getId());
+        assertThat(snapshot.getChildren(parent.getId())).extracting(CategoryResponse::getId)
+                .containsExactly(child.getId());
+        assertThat(categorySnapshotHolder.current()).isSameAs(snapshot);
+
+        categoryService.updateCategory(parent.getId(), new CategoryUpdateRequest("Đổi tên " + UUID.randomUUID(), null, null, null));
+        CategorySnapshot renamed = categorySnapshotHolder.current();
+        assertThat(renamed.getVersion()).isGreaterThan(snapshot.getVersion());
+        assertThat(renamed.getById().get(child.getId()).getParentName()).startsWith("Đổi tên");
+
+        categoryService.deactivateCategory(parent.getId());
+        CategorySnapshot deactivated = categorySnapshotHolder.current();
+        assertThat(deactivated.getById()).doesNotContainKey(parent.getId());
+        assertThat(deactivated.getRoots()).extracting(CategoryResponse::getId).contains(child.getId());
+
+        CategorySnapshotStats stats = categoryService.getActiveSnapshotStats();
+        assertThat(stats.isStale()).isFalse();
+        assertThat(stats.getVersion()).isEqualTo(deactivated.getVersion());
+    }
+}
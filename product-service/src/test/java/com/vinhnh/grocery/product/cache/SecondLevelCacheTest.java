@@ -0,0 +1,147 @@
+package com.vinhnh.grocery.product.cache;
+
+import com.vinhnh.grocery.product.dto.CategoryCreateRequest;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategoryUpdateRequest;
+import com.vinhnh.grocery.product.entity.Branch;
+import com.vinhnh.grocery.product.repository.BranchRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.CategoryService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Second-level cache của Category / Branch: đọc lặp lại trúng cache, dữ liệu đọc ra luôn theo thay đổi đã commit
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private SecondLevelCacheMetrics secondLevelCacheMetrics;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void bindMetrics() {
+        registry = new SimpleMeterRegistry();
+        secondLevelCacheMetrics.bindTo(registry);
+    }
+
+    @Test
+    void repeatedReadsHitCacheAndSeeCommittedUpdates() {
+        String name = "Cache " + UUID.randomUUID();
+        CategoryResponse parent = categoryService.createCategory(new CategoryCreateRequest(name + " cha", null, null, 0));
+        CategoryResponse created = categoryService.createCategory(new CategoryCreateRequest(name, "Mô tả", null, 1));
+
+        double hits = requests("category", "hit");
+        double misses = requests("category", "miss");
+        categoryService.getCategoryById(created.getId());
+        categoryService.getCategoryById(created.getId());
+        assertThat(requests("category", "hit")).isEqualTo(hits + 2);
+        assertThat(requests("category", "miss")).isEqualTo(misses);
+        assertThat(registry.get("second.level.cache.size").tag("region", "category").gauge().value()).isPositive();
+
+        // Query cache của tra cứu theo tên cũng phải theo thay đổi
+        assertThat(categoryService.getCategoryByName(name).getId()).isEqualTo(created.getId());
+        assertThat(categoryService.existsByName(name)).isTrue();
+
+        String renamed = name + " mới";
+        categoryService.updateCategory(created.getId(), new CategoryUpdateRequest(renamed, "Mô tả mới", parent.getId(), 2));
+
+        CategoryResponse updated = categoryService.getCategoryById(created.getId());
+        assertThat(updated.getName()).isEqualTo(renamed);
+        assertThat(updated.getDescription()).isEqualTo("Mô tả mới");
+        assertThat(updated.getParentId()).isEqualTo(parent.getId());
+        assertThat(categoryService.existsByName(name)).isFalse();
+        assertThat(categoryService.existsByName(renamed)).isTrue();
+        assertThatThrownBy(() -> categoryService.getCategoryByName(name))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(categoryService.getCategoryByName(renamed).getId()).isEqualTo(created.getId());
+    }
+
+    @Test
+    void softDeleteAndReactivationAreVisibleThroughCache() {
+        String name = "Cache xóa " + UUID.randomUUID();
+        CategoryResponse created = categoryService.createCategory(new CategoryCreateRequest(name, null, null, 0));
+        assertThat(categoryService.getCategoryById(created.getId()).getIsActive()).isTrue();
+        assertThat(categoryService.existsByName(name)).isTrue();
+
+        categoryService.deleteCategory(created.getId());
+
+        double hits = requests("category", "hit");
+        assertThat(categoryService.getCategoryById(created.getId()).getIsActive()).isFalse();
+        assertThat(requests("category", "hit")).isEqualTo(hits + 1);
+        assertThat(categoryService.existsByName(name)).isFalse();
+        assertThatThrownBy(() -> categoryService.getCategoryByName(name))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        categoryService.activateCategory(created.getId());
+        assertThat(categoryService.getCategoryById(created.getId()).getIsActive()).isTrue();
+        assertThat(categoryService.existsByName(name)).isTrue();
+    }
+
+    @Test
+    void jdbcImportAndBranchUpdateInvalidateQueryCache() {
+        String tag = CatalogFixtures.tag("L2");
+        String categoryName = "Gia vị " + tag;
+        assertThat(categoryService.existsByName(categoryName)).isFalse();
+
+        Map<String, UUID> ids = importCatalog(tag);
+
+        // Category insert bằng JDBC: kết quả "không tồn tại" đã cache phải bị bỏ qua
+        assertThat(categoryService.existsByName(categoryName)).isTrue();
+
+        UUID brandId = ids.get("Chinsu " + tag);
+        assertThat(branchRepository.findAllById(List.of(brandId))).extracting(Branch::getBranchName)
+                .containsExactly("Chinsu " + tag);
+        double queryHits = requests("default-query-results-region", "hit");
+        assertThat(branchRepository.findAllById(List.of(brandId))).hasSize(1);
+        assertThat(requests("default-query-results-region", "hit")).isGreaterThan(queryHits);
+
+        Branch branch = branchRepository.findById(brandId).orElseThrow();
+        branch.setBranchName("Chinsu mới " + tag);
+        branchRepository.save(branch);
+
+        assertThat(branchRepository.findAllById(List.of(brandId))).extracting(Branch::getBranchName)
+                .containsExactly("Chinsu mới " + tag);
+    }
+
+    private double requests(String region, String result) {
+        return registry.get("second.level.cache.requests")
+                .tags("region", region, "result", result)
+                .functionCounter().count();
+    }
+
+    /**
+     * @return key của dòng import (tên) -> id
+     */
+    private Map<String, UUID> importCatalog(String tag) {
+        String ndjson = """
+                {"type":"brand","name":"Chinsu %1$s"}
+                {"type":"category","name":"Gia vị %1$s"}
+                """.formatted(tag);
+        return CatalogFixtures.importNdjson(catalogImportService, ndjson);
+    }
+}
@@ -0,0 +1,81 @@
+package com.vinhnh.grocery.product.controller;
+
+import com.vinhnh.grocery.product.dto.CategoryCreateRequest;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategoryUpdateRequest;
+import com.vinhnh.grocery.product.service.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Kiểm tra conditional GET (ETag / Last-Modified) trên các endpoint đọc category
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CategoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void collectionReturnsNotModifiedUntilCategoriesChange() throws Exception {
+        categoryService.createCategory(new CategoryCreateRequest("ETag " + UUID.randomUUID(), null, null, 0));
+
+        for (String path : new String[]{"/api/v1/categories", "/api/v1/categories/active", "/api/v1/categories/tree"}) {
+            String etag = mockMvc.perform(get(path))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertThat(etag).isNotBlank();
+
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+
+            categoryService.createCategory(new CategoryCreateRequest("ETag " + UUID.randomUUID(), null, null, 0));
+
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag));
+        }
+    }
+
+    @Test
+    void singleCategoryEtagFollowsParentRename() throws Exception {
+        CategoryResponse parent = categoryService.createCategory(
+                new CategoryCreateRequest("ETag cha " + UUID.randomUUID(), null, null, 0));
+        CategoryResponse child = categoryService.createCategory(
+                new CategoryCreateRequest("ETag con " + UUID.randomUUID(), null, parent.getId(), 0));
+        String path = "/api/v1/categories/" + child.getId();
+
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        categoryService.updateCategory(parent.getId(), new CategoryUpdateRequest("Đổi tên " + UUID.randomUUID(), null, null, null));
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,244 @@
+package com.vinhnh.grocery.product.datasource;
+
+import com.vinhnh.grocery.common.datasource.DataSourceRouting;
+import com.vinhnh.grocery.common.datasource.ReadWriteRoutingDataSource;
+import com.vinhnh.grocery.common.datasource.ReadYourWritesFilter;
+import com.vinhnh.grocery.product.entity.Branch;
+import com.vinhnh.grocery.product.repository.BranchRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Định tuyến transaction read-only sang replica (một H2 in-memory thứ hai đóng vai replica):
+ * độ trễ cho phép, read-your-writes sau transaction ghi, quay về primary khi replica lỗi
+ * và second-level cache không bị nạp bằng dữ liệu trễ của replica
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "grocery.datasource.replica.enabled=true",
+        "grocery.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "grocery.datasource.replica.username=sa",
+        "grocery.datasource.replica.password=",
+        "grocery.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+        "grocery.datasource.replica.lag-check-interval=1h",
+        "grocery.datasource.replica.max-staleness=5s",
+        "grocery.datasource.replica.stickiness=30s"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final String MARKER_QUERY = "SELECT name FROM routing_marker";
+
+    private static final String INSERT_BRANCH = "INSERT INTO branch (id, branch_name, created_at, updated_at, is_active)"
+            + " VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, TRUE)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    private ReadWriteRoutingDataSource router;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        replica("CREATE TABLE IF NOT EXISTS routing_marker (name VARCHAR(20))",
+                "DELETE FROM routing_marker",
+                "INSERT INTO routing_marker VALUES ('replica')",
+                "CREATE TABLE IF NOT EXISTS branch (id UUID PRIMARY KEY, branch_name VARCHAR(255) NOT NULL,"
+                        + " description VARCHAR(255), logo_url VARCHAR(255), website_url VARCHAR(255),"
+                        + " created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL, created_by VARCHAR(255),"
+                        + " updated_by VARCHAR(255), is_active BOOLEAN NOT NULL)",
+                "CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds DOUBLE)",
+                "DELETE FROM replica_lag",
+                "INSERT INTO replica_lag VALUES (0)");
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS routing_marker (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM routing_marker");
+        jdbcTemplate.update("INSERT INTO routing_marker VALUES ('primary')");
+        router = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        router.checkReplica();
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void resetLag() throws SQLException {
+        createReplica();
+        router.checkReplica();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertThat(router.isReplicaUsable()).isTrue();
+        assertThat(readOnlyMarker()).isEqualTo("replica");
+        assertThat(readWriteMarker()).isEqualTo("primary");
+        assertThat(marker()).isEqualTo("primary");
+        assertThat(DataSourceRouting.onPrimary(this::readOnlyMarker)).isEqualTo("primary");
+        assertThat(router.getRouted(ReadWriteRoutingDataSource.Route.REPLICA)).isPositive();
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsStaleOrFailing() throws SQLException {
+        replica("UPDATE replica_lag SET lag_seconds = 12.5");
+        router.checkReplica();
+        assertThat(router.getReplicaLagMillis()).isEqualTo(12_500);
+        assertThat(router.isReplicaUsable()).isFalse();
+        assertThat(readOnlyMarker()).isEqualTo("primary");
+
+        replica("UPDATE replica_lag SET lag_seconds = 1");
+        router.checkReplica();
+        assertThat(readOnlyMarker()).isEqualTo("replica");
+
+        // Không đo được độ trễ: coi như replica lỗi cho đến lần đo thành công kế tiếp
+        replica("DROP TABLE replica_lag");
+        router.checkReplica();
+        assertThat(router.isReplicaHealthy()).isFalse();
+        assertThat(readOnlyMarker()).isEqualTo("primary");
+        assertThat(router.getRouted(ReadWriteRoutingDataSource.Route.UNAVAILABLE)).isPositive();
+    }
+
+    @Test
+    void readsOwnWritesWithinStickinessWindow() throws Exception {
+        // Request ghi rồi đọc: lần đọc sau commit dùng primary và response đặt cookie thời điểm ghi
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        AtomicReference<String> readAfterWrite = new AtomicReference<>();
+        readYourWritesFilter.getFilter().doFilter(new MockHttpServletRequest(), writeResponse, (request, response) -> {
+            assertThat(readOnlyMarker()).isEqualTo("replica");
+            readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE routing_marker SET name = name"));
+            readAfterWrite.set(readOnlyMarker());
+        });
+        assertThat(readAfterWrite.get()).isEqualTo("primary");
+        Cookie cookie = writeResponse.getCookie("grocery_last_write");
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(30);
+
+        // Request sau của cùng client gửi lại cookie
+        assertThat(readInRequest(cookie)).isEqualTo("primary");
+        // Cookie đã quá khoảng stickiness
+        long expired = System.currentTimeMillis() - 60_000;
+        assertThat(readInRequest(new Cookie("grocery_last_write", Long.toString(expired)))).isEqualTo("replica");
+        assertThat(readInRequest(null)).isEqualTo("replica");
+        assertThat(router.getRouted(ReadWriteRoutingDataSource.Route.STICKY)).isPositive();
+    }
+
+    @Test
+    void readWriteTransactionWithoutChangesDoesNotPinToPrimary() throws Exception {
+        // Transaction không read-only nhưng không thay đổi dòng nào: không đặt cookie, lần đọc sau vẫn dùng replica
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> readAfter = new AtomicReference<>();
+        readYourWritesFilter.getFilter().doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            assertThat(readWriteMarker()).isEqualTo("primary");
+            readWrite.executeWithoutResult(status ->
+                    jdbcTemplate.update("UPDATE routing_marker SET name = name WHERE name = 'missing'"));
+            readAfter.set(readOnlyMarker());
+        });
+        assertThat(readAfter.get()).isEqualTo("replica");
+        assertThat(response.getCookie("grocery_last_write")).isNull();
+    }
+
+    @Test
+    void replicaReadsDoNotFillSecondLevelCache() throws SQLException {
+        // Đã ghi trên primary, replica chưa nhận được: tên cũ của brand, brand mới chưa có
+        UUID renamed = UUID.randomUUID();
+        UUID created = UUID.randomUUID();
+        jdbcTemplate.update(INSERT_BRANCH, renamed, "Tên mới");
+        jdbcTemplate.update(INSERT_BRANCH, created, "Brand mới");
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "")) {
+            new JdbcTemplate(new SingleConnectionDataSource(connection, true)).update(INSERT_BRANCH, renamed, "Tên cũ");
+        }
+
+        assertThat(readOnlyBranchName(renamed)).isEqualTo("Tên cũ");
+        assertThat(readOnlyBranches(created)).isEmpty();
+
+        // Đọc primary không trúng dữ liệu replica đã đọc
+        assertThat(DataSourceRouting.onPrimary(() -> readOnlyBranchName(renamed))).isEqualTo("Tên mới");
+        assertThat(DataSourceRouting.onPrimary(() -> readOnlyBranches(created)))
+                .extracting(Branch::getBranchName)
+                .containsExactly("Brand mới");
+
+        // Entity đọc từ primary được nạp vào cache và được dùng cho cả transaction đọc replica
+        assertThat(readOnlyBranchName(renamed)).isEqualTo("Tên mới");
+    }
+
+    private String readInRequest(Cookie cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        AtomicReference<String> result = new AtomicReference<>();
+        readYourWritesFilter.getFilter().doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> result.set(readOnlyMarker()));
+        return result.get();
+    }
+
+    private String readOnlyMarker() {
+        return readOnly.execute(status -> marker());
+    }
+
+    private String readWriteMarker() {
+        return readWrite.execute(status -> marker());
+    }
+
+    private String readOnlyBranchName(UUID id) {
+        return readOnly.execute(status -> branchRepository.findById(id).orElseThrow().getBranchName());
+    }
+
+    private List<Branch> readOnlyBranches(UUID id) {
+        return readOnly.execute(status -> branchRepository.findAllById(List.of(id)));
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject(MARKER_QUERY, String.class);
+    }
+
+    private static void replica(String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.vinhnh.grocery.product.facet;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * So sánh OrdinalBitmap với BitSet trên dữ liệu ngẫu nhiên gồm cả container thưa (mảng) và dày (bitmap)
+ */
+class OrdinalBitmapTest {
+
+    @Test
+    void matchesBitSetForAddRemoveAndSetOperations() {
+        Random random = new Random(7);
+        BitSet expectedA = new BitSet();
+        BitSet expectedB = new BitSet();
+        OrdinalBitmap a = new OrdinalBitmap();
+        OrdinalBitmap b = new OrdinalBitmap();
+
+        // Container 0 dày (vượt ngưỡng 4096 nên thành bitmap), các container sau thưa
+        for (int i = 0; i < 40_000; i++) {
+            int value = random.nextInt(1 << 16);
+            a.add(value);
+            expectedA.set(value);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(5 << 16);
+            b.add(value);
+            expectedB.set(value);
+            int sparse = (3 << 16) + random.nextInt(1 << 16);
+            a.add(sparse);
+            expectedA.set(sparse);
+        }
+        // Xóa gần hết container 0 của b để bitmap chuyển lại thành mảng
+        for (int value = 0; value < (1 << 16) - 100; value++) {
+            b.remove(value);
+            expectedB.clear(value);
+        }
+
+        assertSame(expectedA, a);
+        assertSame(expectedB, b);
+        BitSet and = (BitSet) expectedA.clone();
+        and.and(expectedB);
+        assertSame(and, OrdinalBitmap.and(a, b));
+        assertThat(OrdinalBitmap.andCardinality(a, b)).isEqualTo(and.cardinality());
+        BitSet or = (BitSet) expectedA.clone();
+        or.or(expectedB);
+        assertSame(or, OrdinalBitmap.or(a, b));
+
+        // Bản sao độc lập với bản gốc
+        OrdinalBitmap copy = a.copy();
+        copy.add(9 << 16);
+        assertThat(a.contains(9 << 16)).isFalse();
+        assertThat(copy.cardinality()).isEqualTo(a.cardinality() + 1);
+    }
+
+    @Test
+    void pagesThroughValuesInOrder() {
+        OrdinalBitmap bitmap = new OrdinalBitmap();
+        int[] values = {5, 70_000, 3, 1 << 20, 65_535, 65_536};
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        assertThat(bitmap.toArray(0, 10)).containsExactly(3, 5, 65_535, 65_536, 70_000, 1 << 20);
+        assertThat(bitmap.toArray(2, 3)).containsExactly(65_535, 65_536, 70_000);
+        assertThat(bitmap.toArray(6, 3)).isEmpty();
+
+        bitmap.remove(70_000);
+        bitmap.remove(65_536);
+        assertThat(bitmap.toArray(0, 10)).containsExactly(3, 5, 65_535, 1 << 20);
+    }
+
+    private static void assertSame(BitSet expected, OrdinalBitmap actual) {
+        assertThat(actual.cardinality()).isEqualTo(expected.cardinality());
+        int[] all = expected.stream().toArray();
+        assertThat(actual.toArray(0, Integer.MAX_VALUE)).isEqualTo(all);
+        int from = Math.min(1000, all.length);
+        assertThat(actual.toArray(from, 100)).isEqualTo(Arrays.copyOfRange(all, from, Math.min(from + 100, all.length)));
+        for (int value = 0; value < (6 << 16); value += 97) {
+            assertThat(actual.contains(value)).isEqualTo(expected.get(value));
+        }
+    }
+}
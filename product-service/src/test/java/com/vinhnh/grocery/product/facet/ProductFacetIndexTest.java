@@ -0,0 +1,128 @@
+package com.vinhnh.grocery.product.facet;
+
+import com.vinhnh.grocery.product.dto.FacetValueCount;
+import com.vinhnh.grocery.product.dto.ProductFacetResponse;
+import com.vinhnh.grocery.product.dto.ProductListItem;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.ProductFacetService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Kiểm tra lọc theo facet: hợp trong cùng facet, giao giữa các facet, số đếm bỏ qua bộ lọc của chính facet
+ * và cập nhật khoảng giá khi thêm variant
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductFacetIndexTest {
+
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void filtersAndCountsFacets() throws Exception {
+        String tag = CatalogFixtures.tag("f");
+        Map<String, UUID> ids = importCatalog(tag);
+        List<UUID> milkAndDessert = List.of(ids.get("Sữa " + tag), ids.get("Tráng miệng " + tag));
+
+        ProductFacetResponse byCategory = productFacetService.filter(milkAndDessert, null, null, 0, 20);
+        assertThat(byCategory.getTotalProducts()).isEqualTo(2);
+        assertThat(byCategory.getItems()).extracting(ProductListItem::getName)
+                .containsExactlyInAnyOrder("Sữa tươi " + tag, "Bánh flan " + tag);
+        assertThat(counts(byCategory.getBrands())).containsEntry("Đà Lạt Milk " + tag, 1L)
+                .containsEntry("Nông sản " + tag, 1L);
+        // Số đếm category không bị bộ lọc category thu hẹp
+        assertThat(counts(byCategory.getCategories())).containsEntry("Ngũ cốc " + tag, 1L);
+        // Sữa tươi có variant ở khoảng [20k, 50k) và [100k, 200k)
+        assertThat(byCategory.getPriceRanges().get(1).getCount()).isEqualTo(2);
+        assertThat(byCategory.getPriceRanges().get(3).getCount()).isEqualTo(1);
+
+        ProductFacetResponse byCategoryAndBrand = productFacetService.filter(milkAndDessert,
+                List.of(ids.get("Nông sản " + tag)), null, 0, 20);
+        assertThat(byCategoryAndBrand.getItems()).extracting(ProductListItem::getName)
+                .containsExactly("Bánh flan " + tag);
+
+        ProductFacetResponse byBrandAndPrice = productFacetService.filter(null,
+                List.of(ids.get("Nông sản " + tag)), List.of(0), 0, 20);
+        assertThat(byBrandAndPrice.getItems()).extracting(ProductListItem::getName)
+                .containsExactly("Gạo ST25 " + tag);
+        assertThat(byBrandAndPrice.getPriceRanges().get(0).isSelected()).isTrue();
+
+        mockMvc.perform(get("/api/v1/products/facets")
+                        .param("categoryId", milkAndDessert.get(0).toString())
+                        .param("priceRange", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalProducts").value(1))
+                .andExpect(jsonPath("$.data.items[0].name").value("Sữa tươi " + tag));
+        assertThatThrownBy(() -> productFacetService.filter(null, null, List.of(99), 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void newVariantMovesProductIntoPriceRange() {
+        String tag = CatalogFixtures.tag("f");
+        Map<String, UUID> ids = importCatalog(tag);
+        List<UUID> grain = List.of(ids.get("Ngũ cốc " + tag));
+        assertThat(productFacetService.filter(grain, null, List.of(5), 0, 20).getTotalProducts()).isZero();
+
+        String ndjson = """
+                {"type":"variant","product":"Gạo ST25 %1$s","sku":"RICE-25KG-%1$s","price":650000}
+                """.formatted(tag);
+        CatalogFixtures.importNdjson(catalogImportService, ndjson);
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> productFacetService.filter(grain, null, List.of(5), 0, 20).getTotalProducts() == 1);
+        assertThat(productFacetService.filter(grain, null, List.of(0), 0, 20).getTotalProducts()).isEqualTo(1);
+    }
+
+    private Map<String, UUID> importCatalog(String tag) {
+        String ndjson = """
+                {"type":"brand","name":"Đà Lạt Milk %1$s"}
+                {"type":"brand","name":"Nông sản %1$s"}
+                {"type":"category","name":"Sữa %1$s"}
+                {"type":"category","name":"Ngũ cốc %1$s"}
+                {"type":"category","name":"Tráng miệng %1$s"}
+                {"type":"product","name":"Sữa tươi %1$s","category":"Sữa %1$s","brand":"Đà Lạt Milk %1$s"}
+                {"type":"product","name":"Gạo ST25 %1$s","category":"Ngũ cốc %1$s","brand":"Nông sản %1$s"}
+                {"type":"product","name":"Bánh flan %1$s","category":"Tráng miệng %1$s","brand":"Nông sản %1$s"}
+                {"type":"variant","product":"Sữa tươi %1$s","sku":"MILK-1L-%1$s","price":32000}
+                {"type":"variant","product":"Sữa tươi %1$s","sku":"MILK-6L-%1$s","price":180000}
+                {"type":"variant","product":"Gạo ST25 %1$s","sku":"RICE-1KG-%1$s","price":19999}
+                {"type":"variant","product":"Bánh flan %1$s","sku":"FLAN-%1$s","price":20000}
+                """.formatted(tag);
+        Map<String, UUID> ids = CatalogFixtures.importNdjson(catalogImportService, ndjson);
+        await().atMost(Duration.ofSeconds(10)).until(() -> productFacetService.filter(
+                List.of(ids.get("Sữa " + tag)), null, List.of(3), 0, 20).getTotalProducts() == 1);
+        return ids;
+    }
+
+    private static Map<String, Long> counts(List<FacetValueCount> values) {
+        return values.stream().filter(value -> value.getName() != null)
+                .collect(Collectors.toMap(FacetValueCount::getName, FacetValueCount::getCount));
+    }
+}
@@ -0,0 +1,114 @@
+package com.vinhnh.grocery.product.image;
+
+import com.vinhnh.grocery.product.dto.ImageProcessingStatus;
+import com.vinhnh.grocery.product.dto.ProductImageItem;
+import com.vinhnh.grocery.product.entity.ProductImage;
+import com.vinhnh.grocery.product.repository.ProductImageRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.ProductImageService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Pipeline xử lý ảnh: xử lý lặp lại không ghi trùng bản thu nhỏ, ảnh lỗi dừng ở FAILED sau maxProcessingAttempts lần
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageIngestionPipelineTest {
+
+    @Autowired
+    private ImageIngestionPipeline imageIngestionPipeline;
+
+    @Autowired
+    private ImageProperties imageProperties;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Test
+    void processingTwiceRecordsRenditionsOnce() throws IOException {
+        String tag = CatalogFixtures.tag("P");
+        Map<String, UUID> ids = CatalogFixtures.importVariant(catalogImportService, tag);
+        UUID productId = ids.get("Bánh " + tag);
+        UUID variantId = ids.get(tag);
+        ProductImageItem original = productImageService.upload(variantId,
+                new MockMultipartFile("file", "banh.png", "image/png", png()), null, false, 0);
+        // Như lần khởi động lại đưa ảnh PENDING vào hàng đợi khi lần xử lý từ upload chưa xong
+        imageIngestionPipeline.submit(original.getId(), variantId, productId, ImageStorage.fileName(original.getImageUrl()));
+
+        await().atMost(Duration.ofSeconds(20)).until(() -> idle()
+                && productImageRepository.findById(original.getId()).orElseThrow().getWidth() != null);
+
+        assertThat(productImageRepository.findByProductIdOrderByDisplayOrder(productId))
+                .extracting(ProductImage::getImageType)
+                .containsExactlyInAnyOrder("detail", "gallery", "thumbnail");
+        assertThat(productImageRepository.findById(original.getId()).orElseThrow().getProcessingStatus())
+                .isEqualTo(ImageProcessingStatus.DONE);
+    }
+
+    @Test
+    void undecodableImageStopsAtFailed() {
+        String tag = CatalogFixtures.tag("P");
+        UUID variantId = CatalogFixtures.importVariant(catalogImportService, tag).get(tag);
+        ProductImage broken = new ProductImage();
+        broken.setProductVariant(productVariantRepository.findById(variantId).orElseThrow());
+        broken.setImageUrl(imageStorage.url(variantId, "missing.png"));
+        broken.setImageType(ImageIngestionPipeline.DETAIL);
+        broken.setProcessingStatus(ImageProcessingStatus.PENDING);
+        broken.setProcessingAttempts(0);
+        UUID imageId = productImageRepository.save(broken).getId();
+
+        for (int attempt = 1; attempt <= imageProperties.getMaxProcessingAttempts(); attempt++) {
+            int expected = attempt;
+            imageIngestionPipeline.resumePending();
+            await().atMost(Duration.ofSeconds(10)).until(() ->
+                    productImageRepository.findById(imageId).orElseThrow().getProcessingAttempts() == expected);
+        }
+        assertThat(productImageRepository.findById(imageId).orElseThrow().getProcessingStatus())
+                .isEqualTo(ImageProcessingStatus.FAILED);
+
+        // FAILED không còn được đưa lại vào hàng đợi
+        imageIngestionPipeline.resumePending();
+        await().atMost(Duration.ofSeconds(10)).until(this::idle);
+        assertThat(productImageRepository.findById(imageId).orElseThrow().getProcessingAttempts())
+                .isEqualTo(imageProperties.getMaxProcessingAttempts());
+    }
+
+    private boolean idle() {
+        return imageIngestionPipeline.getStats().getQueued() == 0 && imageIngestionPipeline.getStats().getActive() == 0;
+    }
+
+    private static byte[] png() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "png", output);
+        return output.toByteArray();
+    }
+}
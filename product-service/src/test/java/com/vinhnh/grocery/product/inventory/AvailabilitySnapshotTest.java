@@ -0,0 +1,119 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.product.dto.StockReservationLine;
+import com.vinhnh.grocery.product.dto.StockReservationRequest;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.InventoryReservationService;
+import com.vinhnh.grocery.product.support.InventoryFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Kiểm tra snapshot tồn kho: variant mới được đọc từ database rồi nạp vào snapshot, thay đổi tồn kho được cập nhật
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AvailabilitySnapshotTest {
+
+    @Autowired
+    private AvailabilitySnapshot availabilitySnapshot;
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void missesAreServedFromDatabaseThenCached() {
+        UUID variantId = InventoryFixtures.createVariantWithStock(catalogImportService, productVariantRepository,
+                inventoryRepository, 10);
+        UUID[] variantIds = {variantId};
+        int[] available = new int[1];
+        long misses = availabilitySnapshot.getMissCount();
+
+        availabilitySnapshot.getAvailableQuantities(variantIds, available);
+        assertThat(available).containsExactly(10);
+        assertThat(availabilitySnapshot.getMissCount()).isEqualTo(misses + 1);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            availabilitySnapshot.getAvailableQuantities(variantIds, available);
+            return availabilitySnapshot.getMissCount() == misses + 1;
+        });
+
+        inventoryReservationService.reserve(new StockReservationRequest(List.of(new StockReservationLine(variantId, 4))));
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            availabilitySnapshot.getAvailableQuantities(variantIds, available);
+            return available[0] == 6;
+        });
+        assertThat(availabilitySnapshot.getMissCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    void unknownVariantsAreNotStored() {
+        int[] available = new int[1];
+        int size = availabilitySnapshot.size();
+        long misses = availabilitySnapshot.getMissCount();
+
+        for (int i = 0; i < 100; i++) {
+            availabilitySnapshot.getAvailableQuantities(new UUID[]{UUID.randomUUID()}, available);
+            assertThat(available[0]).isEqualTo(AvailabilitySnapshot.NO_INVENTORY);
+        }
+
+        // Id không có tồn kho luôn được hỏi lại database, không chiếm chỗ trong snapshot
+        assertThat(availabilitySnapshot.getMissCount()).isEqualTo(misses + 100);
+        assertThat(availabilitySnapshot.size()).isEqualTo(size);
+    }
+
+    @Test
+    void batchEndpointReturnsVariantsInRequestOrder() throws Exception {
+        UUID inStock = InventoryFixtures.createVariantWithStock(catalogImportService, productVariantRepository,
+                inventoryRepository, 3);
+        UUID soldOut = InventoryFixtures.createVariantWithStock(catalogImportService, productVariantRepository,
+                inventoryRepository, 0);
+
+        mockMvc.perform(post("/api/v1/inventory/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productVariantIds\":[\"%s\",\"%s\",\"%s\"]}"
+                                .formatted(soldOut, UUID.randomUUID(), inStock)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].productVariantId").value(soldOut.toString()))
+                .andExpect(jsonPath("$.data[0].inStock").value(false))
+                .andExpect(jsonPath("$.data[1].availableQuantity").value(3))
+                .andExpect(jsonPath("$.data[1].inStock").value(true));
+
+        mockMvc.perform(post("/api/v1/inventory/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productVariantIds\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,281 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.InventoryReservationCheckpointRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.support.InventoryFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Kiểm tra ReservationEngine: không bán vượt tồn kho khi reserve song song, flush delta xuống database
+ * và replay journal còn sót lại khi khởi động
+ */
+@SpringBootTest(properties = "grocery.inventory.reservation.enabled=true")
+@ActiveProfiles("test")
+class ReservationEngineTest {
+
+    @Autowired
+    private ReservationEngine reservationEngine;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryReservationCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path journalRoot;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        UUID variantId = createVariant(1000);
+        int threads = 8;
+        int attemptsPerThread = 400;
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (reservationEngine.tryReserve(variantId, 1)) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(reserved.get()).isEqualTo(1000);
+        assertThat(reservationEngine.getUnreservedQuantity(variantId)).isZero();
+        assertThat(reservationEngine.tryReserve(variantId, 1)).isFalse();
+
+        reservationEngine.release(variantId, 10);
+        reservationEngine.flush();
+
+        Map<String, Object> row = inventoryRow(variantId);
+        assertThat(row.get("reserved_quantity")).isEqualTo(990);
+        assertThat(row.get("available_quantity")).isEqualTo(10);
+    }
+
+    @Test
+    void flushNeverDrivesAvailableQuantityBelowZero() {
+        UUID variantId = createVariant(10);
+        assertThat(reservationEngine.getUnreservedQuantity(variantId)).isEqualTo(10);
+        long rejectedBefore = reservationEngine.getRejectedDeltas();
+
+        // Giữ hàng bằng SQL trực tiếp, engine không được báo: counter của engine vẫn là 10
+        jdbcTemplate.update("UPDATE inventory SET reserved_quantity = reserved_quantity + 5, "
+                + "available_quantity = available_quantity - 5 WHERE product_variant_id = ?", variantId);
+        assertThat(reservationEngine.tryReserve(variantId, 8)).isTrue();
+        reservationEngine.flush();
+
+        Map<String, Object> row = inventoryRow(variantId);
+        assertThat(row.get("reserved_quantity")).isEqualTo(5);
+        assertThat(row.get("available_quantity")).isEqualTo(5);
+        assertThat(reservationEngine.getRejectedDeltas()).isEqualTo(rejectedBefore + 1);
+        // Counter được đặt lại theo database
+        assertThat(reservationEngine.getUnreservedQuantity(variantId)).isEqualTo(5);
+    }
+
+    @Test
+    void rejectedEpochResyncsCounterWithLaterPendingEpochs() {
+        UUID variantId = createVariant(10);
+        UUID otherVariantId = createVariant(10);
+        ReservationEngineProperties properties = new ReservationEngineProperties();
+        properties.setInstanceId("resync-" + UUID.randomUUID());
+        properties.setJournalDirectory(journalRoot);
+        properties.setJournalSegmentRecords(4);
+        properties.setFlushInterval(Duration.ofHours(1));
+
+        // Reserve ngay sau khi epoch đầu được ghi (delta bị bỏ), trong lúc epoch sau vẫn chờ flush
+        AtomicReference<ReservationEngine> engineRef = new AtomicReference<>();
+        List<Boolean> reservedDuringFlush = new ArrayList<>();
+        List<Integer> unreservedDuringFlush = new ArrayList<>();
+        ReservationEngine engine = new ReservationEngine(inventoryRepository, checkpointRepository, jdbcTemplate,
+                transactionManager, properties, event -> {
+            if (unreservedDuringFlush.isEmpty()) {
+                unreservedDuringFlush.add(engineRef.get().getUnreservedQuantity(variantId));
+                reservedDuringFlush.add(engineRef.get().tryReserve(variantId, 1));
+            }
+        });
+        engineRef.set(engine);
+        engine.start();
+        long rejectedBefore = engine.getRejectedDeltas();
+
+        // Epoch đầu: 1 của variant khác và 3 của variant (segment đầy), epoch sau: 2 của variant
+        assertThat(engine.tryReserve(otherVariantId, 1)).isTrue();
+        for (int i = 0; i < 3; i++) {
+            assertThat(engine.tryReserve(variantId, 1)).isTrue();
+        }
+        assertThat(engine.tryReserve(variantId, 2)).isTrue();
+        assertThat(engine.getUnreservedQuantity(variantId)).isEqualTo(5);
+
+        // Giữ 8 bằng SQL trực tiếp: delta 3 của epoch đầu bị bỏ, database còn 2 đúng bằng delta của epoch sau
+        jdbcTemplate.update("UPDATE inventory SET reserved_quantity = reserved_quantity + 8, "
+                + "available_quantity = available_quantity - 8 WHERE product_variant_id = ?", variantId);
+        engine.flush();
+
+        assertThat(unreservedDuringFlush).containsExactly(0);
+        assertThat(reservedDuringFlush).containsExactly(false);
+        assertThat(engine.getRejectedDeltas()).isEqualTo(rejectedBefore + 1);
+        assertThat(engine.getUnreservedQuantity(variantId)).isZero();
+        Map<String, Object> row = inventoryRow(variantId);
+        assertThat(row.get("reserved_quantity")).isEqualTo(10);
+        assertThat(row.get("available_quantity")).isEqualTo(0);
+        assertThat(inventoryRow(otherVariantId).get("reserved_quantity")).isEqualTo(1);
+        engine.stop();
+    }
+
+    @Test
+    void flushedSegmentsAreReused() throws Exception {
+        UUID variantId = createVariant(100);
+        ReservationEngineProperties properties = new ReservationEngineProperties();
+        properties.setInstanceId("reuse-" + UUID.randomUUID());
+        properties.setJournalDirectory(journalRoot);
+        properties.setJournalSegmentRecords(16);
+        properties.setFlushInterval(Duration.ofHours(1));
+        Path directory = journalRoot.resolve(properties.getInstanceId());
+
+        ReservationEngine engine = newEngine(properties);
+        engine.start();
+        Set<Object> segments = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            assertThat(engine.tryReserve(variantId, 1)).isTrue();
+            engine.flush();
+            segments.addAll(journalFileKeys(directory));
+        }
+        // Segment hiện tại và tối đa hai segment dự phòng, không phải một file mới cho mỗi epoch
+        assertThat(segments).hasSizeLessThanOrEqualTo(3);
+        assertThat(inventoryRow(variantId).get("reserved_quantity")).isEqualTo(10);
+        engine.stop();
+
+        assertThat(journalFileKeys(directory)).isEmpty();
+        ReservationEngine restarted = newEngine(properties);
+        restarted.start();
+        restarted.stop();
+        assertThat(inventoryRow(variantId).get("reserved_quantity")).isEqualTo(10);
+    }
+
+    @Test
+    void rejectsUnknownVariantAndInvalidQuantity() {
+        assertThatThrownBy(() -> reservationEngine.tryReserve(UUID.randomUUID(), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reservationEngine.tryReserve(createVariant(5), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void startupReplaysJournalNotYetCheckpointed() throws Exception {
+        UUID variantId = createVariant(50);
+        ReservationEngineProperties properties = new ReservationEngineProperties();
+        properties.setInstanceId("recovery-" + UUID.randomUUID());
+        properties.setJournalDirectory(journalRoot);
+        properties.setJournalSegmentRecords(16);
+        Path directory = journalRoot.resolve(properties.getInstanceId());
+        Files.createDirectories(directory);
+
+        // Journal của một process bị kill trước khi flush: reserve 3 + 4, trả lại 2
+        ReservationJournal journal = ReservationJournal.create(directory, 7, 16);
+        journal.append(variantId, 3);
+        journal.append(variantId, 4);
+        journal.append(variantId, -2);
+
+        ReservationEngine recovered = newEngine(properties);
+        recovered.start();
+        assertThat(recovered.getUnreservedQuantity(variantId)).isEqualTo(45);
+        assertThat(recovered.tryReserve(variantId, 5)).isTrue();
+        recovered.stop();
+
+        assertThat(inventoryRow(variantId).get("reserved_quantity")).isEqualTo(10);
+        assertThat(checkpointRepository.findById(properties.getInstanceId()).orElseThrow().getLastEpoch())
+                .isEqualTo(8);
+        try (var files = Files.list(directory)) {
+            assertThat(files.filter(file -> ReservationJournal.parseEpoch(file) >= 0)).isEmpty();
+        }
+
+        // Segment đã nằm trong checkpoint (crash sau commit, trước khi xóa file) không được áp dụng lại
+        ReservationJournal applied = ReservationJournal.create(directory, 8, 16);
+        applied.append(variantId, 5);
+        ReservationEngine restarted = newEngine(properties);
+        restarted.start();
+        restarted.stop();
+        assertThat(inventoryRow(variantId).get("reserved_quantity")).isEqualTo(10);
+    }
+
+    private ReservationEngine newEngine(ReservationEngineProperties properties) {
+        return new ReservationEngine(inventoryRepository, checkpointRepository, jdbcTemplate,
+                transactionManager, properties, eventPublisher);
+    }
+
+    private static List<Object> journalFileKeys(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Object> keys = new ArrayList<>();
+            for (Path file : files.filter(file -> ReservationJournal.parseEpoch(file) >= 0).toList()) {
+                keys.add(Files.readAttributes(file, BasicFileAttributes.class).fileKey());
+            }
+            return keys;
+        }
+    }
+
+    private UUID createVariant(int quantity) {
+        return InventoryFixtures.createVariantWithStock(
+                catalogImportService, productVariantRepository, inventoryRepository, quantity);
+    }
+
+    private Map<String, Object> inventoryRow(UUID variantId) {
+        return jdbcTemplate.queryForMap(
+                "SELECT reserved_quantity, available_quantity FROM inventory WHERE product_variant_id = ?", variantId);
+    }
+}
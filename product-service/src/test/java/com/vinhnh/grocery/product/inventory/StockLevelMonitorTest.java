@@ -0,0 +1,105 @@
+package com.vinhnh.grocery.product.inventory;
+
+import com.vinhnh.grocery.product.dto.StockAlertResponse;
+import com.vinhnh.grocery.product.dto.StockLevel;
+import com.vinhnh.grocery.product.dto.StockReservationLine;
+import com.vinhnh.grocery.product.dto.StockReservationRequest;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.InventoryReservationService;
+import com.vinhnh.grocery.product.support.InventoryFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Kiểm tra cảnh báo tồn kho tăng dần: chỉ chuyển mức khi vượt ngưỡng, backfill khi khởi động
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StockLevelMonitorTest {
+
+    @Autowired
+    private StockLevelMonitor stockLevelMonitor;
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void emitsOnlyWhenVariantCrossesThreshold() {
+        UUID variantId = createVariant(10, 3, 20);
+        UUID lowHold = reserve(variantId, 7);
+        await().atMost(Duration.ofSeconds(5)).until(() -> alert(variantId).isPresent());
+        assertThat(alert(variantId).get().getLevel()).isEqualTo(StockLevel.LOW);
+        assertThat(alert(variantId).get().getAvailableQuantity()).isEqualTo(3);
+        long transitions = stockLevelMonitor.getTransitionCount();
+
+        // Vẫn dưới ngưỡng: cập nhật số liệu nhưng không phát cảnh báo mới
+        UUID stillLowHold = reserve(variantId, 1);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> alert(variantId).map(StockAlertResponse::getAvailableQuantity).orElse(-1) == 2);
+        assertThat(stockLevelMonitor.getTransitionCount()).isEqualTo(transitions);
+
+        inventoryReservationService.release(lowHold);
+        inventoryReservationService.release(stillLowHold);
+        await().atMost(Duration.ofSeconds(5)).until(() -> alert(variantId).isEmpty());
+        assertThat(stockLevelMonitor.getTransitionCount()).isGreaterThan(transitions);
+    }
+
+    @Test
+    void backfillLoadsVariantsAlreadyOverThreshold() throws Exception {
+        UUID variantId = createVariant(30, 3, 20);
+        assertThat(alert(variantId)).isEmpty();
+
+        stockLevelMonitor.backfill();
+
+        assertThat(alert(variantId)).get().extracting(StockAlertResponse::getLevel).isEqualTo(StockLevel.OVER);
+        mockMvc.perform(get("/api/v1/inventory/alerts").param("level", "OVER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].productVariantId", hasItem(variantId.toString())));
+    }
+
+    private Optional<StockAlertResponse> alert(UUID variantId) {
+        List<StockAlertResponse> alerts = stockLevelMonitor.getActiveAlerts(null);
+        return alerts.stream().filter(alert -> alert.getProductVariantId().equals(variantId)).findFirst();
+    }
+
+    private UUID reserve(UUID variantId, int quantity) {
+        return inventoryReservationService.reserve(
+                new StockReservationRequest(List.of(new StockReservationLine(variantId, quantity)))).getHoldId();
+    }
+
+    private UUID createVariant(int quantity, int minStockLevel, int maxStockLevel) {
+        return InventoryFixtures.createVariantWithStock(catalogImportService, productVariantRepository,
+                inventoryRepository, quantity, minStockLevel, maxStockLevel);
+    }
+}
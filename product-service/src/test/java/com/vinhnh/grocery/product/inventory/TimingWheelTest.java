@@ -0,0 +1,74 @@
+package com.vinhnh.grocery.product.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Kiểm tra TimingWheel với đồng hồ giả lập: phần tử không hết hạn sớm, trễ tối đa một tick,
+ * kể cả khi deadline nằm ở các tầng trên và phải được đổ xuống nhiều lần
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 8;
+
+    @Test
+    void expiresEveryItemWithinOneTickAfterDeadline() {
+        long start = 1_000_003;
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, start);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            // Tới 5 tầng: 80ms, 640ms, 5.12s, 40.96s, 327.68s
+            long deadline = start + random.nextInt(60_000);
+            deadlines.put(i, deadline);
+            wheel.add(i, deadline);
+        }
+        assertThat(wheel.size()).isEqualTo(5_000);
+
+        Map<Integer, Long> expiredAt = new HashMap<>();
+        for (long now = start; now <= start + 70_000; now++) {
+            long current = now;
+            wheel.advance(now, (item, deadline) -> {
+                assertThat(deadline).isEqualTo(deadlines.get(item));
+                assertThat(expiredAt.put(item, current)).isNull();
+            });
+            // Thêm phần tử trong lúc wheel đang chạy
+            if (now % 1_000 == 0 && now < start + 60_000) {
+                int item = deadlines.size();
+                deadlines.put(item, now + random.nextInt(5_000));
+                wheel.add(item, deadlines.get(item));
+            }
+        }
+
+        assertThat(wheel.size()).isZero();
+        assertThat(expiredAt).hasSameSizeAs(deadlines);
+        expiredAt.forEach((item, time) -> assertThat(time - deadlines.get(item)).isBetween(1L, TICK));
+    }
+
+    @Test
+    void pastDeadlineExpiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0);
+        wheel.advance(1_000, (item, deadline) -> { });
+        wheel.add("quá hạn", 10);
+
+        List<String> expired = new ArrayList<>();
+        assertThat(wheel.advance(1_005, (item, deadline) -> expired.add(item))).isZero();
+        assertThat(wheel.advance(1_010, (item, deadline) -> expired.add(item))).isEqualTo(1);
+        assertThat(expired).containsExactly("quá hạn");
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new TimingWheel<>(0, WHEEL_SIZE, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimingWheel<>(TICK, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.vinhnh.grocery.product.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kiểm tra VariantQuantityTable: đọc đúng qua nhiều lần mở rộng bảng, kể cả khi đọc song song với thread ghi
+ */
+class VariantQuantityTableTest {
+
+    @Test
+    void keepsValuesAcrossResizes() {
+        VariantQuantityTable table = new VariantQuantityTable(1);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID key = UUID.randomUUID();
+            keys.add(key);
+            table.put(key.getMostSignificantBits(), key.getLeastSignificantBits(), i);
+        }
+        table.put(keys.get(0).getMostSignificantBits(), keys.get(0).getLeastSignificantBits(), -5);
+
+        assertThat(table.size()).isEqualTo(10_000);
+        assertThat(get(table, keys.get(0))).isEqualTo(-5);
+        for (int i = 1; i < keys.size(); i++) {
+            assertThat(get(table, keys.get(i))).isEqualTo(i);
+        }
+        assertThat(get(table, UUID.randomUUID())).isEqualTo(VariantQuantityTable.MISSING);
+        assertThat(get(table, new UUID(0, 1))).isEqualTo(VariantQuantityTable.MISSING);
+    }
+
+    @Test
+    void readersSeeOnlyPublishedValuesWhileWriterGrowsTable() throws Exception {
+        VariantQuantityTable table = new VariantQuantityTable(1);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            keys.add(UUID.randomUUID());
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                for (int i = 0; i < keys.size(); i += 97) {
+                    int value = get(table, keys.get(i));
+                    // Key chưa thêm thì MISSING, đã thêm thì phải là đúng giá trị đã ghi (i hoặc -i)
+                    if (value != VariantQuantityTable.MISSING && value != i && value != -i) {
+                        failure.set("key " + i + " có giá trị " + value);
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < keys.size(); i++) {
+            table.put(keys.get(i).getMostSignificantBits(), keys.get(i).getLeastSignificantBits(), i);
+            if (i % 3 == 0) {
+                table.put(keys.get(i).getMostSignificantBits(), keys.get(i).getLeastSignificantBits(), -i);
+            }
+        }
+        writing.set(false);
+        reader.join();
+
+        assertThat(failure.get()).isNull();
+        assertThat(table.size()).isEqualTo(keys.size());
+    }
+
+    private static int get(VariantQuantityTable table, UUID key) {
+        return table.get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,46 @@
+package com.vinhnh.grocery.product.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Kiểm tra /actuator/prometheus xuất đủ các metrics do module common và product-service đăng ký
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusScrapeExposesLatencyQueryAndSnapshotMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/categories/active")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("le=\"0.25\"")
+                .contains("hibernate_query_count_queries_count{")
+                .contains("uri=\"/api/v1/categories/active\"")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("category_snapshot_size")
+                .contains("second_level_cache_requests_total{")
+                .contains("jvm_gc_")
+                .contains("application=\"product-service-test\"");
+    }
+}
@@ -0,0 +1,124 @@
+package com.vinhnh.grocery.product.search;
+
+import com.vinhnh.grocery.product.dto.CategoryUpdateRequest;
+import com.vinhnh.grocery.product.dto.ProductSearchItem;
+import com.vinhnh.grocery.product.dto.ProductSearchResponse;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.CategoryService;
+import com.vinhnh.grocery.product.service.ProductSearchService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Kiểm tra tìm kiếm product: bỏ dấu, mọi từ phải khớp, tiền tố, xếp hạng theo field,
+ * cập nhật sau khi đổi tên category và mở lại index từ đĩa
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductSearchIndexTest {
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void findsProductsWithoutDiacriticsAndRanksNameMatchesFirst() throws Exception {
+        String tag = importCatalog();
+
+        ProductSearchResponse milk = productSearchService.search("sua tuoi " + tag, 0, 10);
+        assertThat(milk.getItems()).extracting(ProductSearchItem::getName)
+                .containsExactly("Sữa tươi Đà Lạt " + tag, "Bánh flan " + tag);
+        assertThat(milk.getItems().get(0).getCategoryName()).isEqualTo("Sữa " + tag);
+        assertThat(milk.getItems().get(0).getBrandName()).isEqualTo("Đà Lạt Milk " + tag);
+
+        // Từ cuối là tiền tố
+        assertThat(productSearchService.search(tag + " gạ", 0, 10).getItems())
+                .extracting(ProductSearchItem::getName).containsExactly("Gạo ST25 " + tag);
+        // Mọi từ đều phải khớp; brand và category cũng được index
+        assertThat(productSearchService.search("gao sua " + tag, 0, 10).getTotalHits()).isZero();
+        assertThat(productSearchService.search("milk " + tag, 0, 10).getTotalHits()).isEqualTo(1);
+        assertThat(productSearchService.search(tag, 1, 2).getItems()).hasSize(1);
+        assertThat(productSearchService.search(tag, 0, 2).getTotalHits()).isEqualTo(3);
+
+        mockMvc.perform(get("/api/v1/products/search").param("q", "DA LAT " + tag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalHits").value(1))
+                .andExpect(jsonPath("$.data.items[0].name").value("Sữa tươi Đà Lạt " + tag));
+        assertThatThrownBy(() -> productSearchService.search(" ", 0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productSearchService.search(tag, 50, 20)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void renamingCategoryReindexesItsProducts() {
+        String tag = importCatalog();
+        UUID categoryId = categoryService.getCategoryByName("Ngũ cốc " + tag).getId();
+
+        categoryService.updateCategory(categoryId, new CategoryUpdateRequest("Lương thực " + tag, null, null, null));
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> productSearchService.search("luong thuc " + tag, 0, 10).getTotalHits() == 1);
+        assertThat(productSearchService.search("ngu coc " + tag, 0, 10).getTotalHits()).isZero();
+    }
+
+    @Test
+    void reopensFromDiskWithoutRebuilding() {
+        String tag = importCatalog();
+        long documents = productSearchIndex.getStats().getDocuments();
+
+        productSearchIndex.stop();
+        assertThat(productSearchIndex.getStats().getDocuments()).isZero();
+        productSearchIndex.start();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> productSearchIndex.getStats().getLastRefreshAt() != null);
+        assertThat(productSearchIndex.getStats().getDocuments()).isEqualTo(documents);
+        assertThat(productSearchService.search("sua tuoi " + tag, 0, 10).getTotalHits()).isEqualTo(2);
+    }
+
+    /**
+     * Import catalog có một token riêng cho test rồi chờ index cập nhật
+     */
+    private String importCatalog() {
+        String tag = CatalogFixtures.tag("t");
+        String ndjson = """
+                {"type":"brand","name":"Đà Lạt Milk %1$s"}
+                {"type":"brand","name":"Nông sản %1$s"}
+                {"type":"category","name":"Sữa %1$s"}
+                {"type":"category","name":"Ngũ cốc %1$s"}
+                {"type":"category","name":"Tráng miệng %1$s"}
+                {"type":"product","name":"Sữa tươi Đà Lạt %1$s","description":"Sữa bò tươi thanh trùng","category":"Sữa %1$s","brand":"Đà Lạt Milk %1$s"}
+                {"type":"product","name":"Gạo ST25 %1$s","description":"Gạo thơm","category":"Ngũ cốc %1$s","brand":"Nông sản %1$s"}
+                {"type":"product","name":"Bánh flan %1$s","description":"Làm từ sữa tươi và trứng","category":"Tráng miệng %1$s","brand":"Nông sản %1$s"}
+                """.formatted(tag);
+        CatalogFixtures.importNdjson(catalogImportService, ndjson);
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> productSearchIndex.search(tag, 0, 10).getTotalHits() == 3);
+        return tag;
+    }
+}
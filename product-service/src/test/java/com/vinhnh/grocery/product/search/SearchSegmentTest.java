@@ -0,0 +1,141 @@
+package com.vinhnh.grocery.product.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kiểm tra analyzer, dựng / đọc / ghi segment và merge bỏ document đã xóa
+ */
+class SearchSegmentTest {
+
+    private static final int[] WEIGHTS = {4, 1};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void analyzerFoldsVietnameseDiacritics() {
+        assertThat(TextAnalyzer.analyze("Sữa tươi ĐÀ LẠT - 100% (hộp 1L)"))
+                .containsExactly("sua", "tuoi", "da", "lat", "100", "hop", "1l");
+        assertThat(TextAnalyzer.analyze("  ,; ")).isEmpty();
+    }
+
+    @Test
+    void segmentSurvivesWriteAndRead() throws Exception {
+        UUID milk = UUID.randomUUID();
+        UUID rice = UUID.randomUUID();
+        SearchSegment.Builder builder = new SearchSegment.Builder();
+        builder.add(milk, new String[]{"Sữa tươi", "sữa tươi nguyên chất"}, WEIGHTS);
+        builder.add(rice, new String[]{"Gạo ST25", null}, WEIGHTS);
+        SearchSegment segment = builder.build(7);
+
+        Path file = directory.resolve("segment.seg");
+        segment.write(file);
+        SearchSegment read = SearchSegment.read(file, 7);
+
+        assertThat(read.docCount()).isEqualTo(2);
+        assertThat(read.termCount()).isEqualTo(segment.termCount());
+        assertThat(read.totalLength()).isEqualTo(segment.totalLength());
+        int milkDoc = read.findDoc(milk);
+        assertThat(read.productId(milkDoc)).isEqualTo(milk);
+        assertThat(read.docLength(milkDoc)).isEqualTo(4 + 4 + 4);
+        int sua = read.termIndex("sua");
+        assertThat(read.postingCount(sua)).isEqualTo(1);
+        assertThat(read.postingDocs()[read.postingStart(sua)]).isEqualTo(milkDoc);
+        assertThat(read.freq(read.postingStart(sua))).isEqualTo(4 + 1);
+        assertThat(read.termIndex("nguyen")).isNotNegative();
+        assertThat(read.findDoc(UUID.randomUUID())).isEqualTo(-1);
+    }
+
+    @Test
+    void mergeDropsDeletedDocumentsAndKeepsPostingsSorted() {
+        List<SearchSegment> segments = new ArrayList<>();
+        List<BitSet> deleted = new ArrayList<>();
+        List<UUID> kept = new ArrayList<>();
+        for (int s = 0; s < 3; s++) {
+            SearchSegment.Builder builder = new SearchSegment.Builder();
+            for (int i = 0; i < 100; i++) {
+                builder.add(UUID.randomUUID(), new String[]{"rau " + (i % 2 == 0 ? "cai" : "muong"), null}, WEIGHTS);
+            }
+            SearchSegment segment = builder.build(s + 1);
+            BitSet removed = new BitSet();
+            for (int doc = 0; doc < segment.docCount(); doc++) {
+                if (doc % 3 == 0) {
+                    removed.set(doc);
+                } else {
+                    kept.add(segment.productId(doc));
+                }
+            }
+            segments.add(segment);
+            deleted.add(removed);
+        }
+
+        SearchSegment merged = SearchSegment.merge(10, segments, deleted);
+
+        assertThat(merged.docCount()).isEqualTo(kept.size());
+        kept.forEach(id -> assertThat(merged.findDoc(id)).isNotNegative());
+        int rau = merged.termIndex("rau");
+        assertThat(merged.postingCount(rau)).isEqualTo(kept.size());
+        assertThat(merged.postingCount(merged.termIndex("cai")) + merged.postingCount(merged.termIndex("muong")))
+                .isEqualTo(kept.size());
+        int[] docs = merged.postingDocs();
+        for (int p = merged.postingStart(rau) + 1; p < merged.postingEnd(rau); p++) {
+            assertThat(docs[p]).isGreaterThan(docs[p - 1]);
+        }
+    }
+
+    @Test
+    void advanceFindsFirstDocumentNotBeforeTarget() {
+        int[] docs = {1, 3, 5, 7, 9, 11, 13, 15, 17};
+        assertThat(ProductSearchIndex.advance(docs, 0, docs.length, 0)).isZero();
+        assertThat(ProductSearchIndex.advance(docs, 0, docs.length, 7)).isEqualTo(3);
+        assertThat(ProductSearchIndex.advance(docs, 2, docs.length, 8)).isEqualTo(4);
+        assertThat(ProductSearchIndex.advance(docs, 0, docs.length, 17)).isEqualTo(8);
+        assertThat(ProductSearchIndex.advance(docs, 0, docs.length, 18)).isEqualTo(docs.length);
+        assertThat(ProductSearchIndex.advance(docs, 0, 4, 9)).isEqualTo(4);
+    }
+
+    @Test
+    void blocksTrackMaxFrequencyAndMinLength() {
+        SearchSegment.Builder builder = new SearchSegment.Builder();
+        int documents = SearchSegment.BLOCK_SIZE * 2 + 10;
+        for (int i = 0; i < documents; i++) {
+            // Mỗi document có "rau"; document 5 lặp "rau" nhiều lần, document thứ BLOCK_SIZE + 1 ngắn nhất
+            // (tần suất và độ dài đã nhân trọng số field)
+            String name = i == 5 ? "rau rau rau rau" : i == SearchSegment.BLOCK_SIZE + 1 ? "rau" : "rau cai xanh";
+            builder.add(UUID.randomUUID(), new String[]{name, null}, WEIGHTS);
+        }
+        SearchSegment segment = builder.build(1);
+        int rau = segment.termIndex("rau");
+        int start = segment.postingStart(rau);
+        int[] docs = segment.postingDocs();
+        int frequentDoc = -1;
+        int shortDoc = -1;
+        for (int p = start; p < segment.postingEnd(rau); p++) {
+            if (segment.freq(p) == 16) {
+                frequentDoc = p;
+            }
+            if (segment.docLength(docs[p]) == WEIGHTS[0]) {
+                shortDoc = p;
+            }
+        }
+
+        assertThat(segment.blockEnd(rau, start)).isEqualTo(start + SearchSegment.BLOCK_SIZE);
+        assertThat(segment.blockEnd(rau, start + SearchSegment.BLOCK_SIZE * 2 + 3)).isEqualTo(segment.postingEnd(rau));
+        assertThat(segment.blockMaxFreq(segment.block(rau, frequentDoc))).isEqualTo(16);
+        assertThat(segment.blockMinLength(segment.block(rau, shortDoc))).isEqualTo(WEIGHTS[0]);
+        for (int p = start; p < segment.postingEnd(rau); p++) {
+            int block = segment.block(rau, p);
+            assertThat(segment.freq(p)).isLessThanOrEqualTo(segment.blockMaxFreq(block));
+            assertThat(segment.docLength(docs[p])).isGreaterThanOrEqualTo(segment.blockMinLength(block));
+        }
+    }
+}
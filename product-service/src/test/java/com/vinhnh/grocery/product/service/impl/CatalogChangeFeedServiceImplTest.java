@@ -0,0 +1,176 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.changefeed.CatalogChangeEntry;
+import com.vinhnh.grocery.product.changefeed.CatalogChangeLog;
+import com.vinhnh.grocery.product.dto.CatalogChangeFeedResponse;
+import com.vinhnh.grocery.product.dto.CatalogChangeItem;
+import com.vinhnh.grocery.product.dto.CatalogChangeType;
+import com.vinhnh.grocery.product.dto.CatalogEntityType;
+import com.vinhnh.grocery.product.dto.CategoryCreateRequest;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategoryUpdateRequest;
+import com.vinhnh.grocery.product.service.CatalogChangeFeedService;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.CategoryService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Change feed catalog: thay đổi được ghi cùng transaction, đọc theo seq và tiếp tục được từ token
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogChangeFeedServiceImplTest {
+
+    @Autowired
+    private CatalogChangeFeedService catalogChangeFeedService;
+
+    @Autowired
+    private CatalogChangeLog catalogChangeLog;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void recordsCreatedUpdatedAndDeactivatedInSequenceOrder() {
+        String tag = CatalogFixtures.tag("F");
+        String start = catalogChangeFeedService.getCurrentToken();
+        Map<String, UUID> ids = importCatalog(tag);
+        UUID categoryId = ids.get("Sữa " + tag);
+        UUID productId = ids.get("Sữa tươi " + tag);
+
+        CatalogChangeFeedResponse imported = catalogChangeFeedService.getChanges(start, 100);
+        assertThat(imported.isHasMore()).isFalse();
+        assertThat(imported.getChanges())
+                .extracting(CatalogChangeItem::getEntityType, CatalogChangeItem::getEntityId,
+                        CatalogChangeItem::getParentId, CatalogChangeItem::getChangeType)
+                .containsSubsequence(
+                        tuple(CatalogEntityType.CATEGORY, categoryId, null, CatalogChangeType.CREATED),
+                        tuple(CatalogEntityType.PRODUCT, productId, categoryId, CatalogChangeType.CREATED),
+                        tuple(CatalogEntityType.VARIANT, ids.get(tag + "-1L"), productId, CatalogChangeType.CREATED));
+        assertThat(imported.getChanges())
+                .filteredOn(change -> change.getEntityId().equals(ids.get(tag + "-1L")))
+                .singleElement()
+                .satisfies(change -> assertThat(change.getPrice()).isEqualByComparingTo("32000"));
+
+        String afterImport = imported.getNextToken();
+        CategoryUpdateRequest update = new CategoryUpdateRequest();
+        update.setDescription("Sữa các loại");
+        categoryService.updateCategory(categoryId, update);
+        categoryService.deactivateCategory(categoryId);
+
+        CatalogChangeFeedResponse updated = catalogChangeFeedService.getChanges(afterImport, 100);
+        assertThat(updated.getChanges())
+                .filteredOn(change -> change.getEntityId().equals(categoryId))
+                .extracting(CatalogChangeItem::getChangeType)
+                .containsExactly(CatalogChangeType.UPDATED, CatalogChangeType.DEACTIVATED);
+        assertThat(updated.getChanges()).extracting(CatalogChangeItem::getSequence).isSorted();
+        assertThat(updated.getChanges().get(0).getSequence())
+                .isGreaterThan(imported.getChanges().get(imported.getChanges().size() - 1).getSequence());
+
+        // Đọc lại từ token cuối không còn thay đổi nào, token giữ nguyên
+        CatalogChangeFeedResponse empty = catalogChangeFeedService.getChanges(updated.getNextToken(), 100);
+        assertThat(empty.getChanges()).isEmpty();
+        assertThat(empty.getNextToken()).isEqualTo(updated.getNextToken());
+    }
+
+    @Test
+    void pagesThroughChangesWithTokens() {
+        String tag = CatalogFixtures.tag("F");
+        String start = catalogChangeFeedService.getCurrentToken();
+        CategoryResponse category = categoryService.createCategory(new CategoryCreateRequest("Rau " + tag, null, null, 0));
+        for (int i = 0; i < 4; i++) {
+            categoryService.createCategory(new CategoryCreateRequest("Rau " + i + " " + tag, null, category.getId(), i));
+        }
+
+        List<CatalogChangeItem> all = catalogChangeFeedService.getChanges(start, 100).getChanges();
+        List<CatalogChangeItem> paged = new ArrayList<>();
+        String token = start;
+        CatalogChangeFeedResponse page;
+        do {
+            page = catalogChangeFeedService.getChanges(token, 2);
+            assertThat(page.getChanges()).hasSizeLessThanOrEqualTo(2);
+            paged.addAll(page.getChanges());
+            token = page.getNextToken();
+        } while (page.isHasMore());
+
+        assertThat(all).hasSizeGreaterThanOrEqualTo(5);
+        assertThat(paged).isEqualTo(all);
+        assertThat(all).filteredOn(change -> category.getId().equals(change.getParentId())).hasSize(4);
+    }
+
+    @Test
+    void changesRollBackWithTheirTransaction() {
+        String start = catalogChangeFeedService.getCurrentToken();
+        UUID entityId = UUID.randomUUID();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            catalogChangeLog.record(CatalogChangeEntry.product(entityId, null, CatalogChangeType.UPDATED));
+            status.setRollbackOnly();
+        });
+
+        assertThat(catalogChangeFeedService.getChanges(start, 100).getChanges())
+                .noneMatch(change -> change.getEntityId().equals(entityId));
+        assertThatThrownBy(() -> catalogChangeLog.record(
+                CatalogChangeEntry.product(entityId, null, CatalogChangeType.UPDATED)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void mergesChangesOfOneEntityWithinATransaction() {
+        String start = catalogChangeFeedService.getCurrentToken();
+        UUID entityId = UUID.randomUUID();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            catalogChangeLog.record(CatalogChangeEntry.category(entityId, null, CatalogChangeType.CREATED));
+            catalogChangeLog.record(CatalogChangeEntry.category(entityId, null, CatalogChangeType.UPDATED));
+        });
+
+        assertThat(catalogChangeFeedService.getChanges(start, 100).getChanges())
+                .filteredOn(change -> change.getEntityId().equals(entityId))
+                .extracting(CatalogChangeItem::getChangeType)
+                .containsExactly(CatalogChangeType.CREATED);
+    }
+
+    @Test
+    void rejectsInvalidTokenAndLimit() {
+        assertThatThrownBy(() -> catalogChangeFeedService.getChanges("không-phải-token", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalogChangeFeedService.getChanges(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalogChangeFeedService.getChanges(null, CatalogChangeFeedServiceImpl.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * @return key của dòng import (tên / SKU) -> id
+     */
+    private Map<String, UUID> importCatalog(String tag) {
+        String ndjson = """
+                {"type":"brand","name":"Vinamilk %1$s"}
+                {"type":"category","name":"Sữa %1$s"}
+                {"type":"product","name":"Sữa tươi %1$s","category":"Sữa %1$s","brand":"Vinamilk %1$s"}
+                {"type":"variant","product":"Sữa tươi %1$s","sku":"%1$s-1L","size":"1L","price":32000}
+                """.formatted(tag);
+        return CatalogFixtures.importNdjson(catalogImportService, ndjson);
+    }
+}
@@ -0,0 +1,151 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinhnh.grocery.product.dto.CatalogExportFormat;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogExportService;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import com.vinhnh.grocery.product.support.InventoryFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Export catalog dạng stream: mỗi variant một dòng, product chưa có variant vẫn có dòng, CSV có header và gzip
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogExportServiceImplTest {
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportsOneNdjsonRowPerVariantAndProductWithoutVariants() throws IOException {
+        String tag = CatalogFixtures.tag("E");
+        Map<String, UUID> ids = importCatalog(tag);
+        InventoryFixtures.addInventory(productVariantRepository, inventoryRepository, ids.get(tag + "-1L"), 40);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = catalogExportService.export(CatalogExportFormat.NDJSON, output);
+
+        List<JsonNode> tagged = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            if (row.get("productName").asText().endsWith(tag)) {
+                tagged.add(row);
+            }
+        }
+        assertThat(rows).isGreaterThanOrEqualTo(3);
+        assertThat(tagged).hasSize(3);
+
+        Map<String, JsonNode> bySku = tagged.stream()
+                .filter(row -> !row.get("sku").isNull())
+                .collect(Collectors.toMap(row -> row.get("sku").asText(), row -> row));
+        JsonNode liter = bySku.get(tag + "-1L");
+        assertThat(liter.get("productId").asText()).isEqualTo(ids.get("Sữa tươi " + tag).toString());
+        assertThat(liter.get("categoryName").asText()).isEqualTo("Sữa " + tag);
+        assertThat(liter.get("brandName").asText()).isEqualTo("Vinamilk " + tag);
+        assertThat(liter.get("size").asText()).isEqualTo("1L");
+        assertThat(liter.get("price").decimalValue()).isEqualByComparingTo("32000");
+        assertThat(liter.get("availableQuantity").asInt()).isEqualTo(40);
+        assertThat(bySku.get(tag + "-180ml").get("availableQuantity").isNull()).isTrue();
+
+        JsonNode withoutVariants = tagged.stream()
+                .filter(row -> row.get("sku").isNull())
+                .findFirst().orElseThrow();
+        assertThat(withoutVariants.get("productName").asText()).isEqualTo("Sữa chua " + tag);
+        assertThat(withoutVariants.get("variantId").isNull()).isTrue();
+        assertThat(withoutVariants.get("price").isNull()).isTrue();
+    }
+
+    @Test
+    void streamsGzippedCsvWithHeader() throws Exception {
+        String tag = CatalogFixtures.tag("E");
+        importCatalog(tag);
+
+        MvcResult started = mockMvc.perform(get("/api/v1/catalog/export").param("format", "CSV").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"catalog.csv.gz\""))
+                .andReturn();
+
+        String csv;
+        try (GZIPInputStream input = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            csv = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = csv.split("\n");
+        assertThat(lines[0]).isEqualTo("productId,productName,unit,productActive,categoryId,categoryName,brandId,"
+                + "brandName,variantId,sku,size,color,price,variantActive,availableQuantity");
+        assertThat(csv).contains(tag + "-1L,1L,,32000.00,true,");
+        assertThat(lines).filteredOn(line -> line.contains(tag)).hasSize(3);
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        assertThatThrownBy(() -> CatalogExportFormat.from("xml"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Tạo "Sữa tươi {tag}" với 2 variant và "Sữa chua {tag}" chưa có variant
+     * @return key của dòng import (tên / SKU) -> id
+     */
+    private Map<String, UUID> importCatalog(String tag) {
+        String ndjson = """
+                {"type":"brand","name":"Vinamilk %1$s"}
+                {"type":"category","name":"Sữa %1$s"}
+                {"type":"product","name":"Sữa tươi %1$s","category":"Sữa %1$s","brand":"Vinamilk %1$s","unit":"hộp"}
+                {"type":"product","name":"Sữa chua %1$s","category":"Sữa %1$s","brand":"Vinamilk %1$s"}
+                {"type":"variant","product":"Sữa tươi %1$s","sku":"%1$s-1L","size":"1L","price":32000}
+                {"type":"variant","product":"Sữa tươi %1$s","sku":"%1$s-180ml","size":"180ml","price":8000}
+                """.formatted(tag);
+        return CatalogFixtures.importNdjson(catalogImportService, ndjson);
+    }
+}
@@ -0,0 +1,89 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.CatalogImportResponse;
+import com.vinhnh.grocery.product.dto.CatalogImportRowResult;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kiểm tra import catalog hàng loạt (NDJSON / CSV) trên H2
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogImportServiceImplTest {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Test
+    void importNdjsonCreatesRowsAndReportsPerRowResults() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String ndjson = """
+                {"type":"brand","name":"Vinamilk %1$s"}
+                {"type":"category","name":"Sữa %1$s"}
+                {"type":"category","name":"Sữa tươi %1$s","parent":"SỮA %1$s","displayOrder":2}
+                {"type":"product","name":"Sữa tươi 1L %1$s","unit":"hộp","category":"Sữa tươi %1$s","brand":"vinamilk %1$s"}
+                {"type":"variant","product":"Sữa tươi 1L %1$s","sku":"SKU-%1$s-1","price":32000}
+                {"type":"product","name":"Sữa chua %1$s","category":"Sữa %1$s","brand":"Không có"}
+                không phải json
+                {"type":"variant","product":"Sữa tươi 1L %1$s","sku":"SKU-%1$s-1","price":32000}
+                """.formatted(suffix);
+
+        CatalogImportResponse response = catalogImportService.importNdjson(stream(ndjson));
+
+        assertThat(response.getTotal()).isEqualTo(8);
+        assertThat(response.getCreated()).isEqualTo(5);
+        assertThat(response.getSkipped()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getRows()).extracting(CatalogImportRowResult::getStatus).containsExactly(
+                "CREATED", "CREATED", "CREATED", "CREATED", "CREATED", "FAILED", "FAILED", "SKIPPED");
+        assertThat(categoryService.getCategoryByName("Sữa tươi " + suffix).getParentName()).isEqualTo("Sữa " + suffix);
+
+        CatalogImportResponse again = catalogImportService.importNdjson(stream(ndjson));
+        assertThat(again.getCreated()).isZero();
+        assertThat(again.getSkipped()).isEqualTo(6);
+    }
+
+    @Test
+    void importCsvResolvesReferencesAcrossChunks() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        int variants = CatalogImportServiceImpl.CHUNK_SIZE * 2 + 10;
+        StringBuilder csv = new StringBuilder("type,name,parent,category,brand,product,sku,price\n")
+                .append("BRAND,Brand ").append(suffix).append(",,,,,,\n")
+                .append("CATEGORY,Category ").append(suffix).append(",,,,,,\n")
+                .append("PRODUCT,Product ").append(suffix).append(",,Category ").append(suffix)
+                .append(",Brand ").append(suffix).append(",,,\n");
+        for (int i = 0; i < variants; i++) {
+            csv.append("VARIANT,,,,,Product ").append(suffix).append(",SKU-").append(suffix).append('-').append(i)
+                    .append(",1000\n");
+        }
+        csv.append("VARIANT,,,,,Product ").append(suffix).append(",SKU-").append(suffix).append("-bad,abc\n");
+
+        CatalogImportResponse response = catalogImportService.importCsv(stream(csv.toString()));
+
+        assertThat(response.getCreated()).isEqualTo(variants + 3);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(productVariantRepository.count()).isGreaterThanOrEqualTo(variants);
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,276 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.common.dto.CursorPage;
+import com.vinhnh.grocery.common.dto.ResourceVersion;
+import com.vinhnh.grocery.product.cache.CategorySnapshotHolder;
+import com.vinhnh.grocery.product.changefeed.CatalogChangeLog;
+import com.vinhnh.grocery.product.dto.CategoryCursorSort;
+import com.vinhnh.grocery.product.dto.CategoryResponse;
+import com.vinhnh.grocery.product.dto.CategoryTreeNode;
+import com.vinhnh.grocery.product.entity.Category;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Kiểm tra các đường đọc category không quay về findAll() + lọc trong Java và không lazy load parent.
+ * Mỗi test đo số entity Hibernate nạp và số câu SQL: nếu một đường đi load cả bảng
+ * hoặc nạp parent từng dòng (N+1), các con số này sẽ tăng theo số category đã seed.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({CategoryServiceImpl.class, CategorySnapshotHolder.class, CatalogChangeLog.class})
+class CategoryServiceImplTest {
+
+    private static final int FILLER_CATEGORIES = 200;
+
+    @Autowired
+    private CategoryServiceImpl categoryService;
+
+    @Autowired
+    private CategorySnapshotHolder categorySnapshotHolder;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < FILLER_CATEGORIES; i++) {
+            entityManager.persist(category("Filler " + i, true));
+        }
+        entityManager.persist(category("Rau củ quả", true));
+        entityManager.persist(category("Rau xanh", true));
+        entityManager.persist(category("Rau khô", false));
+        entityManager.persist(category("100%_Organic", true));
+        entityManager.flush();
+        entityManager.clear();
+        categorySnapshotHolder.invalidate();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void existsByNameDoesNotLoadEntities() {
+        assertThat(categoryService.existsByName("RAU CỦ QUẢ")).isTrue();
+        assertThat(categoryService.existsByName("Rau khô")).isFalse();
+        assertThat(categoryService.existsByName("Không có")).isFalse();
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void countActiveCategoriesDoesNotLoadEntities() {
+        assertThat(categoryService.countActiveCategories()).isEqualTo(FILLER_CATEGORIES + 3);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getCategoryByNameLoadsOnlyMatchingRow() {
+        CategoryResponse response = categoryService.getCategoryByName("rau xanh");
+
+        assertThat(response.getName()).isEqualTo("Rau xanh");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getCategoryByNameIgnoresInactiveCategories() {
+        assertThatThrownBy(() -> categoryService.getCategoryByName("Rau khô"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void searchCategoriesByNameLoadsOnlyMatchingRows() {
+        List<CategoryResponse> result = categoryService.searchCategoriesByName("RAU");
+
+        assertThat(result).extracting(CategoryResponse::getName)
+                .containsExactlyInAnyOrder("Rau củ quả", "Rau xanh");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void searchCategoriesByNameTreatsWildcardsLiterally() {
+        assertThat(categoryService.searchCategoriesByName("%_"))
+                .extracting(CategoryResponse::getName)
+                .containsExactly("100%_Organic");
+        assertThat(categoryService.searchCategoriesByName("_")).hasSize(1);
+    }
+
+    @Test
+    void getAllActiveCategoriesSkipsInactiveRowsInDatabase() {
+        List<CategoryResponse> result = categoryService.getAllActiveCategories();
+
+        assertThat(result).hasSize(FILLER_CATEGORIES + 3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAllActiveCategoriesServesRepeatedReadsFromSnapshot() {
+        List<CategoryResponse> first = categoryService.getAllActiveCategories();
+        statistics.clear();
+
+        List<CategoryResponse> second = categoryService.getAllActiveCategories();
+
+        assertThat(second).isSameAs(first);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void getAllCategoriesLoadsParentsInSameQuery() {
+        Category parent = entityManager.persist(category("Đồ uống", true));
+        for (int i = 0; i < 100; i++) {
+            entityManager.persist(child("Đồ uống " + i, parent, i, true));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Page<CategoryResponse> page = categoryService.getAllCategories(
+                PageRequest.of(0, 100, Sort.by("displayOrder").descending()));
+
+        assertThat(page.getContent()).hasSize(100);
+        assertThat(page.getTotalElements()).isEqualTo(FILLER_CATEGORIES + 4 + 101);
+        assertThat(page.getContent().get(0).getParentName()).isEqualTo("Đồ uống");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void getCategorySliceSkipsCountQuery() {
+        Slice<CategoryResponse> slice = categoryService.getCategorySlice(PageRequest.of(0, 50, Sort.by("name")));
+
+        assertThat(slice.getContent()).hasSize(50);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getCategoriesByCursorWalksAllRowsOnceInKeyOrder() {
+        for (CategoryCursorSort sort : CategoryCursorSort.values()) {
+            List<CategoryResponse> visited = new ArrayList<>();
+            String cursor = null;
+            do {
+                statistics.clear();
+                CursorPage<CategoryResponse> page = categoryService.getCategoriesByCursor(cursor, sort, 37);
+                assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+                visited.addAll(page.getContent());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertThat(visited).hasSize(FILLER_CATEGORIES + 4);
+            assertThat(visited).extracting(CategoryResponse::getId).doesNotHaveDuplicates();
+            // Database so sánh UUID theo byte không dấu, tương đương so sánh chuỗi hex (UUID.compareTo so sánh có dấu)
+            Comparator<CategoryResponse> byId = Comparator.comparing(category -> category.getId().toString());
+            Comparator<CategoryResponse> expectedOrder = sort == CategoryCursorSort.DISPLAY_ORDER
+                    ? Comparator.comparing(CategoryResponse::getDisplayOrder).thenComparing(byId)
+                    : Comparator.comparing(CategoryResponse::getUpdatedAt).thenComparing(byId).reversed();
+            assertThat(visited).isSortedAccordingTo(expectedOrder);
+        }
+    }
+
+    @Test
+    void getCategoriesByCursorRejectsForeignCursor() {
+        String cursor = categoryService.getCategoriesByCursor(null, CategoryCursorSort.DISPLAY_ORDER, 10).getNextCursor();
+
+        assertThatThrownBy(() -> categoryService.getCategoriesByCursor(cursor, CategoryCursorSort.UPDATED_AT, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> categoryService.getCategoriesByCursor("không-phải-cursor", CategoryCursorSort.DISPLAY_ORDER, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getCategoryTreeLoadsWholeSubtreeInOneQuery() {
+        Category root = entityManager.persist(category("Thực phẩm", true));
+        Category meat = entityManager.persist(child("Thịt", root, 1, true));
+        Category vegetables = entityManager.persist(child("Rau", root, 0, true));
+        entityManager.persist(child("Thịt bò", meat, 0, true));
+        entityManager.persist(child("Thịt heo", meat, 1, true));
+        entityManager.persist(child("Rau ngừng bán", vegetables, 0, false));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<CategoryTreeNode> tree = categoryService.getCategoryTree(root.getId(), CategoryServiceImpl.MAX_TREE_DEPTH);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(tree).singleElement().satisfies(node -> {
+            assertThat(node.getName()).isEqualTo("Thực phẩm");
+            assertThat(node.getChildren()).extracting(CategoryTreeNode::getName).containsExactly("Rau", "Thịt");
+            assertThat(node.getChildren().get(0).getChildren()).isEmpty();
+            assertThat(node.getChildren().get(1).getChildren()).extracting(CategoryTreeNode::getName)
+                    .containsExactly("Thịt bò", "Thịt heo");
+        });
+
+        List<CategoryTreeNode> shallow = categoryService.getCategoryTree(root.getId(), 1);
+        assertThat(shallow.get(0).getChildren()).allSatisfy(node -> assertThat(node.getChildren()).isEmpty());
+    }
+
+    @Test
+    void getCategoryTreeRejectsInvalidDepth() {
+        assertThatThrownBy(() -> categoryService.getCategoryTree(null, CategoryServiceImpl.MAX_TREE_DEPTH + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getCategoriesVersionUsesSingleAggregateQuery() {
+        ResourceVersion version = categoryService.getCategoriesVersion();
+
+        assertThat(version.getEtag()).startsWith("\"categories-" + (FILLER_CATEGORIES + 4) + "-");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        Category extra = entityManager.persist(category("Thêm mới", true));
+        entityManager.flush();
+        assertThat(categoryService.getCategoriesVersion().getEtag()).isNotEqualTo(version.getEtag());
+
+        statistics.clear();
+        assertThat(categoryService.getCategoryVersion(extra.getId()).getEtag()).startsWith("\"" + extra.getId());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThatThrownBy(() -> categoryService.getCategoryVersion(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Category child(String name, Category parent, int displayOrder, boolean active) {
+        Category category = category(name, active);
+        category.setParent(parent);
+        category.setDisplayOrder(displayOrder);
+        return category;
+    }
+
+    private Category category(String name, boolean active) {
+        Category category = new Category();
+        category.setName(name);
+        category.setIsActive(active);
+        return category;
+    }
+}
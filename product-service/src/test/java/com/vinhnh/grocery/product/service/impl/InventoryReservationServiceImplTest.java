@@ -0,0 +1,263 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.StockReservationLine;
+import com.vinhnh.grocery.product.dto.StockReservationRequest;
+import com.vinhnh.grocery.product.dto.StockReservationResponse;
+import com.vinhnh.grocery.product.inventory.HoldExpiryScheduler;
+import com.vinhnh.grocery.product.inventory.ReservationEngine;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.InventoryReservationService;
+import com.vinhnh.grocery.product.support.InventoryFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Kiểm tra giữ hàng nhiều dòng bằng UPDATE có điều kiện: gộp dòng trùng, all-or-nothing,
+ * không lost update khi nhiều đơn hàng cùng giữ một variant; hủy / xác nhận / hết hạn hold
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InventoryReservationServiceImplTest {
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private HoldExpiryScheduler holdExpiryScheduler;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void reservesAllLinesAndMergesDuplicates() {
+        UUID milk = createVariant(10);
+        UUID bread = createVariant(5);
+
+        StockReservationResponse response = inventoryReservationService.reserve(request(
+                new StockReservationLine(milk, 2), new StockReservationLine(bread, 1), new StockReservationLine(milk, 3)));
+
+        assertThat(response.getLines()).hasSize(2);
+        assertThat(response.getLines()).filteredOn(line -> line.getProductVariantId().equals(milk))
+                .singleElement().extracting(StockReservationLine::getQuantity).isEqualTo(5);
+        assertThat(reserved(milk)).isEqualTo(5);
+        assertThat(available(milk)).isEqualTo(5);
+        assertThat(reserved(bread)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsWholeOrderWhenOneLineIsShort() {
+        UUID milk = createVariant(10);
+        UUID bread = createVariant(1);
+
+        assertThatThrownBy(() -> inventoryReservationService.reserve(request(
+                new StockReservationLine(milk, 2), new StockReservationLine(bread, 2))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(bread.toString());
+        assertThatThrownBy(() -> inventoryReservationService.reserve(request(
+                new StockReservationLine(milk, 2), new StockReservationLine(UUID.randomUUID(), 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(reserved(milk)).isZero();
+        assertThat(reserved(bread)).isZero();
+    }
+
+    @Test
+    void guardedUpdateIsTheOnlyReservationPath() {
+        // Không có counter trong bộ nhớ nào nhận reserve song song với UPDATE có điều kiện
+        assertThat(applicationContext.getBeanProvider(ReservationEngine.class).getIfAvailable()).isNull();
+    }
+
+    @Test
+    void concurrentOrdersDoNotLoseUpdates() throws Exception {
+        UUID variantId = createVariant(50);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    try {
+                        inventoryReservationService.reserve(request(new StockReservationLine(variantId, 1)));
+                        succeeded.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // hết hàng
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(succeeded.get()).isEqualTo(50);
+        assertThat(reserved(variantId)).isEqualTo(50);
+        assertThat(available(variantId)).isZero();
+    }
+
+    @Test
+    void confirmAndReleaseSettleHoldExactlyOnce() {
+        UUID variantId = createVariant(10);
+        StockReservationResponse confirmed = inventoryReservationService.reserve(request(new StockReservationLine(variantId, 3)));
+        StockReservationResponse released = inventoryReservationService.reserve(request(new StockReservationLine(variantId, 2)));
+        assertThat(confirmed.getExpiresAt()).isAfter(confirmed.getReservedAt());
+        assertThat(reserved(variantId)).isEqualTo(5);
+
+        inventoryReservationService.confirm(confirmed.getHoldId());
+        inventoryReservationService.release(released.getHoldId());
+
+        assertThat(quantity(variantId)).isEqualTo(7);
+        assertThat(reserved(variantId)).isZero();
+        assertThat(available(variantId)).isEqualTo(7);
+        assertThatThrownBy(() -> inventoryReservationService.confirm(confirmed.getHoldId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> inventoryReservationService.release(released.getHoldId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(inventoryReservationService.releaseExpired(List.of(confirmed.getHoldId(), released.getHoldId()))).isZero();
+    }
+
+    @Test
+    void expiredHoldIsReleasedByTimingWheel() {
+        UUID variantId = createVariant(10);
+        StockReservationRequest request = request(new StockReservationLine(variantId, 4));
+        request.setHoldSeconds(1);
+        inventoryReservationService.reserve(request);
+        assertThat(reserved(variantId)).isEqualTo(4);
+        long expiredBefore = holdExpiryScheduler.getStats().getExpiredHolds();
+
+        // Bộ đếm được cộng sau khi transaction trả hàng commit: chờ cả hai
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(reserved(variantId)).isZero();
+            assertThat(holdExpiryScheduler.getStats().getExpiredHolds()).isGreaterThan(expiredBefore);
+        });
+
+        assertThat(available(variantId)).isEqualTo(10);
+    }
+
+    @Test
+    void expiredHoldCannotBeConfirmed() {
+        UUID variantId = createVariant(10);
+        StockReservationResponse hold = inventoryReservationService.reserve(request(new StockReservationLine(variantId, 2)));
+        expire(hold.getHoldId());
+
+        assertThatThrownBy(() -> inventoryReservationService.confirm(hold.getHoldId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(quantity(variantId)).isEqualTo(10);
+    }
+
+    @Test
+    void holdUnknownToTimingWheelIsReleasedBySweep() {
+        UUID variantId = createVariant(10);
+        StockReservationResponse hold = inventoryReservationService.reserve(request(new StockReservationLine(variantId, 3)));
+        // Wheel vẫn giữ hạn 15 phút; hạn mới chỉ có trong database, giống hold tạo ở instance khác
+        expire(hold.getHoldId());
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(reserved(variantId)).isZero());
+
+        assertThat(available(variantId)).isEqualTo(10);
+        assertThat(inventoryReservationService.releaseExpired(List.of(hold.getHoldId()))).isZero();
+    }
+
+    @Test
+    void rejectsHoldLongerThanMaxTtl() {
+        StockReservationRequest request = request(new StockReservationLine(createVariant(1), 1));
+        request.setHoldSeconds(Integer.MAX_VALUE);
+
+        assertThatThrownBy(() -> inventoryReservationService.reserve(request))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void endpointValidatesRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[{\"productVariantId\":\"" + UUID.randomUUID() + "\",\"quantity\":0}]}"))
+                .andExpect(status().isBadRequest());
+
+        UUID variantId = createVariant(3);
+        mockMvc.perform(post("/api/v1/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[{\"productVariantId\":\"" + variantId + "\",\"quantity\":3}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.lines[0].quantity").value(3));
+    }
+
+    private StockReservationRequest request(StockReservationLine... lines) {
+        return new StockReservationRequest(List.of(lines));
+    }
+
+    private UUID createVariant(int quantity) {
+        return InventoryFixtures.createVariantWithStock(
+                catalogImportService, productVariantRepository, inventoryRepository, quantity);
+    }
+
+    private void expire(UUID holdId) {
+        jdbcTemplate.update("UPDATE inventory_hold SET expires_at = ? WHERE hold_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), holdId);
+    }
+
+    private int reserved(UUID variantId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT reserved_quantity FROM inventory WHERE product_variant_id = ?", Integer.class, variantId);
+    }
+
+    private int quantity(UUID variantId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT quantity FROM inventory WHERE product_variant_id = ?", Integer.class, variantId);
+    }
+
+    private int available(UUID variantId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT available_quantity FROM inventory WHERE product_variant_id = ?", Integer.class, variantId);
+    }
+}
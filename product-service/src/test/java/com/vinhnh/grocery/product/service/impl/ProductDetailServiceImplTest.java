@@ -0,0 +1,163 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.ProductDetailResponse;
+import com.vinhnh.grocery.product.dto.ProductImageItem;
+import com.vinhnh.grocery.product.dto.ProductVariantDetail;
+import com.vinhnh.grocery.product.dto.StockReservationLine;
+import com.vinhnh.grocery.product.dto.StockReservationRequest;
+import com.vinhnh.grocery.product.entity.ProductImage;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductImageRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.InventoryReservationService;
+import com.vinhnh.grocery.product.service.ProductDetailService;
+import com.vinhnh.grocery.product.service.RestockService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import com.vinhnh.grocery.product.support.InventoryFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Chi tiết sản phẩm đọc bằng số câu query cố định, được cache và bị xóa khỏi cache khi aggregate thay đổi
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductDetailServiceImplTest {
+
+    @Autowired
+    private ProductDetailService productDetailService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private RestockService restockService;
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void loadsAggregateWithFixedQueryCountAndServesFromCache() {
+        String tag = CatalogFixtures.tag("D");
+        Map<String, UUID> ids = importProduct(tag, 12);
+        UUID productId = ids.get("Sữa tươi " + tag);
+        UUID cheapest = ids.get(tag + "-0");
+        addImage(cheapest, "https://cdn.example.com/" + tag + "/b.jpg", 2);
+        addImage(cheapest, "https://cdn.example.com/" + tag + "/a.jpg", 1);
+        InventoryFixtures.addInventory(productVariantRepository, inventoryRepository, cheapest, 30);
+        InventoryFixtures.addInventory(productVariantRepository, inventoryRepository, ids.get(tag + "-5"), 0);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            ProductDetailResponse detail = productDetailService.getDetail(productId);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+
+            assertThat(detail.getCategoryName()).isEqualTo("Sữa " + tag);
+            assertThat(detail.getBrandName()).isEqualTo("Vinamilk " + tag);
+            assertThat(detail.getVariants()).hasSize(12);
+            ProductVariantDetail first = detail.getVariants().get(0);
+            assertThat(first.getSku()).isEqualTo(tag + "-0");
+            assertThat(first.getImages()).extracting(ProductImageItem::getDisplayOrder).containsExactly(1, 2);
+            assertThat(first.getInventory().getAvailableQuantity()).isEqualTo(30);
+            assertThat(first.getInventory().isInStock()).isTrue();
+            assertThat(detail.getVariants().get(5).getInventory().isInStock()).isFalse();
+            assertThat(detail.getVariants().get(1).getInventory()).isNull();
+
+            statistics.clear();
+            productDetailService.getDetail(productId);
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        assertThatThrownBy(() -> productDetailService.getDetail(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void writesToAggregateInvalidateCachedDetail() {
+        String tag = CatalogFixtures.tag("D");
+        Map<String, UUID> ids = importProduct(tag, 2);
+        UUID productId = ids.get("Sữa tươi " + tag);
+        UUID variantId = ids.get(tag + "-0");
+        InventoryFixtures.addInventory(productVariantRepository, inventoryRepository, variantId, 10);
+        assertThat(productDetailService.getDetail(productId).getVariants()).hasSize(2);
+
+        // Giữ hàng chỉ đổi reserved_quantity: entry giữ nguyên, số lượng có thể bán vẫn mới
+        inventoryReservationService.reserve(new StockReservationRequest(
+                List.of(new StockReservationLine(variantId, 4)), null));
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                productDetailService.getDetail(productId).getVariants().get(0).getInventory().getAvailableQuantity() == 6);
+        assertThat(productDetailService.getDetail(productId).getVariants().get(0).getInventory().getQuantity())
+                .isEqualTo(10);
+
+        // Nhập kho đổi quantity
+        restockService.restockCsv(new ByteArrayInputStream(("sku,quantity\n" + tag + "-0,5\n")
+                .getBytes(StandardCharsets.UTF_8)));
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                productDetailService.getDetail(productId).getVariants().get(0).getInventory().getQuantity() == 15);
+
+        // Variant mới của product
+        CatalogFixtures.importNdjson(catalogImportService, """
+                {"type":"variant","product":"Sữa tươi %1$s","sku":"%1$s-new","price":1000}
+                """.formatted(tag));
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                productDetailService.getDetail(productId).getVariants().size() == 3);
+        assertThat(productDetailService.getDetail(productId).getVariants().get(0).getSku()).isEqualTo(tag + "-new");
+    }
+
+    /**
+     * Tạo product "Sữa tươi {tag}" với các variant {tag}-0 .. {tag}-(n-1), giá tăng dần
+     * @return key của dòng import (tên / SKU) -> id
+     */
+    private Map<String, UUID> importProduct(String tag, int variants) {
+        StringBuilder ndjson = new StringBuilder("""
+                {"type":"brand","name":"Vinamilk %1$s"}
+                {"type":"category","name":"Sữa %1$s"}
+                {"type":"product","name":"Sữa tươi %1$s","category":"Sữa %1$s","brand":"Vinamilk %1$s"}
+                """.formatted(tag));
+        for (int i = 0; i < variants; i++) {
+            ndjson.append("{\"type\":\"variant\",\"product\":\"Sữa tươi %1$s\",\"sku\":\"%1$s-%2$d\",\"price\":%3$d}\n"
+                    .formatted(tag, i, 10000 + i * 1000));
+        }
+        return CatalogFixtures.importNdjson(catalogImportService, ndjson.toString());
+    }
+
+    private void addImage(UUID variantId, String url, int displayOrder) {
+        ProductImage image = new ProductImage();
+        image.setProductVariant(productVariantRepository.getReferenceById(variantId));
+        image.setImageUrl(url);
+        image.setDisplayOrder(displayOrder);
+        productImageRepository.save(image);
+    }
+}
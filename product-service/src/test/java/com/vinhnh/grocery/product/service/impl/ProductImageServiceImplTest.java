@@ -0,0 +1,131 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.ProductImageItem;
+import com.vinhnh.grocery.product.entity.ProductImage;
+import com.vinhnh.grocery.product.image.ImageStorage;
+import com.vinhnh.grocery.product.repository.ProductImageRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.ProductDetailService;
+import com.vinhnh.grocery.product.service.ProductImageService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Upload ảnh lưu file gốc, pipeline nền ghi kích thước ảnh gốc và thêm bản gallery / thumbnail
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductImageServiceImplTest {
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private ProductDetailService productDetailService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Test
+    void uploadCreatesGalleryAndThumbnailRenditions() throws IOException {
+        String tag = CatalogFixtures.tag("I");
+        Map<String, UUID> ids = CatalogFixtures.importVariant(catalogImportService, tag);
+        UUID productId = ids.get("Bánh " + tag);
+        UUID variantId = ids.get(tag);
+        byte[] png = png(1600, 1200);
+
+        ProductImageItem original = productImageService.upload(variantId,
+                new MockMultipartFile("file", "banh.png", "image/png", png), "Bánh quy", true, 3);
+        assertThat(original.getImageType()).isEqualTo("detail");
+        assertThat(original.getFileSize()).isEqualTo(png.length);
+        assertThat(original.getWidth()).isNull();
+
+        await().atMost(Duration.ofSeconds(20))
+                .until(() -> productImageRepository.findByProductIdOrderByDisplayOrder(productId).size() == 3);
+        Map<String, ProductImage> byType = productImageRepository.findByProductIdOrderByDisplayOrder(productId).stream()
+                .collect(Collectors.toMap(ProductImage::getImageType, image -> image));
+        assertThat(byType.get("detail").getWidth()).isEqualTo(1600);
+        assertThat(byType.get("detail").getHeight()).isEqualTo(1200);
+        assertThat(byType.get("gallery").getWidth()).isEqualTo(800);
+        assertThat(byType.get("gallery").getHeight()).isEqualTo(600);
+        assertThat(byType.get("thumbnail").getWidth()).isEqualTo(200);
+        assertThat(byType.get("thumbnail").getHeight()).isEqualTo(150);
+        for (ProductImage image : byType.values()) {
+            assertThat(image.getDisplayOrder()).isEqualTo(3);
+            assertThat(image.getIsPrimary()).isTrue();
+            assertThat(Files.size(imageStorage.resolve(variantId, ImageStorage.fileName(image.getImageUrl()))))
+                    .isEqualTo(image.getFileSize());
+        }
+        assertThat(byType.get("thumbnail").getFileSize()).isLessThan(byType.get("gallery").getFileSize());
+
+        BufferedImage thumbnail = ImageIO.read(imageStorage.resolve(variantId,
+                ImageStorage.fileName(byType.get("thumbnail").getImageUrl())).toFile());
+        assertThat(thumbnail.getWidth()).isEqualTo(200);
+
+        // Pipeline phát ProductChangedEvent: chi tiết sản phẩm thấy đủ 3 ảnh
+        await().atMost(Duration.ofSeconds(10)).until(() ->
+                productDetailService.getDetail(productId).getVariants().get(0).getImages().size() == 3);
+        assertThat(productImageService.getIngestionStats().getCompleted()).isPositive();
+    }
+
+    @Test
+    void rejectsNonImagesAndUnknownVariants() {
+        String tag = CatalogFixtures.tag("I");
+        UUID variantId = CatalogFixtures.importVariant(catalogImportService, tag).get(tag);
+
+        assertThatThrownBy(() -> productImageService.upload(variantId,
+                new MockMultipartFile("file", "a.png", "image/png", "không phải ảnh".getBytes(StandardCharsets.UTF_8)),
+                null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Định dạng ảnh");
+        assertThatThrownBy(() -> productImageService.upload(UUID.randomUUID(),
+                new MockMultipartFile("file", "a.png", "image/png", new byte[]{1}), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productImageService.upload(variantId,
+                new MockMultipartFile("file", "a.png", "image/png", new byte[0]), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Ảnh PNG có kênh alpha: nửa trái trong suốt, nửa phải chuyển màu
+     */
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = width / 2; x < width; x += 8) {
+            graphics.setColor(new Color(x % 256, 120, 255 - x % 256));
+            graphics.fillRect(x, 0, 8, height);
+        }
+        graphics.dispose();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,133 @@
+package com.vinhnh.grocery.product.service.impl;
+
+import com.vinhnh.grocery.product.dto.RestockResponse;
+import com.vinhnh.grocery.product.dto.StockReservationLine;
+import com.vinhnh.grocery.product.dto.StockReservationRequest;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.InventoryReservationService;
+import com.vinhnh.grocery.product.service.RestockService;
+import com.vinhnh.grocery.product.support.InventoryFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Kiểm tra nhập kho từ CSV qua bảng tạm trên H2 (nhánh JDBC batch, COPY chỉ có trên PostgreSQL)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RestockServiceImplTest {
+
+    @Autowired
+    private RestockService restockService;
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void restockSumsRepeatedSkusAndReportsUnknownOnes() {
+        UUID first = createVariant(10);
+        UUID second = createVariant(0);
+        int lines = RestockServiceImpl.CHUNK_SIZE * 2 + 5;
+        StringBuilder csv = new StringBuilder("sku,quantity\n");
+        for (int i = 0; i < lines - 2; i++) {
+            csv.append(sku(i % 2 == 0 ? first : second)).append(",1\n");
+        }
+        csv.append("SKU-KHONG-CO-B,3\n").append(" SKU-KHONG-CO-A , 4 \n");
+
+        RestockResponse response = restockService.restockCsv(stream(csv.toString()));
+
+        assertThat(response.getTotalLines()).isEqualTo(lines);
+        assertThat(response.getUpdatedVariants()).isEqualTo(2);
+        assertThat(response.getUnknownSkuCount()).isEqualTo(2);
+        assertThat(response.getUnknownSkus()).containsExactly("SKU-KHONG-CO-A", "SKU-KHONG-CO-B");
+
+        Map<String, Object> firstRow = inventory(first);
+        assertThat(firstRow.get("QUANTITY")).isEqualTo(10 + (lines - 1) / 2);
+        assertThat(firstRow.get("AVAILABLE_QUANTITY")).isEqualTo(10 + (lines - 1) / 2);
+        assertThat(firstRow.get("LAST_RESTOCK_DATE")).isNotNull();
+        assertThat(inventory(second).get("QUANTITY")).isEqualTo((lines - 2) / 2);
+        assertThat(inventoryRepository.findUnreservedQuantityByVariantId(second)).contains((lines - 2) / 2);
+    }
+
+    @Test
+    void restockKeepsReservedQuantity() {
+        UUID variantId = createVariant(10);
+        inventoryReservationService.reserve(new StockReservationRequest(List.of(new StockReservationLine(variantId, 4))));
+
+        restockService.restockCsv(stream("sku,quantity\n" + sku(variantId) + ",5\n"));
+
+        Map<String, Object> row = inventory(variantId);
+        assertThat(row.get("QUANTITY")).isEqualTo(15);
+        assertThat(row.get("RESERVED_QUANTITY")).isEqualTo(4);
+        assertThat(row.get("AVAILABLE_QUANTITY")).isEqualTo(11);
+    }
+
+    @Test
+    void invalidFileRollsBackWholeRestock() {
+        UUID variantId = createVariant(10);
+        inventoryReservationService.reserve(new StockReservationRequest(List.of(new StockReservationLine(variantId, 8))));
+
+        assertThatThrownBy(() -> restockService.restockCsv(stream("sku,quantity\n" + sku(variantId) + ",abc\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("dòng 2");
+        assertThatThrownBy(() -> restockService.restockCsv(stream("sku,quantity\n" + sku(variantId) + ",1,2\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> restockService.restockCsv(stream(
+                "sku,quantity\n" + sku(variantId) + ",5\n" + sku(variantId) + ",-10\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Từng dòng vừa INTEGER nhưng tổng theo variant thì không
+        assertThatThrownBy(() -> restockService.restockCsv(stream(
+                "sku,quantity\n" + sku(variantId) + ",2000000000\n" + sku(variantId) + ",2000000000\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("vượt quá giới hạn");
+        // SKU dài hơn cột staging: database báo lỗi dữ liệu (SQLState 22001)
+        assertThatThrownBy(() -> restockService.restockCsv(stream("sku,quantity\n" + "x".repeat(300) + ",1\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(inventory(variantId).get("QUANTITY")).isEqualTo(10);
+        assertThat(inventory(variantId).get("LAST_RESTOCK_DATE")).isNull();
+    }
+
+    private UUID createVariant(int quantity) {
+        return InventoryFixtures.createVariantWithStock(catalogImportService, productVariantRepository,
+                inventoryRepository, quantity);
+    }
+
+    private String sku(UUID variantId) {
+        return productVariantRepository.findById(variantId).orElseThrow().getSku();
+    }
+
+    private Map<String, Object> inventory(UUID variantId) {
+        return jdbcTemplate.queryForMap("SELECT * FROM inventory WHERE product_variant_id = ?", variantId);
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,31 @@
+package com.vinhnh.grocery.product.sku;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bloom filter không có âm tính giả và giữ tỉ lệ dương tính giả gần mục tiêu khi chưa vượt số phần tử dự kiến
+ */
+class BloomFilterTest {
+
+    @Test
+    void hasNoFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("SKU-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("SKU-" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("MISSING-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+        assertThat(filter.insertions()).isEqualTo(100_000);
+    }
+}
@@ -0,0 +1,59 @@
+package com.vinhnh.grocery.product.sku;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CLOCK giữ lại entry vừa được đọc khi phải thay entry, invalidate xóa đúng product và chặn kết quả đọc trước đó
+ */
+class SkuCacheTest {
+
+    @Test
+    void evictsUnreferencedEntriesFirst() {
+        SkuCache cache = new SkuCache(3);
+        UUID productId = UUID.randomUUID();
+        cache.put(summary("A", productId), cache.generation());
+        cache.put(summary("B", UUID.randomUUID()), cache.generation());
+        cache.put(summary("C", UUID.randomUUID()), cache.generation());
+
+        // A được đọc nên có cơ hội thứ hai: D thay B
+        assertThat(cache.get("A")).isNotNull();
+        cache.put(summary("D", UUID.randomUUID()), cache.generation());
+        assertThat(cache.get("B")).isNull();
+        assertThat(cache.get("A")).isNotNull();
+        assertThat(cache.get("C")).isNotNull();
+        assertThat(cache.get("D")).isNotNull();
+        assertThat(cache.size()).isEqualTo(3);
+
+        // Ghi đè SKU đã có không thay entry khác
+        cache.put(summary("C", UUID.randomUUID()), cache.generation());
+        assertThat(cache.size()).isEqualTo(3);
+
+        assertThat(cache.invalidateIf(summary -> summary.getProductId().equals(productId))).isEqualTo(1);
+        assertThat(cache.get("A")).isNull();
+        cache.put(summary("E", UUID.randomUUID()), cache.generation());
+        assertThat(cache.get("C")).isNotNull();
+        assertThat(cache.get("D")).isNotNull();
+        assertThat(cache.get("E")).isNotNull();
+    }
+
+    @Test
+    void readStartedBeforeInvalidateIsNotCached() {
+        SkuCache cache = new SkuCache(3);
+        long generation = cache.generation();
+        cache.invalidateIf(summary -> true);
+
+        cache.put(summary("A", UUID.randomUUID()), generation);
+        assertThat(cache.get("A")).isNull();
+        cache.put(summary("A", UUID.randomUUID()), cache.generation());
+        assertThat(cache.get("A")).isNotNull();
+    }
+
+    private static SkuSummary summary(String sku, UUID productId) {
+        return new SkuSummary(UUID.randomUUID(), productId, sku, BigDecimal.TEN, true);
+    }
+}
@@ -0,0 +1,110 @@
+package com.vinhnh.grocery.product.sku;
+
+import com.vinhnh.grocery.product.dto.SkuLookupStats;
+import com.vinhnh.grocery.product.dto.VariantSkuResponse;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+import com.vinhnh.grocery.product.service.SkuLookupService;
+import com.vinhnh.grocery.product.support.CatalogFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tra cứu SKU qua Bloom filter và cache: SKU lạ không truy vấn database, SKU vừa import tra được ngay,
+ * filter được dựng lại khi vượt số SKU dự kiến (grocery.sku.expected-skus = 2000 trong profile test)
+ * và theo chu kỳ (grocery.sku.rebuild-interval = 1s trong profile test)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SkuResolverTest {
+
+    @Autowired
+    private SkuLookupService skuLookupService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resolvesImportedSkusAndRejectsUnknownOnes() {
+        String tag = CatalogFixtures.tag("S").toUpperCase();
+        importVariants(tag, 2);
+
+        SkuLookupStats before = skuLookupService.getStats();
+        VariantSkuResponse first = skuLookupService.resolve(" " + tag + "-0 ");
+        assertThat(first.isFound()).isTrue();
+        assertThat(first.getPrice()).isEqualByComparingTo(new BigDecimal("10000"));
+        assertThat(skuLookupService.resolve(tag + "-0").getProductVariantId()).isEqualTo(first.getProductVariantId());
+
+        List<VariantSkuResponse> batch = skuLookupService.resolveAll(
+                List.of(tag + "-1", "UNKNOWN-" + tag, tag + "-0"));
+        assertThat(batch).extracting(VariantSkuResponse::getSku)
+                .containsExactly(tag + "-1", "UNKNOWN-" + tag, tag + "-0");
+        assertThat(batch).extracting(VariantSkuResponse::isFound).containsExactly(true, false, true);
+        assertThatThrownBy(() -> skuLookupService.resolve("UNKNOWN-" + tag))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        SkuLookupStats after = skuLookupService.getStats();
+        // -0 trượt cache lần đầu rồi trúng hai lần, -1 trượt một lần
+        assertThat(after.getCacheHits() - before.getCacheHits()).isEqualTo(2);
+        assertThat(after.getCacheMisses() - before.getCacheMisses()).isEqualTo(2);
+        // SKU lạ bị filter từ chối, hoặc (hiếm) là dương tính giả đã được đếm
+        assertThat(after.getBloomRejections() + after.getBloomFalsePositives()
+                - before.getBloomRejections() - before.getBloomFalsePositives()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildsFilterWhenCapacityIsExceeded() {
+        String tag = CatalogFixtures.tag("S").toUpperCase();
+        importVariants(tag, 2_500);
+
+        await().atMost(Duration.ofSeconds(30))
+                .until(() -> skuLookupService.getStats().getBloomCapacity() > 2_000);
+        SkuLookupStats stats = skuLookupService.getStats();
+        assertThat(stats.getBloomSkus()).isGreaterThanOrEqualTo(2_500);
+        assertThat(stats.getBloomSkus()).isLessThanOrEqualTo(stats.getBloomCapacity());
+
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            skus.add(tag + "-" + (i * 5));
+        }
+        assertThat(skuLookupService.resolveAll(skus)).allMatch(VariantSkuResponse::isFound);
+    }
+
+    @Test
+    void skuWrittenOutsideThisInstanceIsFoundAfterPeriodicRebuild() {
+        String tag = CatalogFixtures.tag("S").toUpperCase();
+        importVariants(tag, 1);
+        // Ghi thẳng vào database, không có SkuCreatedEvent: giống SKU tạo ở instance khác
+        jdbcTemplate.update("UPDATE product_variant SET sku = ? WHERE sku = ?", tag + "-OUTSIDE", tag + "-0");
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> skuLookupService.resolveAll(List.of(tag + "-OUTSIDE")).get(0).isFound());
+    }
+
+    private void importVariants(String tag, int count) {
+        StringBuilder ndjson = new StringBuilder("""
+                {"type":"brand","name":"Brand %1$s"}
+                {"type":"category","name":"Category %1$s"}
+                {"type":"product","name":"Product %1$s","category":"Category %1$s","brand":"Brand %1$s"}
+                """.formatted(tag));
+        for (int i = 0; i < count; i++) {
+            ndjson.append("{\"type\":\"variant\",\"product\":\"Product %1$s\",\"sku\":\"%1$s-%2$d\",\"price\":10000}\n"
+                    .formatted(tag, i));
+        }
+        CatalogFixtures.importNdjson(catalogImportService, ndjson.toString());
+    }
+}
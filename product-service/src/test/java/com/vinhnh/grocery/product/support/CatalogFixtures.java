@@ -0,0 +1,50 @@
+package com.vinhnh.grocery.product.support;
+
+import com.vinhnh.grocery.product.dto.CatalogImportResponse;
+import com.vinhnh.grocery.product.dto.CatalogImportRowResult;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Import catalog NDJSON cho các test, tên / SKU được gắn tag riêng để các test không đụng dữ liệu của nhau
+ */
+public final class CatalogFixtures {
+
+    private CatalogFixtures() {
+    }
+
+    /**
+     * Tag ngẫu nhiên: prefix + 10 ký tự hex
+     */
+    public static String tag(String prefix) {
+        return prefix + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+    }
+
+    /**
+     * @return key của dòng import (tên / SKU) -> id
+     */
+    public static Map<String, UUID> importNdjson(CatalogImportService catalogImportService, String ndjson) {
+        CatalogImportResponse response = catalogImportService.importNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        return response.getRows().stream()
+                .collect(Collectors.toMap(CatalogImportRowResult::getKey, CatalogImportRowResult::getId));
+    }
+
+    /**
+     * Tạo product "Bánh {tag}" với một variant có SKU {tag}
+     * @return key của dòng import (tên / SKU) -> id
+     */
+    public static Map<String, UUID> importVariant(CatalogImportService catalogImportService, String tag) {
+        return importNdjson(catalogImportService, """
+                {"type":"brand","name":"Brand %1$s"}
+                {"type":"category","name":"Category %1$s"}
+                {"type":"product","name":"Bánh %1$s","category":"Category %1$s","brand":"Brand %1$s"}
+                {"type":"variant","product":"Bánh %1$s","sku":"%1$s","price":25000}
+                """.formatted(tag));
+    }
+}
@@ -0,0 +1,68 @@
+package com.vinhnh.grocery.product.support;
+
+import com.vinhnh.grocery.product.entity.Inventory;
+import com.vinhnh.grocery.product.repository.InventoryRepository;
+import com.vinhnh.grocery.product.repository.ProductVariantRepository;
+import com.vinhnh.grocery.product.repository.projection.NameIdRow;
+import com.vinhnh.grocery.product.service.CatalogImportService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tạo variant kèm dòng inventory cho các test tồn kho
+ */
+public final class InventoryFixtures {
+
+    private InventoryFixtures() {
+    }
+
+    public static UUID createVariantWithStock(CatalogImportService catalogImportService,
+                                              ProductVariantRepository productVariantRepository,
+                                              InventoryRepository inventoryRepository,
+                                              int quantity) {
+        return createVariantWithStock(catalogImportService, productVariantRepository, inventoryRepository,
+                quantity, 0, null);
+    }
+
+    public static UUID createVariantWithStock(CatalogImportService catalogImportService,
+                                              ProductVariantRepository productVariantRepository,
+                                              InventoryRepository inventoryRepository,
+                                              int quantity, Integer minStockLevel, Integer maxStockLevel) {
+        String suffix = UUID.randomUUID().toString();
+        String ndjson = """
+                {"type":"brand","name":"Kho %1$s"}
+                {"type":"category","name":"Kho %1$s"}
+                {"type":"product","name":"Sản phẩm %1$s","category":"Kho %1$s","brand":"Kho %1$s"}
+                {"type":"variant","product":"Sản phẩm %1$s","sku":"SKU-%1$s","price":10000}
+                """.formatted(suffix);
+        catalogImportService.importNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        List<NameIdRow> rows = productVariantRepository.findIdsBySkuIn(List.of("SKU-" + suffix));
+        UUID variantId = rows.get(0).getId();
+        addInventory(productVariantRepository, inventoryRepository, variantId, quantity, minStockLevel, maxStockLevel);
+        return variantId;
+    }
+
+    /**
+     * Thêm dòng inventory cho một variant đã có
+     */
+    public static void addInventory(ProductVariantRepository productVariantRepository,
+                                    InventoryRepository inventoryRepository,
+                                    UUID variantId, int quantity) {
+        addInventory(productVariantRepository, inventoryRepository, variantId, quantity, null, null);
+    }
+
+    private static void addInventory(ProductVariantRepository productVariantRepository,
+                                     InventoryRepository inventoryRepository,
+                                     UUID variantId, int quantity, Integer minStockLevel, Integer maxStockLevel) {
+        Inventory inventory = new Inventory();
+        inventory.setProductVariant(productVariantRepository.getReferenceById(variantId));
+        inventory.setQuantity(quantity);
+        inventory.setReservedQuantity(0);
+        inventory.setMinStockLevel(minStockLevel);
+        inventory.setMaxStockLevel(maxStockLevel);
+        inventoryRepository.save(inventory);
+    }
+}